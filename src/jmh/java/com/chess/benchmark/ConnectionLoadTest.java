@@ -0,0 +1,155 @@
+package com.chess.benchmark;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.chess.control.messages.ChangeNameMessage;
+import com.chess.control.messages.ChessProtocol;
+import com.chess.network.MessageProtocol;
+import com.chess.network.NetworkServer;
+import com.chess.network.NetworkThreads;
+import com.chess.network.NioNetworkServer;
+
+/**
+ * Load test of how many connections one host serves.
+ *
+ * Opens connections to a server in this process until the target is reached or a connection
+ * fails, sends a message through every connection and waits for its echo, and prints the number
+ * of connections reached, the time of one echo round and the resident memory of the process.
+ *
+ * Run with {@code java -cp target/benchmarks.jar com.chess.benchmark.ConnectionLoadTest <platform|virtual|nio> <connections> [port]},
+ * on Java 21 for virtual threads. The number of open files must be raised above the number of
+ * connections, twice over as both ends are in this process.
+ * @author agent
+ * @version 2026-10-17
+ */
+public final class ConnectionLoadTest {
+    private ConnectionLoadTest() {
+    }
+
+    /**
+     * Run the load test.
+     *
+     * @param args the mode, the number of connections and optionally the port
+     * @throws IOException if the server can not be started
+     * @throws InterruptedException if interrupted while waiting for connections
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.err.println("Usage: ConnectionLoadTest <platform|virtual|nio> <connections> [port]");
+            return;
+        }
+
+        final String mode = args[0];
+        final int target = Integer.parseInt(args[1]);
+        final int port = args.length > 2 ? Integer.parseInt(args[2]) : 47400;
+        final MessageProtocol protocol = ChessProtocol.create();
+        final AtomicInteger connected = new AtomicInteger();
+
+        final Runnable stop;
+
+        if (mode.equals("nio")) {
+            final NioNetworkServer server = new NioNetworkServer("127.0.0.1", port, protocol, Runtime.getRuntime().availableProcessors());
+
+            server.setMessageDelegate(ChangeNameMessage.class, (client, message) -> client.sendMessage(message));
+            server.setOnClientConnectedDelegate((client) -> connected.incrementAndGet());
+            server.start();
+            stop = server::stop;
+        } else {
+            if (mode.equals("virtual") && !NetworkThreads.isVirtualSupported()) {
+                System.err.println("Virtual threads need Java 21, running " + System.getProperty("java.version"));
+                return;
+            }
+
+            final NetworkServer server = new NetworkServer("127.0.0.1", port, protocol);
+
+            server.setVirtualThreads(mode.equals("virtual"));
+            server.setMessageDelegate(ChangeNameMessage.class, (client, message) -> client.sendMessage(message));
+            server.setOnClientConnectedDelegate((client) -> connected.incrementAndGet());
+            server.start();
+            stop = server::stop;
+        }
+
+        final List<SocketChannel> channels = new ArrayList<>(target);
+        final long memoryBefore = getResidentMemory();
+        String failure = null;
+
+        try {
+            while (channels.size() < target) {
+                channels.add(SocketChannel.open(new InetSocketAddress("127.0.0.1", port)));
+            }
+
+            // Wait for the server to have set up every connection
+            for (int i = 0; connected.get() < channels.size() && i < 3000; i++) {
+                Thread.sleep(10);
+            }
+
+            if (connected.get() < channels.size()) {
+                failure = "server set up " + connected.get() + " connections";
+            }
+        } catch (IOException | Error e) {
+            failure = e.toString();
+        }
+
+        final long memoryAfter = getResidentMemory();
+        final byte[] frame = protocol.encode(new ChangeNameMessage("Load", true));
+        final ByteBuffer echo = ByteBuffer.allocate(frame.length);
+        final long start = System.nanoTime();
+        int echoes = 0;
+
+        if (failure == null) {
+            for (SocketChannel channel : channels) {
+                channel.write(ByteBuffer.wrap(frame));
+            }
+
+            for (SocketChannel channel : channels) {
+                echo.clear();
+
+                while (echo.hasRemaining() && channel.read(echo) >= 0) {
+                    // Read the whole echo
+                }
+
+                echoes += echo.hasRemaining() ? 0 : 1;
+            }
+        }
+
+        System.out.printf("%s: %d of %d connections%s%n", mode, channels.size(), target, failure == null ? "" : ", failed: " + failure);
+        System.out.printf("  echo round: %d echoes in %d ms%n", echoes, (System.nanoTime() - start) / 1_000_000);
+        System.out.printf("  resident memory: %d MB, %d KB per connection%n", memoryAfter >> 20,
+                channels.isEmpty() ? 0 : (memoryAfter - memoryBefore) / channels.size() >> 10);
+
+        for (SocketChannel channel : channels) {
+            channel.close();
+        }
+
+        stop.run();
+    }
+
+    /**
+     * Get the resident memory of the process.
+     *
+     * @return the memory in bytes, or the used heap where the system does not tell
+     */
+    private static long getResidentMemory() {
+        try {
+            for (String line : Files.readAllLines(Paths.get("/proc/self/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", "")) << 10;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Not Linux
+        }
+
+        final Runtime runtime = Runtime.getRuntime();
+
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,114 @@
+package com.chess.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.chess.model.Position;
+import com.chess.model.chess.ChessModel;
+import com.chess.model.chess.ChessPerft;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks for loading, saving and playing positions on the model.
+ * @author agent
+ * @version 2026-10-17
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelBenchmark {
+    /**
+     * The position to benchmark.
+     */
+    @Param({ ChessPerft.START_POSITION, ChessPerft.KIWIPETE })
+    public String fen;
+
+    /**
+     * The model holding the position.
+     */
+    private ChessModel model;
+
+    /**
+     * True if the other position was loaded last by the loadChangedFEN benchmark.
+     */
+    private boolean loadOther;
+
+    /**
+     * State for the takeTurn benchmark, which has to start from the same position every invocation.
+     */
+    @State(Scope.Thread)
+    public static class TurnState {
+        /**
+         * The model holding the start position.
+         */
+        private final ChessModel model = new ChessModel();
+
+        /**
+         * The position the piece moves from.
+         */
+        private final Position from = Position.of("e2");
+
+        /**
+         * The position the piece moves to.
+         */
+        private final Position to = Position.of("e4");
+
+        /**
+         * Load the start position, since takeTurn changes it.
+         */
+        @Setup(Level.Invocation)
+        public void loadPosition() {
+            model.loadFEN(ChessPerft.START_POSITION);
+        }
+    }
+
+    /**
+     * Create the model and load the position.
+     */
+    @Setup
+    public void setUp() {
+        model = new ChessModel();
+        model.loadFEN(fen);
+    }
+
+    /**
+     * Load the position from Forsyth-Edwards Notation.
+     */
+    @Benchmark
+    public void loadFEN() {
+        model.loadFEN(fen);
+    }
+
+    /**
+     * Load the position and another position in turn, so every load changes the board.
+     */
+    @Benchmark
+    public void loadChangedFEN() {
+        loadOther = !loadOther;
+
+        model.loadFEN(loadOther ? ChessPerft.POSITION_4 : fen);
+    }
+
+    /**
+     * Save the position to Forsyth-Edwards Notation.
+     * 
+     * @return the Forsyth-Edwards Notation
+     */
+    @Benchmark
+    public String toFEN() {
+        return model.toFEN();
+    }
+
+    /**
+     * Validate and play a pawn move from the start position.
+     * 
+     * @param state the state holding the start position
+     */
+    @Benchmark
+    public void takeTurn(TurnState state) {
+        state.model.takeTurn(state.from, state.to);
+    }
+}
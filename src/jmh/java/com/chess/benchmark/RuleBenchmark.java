@@ -0,0 +1,116 @@
+package com.chess.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.chess.model.Move;
+import com.chess.model.chess.ChessModel;
+import com.chess.model.chess.ChessMoveGenerator;
+import com.chess.model.chess.ChessPerft;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks for the move generator and the rules of the game.
+ * @author agent
+ * @version 2026-10-17
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RuleBenchmark {
+    /**
+     * The position to benchmark.
+     */
+    @Param({ ChessPerft.START_POSITION, ChessPerft.KIWIPETE })
+    public String fen;
+
+    /**
+     * The model holding the position.
+     */
+    private ChessModel model;
+
+    /**
+     * The buffer for packed moves.
+     */
+    private final int[] buffer = new int[ChessMoveGenerator.MAX_MOVES];
+
+    /**
+     * Load the position.
+     */
+    @Setup
+    public void setUp() {
+        model = new ChessModel();
+        model.loadFEN(fen);
+    }
+
+    /**
+     * Generate every legal move of the team in turn, through ChessRule.calculateMoves.
+     * 
+     * @return the moves
+     */
+    @Benchmark
+    public List<Move> calculateMoves() {
+        final List<Move> moves = new ArrayList<>();
+
+        model.getRule().calculateLegalMoves(model.getCurrentTeam().getTeamIdentifier(), moves);
+
+        return moves;
+    }
+
+    /**
+     * Generate every legal move of the team in turn as packed ints.
+     * 
+     * @return the number of moves
+     */
+    @Benchmark
+    public int generateMoves() {
+        return model.getMoveGenerator().generateLegalMoves(model.getCurrentTeam().getTeamIdentifier(), buffer);
+    }
+
+    /**
+     * Check if the team in turn is checkmated or stalemated.
+     * 
+     * @return the game over state
+     */
+    @Benchmark
+    public int isGameOver() {
+        return model.getRule().isGameOver(model.getCurrentTeam().getTeamIdentifier());
+    }
+
+    /**
+     * Check if the team in turn is checkmated or stalemated, through the model and the packed move generator.
+     * 
+     * @return the game over state
+     */
+    @Benchmark
+    public int isGameOverPacked() {
+        return model.isGameOver(model.getCurrentTeam().getTeamIdentifier());
+    }
+
+    /**
+     * Count the leaf nodes three half moves deep.
+     * 
+     * @return the number of leaf nodes
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long perft() {
+        return ChessPerft.perft(model, 3);
+    }
+
+    /**
+     * Count the leaf nodes three half moves deep with packed moves.
+     * 
+     * @return the number of leaf nodes
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long perftPacked() {
+        return ChessPerft.perftPacked(model, 3);
+    }
+}
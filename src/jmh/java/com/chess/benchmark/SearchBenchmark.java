@@ -0,0 +1,123 @@
+package com.chess.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.chess.engine.ParallelSearch;
+import com.chess.engine.SearchEngine;
+import com.chess.engine.SearchResult;
+import com.chess.model.chess.ChessPerft;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks for how the parallel search scales with the number of threads.
+ *
+ * Run with -p threads=1,2,4,8,16,32 to match the cores of the machine.
+ * @author agent
+ * @version 2026-10-17
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchBenchmark {
+    /**
+     * The depth searched to measure the time to depth.
+     */
+    private static final int DEPTH = 6;
+
+    /**
+     * The time of a search measuring the nodes per second, in milliseconds.
+     */
+    private static final long MOVE_TIME = 200;
+
+    /**
+     * The number of search threads.
+     */
+    @Param({ "1", "2", "4", "8" })
+    public int threads;
+
+    /**
+     * The position to search.
+     */
+    @Param({ ChessPerft.KIWIPETE })
+    public String fen;
+
+    /**
+     * The search.
+     */
+    private ParallelSearch search;
+
+    /**
+     * The number of positions visited, reported by JMH per second.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Nodes {
+        /**
+         * The positions visited by every search of the iteration.
+         */
+        public long nodes;
+
+        /**
+         * Start counting from zero in every iteration.
+         */
+        @Setup(Level.Iteration)
+        public void setUp() {
+            nodes = 0;
+        }
+    }
+
+    /**
+     * Create the search threads.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        search = new ParallelSearch(threads);
+    }
+
+    /**
+     * Start every search from an empty transposition table, so earlier searches do not help.
+     */
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        search.getTable().clear();
+    }
+
+    /**
+     * Stop the search threads.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        search.shutdown();
+    }
+
+    /**
+     * Search the position to a fixed depth.
+     *
+     * @return the result
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public SearchResult timeToDepth() {
+        return search.search(fen, DEPTH, 0);
+    }
+
+    /**
+     * Search the position for a fixed time and count the positions visited by all threads.
+     *
+     * @param counter the node counter
+     * @return the result
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public SearchResult nodesPerSecond(Nodes counter) {
+        final SearchResult result = search.search(fen, SearchEngine.MAX_PLY, MOVE_TIME);
+
+        counter.nodes += result.getNodes();
+
+        return result;
+    }
+}
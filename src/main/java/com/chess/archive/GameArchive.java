@@ -0,0 +1,416 @@
+package com.chess.archive;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.chess.model.chess.ChessModel;
+import com.chess.model.chess.ChessSaveFormat;
+import com.chess.model.chess.SerialModel;
+
+/**
+ * An append-only archive of finished games, stored in memory-mapped files.
+ *
+ * Games are appended to segment files of a fixed size, each as its length followed by the game in
+ * {@link ChessSaveFormat}: the start position and 16 bits per move, without skins. An index file
+ * maps the id of every game to its segment and offset, so any game is read by id touching only
+ * the pages which hold its index entry and its bytes. Files are laid out in the directory as:
+ *
+ * <pre>
+ * index.dat          magic "C2GA", version, segment size, game count, then one entry per game:
+ *                    the segment number in the high 32 bits and the offset in the low 32 bits
+ * segment-00000.dat  length and bytes of every game, until the next game does not fit
+ * segment-00001.dat  ...
+ * </pre>
+ *
+ * The game count in the index is written last, so a game which was not completely appended when
+ * the process stopped is not part of the archive when it is opened again. Appending is
+ * synchronized; games may be read from any number of threads.
+ * @author agent
+ * @version 2026-10-17
+ */
+public class GameArchive implements Closeable {
+    /**
+     * The default size of a segment file.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 << 20;
+
+    /**
+     * The bytes the index starts with.
+     */
+    private static final int MAGIC = 'C' << 24 | '2' << 16 | 'G' << 8 | 'A';
+
+    /**
+     * The version of the files written.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The size of the header of the index: magic, version, segment size, reserved and game count.
+     */
+    private static final int HEADER_SIZE = 24;
+
+    /**
+     * The position of the game count in the header of the index.
+     */
+    private static final int COUNT_POSITION = 16;
+
+    /**
+     * The number of index entries the index is first mapped with.
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * The most games an archive holds, as the index is mapped in one buffer.
+     */
+    private static final long MAX_GAMES = (Integer.MAX_VALUE - HEADER_SIZE) / Long.BYTES;
+
+    /**
+     * The size of the length written before every game.
+     */
+    private static final int LENGTH_SIZE = Integer.BYTES;
+
+    /**
+     * The directory of the files.
+     */
+    private final Path directory;
+
+    /**
+     * The index file.
+     */
+    private final FileChannel indexChannel;
+
+    /**
+     * The mapped index, remapped larger as it fills up.
+     */
+    private MappedByteBuffer index;
+
+    /**
+     * The size of every segment file.
+     */
+    private final int segmentSize;
+
+    /**
+     * The mapped segments, indexed by segment number. Segments are mapped when first used.
+     */
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+
+    /**
+     * The number of games in the archive.
+     */
+    private volatile long gameCount;
+
+    /**
+     * The segment the next game is appended to.
+     */
+    private int writeSegment;
+
+    /**
+     * The offset in its segment the next game is appended at.
+     */
+    private int writeOffset;
+
+    /**
+     * Opens the archive in a directory with the default segment size, creating it if needed.
+     *
+     * @param directory the directory
+     * @throws IOException if the archive can not be opened
+     */
+    public GameArchive(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Opens the archive in a directory, creating it if needed.
+     *
+     * @param directory the directory
+     * @param segmentSize the size of the segment files of a new archive, an existing archive
+     *                    keeps the size it was created with
+     * @throws IOException if the archive can not be opened
+     * @throws IllegalArgumentException if the segment size is too small to hold a game
+     */
+    public GameArchive(Path directory, int segmentSize) throws IOException, IllegalArgumentException {
+        if (segmentSize <= LENGTH_SIZE) {
+            throw new IllegalArgumentException("Segment size is too small: " + segmentSize);
+        }
+
+        Files.createDirectories(directory);
+
+        this.directory = directory;
+        this.indexChannel = FileChannel.open(directory.resolve("index.dat"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        try {
+            final boolean created = indexChannel.size() == 0;
+
+            if (!created && indexChannel.size() < HEADER_SIZE) {
+                throw new IOException("Not a game archive: " + directory);
+            }
+
+            final long capacity = created ? INITIAL_CAPACITY : (indexChannel.size() - HEADER_SIZE) / Long.BYTES;
+
+            mapIndex(Math.max(capacity, INITIAL_CAPACITY));
+
+            if (created) {
+                index.putInt(0, MAGIC);
+                index.putInt(4, VERSION);
+                index.putInt(8, segmentSize);
+                index.putLong(COUNT_POSITION, 0);
+            } else if (index.getInt(0) != MAGIC) {
+                throw new IOException("Not a game archive: " + directory);
+            } else if (index.getInt(4) > VERSION) {
+                throw new IOException("Unsupported archive version " + index.getInt(4));
+            }
+
+            this.segmentSize = index.getInt(8);
+            this.gameCount = index.getLong(COUNT_POSITION);
+
+            // The next game goes after the last one
+            if (gameCount > 0) {
+                final long entry = getEntry(gameCount - 1);
+
+                writeSegment = (int) (entry >>> 32);
+                writeOffset = (int) entry + LENGTH_SIZE + getSegment(writeSegment).getInt((int) entry);
+            }
+        } catch (IOException | RuntimeException e) {
+            indexChannel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Get the number of games in the archive.
+     *
+     * @return the number of games, which is also the id the next game gets
+     */
+    public long getGameCount() {
+        return gameCount;
+    }
+
+    //
+    // Appending
+    //
+
+    /**
+     * Append the game played in a model. Skins are not archived.
+     *
+     * @param model the model
+     * @return the id of the game
+     * @throws IOException if the game can not be written
+     */
+    public long append(ChessModel model) throws IOException {
+        final SerialModel game = model.getSerialModel();
+
+        game.setSkinMapWhite(null);
+        game.setSkinMapBlack(null);
+
+        return append(game);
+    }
+
+    /**
+     * Append a game.
+     *
+     * @param game the game
+     * @return the id of the game
+     * @throws IOException if the game can not be written
+     * @throws IllegalArgumentException if the game is larger than a segment
+     * @throws IllegalStateException if the archive is full
+     */
+    public long append(SerialModel game) throws IOException, IllegalArgumentException, IllegalStateException {
+        return append(ChessSaveFormat.encode(game));
+    }
+
+    /**
+     * Append an encoded game.
+     *
+     * @param bytes the game in {@link ChessSaveFormat}, from its position to its limit
+     * @return the id of the game
+     * @throws IOException if the game can not be written
+     * @throws IllegalArgumentException if the game is larger than a segment
+     * @throws IllegalStateException if the archive is full
+     */
+    private synchronized long append(ByteBuffer bytes) throws IOException, IllegalArgumentException, IllegalStateException {
+        final int length = bytes.remaining();
+
+        if (length > segmentSize - LENGTH_SIZE) {
+            throw new IllegalArgumentException("Game of " + length + " bytes does not fit in a segment");
+        }
+
+        if (gameCount == MAX_GAMES) {
+            throw new IllegalStateException("Archive is full");
+        }
+
+        if (writeOffset + LENGTH_SIZE + length > segmentSize) {
+            writeSegment++;
+            writeOffset = 0;
+        }
+
+        // The game and its entry are written before the count which makes them part of the archive
+        final ByteBuffer segment = getSegment(writeSegment).duplicate();
+
+        segment.position(writeOffset);
+        segment.putInt(length);
+        segment.put(bytes);
+
+        final long id = gameCount;
+
+        if (HEADER_SIZE + (id + 1) * Long.BYTES > index.capacity()) {
+            mapIndex(Math.min((index.capacity() - HEADER_SIZE) / Long.BYTES * 2L, MAX_GAMES));
+        }
+
+        index.putLong((int) (HEADER_SIZE + id * Long.BYTES), (long) writeSegment << 32 | writeOffset);
+        index.putLong(COUNT_POSITION, id + 1);
+
+        writeOffset += LENGTH_SIZE + length;
+        gameCount = id + 1;
+
+        return id;
+    }
+
+    //
+    // Reading
+    //
+
+    /**
+     * Read a game.
+     *
+     * @param id the id of the game
+     * @return the game, without skins
+     * @throws IOException if the game can not be read
+     * @throws IllegalArgumentException if there is no game with the id
+     */
+    public SerialModel read(long id) throws IOException, IllegalArgumentException {
+        return ChessSaveFormat.decode(getBytes(id));
+    }
+
+    /**
+     * Load a game into a model. The model keeps its skins.
+     *
+     * @param id the id of the game
+     * @param model the model
+     * @throws IOException if the game can not be read
+     * @throws IllegalArgumentException if there is no game with the id
+     */
+    public void load(long id, ChessModel model) throws IOException, IllegalArgumentException {
+        final SerialModel game = read(id);
+
+        if (game.getWhiteSkinMap() == null) {
+            game.setSkinMapWhite(model.getTeamWhite().getSkinMap());
+        }
+
+        if (game.getBlackSkinMap() == null) {
+            game.setSkinMapBlack(model.getTeamBlack().getSkinMap());
+        }
+
+        model.loadModel(game);
+    }
+
+    /**
+     * Get the bytes of a game.
+     *
+     * @param id the id of the game
+     * @return a view of the game in {@link ChessSaveFormat}, from its position to its limit
+     * @throws IOException if the segment of the game can not be mapped
+     * @throws IllegalArgumentException if there is no game with the id
+     */
+    public synchronized ByteBuffer getBytes(long id) throws IOException, IllegalArgumentException {
+        if (id < 0 || id >= gameCount) {
+            throw new IllegalArgumentException("No game with id " + id + " in an archive of " + gameCount);
+        }
+
+        final long entry = getEntry(id);
+        final ByteBuffer bytes = getSegment((int) (entry >>> 32)).duplicate();
+        final int offset = (int) entry;
+
+        bytes.position(offset + LENGTH_SIZE);
+        bytes.limit(offset + LENGTH_SIZE + bytes.getInt(offset));
+
+        return bytes.slice().asReadOnlyBuffer();
+    }
+
+    //
+    // Files
+    //
+
+    /**
+     * Write the games appended so far to the disk.
+     *
+     * Games are kept when the process stops without this, but not if the system does.
+     */
+    public synchronized void force() {
+        for (MappedByteBuffer segment : segments) {
+            if (segment != null) {
+                segment.force();
+            }
+        }
+
+        index.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        force();
+        indexChannel.close();
+        segments.clear();
+    }
+
+    //
+    // Helpers
+    //
+
+    /**
+     * Map the index with room for a number of entries, growing the file if needed.
+     *
+     * @param capacity the number of entries
+     * @throws IOException if the index can not be mapped
+     */
+    private void mapIndex(long capacity) throws IOException {
+        index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + capacity * Long.BYTES);
+    }
+
+    /**
+     * Get the index entry of a game.
+     *
+     * @param id the id of the game
+     * @return the segment number in the high 32 bits and the offset in the low 32 bits
+     */
+    private long getEntry(long id) {
+        return index.getLong((int) (HEADER_SIZE + id * Long.BYTES));
+    }
+
+    /**
+     * Get a segment, mapping it the first time it is used.
+     *
+     * @param number the segment number
+     * @return the mapped segment
+     * @throws IOException if the segment can not be mapped
+     */
+    private MappedByteBuffer getSegment(int number) throws IOException {
+        while (segments.size() <= number) {
+            segments.add(null);
+        }
+
+        MappedByteBuffer segment = segments.get(number);
+
+        if (segment == null) {
+            final Path path = directory.resolve(String.format("segment-%05d.dat", number));
+
+            // The mapping stays valid after the channel is closed
+            try (FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            }
+
+            segments.set(number, segment);
+        }
+
+        return segment;
+    }
+}
@@ -2,13 +2,13 @@ package com.chess.control;
 
 import com.chess.view.*;
 import com.chess.model.*;
-import com.chess.model.chess.ChessBoardInformation;
 import com.chess.model.chess.ChessModel;
 import com.chess.model.chess.ChessPieceFactory;
 import com.chess.model.chess.ChessTeam;
 import com.chess.model.chess.ChessTeamParameters;
 import com.chess.model.chess.ChessTypeIdentifier;
 import com.chess.control.messages.*;
+import com.chess.engine.EnginePlayer;
 
 import javax.swing.*;
 import javax.swing.Timer;
@@ -34,11 +34,6 @@ public class ChessControl implements ChessControlInterface {
      */
     private final ChessView view;
 
-    /**
-     * A direct reference to the instance of chess board information.
-     */
-    private final ChessBoardInformation boardInformation;
-
     /**
      * The network control.
      */
@@ -69,6 +64,16 @@ public class ChessControl implements ChessControlInterface {
      */
     private ChessTeam ourTeam;
 
+    /**
+     * The type our pawn moved last is promoted to when the move is made, or null to ask for it.
+     */
+    private volatile Identifier promotionType;
+
+    /**
+     * The computer player, or null if both teams are played by people.
+     */
+    private EnginePlayer enginePlayer;
+
     /**
      * Returns true if it is our turn. Always true if we are not playing online.
      * 
@@ -146,23 +151,6 @@ public class ChessControl implements ChessControlInterface {
 
         final ChessTeamParameters otherTeamParameters = otherTeam.getTeamParameters();
 
-        final Position to = move.getToCell();
-
-        if (isElimination && !boardInformation.isEmpty(to)) {
-            Identifier eliminatedTypeIdentifier = boardInformation.getTypeIdentifier(to);
-
-            // If we eliminated a rook, we need to update the castling flags.
-            if (eliminatedTypeIdentifier.equals(ChessTypeIdentifier.ROOK)) {
-                final Position kingSide = otherTeamParameters.getCastlingKingSidePosition().addCol(1);
-                final Position queenSide = otherTeamParameters.getCastlingQueenSidePosition().addCol(-2);
-                if (to.equals(kingSide)) {
-                    otherTeamParameters.setCanCastleKingside(false);
-                } else if (to.equals(queenSide)) {
-                    otherTeamParameters.setCanCastleQueenside(false);
-                }
-            }
-        }
-
         model.movePiece(move.getFromCell(), move.getToCell());
 
         // Halfmove clock: The number of halfmoves since the last capture or pawn
@@ -171,7 +159,9 @@ public class ChessControl implements ChessControlInterface {
 
         if (typeIdentifier.equals(ChessTypeIdentifier.PAWN) && move.getToCell().getRow() == otherTeamParameters.getKingRow()) {
             if (isMyTurn()) {
-                Identifier promotedTypeIdentifier = view.promotePawn();
+                Identifier promotedTypeIdentifier = promotionType != null ? promotionType : view.promotePawn();
+
+                promotionType = null;
 
                 if (!networkControl.isSinglePlayer()) {
                     networkControl.sendMessage(new PromotePawnMessage(move.getToCell().getRow(),
@@ -206,20 +196,44 @@ public class ChessControl implements ChessControlInterface {
         }
     }
 
+    @Override
+    public void replayMove(Move move, Identifier promotionType) {
+        if (promotionType == null) {
+            executeMove(move);
+            return;
+        }
+
+        if (!model.getStarted()) {
+            model.setStarted(true);
+            setPaused(false);
+        }
+
+        final Position to = move.getToCell();
+
+        model.movePiece(move.getFromCell(), to);
+
+        promotePawn(to.getRow(), to.getCol(), promotionType, move.isEliminatable());
+
+        checkHighlight();
+    }
+
     /**
      * The game over process that announces the winner or stalemate. Also handles if
      * the user wants to start a new game
      * or exit.
      * 
-     * @param endingState - contains the information if the game ends in with a win
-     *                    (= 1) or a stalemate (= 2).
+     * @param endingState - contains the information if the game ends in a stalemate
+     *                    (= 1), a win (= 2), a draw by repetition (= 3) or a draw by the
+     *                    fifty-move rule (= 4).
      */
     private void gameOver(int endingState) {
         if(networkControl.isHost()){
             Object[] options = { "New game.", "Exit" };
             switch (endingState) {
                 case 1:
-                    int n = JOptionPane.showOptionDialog(view.getOwner(), "Game over!\nThe game ended in a stalemate.",
+                case 3:
+                case 4:
+                    int n = JOptionPane.showOptionDialog(view.getOwner(), getGameOverMessage(endingState),
                             "Game over!", JOptionPane.YES_NO_CANCEL_OPTION, JOptionPane.QUESTION_MESSAGE, null, options,
                             options[0]);
                     if (n == JOptionPane.CLOSED_OPTION) {
@@ -240,7 +254,7 @@ public class ChessControl implements ChessControlInterface {
                     break;
                 case 2:
                     n = JOptionPane.showOptionDialog(view.getOwner(),
-                            "Game over!\n" + model.getOtherTeam(model.getCurrentTeam()) + " has won!", "Game over!",
+                            getGameOverMessage(endingState), "Game over!",
                             JOptionPane.YES_NO_CANCEL_OPTION, JOptionPane.QUESTION_MESSAGE, null, options, options[0]);
                     if (n == JOptionPane.CLOSED_OPTION) {
                         System.exit(0);
@@ -259,13 +273,14 @@ public class ChessControl implements ChessControlInterface {
                     }
                     break;
             }
-            networkControl.broadcastMessage(new LoadGameMessage(model.getSerialModel()));
         }
         else if(networkControl.isSinglePlayer()){
             Object[] options = { "New game.", "Exit" };
             switch (endingState) {
                 case 1:
-                    int n = JOptionPane.showOptionDialog(view.getOwner(), "Game over!\nThe game ended in a stalemate.",
+                case 3:
+                case 4:
+                    int n = JOptionPane.showOptionDialog(view.getOwner(), getGameOverMessage(endingState),
                             "Game over!", JOptionPane.YES_NO_CANCEL_OPTION, JOptionPane.QUESTION_MESSAGE, null, options,
                             options[0]);
                     if (n == JOptionPane.CLOSED_OPTION) {
@@ -286,7 +301,7 @@ public class ChessControl implements ChessControlInterface {
                     break;
                 case 2:
                     n = JOptionPane.showOptionDialog(view.getOwner(),
-                            "Game over!\n" + model.getOtherTeam(model.getCurrentTeam()) + " has won!", "Game over!",
+                            getGameOverMessage(endingState), "Game over!",
                             JOptionPane.YES_NO_CANCEL_OPTION, JOptionPane.QUESTION_MESSAGE, null, options, options[0]);
                     if (n == JOptionPane.CLOSED_OPTION) {
                         System.exit(0);
@@ -307,7 +322,26 @@ public class ChessControl implements ChessControlInterface {
             }
         }
         else{
-            JOptionPane.showMessageDialog(view.getOwner(), "Game over!\n" + model.getOtherTeam(model.getCurrentTeam()) + " has won!");
+            JOptionPane.showMessageDialog(view.getOwner(), getGameOverMessage(endingState));
+        }
+    }
+
+    /**
+     * Get the message announcing how the game ended.
+     * 
+     * @param endingState the ending state, as returned by {@link ChessModel#isGameOver(Identifier)}
+     * @return the message
+     */
+    private String getGameOverMessage(int endingState) {
+        switch (endingState) {
+            case 1:
+                return "Game over!\nThe game ended in a stalemate.";
+            case 3:
+                return "Game over!\nThe game ended in a draw by threefold repetition.";
+            case 4:
+                return "Game over!\nThe game ended in a draw by the fifty-move rule.";
+            default:
+                return "Game over!\n" + model.getOtherTeam(model.getCurrentTeam()) + " has won!";
         }
     }
 
@@ -351,10 +385,22 @@ public class ChessControl implements ChessControlInterface {
     /**
      * Request to move a piece.
      * 
-     * Forwards to the network client if the game is in network mode.
+     * Forwards to the network client if the game is in network mode, where a client makes the move before the host affirms it.
      */
     @Override
     public void movePiece(Move move) {
+        movePiece(move, null);
+    }
+
+    /**
+     * Request to move a piece, promoting a pawn to a type picked already.
+     * 
+     * The type is used when the move is made, which is after the host affirms it if we are the host.
+     */
+    @Override
+    public void movePiece(Move move, Identifier promotionType) {
+        this.promotionType = promotionType;
+
         int fromRow = move.getFromCell().getRow();
         int fromCol = move.getFromCell().getCol();
         int toRow = move.getToCell().getRow();
@@ -368,9 +414,10 @@ public class ChessControl implements ChessControlInterface {
             return;
         }
 
-        // If we are not the host, send a request to the host.
+        // If we are not the host, send a request to the host and make the move before it answers.
         if (!networkControl.isHost()) {
-            networkControl.sendMessage(new MovePieceMessage(fromRow, fromCol, toRow, toCol, isElimination, typeIdentifier));
+            networkControl.predictMove(move);
+            executeMove(move);
 
             return;
         }
@@ -455,37 +502,13 @@ public class ChessControl implements ChessControlInterface {
 
         selectedCell.highlight(ViewConstants.HIGHLIGHT_COLOR_PIECE);
 
-        Iterator<Move> moves = piece.getPossibleMoves(model.getRule(), new Position(selectedCell.getRow(), selectedCell.getCol()));
+        Iterator<Move> moves = piece.getPossibleMoves(model.getRule(), Position.of(selectedCell.getRow(), selectedCell.getCol()));
 
         while (moves.hasNext()) {
             Move move = moves.next();
 
             Position position = move.getToCell();
 
-            boolean isLegal = true;
-
-            // Edge case for castling, all moves inbetween the king and rook must be legal positions for the king
-            // and the king cannot be in check.
-            if (move.getIsCastleKingSide() || move.getIsCastleQueenSide()) {
-                if (model.isCheck(model.getCurrentTeam().getTeamIdentifier())) {
-                    isLegal = false;
-                } else {
-                    Position next = move.getFromCell();
-                    while (!next.equals(position)) {
-                        next = next.moveTowards(position, 1);
-                        
-                        if (!model.getRule().isLegalMove(move.getPieceType(), model.getCurrentTeam().getTeamIdentifier(), new Move(next, move.getFromCell(), move.getPieceType()))) {
-                            isLegal = false;
-                            break;
-                        }
-                    }
-                }
-            }
-
-            if (!isLegal) {
-                continue;
-            }
-
             BoardCell possibleMove = grid.getCell(position.getRow(), position.getCol());
 
             currentMoveMap.put(possibleMove, move);
@@ -527,8 +550,6 @@ public class ChessControl implements ChessControlInterface {
         view = new ChessView(model);
         highlightedCells = new ArrayList<>();
 
-        boardInformation = model.getBoardInformation();
-
         //
         // Create control subcomponents.
         //
@@ -540,13 +561,10 @@ public class ChessControl implements ChessControlInterface {
         view.getBoardGridPanel().setClickDelegate((BoardCell boardCell) -> handleClick(boardCell));
 
         view.getMenu().getOnLoadGameEvent().addDelegate((serialModel) -> {
+            // Loading the model also sends it to the clients when we are the host
             model.loadModel(serialModel);
             setPaused(true);
 
-            if (networkControl.isHost()) {
-                networkControl.broadcastMessage(new LoadGameMessage(serialModel));
-            }
-
             checkHighlight();
         });
 
@@ -566,6 +584,10 @@ public class ChessControl implements ChessControlInterface {
             handlePause();
         });
 
+        view.getMenu().getOnComputerTeamEvent().addDelegate(teamIdentifier -> {
+            setComputerTeam(teamIdentifier);
+        });
+
         Timer t = new Timer(100, (e) -> {
             handleTimeTick();
         });
@@ -592,6 +614,25 @@ public class ChessControl implements ChessControlInterface {
         model.loadFEN("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
     }
 
+    /**
+     * Let the computer play a team, or no team.
+     * 
+     * @param teamIdentifier the team, or null to let people play both teams
+     */
+    private void setComputerTeam(Identifier teamIdentifier) {
+        if (enginePlayer != null) {
+            enginePlayer.stop();
+            enginePlayer = null;
+        }
+
+        if (teamIdentifier == null) {
+            return;
+        }
+
+        enginePlayer = new EnginePlayer(this, model, teamIdentifier);
+        enginePlayer.start();
+    }
+
     private void playSound(String sound) {
         String soundMap = view.getSoundMap();
         SoundPlayer.playSound(soundMap, sound);
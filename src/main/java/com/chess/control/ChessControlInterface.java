@@ -44,6 +44,16 @@ public interface ChessControlInterface {
      */
     public void executeMove(Move move);
 
+    /**
+     * Execute a move the host has already made, promoting without asking for the piece.
+     * 
+     * This is executed locally.
+     * 
+     * @param move the move to execute
+     * @param promotionType the type a pawn is promoted to, or null if the move is no promotion
+     */
+    public void replayMove(Move move, Identifier promotionType);
+
     /**
      * Move a piece according to the given move.
      * 
@@ -52,4 +62,14 @@ public interface ChessControlInterface {
      * @param move the move to execute
      */
     public void movePiece(Move move);
+
+    /**
+     * Move a piece according to the given move, promoting a pawn without asking for the piece.
+     * 
+     * This may go through network communication.
+     * 
+     * @param move the move to execute
+     * @param promotionType the type a pawn reaching the last row is promoted to, or null to ask for it
+     */
+    public void movePiece(Move move, Identifier promotionType);
 }
@@ -0,0 +1,91 @@
+package com.chess.control;
+
+import com.chess.control.messages.LoadGameMessage;
+import com.chess.control.messages.SyncMovesMessage;
+import com.chess.control.messages.SyncRequestMessage;
+import com.chess.model.chess.ChessModel;
+import com.chess.model.chess.ChessPosition;
+import com.chess.model.chess.ChessSaveFormat;
+import com.chess.network.Message;
+
+/**
+ * Answers the requests of clients to catch up with the game of a host.
+ *
+ * A client tells the id of the game it has, how many moves of it it has applied and the key of
+ * the position it is in. If that is a position the game of the host passed through, the client
+ * is sent the moves played since, else it is sent the whole game. The moves are those of the
+ * move history of the model, which the client keeps the same way when it applies them.
+ * @author agent
+ * @version 2026-10-17
+ */
+public final class GameSync {
+    /**
+     * The most moves sent to a client, one further behind is sent the whole game.
+     */
+    public static final int MAX_SYNC_MOVES = 64;
+
+    private GameSync() {
+    }
+
+    /**
+     * Answer a request to catch up.
+     *
+     * @param model the game of the host
+     * @param gameId the id of the game, which changes whenever the host loads another
+     * @param request the request
+     * @return the moves the client is missing, or the whole game
+     */
+    public static Message reply(ChessModel model, int gameId, SyncRequestMessage request) {
+        final int[] moves = getMissingMoves(model, gameId, request);
+
+        if (moves == null) {
+            return new LoadGameMessage(model.getSerialModel(), gameId);
+        }
+
+        return new SyncMovesMessage(gameId, request.getMoveCount(), moves,
+                model.getTeamWhite().getTime().cloneTime(), model.getTeamBlack().getTime().cloneTime(), model.getPaused());
+    }
+
+    /**
+     * Get the moves played since the position of a client.
+     *
+     * @param model the game of the host
+     * @param gameId the id of the game
+     * @param request the request
+     * @return the moves packed in 16 bits, or null if the client must be sent the whole game
+     */
+    private static int[] getMissingMoves(ChessModel model, int gameId, SyncRequestMessage request) {
+        final int[] history = model.getMoveHistory();
+        final int first = request.getMoveCount();
+
+        if (request.getGameId() != gameId || model.getStartFEN() == null
+                || first < 0 || first > history.length || history.length - first > MAX_SYNC_MOVES) {
+            return null;
+        }
+
+        ChessPosition position = ChessPosition.fromFEN(model.getStartFEN());
+
+        for (int i = 0; i < first; i++) {
+            position = position.makeMove(history[i]);
+        }
+
+        // The client played or loaded something else since it had the game
+        if (position.getKey() != request.getPositionKey()) {
+            return null;
+        }
+
+        final int[] moves = new int[history.length - first];
+
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = ChessSaveFormat.packMove(history[first + i]);
+            position = position.makeMove(history[first + i]);
+        }
+
+        // A pawn waiting to be promoted has moved on the board but not in the history
+        if (position.getKey() != model.getPositionKey()) {
+            return null;
+        }
+
+        return moves;
+    }
+}
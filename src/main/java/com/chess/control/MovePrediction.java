@@ -0,0 +1,205 @@
+package com.chess.control;
+
+import com.chess.control.messages.AffirmMoveMessage;
+import com.chess.control.messages.MovePieceMessage;
+import com.chess.control.messages.RejectMoveMessage;
+import com.chess.model.Move;
+import com.chess.model.Position;
+import com.chess.model.chess.ChessModel;
+import com.chess.network.Message;
+import com.chess.utils.Delegate;
+
+/**
+ * Makes the moves of a client on its board before the host answers them, and reconciles them with the answers.
+ *
+ * A move is sent numbered, with the start position and move history of the game before it kept.
+ * If the host affirms it, it is on the board already. If the host affirms another move first or
+ * rejects it, the move is taken back to the kept history and the client catches up with the host.
+ * @author agent
+ * @version 2026-10-17
+ */
+public final class MovePrediction {
+    /**
+     * A move made on our board before the host affirmed it, with the game to go back to.
+     */
+    private static final class Prediction {
+        /**
+         * The number the move was sent with.
+         */
+        private final int sequence;
+
+        /**
+         * The move.
+         */
+        private final Move move;
+
+        /**
+         * The position the move history started from before the move.
+         */
+        private final String startFEN;
+
+        /**
+         * The moves played before the move.
+         */
+        private final int[] moveHistory;
+
+        /**
+         * Creates a new prediction.
+         *
+         * @param sequence The number the move was sent with.
+         * @param move The move.
+         * @param startFEN The position the move history started from before the move.
+         * @param moveHistory The moves played before the move.
+         */
+        private Prediction(int sequence, Move move, String startFEN, int[] moveHistory) {
+            this.sequence = sequence;
+            this.move = move;
+            this.startFEN = startFEN;
+            this.moveHistory = moveHistory;
+        }
+
+        /**
+         * Returns true if the host affirmed this move.
+         *
+         * @param message The move the host affirmed.
+         * @return true if the message is the answer to the move.
+         */
+        private boolean isAffirmedBy(AffirmMoveMessage message) {
+            return message.getSequence() == sequence
+                    && message.getFromRow() == move.getFromCell().getRow() && message.getFromCol() == move.getFromCell().getCol()
+                    && message.getToRow() == move.getToCell().getRow() && message.getToCol() == move.getToCell().getCol();
+        }
+    }
+
+    /**
+     * The controller the moves are made with.
+     */
+    private final ChessControlInterface controlInterface;
+
+    /**
+     * The chess model
+     */
+    private final ChessModel model;
+
+    /**
+     * Sends a message to the host.
+     */
+    private final Delegate<Message> sender;
+
+    /**
+     * Called after a move is taken back, to catch up with the host.
+     */
+    private final Runnable onRollBack;
+
+    /**
+     * The number of the move we sent the host last.
+     */
+    private int moveSequence;
+
+    /**
+     * The move we made before the host affirmed it, or null.
+     */
+    private volatile Prediction prediction;
+
+    /**
+     * Creates a new prediction of the moves of a client.
+     *
+     * @param controlInterface The controller the moves are made with.
+     * @param model The chess model.
+     * @param sender Sends a message to the host.
+     * @param onRollBack Called after a move is taken back, to catch up with the host.
+     */
+    public MovePrediction(ChessControlInterface controlInterface, ChessModel model, Delegate<Message> sender, Runnable onRollBack) {
+        this.controlInterface = controlInterface;
+        this.model = model;
+        this.sender = sender;
+        this.onRollBack = onRollBack;
+    }
+
+    /**
+     * Send a move to the host, to be made on our board without waiting for the answer.
+     *
+     * @param move The move, which the caller makes after sending it.
+     */
+    public void predictMove(Move move) {
+        final Position from = move.getFromCell();
+        final Position to = move.getToCell();
+
+        // Numbered from 1 in 16 bits, as 0 is a move nobody numbered
+        moveSequence = moveSequence % 0xFFFF + 1;
+        prediction = new Prediction(moveSequence, move, model.getStartFEN(), model.getMoveHistory());
+
+        sender.trigger(new MovePieceMessage(from.getRow(), from.getCol(), to.getRow(), to.getCol(),
+                move.isEliminatable(), move.getPieceType(), moveSequence));
+    }
+
+    /**
+     * Apply a move the host affirmed, unless it is our move which is on the board already.
+     *
+     * @param message The move.
+     */
+    public void affirmMove(AffirmMoveMessage message) {
+        final Position fromCell = Position.of(message.getFromRow(), message.getFromCol());
+        final Position toCell = Position.of(message.getToRow(), message.getToCol());
+
+        final Move move = new Move(toCell, fromCell, message.getPieceType(), message.isElimination());
+
+        final Prediction predicted = prediction;
+
+        if (predicted == null) {
+            controlInterface.executeMove(move);
+            return;
+        }
+
+        prediction = null;
+
+        // Our move is on the board already.
+        if (predicted.isAffirmedBy(message)) {
+            return;
+        }
+
+        // The host made another move first, so ours is taken back.
+        rollBack(predicted);
+        controlInterface.executeMove(move);
+        onRollBack.run();
+    }
+
+    /**
+     * Take back our move if the host rejected it.
+     *
+     * @param message The rejection.
+     */
+    public void rejectMove(RejectMoveMessage message) {
+        final Prediction predicted = prediction;
+
+        if (predicted == null || predicted.sequence != message.getSequence()) {
+            return;
+        }
+
+        prediction = null;
+
+        // Take the move back and catch up with the host, whose board may differ from ours.
+        rollBack(predicted);
+        onRollBack.run();
+    }
+
+    /**
+     * Forget the move not answered yet, as the game it was made in is replaced.
+     */
+    public void clear() {
+        prediction = null;
+    }
+
+    /**
+     * Go back to the game before a move the host did not affirm.
+     *
+     * @param predicted The move.
+     */
+    private void rollBack(Prediction predicted) {
+        try {
+            model.takeBack(predicted.startFEN, predicted.moveHistory);
+        } catch (IllegalArgumentException e) {
+            // The history was replaced since, so the host sends its whole game when we catch up
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.chess.control;
+
+import java.util.Arrays;
+
+import com.chess.model.chess.BitboardBoardInformation;
+import com.chess.model.chess.ChessModel;
+import com.chess.model.chess.ChessMoveGenerator;
+import com.chess.model.chess.ChessPosition;
+import com.chess.model.chess.ChessTeamIdentifier;
+import com.chess.model.chess.ChessTypeIdentifier;
+
+/**
+ * Checks the moves clients ask a host for against the legal moves of its own game.
+ *
+ * The legal moves of a position are generated once and kept by the Zobrist key of the position,
+ * so a move is usually checked with a key lookup and a scan of a few dozen ints. The table has a
+ * fixed size and may be shared by any number of games and threads without locks, as its entries
+ * never change once they are stored. Games sharing a table share the moves of common openings.
+ * @author agent
+ * @version 2026-10-17
+ */
+public final class MoveValidator {
+    /**
+     * The number of positions kept if no capacity is given.
+     */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    /**
+     * Returned when a move is not legal, as no legal move is from and to the same square.
+     */
+    public static final int NO_MOVE = 0;
+
+    /**
+     * The bits of a packed move holding the squares moved from and to.
+     */
+    private static final int SQUARES_MASK = (1 << 12) - 1;
+
+    /**
+     * The first and last rows, where no pawn stands unless it waits to be promoted.
+     */
+    private static final long PROMOTION_ROWS = 0xFFL | 0xFFL << 56;
+
+    /**
+     * The legal moves of a position.
+     */
+    private static final class Entry {
+        /**
+         * The Zobrist key of the position.
+         */
+        private final long key;
+
+        /**
+         * The packed legal moves.
+         */
+        private final int[] moves;
+
+        /**
+         * Creates a new entry.
+         *
+         * @param key the Zobrist key of the position
+         * @param moves the packed legal moves
+         */
+        private Entry(long key, int[] moves) {
+            this.key = key;
+            this.moves = moves;
+        }
+    }
+
+    /**
+     * The entries, indexed by the low bits of their keys.
+     */
+    private final Entry[] entries;
+
+    /**
+     * Mask from a key to the index of its entry.
+     */
+    private final int mask;
+
+    /**
+     * Creates a new validator with the default capacity.
+     */
+    public MoveValidator() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new validator.
+     *
+     * The capacity is rounded down to a power of two.
+     *
+     * @param capacity the number of positions kept
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public MoveValidator(int capacity) throws IllegalArgumentException {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+
+        this.entries = new Entry[Integer.highestOneBit(capacity)];
+        this.mask = entries.length - 1;
+    }
+
+    /**
+     * Find the legal move of the team in turn between two cells.
+     *
+     * The piece type, capture and special move flags of the move are those of the game. A pawn
+     * reaching the last row matches one of its promotions, the piece is picked after.
+     *
+     * @param model the game, which may not be changed while it is read
+     * @param fromRow the row moved from
+     * @param fromCol the column moved from
+     * @param toRow the row moved to
+     * @param toCol the column moved to
+     * @return the packed move, or {@link #NO_MOVE} if it is not legal or a cell is off the board
+     */
+    public int findMove(ChessModel model, int fromRow, int fromCol, int toRow, int toCol) {
+        if (!isOnBoard(fromRow, fromCol) || !isOnBoard(toRow, toCol)) {
+            return NO_MOVE;
+        }
+
+        return findMove(getLegalMoves(model), fromRow, fromCol, toRow, toCol);
+    }
+
+    /**
+     * Find the legal move of the team in turn between two cells of a position.
+     *
+     * @param position the position
+     * @param fromRow the row moved from
+     * @param fromCol the column moved from
+     * @param toRow the row moved to
+     * @param toCol the column moved to
+     * @return the packed move, or {@link #NO_MOVE} if it is not legal or a cell is off the board
+     * @see #findMove(ChessModel, int, int, int, int)
+     */
+    public int findMove(ChessPosition position, int fromRow, int fromCol, int toRow, int toCol) {
+        if (!isOnBoard(fromRow, fromCol) || !isOnBoard(toRow, toCol)) {
+            return NO_MOVE;
+        }
+
+        return findMove(getLegalMoves(position), fromRow, fromCol, toRow, toCol);
+    }
+
+    /**
+     * Get the legal moves of the current position of a game.
+     *
+     * @param model the game, which may not be changed while it is read
+     * @return the packed moves, which must not be changed
+     */
+    public int[] getLegalMoves(ChessModel model) {
+        final long key = model.getPositionKey();
+        final Entry entry = entries[(int) key & mask];
+
+        if (entry != null && entry.key == key) {
+            return entry.moves;
+        }
+
+        return getLegalMoves(model.getPosition());
+    }
+
+    /**
+     * Get the legal moves of a position.
+     *
+     * The moves are kept by the key of the position they were generated from, so a game changed
+     * while it was read never leaves the moves of one position under the key of another.
+     *
+     * @param position the position
+     * @return the packed moves, which must not be changed
+     */
+    public int[] getLegalMoves(ChessPosition position) {
+        final long key = position.getKey();
+        final int index = (int) key & mask;
+
+        final Entry entry = entries[index];
+
+        if (entry != null && entry.key == key) {
+            return entry.moves;
+        }
+
+        final int[] moves = generateLegalMoves(position);
+
+        entries[index] = new Entry(key, moves);
+
+        return moves;
+    }
+
+    /**
+     * Remove every position.
+     */
+    public void clear() {
+        Arrays.fill(entries, null);
+    }
+
+    /**
+     * Find the move between two cells.
+     *
+     * @param moves the packed legal moves
+     * @param fromRow the row moved from
+     * @param fromCol the column moved from
+     * @param toRow the row moved to
+     * @param toCol the column moved to
+     * @return the packed move, or {@link #NO_MOVE} if none of the moves is between the cells
+     */
+    private static int findMove(int[] moves, int fromRow, int fromCol, int toRow, int toCol) {
+        final int squares = BitboardBoardInformation.toSquare(fromRow, fromCol)
+                | BitboardBoardInformation.toSquare(toRow, toCol) << 6;
+
+        for (int move : moves) {
+            if ((move & SQUARES_MASK) == squares) {
+                return move;
+            }
+        }
+
+        return NO_MOVE;
+    }
+
+    /**
+     * Generate the legal moves of a position.
+     *
+     * @param position the position
+     * @return the packed moves, none while a pawn waits to be promoted
+     */
+    private static int[] generateLegalMoves(ChessPosition position) {
+        final long pawns = position.getPieceBoard(BitboardBoardInformation.pieceIndex(ChessTypeIdentifier.PAWN, ChessTeamIdentifier.WHITE))
+                | position.getPieceBoard(BitboardBoardInformation.pieceIndex(ChessTypeIdentifier.PAWN, ChessTeamIdentifier.BLACK));
+
+        // The pawn has moved but the turn has not passed, so the position is not one to move from
+        if ((pawns & PROMOTION_ROWS) != 0) {
+            return new int[0];
+        }
+
+        final int[] buffer = new int[ChessMoveGenerator.MAX_MOVES];
+        final int count = position.generateLegalMoves(buffer);
+
+        return Arrays.copyOf(buffer, count);
+    }
+
+    /**
+     * Check if a cell is on the board.
+     *
+     * @param row the row
+     * @param col the column
+     * @return true if the cell exists
+     */
+    private static boolean isOnBoard(int row, int col) {
+        return row >= 0 && row < BitboardBoardInformation.BOARD_SIZE && col >= 0 && col < BitboardBoardInformation.BOARD_SIZE;
+    }
+}
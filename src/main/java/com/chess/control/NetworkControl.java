@@ -2,12 +2,17 @@ package com.chess.control;
 
 import java.io.*;
 import java.net.*;
+import java.util.concurrent.ThreadLocalRandom;
 
 import com.chess.network.*;
 import com.chess.control.messages.*;
 import com.chess.model.*;
 import com.chess.model.chess.ChessModel;
+import com.chess.model.chess.ChessMoveEncoding;
+import com.chess.model.chess.ChessPosition;
+import com.chess.model.chess.ChessSaveFormat;
 import com.chess.model.chess.ChessTeam;
+import com.chess.model.chess.ChessTypeIdentifier;
 import com.chess.view.*;
 
 /**
@@ -32,14 +37,54 @@ public class NetworkControl {
     private final ChessView view;
 
     /**
-     * Has delegated white team.
+     * The client playing the white team, or null if the team is free.
      */
-    private boolean hasDelegatedWhiteTeam;
+    private Client whiteClient;
 
     /**
-     * Has delegated black team.
+     * The client playing the black team, or null if the team is free.
      */
-    private boolean hasDelegatedBlackTeam;
+    private Client blackClient;
+
+    /**
+     * The id of the game we host, changed whenever a game is loaded.
+     */
+    private int gameId = newGameId();
+
+    /**
+     * The id of the game we got from the host, or 0 if we have none.
+     */
+    private int syncedGameId;
+
+    /**
+     * The moves we made before the host affirmed them.
+     */
+    private final MovePrediction movePrediction;
+
+    /**
+     * The legal moves the moves of clients are checked against.
+     */
+    private final MoveValidator moveValidator = new MoveValidator();
+
+    /**
+     * The key of the position a move of a client was last affirmed in.
+     */
+    private long affirmedKey;
+
+    /**
+     * The number of moves played when a move of a client was last affirmed, or -1 if none was.
+     */
+    private int affirmedMoveCount = -1;
+
+    /**
+     * The client whose pawn move to the last row was affirmed last, or null if it promoted the pawn.
+     */
+    private Client promotingClient;
+
+    /**
+     * The cell of the pawn the promoting client promotes next.
+     */
+    private Position promotionCell;
 
     /**
      * Network server
@@ -98,6 +143,10 @@ public class NetworkControl {
         this.controlInterface = chessControl;
         this.model = model;
         this.view = view;
+        this.movePrediction = new MovePrediction(chessControl, model, this::sendMessage, () -> {
+            getView().getInfoPanel().getMovesPanel().loadMovesPanel();
+            requestSync();
+        });
 
         SetupViewHooks();
     }
@@ -131,11 +180,16 @@ public class NetworkControl {
         });
 
         getModel().getOnModelLoadedEvent().addDelegate((serialModel) -> {
+            // Clients can not catch up move by move with another game
+            gameId = newGameId();
+            affirmedMoveCount = -1;
+            promotingClient = null;
+
             if (networkServer == null) {
                 return;
             }
 
-            broadcastMessage(new LoadGameMessage(serialModel));
+            broadcastMessage(new LoadGameMessage(serialModel, gameId));
         });
     }
 
@@ -201,7 +255,7 @@ public class NetworkControl {
 
         controlInterface.setPaused(true);
 
-        networkClient = new NetworkClient(hostDetails);
+        networkClient = new NetworkClient(hostDetails, ChessProtocol.create());
         
         try {
             networkClient.start();
@@ -219,6 +273,11 @@ public class NetworkControl {
 
         networkClient.sendMessage(new ClientReadyMessage());
 
+        // Ask for the moves we are missing, which is the whole game unless we had it before a reconnect
+        if (!isHost()) {
+            requestSync();
+        }
+
         //
         // Update the menu state, to reflect the fact that we are now connected
         //
@@ -235,6 +294,9 @@ public class NetworkControl {
             // Set the network client to null, so that we can start a new client
             networkClient = null;
 
+            // A move the host did not answer is caught up on if we reconnect
+            movePrediction.clear();
+
             // Pause the game
             controlInterface.setPaused(true);
 
@@ -284,19 +346,13 @@ public class NetworkControl {
         });
 
         networkClient.setMessageDelegate(AffirmMoveMessage.class, message -> {
-            AffirmMoveMessage affirmMoveMessage = (AffirmMoveMessage) message;
-            
-            // Collect variables.
-            Position fromCell = new Position(affirmMoveMessage.getFromRow(), affirmMoveMessage.getFromCol());
-            Position toCell = new Position(affirmMoveMessage.getToRow(), affirmMoveMessage.getToCol());
-            Boolean isElimination = affirmMoveMessage.isElimination();
-            Identifier identifier = affirmMoveMessage.getPieceType();
-
-            // Create the move.
-            Move move = new Move(toCell, fromCell, identifier, isElimination);
-            
-            // Apply the move.
-            controlInterface.executeMove(move);
+            // Apply the move, unless it is ours and on the board already.
+            movePrediction.affirmMove((AffirmMoveMessage) message);
+        });
+
+        networkClient.setMessageDelegate(RejectMoveMessage.class, message -> {
+            // Take our move back and catch up with the host.
+            movePrediction.rejectMove((RejectMoveMessage) message);
         });
 
         networkClient.setMessageDelegate(PromotePawnMessage.class, message -> {
@@ -336,13 +392,179 @@ public class NetworkControl {
                 return;
             }
 
-            // Load the game.
+            // Load the game, which replaces any move not affirmed yet.
+            movePrediction.clear();
             getModel().loadModel(loadGameMessage.getModel());
             getView().getInfoPanel().getMovesPanel().loadMovesPanel();
 
+            syncedGameId = loadGameMessage.getGameId();
+
             // Pause the game.
             controlInterface.setPaused(true);
         });
+
+        networkClient.setMessageDelegate(SyncMovesMessage.class, message -> {
+            SyncMovesMessage syncMovesMessage = (SyncMovesMessage) message;
+
+            if (isHost()) {
+                return;
+            }
+
+            applySyncMoves(syncMovesMessage);
+        });
+    }
+
+    /**
+     * Send a move to the host, to be made on our board without waiting for the answer.
+     * 
+     * The host affirms the move to every client, or rejects it to us, and we then take it back.
+     * 
+     * @param move The move, which the caller makes after sending it.
+     * @throws IllegalStateException Thrown if we are not connected to a server.
+     */
+    public void predictMove(Move move) throws IllegalStateException {
+        movePrediction.predictMove(move);
+    }
+
+    /**
+     * Ask the host for the moves we are missing, and its clocks.
+     */
+    private void requestSync() {
+        sendMessage(new SyncRequestMessage(syncedGameId, getModel().getMoveHistory().length, getModel().getPositionKey()));
+    }
+
+    /**
+     * Apply the moves we were missing, or ask for the whole game if they do not follow ours.
+     * 
+     * @param message The moves.
+     */
+    private void applySyncMoves(SyncMovesMessage message) {
+        final ChessModel model = getModel();
+
+        if (message.getGameId() != syncedGameId || message.getFirstMove() != model.getMoveHistory().length) {
+            sendMessage(new SyncRequestMessage(0, 0, 0));
+            return;
+        }
+
+        ChessPosition position = model.getPosition();
+
+        try {
+            for (int packed : message.getMoves()) {
+                final int move = ChessSaveFormat.unpackMove(position, packed);
+
+                controlInterface.replayMove(ChessMoveEncoding.toMove(move),
+                        ChessMoveEncoding.isPromotion(move) ? ChessMoveEncoding.getPromotionType(move) : null);
+
+                position = position.makeMove(move);
+            }
+        } catch (IOException e) {
+            sendMessage(new SyncRequestMessage(0, 0, 0));
+            return;
+        }
+
+        model.getTeamWhite().setTime(message.getWhiteTime());
+        model.getTeamBlack().setTime(message.getBlackTime());
+
+        controlInterface.setPaused(message.isPaused());
+    }
+
+    /**
+     * Affirm a move of a client if it is a legal move of the team it plays, or else reject it.
+     * 
+     * @param client The client which sent the move.
+     * @param message The move.
+     */
+    private void affirmMove(Client client, MovePieceMessage message) {
+        final ChessModel model = getModel();
+        final long key = model.getPositionKey();
+        final int moveCount = model.getMoveHistory().length;
+
+        // Our own client makes moves on its thread while we read, so the board is checked as one snapshot
+        final ChessPosition position = model.getPosition();
+
+        // A move is ahead of our board until the move affirmed last has reached it
+        int move = client == getClient(model.getTeam(position.getTeamIdentifier())) && !model.getGameOver()
+                && (key != affirmedKey || moveCount != affirmedMoveCount)
+                ? moveValidator.findMove(position, message.getFromRow(), message.getFromCol(), message.getToRow(), message.getToCol())
+                : MoveValidator.NO_MOVE;
+
+        // The board changed while it was read, so the snapshot may be of no position it was in
+        if (position.getKey() != key || model.getPositionKey() != key || model.getMoveHistory().length != moveCount) {
+            move = MoveValidator.NO_MOVE;
+        }
+
+        // The client takes the move back and catches up with our game.
+        if (move == MoveValidator.NO_MOVE) {
+            client.sendMessage(new RejectMoveMessage(message.getSequence()));
+            return;
+        }
+
+        affirmedKey = key;
+        affirmedMoveCount = moveCount;
+
+        // The piece type and elimination flag are ours, not the client's.
+        final Move affirmed = ChessMoveEncoding.toMove(move);
+        final Position from = affirmed.getFromCell();
+        final Position to = affirmed.getToCell();
+
+        // The promotion may reach us before our board shows the pawn on the last row
+        promotingClient = ChessMoveEncoding.isPromotion(move) ? client : null;
+        promotionCell = to;
+
+        broadcastMessage(new AffirmMoveMessage(from.getRow(), from.getCol(), to.getRow(), to.getCol(),
+                affirmed.isEliminatable(), affirmed.getPieceType(), message.getSequence()));
+    }
+
+    /**
+     * Returns true if a client promotes a pawn to a piece it may become, which it moved to the last row with a move we affirmed or which our board shows.
+     * 
+     * @param client The client which sent the promotion.
+     * @param message The promotion.
+     * @return true if the promotion may be made.
+     */
+    private boolean isPendingPromotion(Client client, PromotePawnMessage message) {
+        final Identifier type = message.getPieceType();
+
+        if (type != ChessTypeIdentifier.QUEEN && type != ChessTypeIdentifier.ROOK
+                && type != ChessTypeIdentifier.BISHOP && type != ChessTypeIdentifier.KNIGHT) {
+            return false;
+        }
+
+        if (client == promotingClient && message.getRow() == promotionCell.getRow() && message.getCol() == promotionCell.getCol()) {
+            return true;
+        }
+
+        // Our own moves are not affirmed by us, but are on our board before we promote
+        final ChessModel model = getModel();
+        final ChessTeam team = model.getCurrentTeam();
+
+        if (client != getClient(team) || message.getRow() != model.getOtherTeam(team).getTeamParameters().getKingRow()
+                || message.getCol() < 0 || message.getCol() >= model.getBoard().getColumns()) {
+            return false;
+        }
+
+        final Piece piece = model.getBoard().getCell(message.getRow(), message.getCol()).getPiece();
+
+        return piece != null && piece.getTypeIdentifier().equals(ChessTypeIdentifier.PAWN) && piece.getTeamIdentifier().equals(team.getTeamIdentifier());
+    }
+
+    /**
+     * Returns the client playing a team.
+     * 
+     * @param team The team.
+     * @return The client, or null if the team is free.
+     */
+    private Client getClient(ChessTeam team) {
+        return team == getModel().getTeamWhite() ? whiteClient : blackClient;
+    }
+
+    /**
+     * Create an id for a game, which is never 0.
+     * 
+     * @return The id.
+     */
+    private static int newGameId() {
+        return ThreadLocalRandom.current().nextInt(1, Integer.MAX_VALUE);
     }
 
     /**
@@ -359,7 +581,7 @@ public class NetworkControl {
 
         controlInterface.setPaused(true);
 
-        networkServer = new NetworkServer(hostDetails);
+        networkServer = new NetworkServer(hostDetails, ChessProtocol.create());
 
         try {
             networkServer.start();
@@ -375,11 +597,21 @@ public class NetworkControl {
             System.out.println("Client disconnected");
 
             //
-            // As we only handle at most one client, we can stop the server.
+            // Free the team of a player, who may reconnect and catch up on the moves missed.
             //
 
-            if (networkServer != null) {
-                networkServer.stop();
+            if (client == whiteClient || client == blackClient) {
+                if (client == whiteClient) {
+                    whiteClient = null;
+                } else {
+                    blackClient = null;
+                }
+
+                controlInterface.setPaused(true);
+
+                if (networkServer != null) {
+                    networkServer.broadcastMessage(new PauseGameMessage(true));
+                }
             }
         });
 
@@ -393,40 +625,29 @@ public class NetworkControl {
             controlInterface.setPaused(true);
 
             // Reset delegate authority
-            hasDelegatedWhiteTeam = false;
-            hasDelegatedBlackTeam = false;
+            whiteClient = null;
+            blackClient = null;
         });
 
         // Setup message delegates.
 
-        networkServer.setMessageDelegate(MovePieceMessage.class, (message) -> {
-            MovePieceMessage movePieceMessage = (MovePieceMessage) message;
-
-            // Collect variables.
-            Position from = new Position(movePieceMessage.getToRow(), movePieceMessage.getToCol());
-            Position to = new Position(movePieceMessage.getFromRow(), movePieceMessage.getFromCol());
-            Boolean isElimination = movePieceMessage.isElimination();
-            Identifier identifier = movePieceMessage.getPieceType();
-
-            // Create the move.
-            Move move = new Move(from, to, identifier, isElimination);
-
-            // Apply the move.
-            controlInterface.movePiece(move);
+        networkServer.setMessageDelegate(MovePieceMessage.class, (client, message) -> {
+            // Check the move before it is affirmed.
+            affirmMove(client, (MovePieceMessage) message);
         });
         
         networkServer.setMessageDelegate(ClientReadyMessage.class, (client, message) -> {
             // Delegate team to client.
-            if (!hasDelegatedWhiteTeam) {
+            if (whiteClient == null) {
                 // Make the client white.
                 client.sendMessage(new SetTeamMessage(true));
                 
-                hasDelegatedWhiteTeam = true;
-            } else if (!hasDelegatedBlackTeam) {
+                whiteClient = client;
+            } else if (blackClient == null) {
                 // Make the client black.
                 client.sendMessage(new SetTeamMessage(false));
                 
-                hasDelegatedBlackTeam = true;
+                blackClient = client;
 
                 // Show UI message.
                 showMessage("Remote client connected.");
@@ -436,14 +657,23 @@ public class NetworkControl {
 
             // Pause the game.
             controlInterface.setPaused(true);
-            
-            // Send a load message to the client.
-            client.sendMessage(new LoadGameMessage(getModel().getSerialModel()));
+        });
+
+        networkServer.setMessageDelegate(SyncRequestMessage.class, (client, message) -> {
+            // Send the client the moves it is missing, or the whole game.
+            client.sendMessage(GameSync.reply(getModel(), gameId, (SyncRequestMessage) message));
         });
 
         networkServer.setMessageDelegate(PromotePawnMessage.class, (client, message) -> {
-            // Broadcast the message.
-            networkServer.broadcastMessage(message);
+            // Broadcast the message, if it promotes the pawn of the player in turn.
+            if (isPendingPromotion(client, (PromotePawnMessage) message)) {
+                promotingClient = null;
+                networkServer.broadcastMessage(message);
+                return;
+            }
+
+            // The client waits for the promotion with the pawn on the last row, so it is sent our whole game.
+            client.sendMessage(GameSync.reply(getModel(), gameId, new SyncRequestMessage(0, 0, 0)));
         });
 
         networkServer.setMessageDelegate(ChangeNameMessage.class, (client, message) -> {
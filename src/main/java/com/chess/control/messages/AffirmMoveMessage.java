@@ -22,5 +22,19 @@ public class AffirmMoveMessage extends MovePieceMessage {
 	public AffirmMoveMessage(int fromRow, int fromCol, int toRow, int toCol, boolean isElimination, Identifier pieceType) {
 		super(fromRow, fromCol, toRow, toCol, isElimination, pieceType);
 	}
+
+	/**
+	 * Constructor for affirm move message, answering a numbered move of a client.
+	 * @param fromRow The row from which the move is made.
+	 * @param fromCol The column from which the move is made.
+	 * @param toRow The row to which the move is made.
+	 * @param toCol The column to which the move is made.
+	 * @param isElimination Identifies whether the move implies the elimination of another piece.
+	 * @param pieceType The identifier for the type of the piece performing the move.
+	 * @param sequence The number the client gave the move.
+	 */
+	public AffirmMoveMessage(int fromRow, int fromCol, int toRow, int toCol, boolean isElimination, Identifier pieceType, int sequence) {
+		super(fromRow, fromCol, toRow, toCol, isElimination, pieceType, sequence);
+	}
     
 }
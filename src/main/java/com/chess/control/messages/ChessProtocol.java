@@ -0,0 +1,370 @@
+package com.chess.control.messages;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import com.chess.model.GameTime;
+import com.chess.model.Identifier;
+import com.chess.model.chess.ChessSaveFormat;
+import com.chess.model.chess.ChessTypeIdentifier;
+import com.chess.network.MessageProtocol;
+
+/**
+ * The wire format of the messages of a networked game.
+ *
+ * A square is one byte, the row in the high bits and the column in the low 3 bits, and a piece
+ * type is the ordinal of its {@link ChessTypeIdentifier}, 255 for none. The messages are:
+ *
+ * <pre>
+ * tag  message             fields
+ * 1    MovePieceMessage    from square, to square, piece type, elimination, sequence
+ * 2    AffirmMoveMessage   as MovePieceMessage
+ * 3    PromotePawnMessage  square, piece type, elimination
+ * 4    PauseGameMessage    paused
+ * 5    ChangeNameMessage   white, name as modified UTF-8
+ * 6    SetTeamMessage      white
+ * 7    ClientReadyMessage  nothing
+ * 8    LoadGameMessage     game id, length, game in {@link ChessSaveFormat}
+ * 9    JoinSessionMessage  session id
+ * 10   SyncRequestMessage  game id, move count, position key
+ * 11   SyncMovesMessage    game id, first move, paused, white clock, black clock, move count, moves
+ * 12   RejectMoveMessage   sequence
+ * </pre>
+ *
+ * A sequence is the 16 bits a client numbers its moves with. Clocks are in tenths of a second, and moves in the 16 bits of {@link ChessSaveFormat#packMove(int)}.
+ * @author agent
+ * @version 2026-10-17
+ */
+public final class ChessProtocol {
+    /**
+     * The value of no piece type.
+     */
+    private static final int NO_TYPE = 0xFF;
+
+    /**
+     * The piece types, indexed by ordinal.
+     */
+    private static final ChessTypeIdentifier[] TYPES = ChessTypeIdentifier.values();
+
+    private ChessProtocol() {
+    }
+
+    /**
+     * Create the protocol with a codec for every message of the game.
+     *
+     * @return the protocol
+     */
+    public static MessageProtocol create() {
+        final MessageProtocol protocol = new MessageProtocol();
+
+        protocol.register(1, MovePieceMessage.class, ChessProtocol::writeMove, ChessProtocol::readMove);
+        protocol.register(2, AffirmMoveMessage.class, ChessProtocol::writeMove, ChessProtocol::readAffirmMove);
+        protocol.register(3, PromotePawnMessage.class, ChessProtocol::writePromotePawn, ChessProtocol::readPromotePawn);
+        protocol.register(4, PauseGameMessage.class, (message, out) -> out.writeBoolean(message.isPaused()),
+                (in) -> new PauseGameMessage(in.readBoolean()));
+        protocol.register(5, ChangeNameMessage.class, ChessProtocol::writeChangeName, ChessProtocol::readChangeName);
+        protocol.register(6, SetTeamMessage.class, (message, out) -> out.writeBoolean(message.isWhite()),
+                (in) -> new SetTeamMessage(in.readBoolean()));
+        protocol.register(7, ClientReadyMessage.class, (message, out) -> { }, (in) -> new ClientReadyMessage());
+        protocol.register(8, LoadGameMessage.class, ChessProtocol::writeLoadGame, ChessProtocol::readLoadGame);
+        protocol.register(9, JoinSessionMessage.class, (message, out) -> out.writeInt(message.getSessionId()),
+                (in) -> new JoinSessionMessage(in.readInt()));
+        protocol.register(10, SyncRequestMessage.class, ChessProtocol::writeSyncRequest, ChessProtocol::readSyncRequest);
+        protocol.register(11, SyncMovesMessage.class, ChessProtocol::writeSyncMoves, ChessProtocol::readSyncMoves);
+        protocol.register(12, RejectMoveMessage.class, (message, out) -> out.writeShort(message.getSequence()),
+                (in) -> new RejectMoveMessage(in.readUnsignedShort()));
+
+        return protocol;
+    }
+
+    //
+    // Codecs
+    //
+
+    /**
+     * Write a move, or the affirmation of one.
+     *
+     * @param message the message
+     * @param out the output
+     * @throws IOException if the output can not be written
+     */
+    private static void writeMove(MovePieceMessage message, DataOutput out) throws IOException {
+        out.writeByte(toSquare(message.getFromRow(), message.getFromCol()));
+        out.writeByte(toSquare(message.getToRow(), message.getToCol()));
+        writeType(message.getPieceType(), out);
+        out.writeBoolean(message.isElimination());
+        out.writeShort(message.getSequence());
+    }
+
+    /**
+     * Read a move.
+     *
+     * @param in the input
+     * @return the message
+     * @throws IOException if the input is malformed
+     */
+    private static MovePieceMessage readMove(DataInput in) throws IOException {
+        final int from = in.readUnsignedByte();
+        final int to = in.readUnsignedByte();
+        final Identifier type = readType(in);
+
+        final boolean isElimination = in.readBoolean();
+
+        return new MovePieceMessage(from >>> 3, from & 7, to >>> 3, to & 7, isElimination, type, in.readUnsignedShort());
+    }
+
+    /**
+     * Read the affirmation of a move.
+     *
+     * @param in the input
+     * @return the message
+     * @throws IOException if the input is malformed
+     */
+    private static AffirmMoveMessage readAffirmMove(DataInput in) throws IOException {
+        final MovePieceMessage move = readMove(in);
+
+        return new AffirmMoveMessage(move.getFromRow(), move.getFromCol(), move.getToRow(), move.getToCol(),
+                move.isElimination(), move.getPieceType(), move.getSequence());
+    }
+
+    /**
+     * Write a promotion.
+     *
+     * @param message the message
+     * @param out the output
+     * @throws IOException if the output can not be written
+     */
+    private static void writePromotePawn(PromotePawnMessage message, DataOutput out) throws IOException {
+        out.writeByte(toSquare(message.getRow(), message.getCol()));
+        writeType(message.getPieceType(), out);
+        out.writeBoolean(message.isElimination());
+    }
+
+    /**
+     * Read a promotion.
+     *
+     * @param in the input
+     * @return the message
+     * @throws IOException if the input is malformed
+     */
+    private static PromotePawnMessage readPromotePawn(DataInput in) throws IOException {
+        final int square = in.readUnsignedByte();
+        final Identifier type = readType(in);
+
+        return new PromotePawnMessage(square >>> 3, square & 7, type, in.readBoolean());
+    }
+
+    /**
+     * Write a change of name.
+     *
+     * @param message the message
+     * @param out the output
+     * @throws IOException if the output can not be written
+     */
+    private static void writeChangeName(ChangeNameMessage message, DataOutput out) throws IOException {
+        out.writeBoolean(message.isWhite());
+        out.writeUTF(message.getName());
+    }
+
+    /**
+     * Read a change of name.
+     *
+     * @param in the input
+     * @return the message
+     * @throws IOException if the input is malformed
+     */
+    private static ChangeNameMessage readChangeName(DataInput in) throws IOException {
+        final boolean isWhite = in.readBoolean();
+
+        return new ChangeNameMessage(in.readUTF(), isWhite);
+    }
+
+    /**
+     * Write a loaded game as its save.
+     *
+     * @param message the message
+     * @param out the output
+     * @throws IOException if the output can not be written
+     */
+    private static void writeLoadGame(LoadGameMessage message, DataOutput out) throws IOException {
+        final ByteBuffer save = ChessSaveFormat.encode(message.getModel());
+
+        out.writeInt(message.getGameId());
+        out.writeInt(save.remaining());
+        out.write(save.array(), save.arrayOffset() + save.position(), save.remaining());
+    }
+
+    /**
+     * Read a loaded game.
+     *
+     * @param in the input
+     * @return the message
+     * @throws IOException if the input is malformed
+     */
+    private static LoadGameMessage readLoadGame(DataInput in) throws IOException {
+        final int gameId = in.readInt();
+        final int length = in.readInt();
+
+        if (length < 0 || length > MessageProtocol.MAX_FRAME_LENGTH) {
+            throw new IOException("Malformed game of " + length + " bytes");
+        }
+
+        final byte[] save = new byte[length];
+
+        in.readFully(save);
+
+        return new LoadGameMessage(ChessSaveFormat.decode(ByteBuffer.wrap(save)), gameId);
+    }
+
+    /**
+     * Write a request to catch up.
+     *
+     * @param message the message
+     * @param out the output
+     * @throws IOException if the output can not be written
+     */
+    private static void writeSyncRequest(SyncRequestMessage message, DataOutput out) throws IOException {
+        out.writeInt(message.getGameId());
+        out.writeInt(message.getMoveCount());
+        out.writeLong(message.getPositionKey());
+    }
+
+    /**
+     * Read a request to catch up.
+     *
+     * @param in the input
+     * @return the message
+     * @throws IOException if the input is malformed
+     */
+    private static SyncRequestMessage readSyncRequest(DataInput in) throws IOException {
+        final int gameId = in.readInt();
+        final int moveCount = in.readInt();
+
+        return new SyncRequestMessage(gameId, moveCount, in.readLong());
+    }
+
+    /**
+     * Write the moves a client is missing.
+     *
+     * @param message the message
+     * @param out the output
+     * @throws IOException if the output can not be written
+     */
+    private static void writeSyncMoves(SyncMovesMessage message, DataOutput out) throws IOException {
+        out.writeInt(message.getGameId());
+        out.writeInt(message.getFirstMove());
+        out.writeBoolean(message.isPaused());
+        writeTime(message.getWhiteTime(), out);
+        writeTime(message.getBlackTime(), out);
+        out.writeInt(message.getMoves().length);
+
+        for (int move : message.getMoves()) {
+            out.writeShort(move);
+        }
+    }
+
+    /**
+     * Read the moves a client is missing.
+     *
+     * @param in the input
+     * @return the message
+     * @throws IOException if the input is malformed
+     */
+    private static SyncMovesMessage readSyncMoves(DataInput in) throws IOException {
+        final int gameId = in.readInt();
+        final int firstMove = in.readInt();
+        final boolean paused = in.readBoolean();
+        final GameTime whiteTime = readTime(in);
+        final GameTime blackTime = readTime(in);
+        final int count = in.readInt();
+
+        if (count < 0 || count > MessageProtocol.MAX_FRAME_LENGTH / 2) {
+            throw new IOException("Malformed move count " + count);
+        }
+
+        final int[] moves = new int[count];
+
+        for (int i = 0; i < count; i++) {
+            moves[i] = in.readUnsignedShort();
+        }
+
+        return new SyncMovesMessage(gameId, firstMove, moves, whiteTime, blackTime, paused);
+    }
+
+    //
+    // Helpers
+    //
+
+    /**
+     * Pack a square into a byte.
+     *
+     * @param row the row
+     * @param col the column
+     * @return the square
+     */
+    private static int toSquare(int row, int col) {
+        return row << 3 | col;
+    }
+
+    /**
+     * Write a clock.
+     *
+     * @param time the time left
+     * @param out the output
+     * @throws IOException if the output can not be written
+     */
+    private static void writeTime(GameTime time, DataOutput out) throws IOException {
+        out.writeInt((int) (time.toMillis() / 100));
+    }
+
+    /**
+     * Read a clock.
+     *
+     * @param in the input
+     * @return the time left
+     * @throws IOException if the clock is negative
+     */
+    private static GameTime readTime(DataInput in) throws IOException {
+        final int tenths = in.readInt();
+
+        if (tenths < 0) {
+            throw new IOException("Malformed clock " + tenths);
+        }
+
+        return new GameTime(tenths / 600, tenths / 10 % 60, tenths % 10);
+    }
+
+    /**
+     * Write a piece type.
+     *
+     * @param type the type, or null
+     * @param out the output
+     * @throws IOException if the output can not be written
+     */
+    private static void writeType(Identifier type, DataOutput out) throws IOException {
+        out.writeByte(type == null ? NO_TYPE : ((ChessTypeIdentifier) type).ordinal());
+    }
+
+    /**
+     * Read a piece type.
+     *
+     * @param in the input
+     * @return the type, or null
+     * @throws IOException if the type is unknown
+     */
+    private static Identifier readType(DataInput in) throws IOException {
+        final int ordinal = in.readUnsignedByte();
+
+        if (ordinal == NO_TYPE) {
+            return null;
+        }
+
+        if (ordinal >= TYPES.length) {
+            throw new IOException("Unknown piece type " + ordinal);
+        }
+
+        return TYPES[ordinal];
+    }
+}
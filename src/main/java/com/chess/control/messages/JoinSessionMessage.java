@@ -0,0 +1,32 @@
+package com.chess.control.messages;
+
+import com.chess.network.Message;
+
+/**
+ * A message sent by a client to join a game on a server hosting many, and sent back by the server
+ * with the game the client was placed in.
+ * @author agent
+ * @version 2026-10-17
+ */
+public class JoinSessionMessage implements Message {
+    /**
+     * The id of the game.
+     */
+    private final int sessionId;
+
+    /**
+     * Constructor for JoinSessionMessage.
+     * @param sessionId The id of the game.
+     */
+    public JoinSessionMessage(int sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    /**
+     * Gets the id of the game.
+     * @return The id of the game.
+     */
+    public int getSessionId() {
+        return sessionId;
+    }
+}
@@ -4,7 +4,7 @@ import com.chess.model.chess.SerialModel;
 import com.chess.network.Message;
 
 /**
- * A message sent out after the host has loaded a new game.
+ * A message sent out after the host has loaded a new game, or to a client too far behind to catch up move by move.
  * @author Wincent Stålbert Holm
  * @version 2022-03-02
  */
@@ -15,12 +15,27 @@ public class LoadGameMessage implements Message {
      */
     private SerialModel model;
 
+    /**
+     * The id of the game, or 0 if the game can not be synchronized later.
+     */
+    private int gameId;
+
     /**
      * Constructor for load game message.
      * @param model The serial model containing the information about the game to be loaded.
      */
     public LoadGameMessage(SerialModel model) {
+        this(model, 0);
+    }
+
+    /**
+     * Constructor for load game message of a game which can be synchronized later.
+     * @param model The serial model containing the information about the game to be loaded.
+     * @param gameId The id of the game, which the host changes whenever it loads another.
+     */
+    public LoadGameMessage(SerialModel model, int gameId) {
         this.model = model;
+        this.gameId = gameId;
     }
 
     /**
@@ -30,4 +45,12 @@ public class LoadGameMessage implements Message {
     public SerialModel getModel() {
         return model;
     }
+
+    /**
+     * Gets the id of the game.
+     * @return The id of the game, or 0 if the game can not be synchronized later.
+     */
+    public int getGameId() {
+        return gameId;
+    }
 }
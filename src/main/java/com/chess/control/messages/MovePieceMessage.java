@@ -33,9 +33,13 @@ public class MovePieceMessage implements Message {
      * The identifier corresponding to the type of the piece being moved.
      */
     private final Identifier pieceType;
+    /**
+     * The number the client gave the move, to match the answer of the host with it.
+     */
+    private final int sequence;
 
     /**
-     * The constructor for MovePieceMessage.
+     * The constructor for MovePieceMessage, for a move which is not numbered.
      * @param fromRow The row from which the move is made.
      * @param fromCol The column from which the move is made.
      * @param toRow The row to which the move is made.
@@ -44,12 +48,27 @@ public class MovePieceMessage implements Message {
      * @param pieceType The identifier for the type of the piece performing the move.
      */
     public MovePieceMessage(int fromRow, int fromCol, int toRow, int toCol, boolean isElimination, Identifier pieceType) {
+        this(fromRow, fromCol, toRow, toCol, isElimination, pieceType, 0);
+    }
+
+    /**
+     * The constructor for MovePieceMessage.
+     * @param fromRow The row from which the move is made.
+     * @param fromCol The column from which the move is made.
+     * @param toRow The row to which the move is made.
+     * @param toCol The column to which the move is made.
+     * @param isElimination Identifies whether the move implies the elimination of another piece.
+     * @param pieceType The identifier for the type of the piece performing the move.
+     * @param sequence The number the client gave the move, between 0 and 65535.
+     */
+    public MovePieceMessage(int fromRow, int fromCol, int toRow, int toCol, boolean isElimination, Identifier pieceType, int sequence) {
         this.fromRow = fromRow;
         this.fromCol = fromCol;
         this.toRow = toRow;
         this.toCol = toCol;
         this.isElimination = isElimination;
         this.pieceType = pieceType;
+        this.sequence = sequence;
     }
 
     /**
@@ -99,4 +118,12 @@ public class MovePieceMessage implements Message {
     public Identifier getPieceType() {
         return pieceType;
     }
+
+    /**
+     * Gets the number the client gave the move.
+     * @return The number, or 0 if the move is not numbered.
+     */
+    public int getSequence() {
+        return sequence;
+    }
 }
@@ -0,0 +1,31 @@
+package com.chess.control.messages;
+
+import com.chess.network.Message;
+
+/**
+ * A message sent by the host to a client whose move it did not affirm.
+ * @author agent
+ * @version 2026-10-17
+ */
+public class RejectMoveMessage implements Message {
+    /**
+     * The number the client gave the move.
+     */
+    private final int sequence;
+
+    /**
+     * Constructor for RejectMoveMessage.
+     * @param sequence The number the client gave the move.
+     */
+    public RejectMoveMessage(int sequence) {
+        this.sequence = sequence;
+    }
+
+    /**
+     * Gets the number the client gave the move.
+     * @return The number.
+     */
+    public int getSequence() {
+        return sequence;
+    }
+}
@@ -0,0 +1,108 @@
+package com.chess.control.messages;
+
+import com.chess.model.GameTime;
+import com.chess.model.chess.ChessSaveFormat;
+import com.chess.network.Message;
+
+/**
+ * A message sent by the host with the moves a client is missing.
+ * @author agent
+ * @version 2026-10-17
+ */
+public class SyncMovesMessage implements Message {
+    /**
+     * The id of the game.
+     */
+    private final int gameId;
+
+    /**
+     * The number of moves played before the first move of the message.
+     */
+    private final int firstMove;
+
+    /**
+     * The moves, packed in 16 bits with {@link ChessSaveFormat#packMove(int)}.
+     */
+    private final int[] moves;
+
+    /**
+     * The time left of the white player.
+     */
+    private final GameTime whiteTime;
+
+    /**
+     * The time left of the black player.
+     */
+    private final GameTime blackTime;
+
+    /**
+     * Indicates if the game is paused.
+     */
+    private final boolean paused;
+
+    /**
+     * Constructor for SyncMovesMessage.
+     * @param gameId The id of the game.
+     * @param firstMove The number of moves played before the first move of the message.
+     * @param moves The moves, packed in 16 bits.
+     * @param whiteTime The time left of the white player.
+     * @param blackTime The time left of the black player.
+     * @param paused True if the game is paused.
+     */
+    public SyncMovesMessage(int gameId, int firstMove, int[] moves, GameTime whiteTime, GameTime blackTime, boolean paused) {
+        this.gameId = gameId;
+        this.firstMove = firstMove;
+        this.moves = moves;
+        this.whiteTime = whiteTime;
+        this.blackTime = blackTime;
+        this.paused = paused;
+    }
+
+    /**
+     * Gets the id of the game.
+     * @return The id of the game.
+     */
+    public int getGameId() {
+        return gameId;
+    }
+
+    /**
+     * Gets the number of moves played before the first move of the message.
+     * @return The number of moves.
+     */
+    public int getFirstMove() {
+        return firstMove;
+    }
+
+    /**
+     * Gets the moves.
+     * @return The moves, packed in 16 bits.
+     */
+    public int[] getMoves() {
+        return moves;
+    }
+
+    /**
+     * Gets the time left of the white player.
+     * @return The time.
+     */
+    public GameTime getWhiteTime() {
+        return whiteTime;
+    }
+
+    /**
+     * Gets the time left of the black player.
+     * @return The time.
+     */
+    public GameTime getBlackTime() {
+        return blackTime;
+    }
+
+    /**
+     * Gets the variable identifying whether the game is paused or not.
+     * @return True if the game is paused, false otherwise.
+     */
+    public boolean isPaused() {
+        return paused;
+    }
+}
@@ -0,0 +1,61 @@
+package com.chess.control.messages;
+
+import com.chess.network.Message;
+
+/**
+ * A message sent by a client to catch up with the game of the host, telling how far it got.
+ * @author agent
+ * @version 2026-10-17
+ */
+public class SyncRequestMessage implements Message {
+    /**
+     * The id of the game the client has, or 0 if it has none.
+     */
+    private final int gameId;
+
+    /**
+     * The number of moves the client has applied.
+     */
+    private final int moveCount;
+
+    /**
+     * The key of the position the client is in.
+     */
+    private final long positionKey;
+
+    /**
+     * Constructor for SyncRequestMessage.
+     * @param gameId The id of the game the client has, or 0 if it has none.
+     * @param moveCount The number of moves the client has applied.
+     * @param positionKey The key of the position the client is in.
+     */
+    public SyncRequestMessage(int gameId, int moveCount, long positionKey) {
+        this.gameId = gameId;
+        this.moveCount = moveCount;
+        this.positionKey = positionKey;
+    }
+
+    /**
+     * Gets the id of the game the client has.
+     * @return The id, or 0 if the client has no game.
+     */
+    public int getGameId() {
+        return gameId;
+    }
+
+    /**
+     * Gets the number of moves the client has applied.
+     * @return The number of moves.
+     */
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * Gets the key of the position the client is in.
+     * @return The Zobrist key of the position.
+     */
+    public long getPositionKey() {
+        return positionKey;
+    }
+}
@@ -0,0 +1,258 @@
+package com.chess.engine;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.swing.SwingUtilities;
+
+import com.chess.control.ChessControlInterface;
+import com.chess.model.Identifier;
+import com.chess.model.Move;
+import com.chess.model.chess.ChessModel;
+import com.chess.model.chess.ChessMoveEncoding;
+import com.chess.model.chess.ChessTeam;
+import com.chess.utils.Delegate;
+import com.chess.utils.Event;
+
+/**
+ * A computer player for one team.
+ *
+ * When the team gets the turn, the game is copied to models owned by the engine, with the
+ * moves leading to it so repetitions are seen, and searched on a background thread with as
+ * many helper threads as configured. The best move is played on the event dispatch thread
+ * through {@link ChessControlInterface#movePiece(Move, Identifier)}, the same way a human
+ * player moves, with the piece a pawn is promoted to picked by the search.
+ * @author agent
+ * @version 2026-10-17
+ */
+public class EnginePlayer {
+    /**
+     * The number of moves the remaining time on the clock is divided over.
+     */
+    private static final int MOVES_TO_GO = 30;
+
+    /**
+     * The least time a search is given, in milliseconds.
+     */
+    private static final long MIN_MOVE_TIME = 50;
+
+    /**
+     * The control the moves are played through.
+     */
+    private final ChessControlInterface control;
+
+    /**
+     * The model of the game.
+     */
+    private final ChessModel model;
+
+    /**
+     * The team the engine plays.
+     */
+    private final Identifier teamIdentifier;
+
+    /**
+     * The search, searching models of its own.
+     */
+    private volatile ParallelSearch search = new ParallelSearch(1);
+
+    /**
+     * The thread the searches run on.
+     */
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "EnginePlayer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Starts a search when the team of the engine gets the turn.
+     */
+    private final Delegate<ChessTeam> onTeamChange = team -> {
+        if (team.getTeamIdentifier() == getTeamIdentifier()) {
+            requestMove();
+        }
+    };
+
+    /**
+     * Event triggered on the search thread when a search is done, before its move is played.
+     */
+    private final Event<SearchResult> onSearchCompletedEvent = new Event<>();
+
+    /**
+     * Indicates if the engine was stopped, after which a search done or queued plays no move.
+     */
+    private volatile boolean stopped;
+
+    /**
+     * The deepest iteration of a search.
+     */
+    private int maxDepth = SearchEngine.MAX_PLY;
+
+    /**
+     * The fixed time of a search in milliseconds, or 0 to use the clock of the team.
+     */
+    private long moveTime;
+
+    /**
+     * Creates a new engine player, it does not move until started.
+     *
+     * @param control the control the moves are played through
+     * @param model the model of the game
+     * @param teamIdentifier the team the engine plays
+     */
+    public EnginePlayer(ChessControlInterface control, ChessModel model, Identifier teamIdentifier) {
+        this.control = control;
+        this.model = model;
+        this.teamIdentifier = teamIdentifier;
+    }
+
+    /**
+     * Start playing, moving at once if it is the turn of the team.
+     */
+    public void start() {
+        model.getOnTeamChangeEvent().addDelegate(onTeamChange);
+
+        if (model.getCurrentTeam().getTeamIdentifier() == teamIdentifier) {
+            requestMove();
+        }
+    }
+
+    /**
+     * Stop playing and stop the search thread.
+     *
+     * A running search returns early, and its move is not played.
+     */
+    public void stop() {
+        stopped = true;
+        model.getOnTeamChangeEvent().removeDelegate(onTeamChange);
+        search.shutdown();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Search the current position and play the best move.
+     *
+     * The game is copied on the calling thread, the search runs on the search thread and
+     * the move is played on the event dispatch thread. The move is dropped if the game has
+     * moved on or the engine was stopped when the search is done.
+     */
+    public void requestMove() {
+        if (stopped || model.getGameOver() || model.isGameOver(teamIdentifier) != 0) {
+            return;
+        }
+
+        final String startFEN = model.getStartFEN() != null ? model.getStartFEN() : model.toFEN();
+        final int[] moves = model.getStartFEN() != null ? model.getMoveHistory() : new int[0];
+        final long positionKey = model.getPositionKey();
+        final long timeMillis = getTimeBudget();
+
+        executor.execute(() -> {
+            final SearchResult result = search.search(startFEN, moves, maxDepth, timeMillis);
+
+            onSearchCompletedEvent.trigger(result);
+
+            if (stopped || !result.hasMove()) {
+                return;
+            }
+
+            SwingUtilities.invokeLater(() -> {
+                if (!stopped && model.getPositionKey() == positionKey) {
+                    playMove(result.getBestMove());
+                }
+            });
+        });
+    }
+
+    /**
+     * Get the time the next search may take.
+     *
+     * Without a fixed move time the remaining time of the team is spread over the
+     * coming moves.
+     *
+     * @return the time in milliseconds
+     */
+    public long getTimeBudget() {
+        if (moveTime > 0) {
+            return moveTime;
+        }
+
+        final long remaining = model.getTeam(teamIdentifier).getTime().toMillis();
+
+        return Math.max(MIN_MOVE_TIME, remaining / MOVES_TO_GO);
+    }
+
+    /**
+     * Get the team the engine plays.
+     *
+     * @return the team identifier
+     */
+    public Identifier getTeamIdentifier() {
+        return teamIdentifier;
+    }
+
+    /**
+     * Get the event triggered when a search is done, with its nodes per second and time to move.
+     *
+     * @return the event
+     */
+    public Event<SearchResult> getOnSearchCompletedEvent() {
+        return onSearchCompletedEvent;
+    }
+
+    /**
+     * Set the deepest iteration of a search.
+     *
+     * @param maxDepth the depth in half moves
+     * @throws IllegalArgumentException if the depth is not between 1 and {@link SearchEngine#MAX_PLY}
+     */
+    public void setMaxDepth(int maxDepth) throws IllegalArgumentException {
+        if (maxDepth < 1 || maxDepth > SearchEngine.MAX_PLY) {
+            throw new IllegalArgumentException("Invalid depth: " + maxDepth);
+        }
+
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Set the number of threads a search runs on, keeping the transposition table.
+     *
+     * Takes effect from the next search.
+     *
+     * @param threads the number of threads
+     * @throws IllegalArgumentException if there is not at least one thread
+     */
+    public void setThreads(int threads) throws IllegalArgumentException {
+        final ParallelSearch previous = search;
+
+        if (threads == previous.getThreads()) {
+            return;
+        }
+
+        final ParallelSearch next = new ParallelSearch(threads, previous.getTable());
+
+        // A running search finishes on the previous threads before they are stopped
+        executor.execute(previous::shutdown);
+
+        search = next;
+    }
+
+    /**
+     * Set a fixed time for every search.
+     *
+     * @param moveTime the time in milliseconds, or 0 to use the clock of the team
+     */
+    public void setMoveTime(long moveTime) {
+        this.moveTime = Math.max(0, moveTime);
+    }
+
+    /**
+     * Play a move through the control, promoting a pawn to the type searched.
+     *
+     * @param move the packed move
+     */
+    private void playMove(int move) {
+        control.movePiece(ChessMoveEncoding.toMove(move),
+                ChessMoveEncoding.isPromotion(move) ? ChessMoveEncoding.getPromotionType(move) : null);
+    }
+}
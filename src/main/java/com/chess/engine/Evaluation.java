@@ -0,0 +1,166 @@
+package com.chess.engine;
+
+import com.chess.model.chess.BitboardBoardInformation;
+
+/**
+ * Static evaluation of a chess position from the bitboards.
+ *
+ * A position is scored by material and a piece-square table for every piece type, in
+ * centipawns from the perspective of white. The tables are written as seen from white,
+ * with the eighth row first.
+ * @author agent
+ * @version 2026-10-17
+ * @see <a href="https://www.chessprogramming.org/Simplified_Evaluation_Function">Simplified Evaluation Function</a>
+ */
+public final class Evaluation {
+    /**
+     * The value of every piece type, indexed by the type index of {@link BitboardBoardInformation}.
+     */
+    private static final int[] PIECE_VALUES = { 100, 500, 320, 330, 900, 20000 };
+
+    /**
+     * Bonus for a pawn on every square.
+     */
+    private static final int[] PAWN_TABLE = {
+         0,  0,  0,  0,  0,  0,  0,  0,
+        50, 50, 50, 50, 50, 50, 50, 50,
+        10, 10, 20, 30, 30, 20, 10, 10,
+         5,  5, 10, 25, 25, 10,  5,  5,
+         0,  0,  0, 20, 20,  0,  0,  0,
+         5, -5,-10,  0,  0,-10, -5,  5,
+         5, 10, 10,-20,-20, 10, 10,  5,
+         0,  0,  0,  0,  0,  0,  0,  0
+    };
+
+    /**
+     * Bonus for a rook on every square.
+     */
+    private static final int[] ROOK_TABLE = {
+         0,  0,  0,  0,  0,  0,  0,  0,
+         5, 10, 10, 10, 10, 10, 10,  5,
+        -5,  0,  0,  0,  0,  0,  0, -5,
+        -5,  0,  0,  0,  0,  0,  0, -5,
+        -5,  0,  0,  0,  0,  0,  0, -5,
+        -5,  0,  0,  0,  0,  0,  0, -5,
+        -5,  0,  0,  0,  0,  0,  0, -5,
+         0,  0,  0,  5,  5,  0,  0,  0
+    };
+
+    /**
+     * Bonus for a knight on every square.
+     */
+    private static final int[] KNIGHT_TABLE = {
+        -50,-40,-30,-30,-30,-30,-40,-50,
+        -40,-20,  0,  0,  0,  0,-20,-40,
+        -30,  0, 10, 15, 15, 10,  0,-30,
+        -30,  5, 15, 20, 20, 15,  5,-30,
+        -30,  0, 15, 20, 20, 15,  0,-30,
+        -30,  5, 10, 15, 15, 10,  5,-30,
+        -40,-20,  0,  5,  5,  0,-20,-40,
+        -50,-40,-30,-30,-30,-30,-40,-50
+    };
+
+    /**
+     * Bonus for a bishop on every square.
+     */
+    private static final int[] BISHOP_TABLE = {
+        -20,-10,-10,-10,-10,-10,-10,-20,
+        -10,  0,  0,  0,  0,  0,  0,-10,
+        -10,  0,  5, 10, 10,  5,  0,-10,
+        -10,  5,  5, 10, 10,  5,  5,-10,
+        -10,  0, 10, 10, 10, 10,  0,-10,
+        -10, 10, 10, 10, 10, 10, 10,-10,
+        -10,  5,  0,  0,  0,  0,  5,-10,
+        -20,-10,-10,-10,-10,-10,-10,-20
+    };
+
+    /**
+     * Bonus for a queen on every square.
+     */
+    private static final int[] QUEEN_TABLE = {
+        -20,-10,-10, -5, -5,-10,-10,-20,
+        -10,  0,  0,  0,  0,  0,  0,-10,
+        -10,  0,  5,  5,  5,  5,  0,-10,
+         -5,  0,  5,  5,  5,  5,  0, -5,
+          0,  0,  5,  5,  5,  5,  0, -5,
+        -10,  5,  5,  5,  5,  5,  0,-10,
+        -10,  0,  5,  0,  0,  0,  0,-10,
+        -20,-10,-10, -5, -5,-10,-10,-20
+    };
+
+    /**
+     * Bonus for a king on every square.
+     */
+    private static final int[] KING_TABLE = {
+        -30,-40,-40,-50,-50,-40,-40,-30,
+        -30,-40,-40,-50,-50,-40,-40,-30,
+        -30,-40,-40,-50,-50,-40,-40,-30,
+        -30,-40,-40,-50,-50,-40,-40,-30,
+        -20,-30,-30,-40,-40,-30,-30,-20,
+        -10,-20,-20,-20,-20,-20,-20,-10,
+         20, 20,  0,  0,  0,  0, 20, 20,
+         20, 30, 10,  0,  0, 10, 30, 20
+    };
+
+    /**
+     * The piece-square tables, indexed by the type index of {@link BitboardBoardInformation}.
+     */
+    private static final int[][] TABLES = { PAWN_TABLE, ROOK_TABLE, KNIGHT_TABLE, BISHOP_TABLE, QUEEN_TABLE, KING_TABLE };
+
+    /**
+     * The highest row index.
+     */
+    private static final int LAST_ROW = BitboardBoardInformation.BOARD_SIZE - 1;
+
+    /**
+     * Utility class, not to be instantiated.
+     */
+    private Evaluation() {
+    }
+
+    /**
+     * Evaluate a position.
+     *
+     * @param boardInformation the bitboards of the position
+     * @return the score in centipawns, positive if white is better
+     */
+    public static int evaluate(BitboardBoardInformation boardInformation) {
+        int score = 0;
+
+        for (int type = 0; type < BitboardBoardInformation.PIECE_TYPES; type++) {
+            final int[] table = TABLES[type];
+
+            long white = boardInformation.getPieceBoard(type);
+            long black = boardInformation.getPieceBoard(BitboardBoardInformation.PIECE_TYPES + type);
+
+            score += (Long.bitCount(white) - Long.bitCount(black)) * PIECE_VALUES[type];
+
+            // White reads the tables mirrored, as the first row of a table is the eighth row
+            while (white != 0) {
+                final int square = Long.numberOfTrailingZeros(white);
+
+                score += table[square ^ (LAST_ROW * BitboardBoardInformation.BOARD_SIZE)];
+                white &= white - 1;
+            }
+
+            while (black != 0) {
+                final int square = Long.numberOfTrailingZeros(black);
+
+                score -= table[square];
+                black &= black - 1;
+            }
+        }
+
+        return score;
+    }
+
+    /**
+     * Get the value of a piece.
+     *
+     * @param pieceIndex the piece index, as returned by {@link BitboardBoardInformation#pieceIndex}
+     * @return the value in centipawns
+     */
+    public static int getPieceValue(int pieceIndex) {
+        return PIECE_VALUES[pieceIndex % BitboardBoardInformation.PIECE_TYPES];
+    }
+}
@@ -0,0 +1,198 @@
+package com.chess.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.chess.model.chess.ChessModel;
+
+/**
+ * Searches a position on several threads with Lazy SMP.
+ *
+ * Every thread runs its own {@link SearchEngine} on its own copy of the position, as
+ * the model, board and rules are not thread-safe. The threads share one transposition
+ * table and so share the work through it, every other helper starts one iteration deeper
+ * to spread them over the tree. The search ends when the main thread is done.
+ * @author agent
+ * @version 2026-10-17
+ * @see <a href="https://www.chessprogramming.org/Lazy_SMP">Lazy SMP</a>
+ */
+public class ParallelSearch {
+    /**
+     * The engines, the first one runs on the calling thread.
+     */
+    private final SearchEngine[] engines;
+
+    /**
+     * The table shared by the engines.
+     */
+    private final TranspositionTable table;
+
+    /**
+     * The threads of the helper engines, or null for a single thread.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Creates a new parallel search with a transposition table of the default size.
+     *
+     * @param threads the number of search threads
+     * @throws IllegalArgumentException if there is not at least one thread
+     */
+    public ParallelSearch(int threads) throws IllegalArgumentException {
+        this(threads, new TranspositionTable());
+    }
+
+    /**
+     * Creates a new parallel search.
+     *
+     * @param threads the number of search threads
+     * @param table the transposition table shared by the threads
+     * @throws IllegalArgumentException if there is not at least one thread
+     */
+    public ParallelSearch(int threads, TranspositionTable table) throws IllegalArgumentException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Invalid number of search threads: " + threads);
+        }
+
+        this.table = table;
+        this.engines = new SearchEngine[threads];
+
+        for (int i = 0; i < threads; i++) {
+            engines[i] = new SearchEngine(new ChessModel(), table);
+        }
+
+        this.executor = threads == 1 ? null : Executors.newFixedThreadPool(threads - 1, runnable -> {
+            final Thread thread = new Thread(runnable, "SearchHelper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Search a position for the best move of the team in turn.
+     *
+     * @param fen the position in Forsyth-Edwards Notation
+     * @param maxDepth the deepest iteration, in half moves
+     * @param timeMillis the time the search may take, or 0 for no limit
+     * @return the result of the deepest completed iteration of any thread, with the nodes of all threads
+     * @throws IllegalArgumentException if the FEN or the depth is invalid
+     */
+    public SearchResult search(String fen, int maxDepth, long timeMillis) throws IllegalArgumentException {
+        return search(fen, new int[0], maxDepth, timeMillis);
+    }
+
+    /**
+     * Search the position reached by moves from a position for the best move of the team in turn.
+     *
+     * The positions the moves pass through count as repetitions, so a game is not drawn by
+     * returning to them unless that is the best the team can do.
+     *
+     * @param startFEN the position the moves are played from, in Forsyth-Edwards Notation
+     * @param moves the moves played, packed with {@link com.chess.model.chess.ChessMoveEncoding}
+     * @param maxDepth the deepest iteration, in half moves
+     * @param timeMillis the time the search may take, or 0 for no limit
+     * @return the result of the deepest completed iteration of any thread, with the nodes of all threads
+     * @throws IllegalArgumentException if the FEN or the depth is invalid
+     */
+    public SearchResult search(String startFEN, int[] moves, int maxDepth, long timeMillis) throws IllegalArgumentException {
+        final long start = System.nanoTime();
+
+        for (SearchEngine engine : engines) {
+            engine.getModel().loadMoves(startFEN, moves);
+            engine.resetStop();
+        }
+
+        table.newSearch();
+
+        final List<Future<SearchResult>> helpers = new ArrayList<>();
+
+        for (int i = 1; i < engines.length; i++) {
+            final SearchEngine engine = engines[i];
+            final int startDepth = Math.min(1 + i % 2, maxDepth);
+
+            helpers.add(executor.submit(() -> engine.search(startDepth, maxDepth, timeMillis)));
+        }
+
+        SearchResult best;
+
+        try {
+            best = engines[0].search(1, maxDepth, timeMillis);
+        } finally {
+            stop();
+        }
+
+        long nodes = best.getNodes();
+
+        for (Future<SearchResult> helper : helpers) {
+            final SearchResult result = getResult(helper);
+
+            nodes += result.getNodes();
+
+            if (result.getDepth() > best.getDepth() && result.hasMove()) {
+                best = result;
+            }
+        }
+
+        return new SearchResult(best.getBestMove(), best.getScore(), best.getDepth(), nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Stop a running search on every thread.
+     */
+    public void stop() {
+        for (SearchEngine engine : engines) {
+            engine.stop();
+        }
+    }
+
+    /**
+     * Stop the helper threads, the search may not be used after this.
+     */
+    public void shutdown() {
+        stop();
+
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Get the number of search threads.
+     *
+     * @return the number of threads
+     */
+    public int getThreads() {
+        return engines.length;
+    }
+
+    /**
+     * Get the transposition table shared by the threads.
+     *
+     * @return the table
+     */
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    /**
+     * Wait for a helper to finish.
+     *
+     * @param helper the helper
+     * @return the result of the helper
+     * @throws IllegalStateException if the helper failed or the thread was interrupted
+     */
+    private static SearchResult getResult(Future<SearchResult> helper) throws IllegalStateException {
+        try {
+            return helper.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search thread failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a search thread", e);
+        }
+    }
+}
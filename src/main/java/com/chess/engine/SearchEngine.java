@@ -0,0 +1,628 @@
+package com.chess.engine;
+
+import com.chess.model.Identifier;
+import com.chess.model.chess.BitboardBoardInformation;
+import com.chess.model.chess.ChessModel;
+import com.chess.model.chess.ChessMoveEncoding;
+import com.chess.model.chess.ChessMoveGenerator;
+import com.chess.model.chess.ChessMoveUndo;
+
+/**
+ * Finds the best move in a position with negamax alpha-beta search.
+ *
+ * The search deepens one half move at a time until the time runs out, so a move is
+ * always ready. Captures are searched to the end with quiescence search, and moves are
+ * ordered with the best move from the transposition table first, then captures by most
+ * valuable victim and least valuable attacker, then killer moves. Positions already
+ * searched deep enough are answered from the transposition table.
+ *
+ * The engine makes and unmakes moves on its model without any events, so the model must
+ * not be shared with the game or other threads while searching.
+ * @author agent
+ * @version 2026-10-17
+ * @see <a href="https://www.chessprogramming.org/Negamax">Negamax</a>
+ */
+public class SearchEngine {
+    /**
+     * The deepest a search may go, in half moves from the root.
+     */
+    public static final int MAX_PLY = 64;
+
+    /**
+     * The score of giving checkmate at the root, mates further away score less.
+     */
+    public static final int MATE = 30000;
+
+    /**
+     * A score outside every real score.
+     */
+    private static final int INFINITY = MATE + 1;
+
+    /**
+     * The clock is read every this many nodes, must be a power of two.
+     */
+    private static final int CHECK_INTERVAL = 1024;
+
+    /**
+     * Ordering score of the best move from the previous iteration or the transposition table.
+     */
+    private static final int BEST_MOVE_ORDER = 1 << 24;
+
+    /**
+     * Ordering score added to every capture and promotion.
+     */
+    private static final int CAPTURE_ORDER = 1 << 20;
+
+    /**
+     * Ordering score of the killer moves.
+     */
+    private static final int KILLER_ORDER = 1 << 16;
+
+    /**
+     * The model searched.
+     */
+    private final ChessModel model;
+
+    /**
+     * The transposition table, may be shared with other engines.
+     */
+    private final TranspositionTable table;
+
+    /**
+     * The bitboards of the model.
+     */
+    private final BitboardBoardInformation boardInformation;
+
+    /**
+     * The move generator of the model.
+     */
+    private final ChessMoveGenerator moveGenerator;
+
+    /**
+     * One move buffer per ply.
+     */
+    private final int[][] moves = new int[MAX_PLY + 1][ChessMoveGenerator.MAX_MOVES];
+
+    /**
+     * The ordering score of every move, parallel to the move buffers.
+     */
+    private final int[][] orders = new int[MAX_PLY + 1][ChessMoveGenerator.MAX_MOVES];
+
+    /**
+     * Two quiet moves per ply which last caused a beta cutoff.
+     */
+    private final int[][] killers = new int[MAX_PLY + 1][2];
+
+    /**
+     * The number of positions visited in the current search.
+     */
+    private long nodes;
+
+    /**
+     * The time the current search must stop, from {@link System#nanoTime()}, or 0 for no limit.
+     */
+    private long deadline;
+
+    /**
+     * Set when the search has to stop.
+     */
+    private volatile boolean stopped;
+
+    /**
+     * Creates a new search engine with a transposition table of its own.
+     *
+     * @param model the model to search, owned by the engine while searching
+     */
+    public SearchEngine(ChessModel model) {
+        this(model, new TranspositionTable());
+    }
+
+    /**
+     * Creates a new search engine.
+     *
+     * @param model the model to search, owned by the engine while searching
+     * @param table the transposition table
+     */
+    public SearchEngine(ChessModel model, TranspositionTable table) {
+        this.model = model;
+        this.table = table;
+        this.boardInformation = model.getBoardInformation();
+        this.moveGenerator = model.getMoveGenerator();
+    }
+
+    //
+    // Search
+    //
+
+    /**
+     * Search the current position of the model for the best move of the team in turn.
+     *
+     * The model is left in the position it started in.
+     *
+     * @param maxDepth the deepest iteration, in half moves
+     * @param timeMillis the time the search may take, or 0 for no limit
+     * @return the result of the deepest completed iteration
+     * @throws IllegalArgumentException if the depth is not between 1 and {@link #MAX_PLY}
+     */
+    public SearchResult search(int maxDepth, long timeMillis) throws IllegalArgumentException {
+        table.newSearch();
+        stopped = false;
+
+        return search(1, maxDepth, timeMillis);
+    }
+
+    /**
+     * Search the current position of the model, starting the iterations at a given depth.
+     *
+     * The transposition table is not told about a new search, so that several engines
+     * sharing the table can search the same position together. A stop requested before
+     * the search starts is kept, so a late helper thread does not outlive the search.
+     *
+     * @param startDepth the first iteration, in half moves
+     * @param maxDepth the deepest iteration, in half moves
+     * @param timeMillis the time the search may take, or 0 for no limit
+     * @return the result of the deepest completed iteration
+     * @throws IllegalArgumentException if the depths are not between 1 and {@link #MAX_PLY}
+     * @see ParallelSearch
+     */
+    public SearchResult search(int startDepth, int maxDepth, long timeMillis) throws IllegalArgumentException {
+        if (startDepth < 1 || maxDepth < startDepth || maxDepth > MAX_PLY) {
+            throw new IllegalArgumentException("Invalid depth: " + startDepth + " to " + maxDepth);
+        }
+
+        final long start = System.nanoTime();
+
+        nodes = 0;
+        deadline = timeMillis > 0 ? start + timeMillis * 1_000_000 : 0;
+
+        for (int[] killer : killers) {
+            killer[0] = 0;
+            killer[1] = 0;
+        }
+
+        final int[] rootMoves = moves[0];
+        final int count = moveGenerator.generateLegalMoves(getTeamInTurn(), rootMoves);
+
+        if (count == 0) {
+            return new SearchResult(0, isInCheck() ? -MATE : 0, 0, 0, System.nanoTime() - start);
+        }
+
+        final long rootKey = model.getPositionKey();
+
+        // A move from the table may come from another position with the same index, it is only used if legal
+        int bestMove = TranspositionTable.getMove(table.probe(rootKey));
+        int bestScore = -INFINITY;
+        int completedDepth = 0;
+
+        for (int depth = startDepth; depth <= maxDepth; depth++) {
+            int iterationMove = 0;
+            int alpha = -INFINITY;
+
+            orderMoves(rootMoves, orders[0], count, bestMove, 0);
+
+            for (int i = 0; i < count; i++) {
+                final int move = nextMove(rootMoves, orders[0], count, i);
+                final ChessMoveUndo undo = model.makeMove(move);
+                final int score = -negamax(depth - 1, -INFINITY, -alpha, 1);
+
+                model.unmakeMove(undo);
+
+                if (stopped) {
+                    break;
+                }
+
+                if (score > alpha) {
+                    alpha = score;
+                    iterationMove = move;
+                }
+            }
+
+            // The previous best move is searched first, so any move an unfinished iteration found is at least as good
+            if (stopped) {
+                if (iterationMove != 0) {
+                    bestMove = iterationMove;
+                    bestScore = alpha;
+                }
+                break;
+            }
+
+            bestMove = iterationMove;
+            bestScore = alpha;
+            completedDepth = depth;
+
+            table.store(rootKey, bestMove, toTableScore(bestScore, 0), depth, TranspositionTable.EXACT);
+
+            // A forced mate will not change with more depth
+            if (Math.abs(bestScore) >= MATE - MAX_PLY) {
+                break;
+            }
+
+            // The next iteration takes several times as long, do not start what will not finish
+            if (deadline != 0 && System.nanoTime() - start > (deadline - start) / 2) {
+                break;
+            }
+        }
+
+        // Without a completed iteration the table move may not be legal here
+        if (completedDepth == 0 && bestScore == -INFINITY) {
+            bestMove = rootMoves[0];
+        }
+
+        return new SearchResult(bestMove, bestScore, completedDepth, nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Stop a running search, it returns the best move found so far.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Clear a stop, before a search that should run.
+     */
+    void resetStop() {
+        stopped = false;
+    }
+
+    /**
+     * Get the number of positions visited by the current or last search.
+     *
+     * @return the number of nodes
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Get the transposition table.
+     *
+     * @return the table
+     */
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    /**
+     * Get the model searched.
+     *
+     * @return the model
+     */
+    public ChessModel getModel() {
+        return model;
+    }
+
+    /**
+     * Search a position to a fixed depth.
+     *
+     * @param depth the remaining depth, in half moves
+     * @param alpha the score the team in turn is already assured of
+     * @param beta the score the other team is already assured of
+     * @param ply the distance from the root
+     * @return the score from the perspective of the team in turn
+     */
+    private int negamax(int depth, int alpha, int beta, int ply) {
+        if (isTimeUp()) {
+            return 0;
+        }
+
+        if (model.getRepetitionCount() >= 2 || model.getHalfMoves() >= ChessModel.FIFTY_MOVE_HALF_MOVES) {
+            return 0;
+        }
+
+        final boolean inCheck = isInCheck();
+
+        // Search one half move deeper when in check, so mates are not pushed past the horizon
+        if (inCheck && ply < MAX_PLY / 2) {
+            depth++;
+        }
+
+        if (depth <= 0 || ply >= MAX_PLY) {
+            return quiescence(alpha, beta, ply);
+        }
+
+        nodes++;
+
+        final long key = model.getPositionKey();
+        final long entry = table.probe(key);
+
+        if (entry != 0 && TranspositionTable.getDepth(entry) >= depth) {
+            final int score = fromTableScore(TranspositionTable.getScore(entry), ply);
+            final int bound = TranspositionTable.getBound(entry);
+
+            if (bound == TranspositionTable.EXACT
+                    || (bound == TranspositionTable.LOWER && score >= beta)
+                    || (bound == TranspositionTable.UPPER && score <= alpha)) {
+                return score;
+            }
+        }
+
+        final int[] buffer = moves[ply];
+        final int[] order = orders[ply];
+        final int count = moveGenerator.generateLegalMoves(getTeamInTurn(), buffer);
+
+        if (count == 0) {
+            return inCheck ? -MATE + ply : 0;
+        }
+
+        orderMoves(buffer, order, count, TranspositionTable.getMove(entry), ply);
+
+        int bestMove = 0;
+
+        for (int i = 0; i < count; i++) {
+            final int move = nextMove(buffer, order, count, i);
+            final ChessMoveUndo undo = model.makeMove(move);
+            final int score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+
+            model.unmakeMove(undo);
+
+            if (stopped) {
+                return 0;
+            }
+
+            if (score >= beta) {
+                storeKiller(move, ply);
+                table.store(key, move, toTableScore(score, ply), depth, TranspositionTable.LOWER);
+                return score;
+            }
+
+            if (score > alpha) {
+                alpha = score;
+                bestMove = move;
+            }
+        }
+
+        table.store(key, bestMove, toTableScore(alpha, ply), depth, bestMove != 0 ? TranspositionTable.EXACT : TranspositionTable.UPPER);
+
+        return alpha;
+    }
+
+    /**
+     * Search captures and promotions until the position is quiet.
+     *
+     * @param alpha the score the team in turn is already assured of
+     * @param beta the score the other team is already assured of
+     * @param ply the distance from the root
+     * @return the score from the perspective of the team in turn
+     */
+    private int quiescence(int alpha, int beta, int ply) {
+        if (isTimeUp()) {
+            return 0;
+        }
+
+        nodes++;
+
+        // The team in turn may decline every capture
+        final int standPat = evaluate();
+
+        if (standPat >= beta || ply >= MAX_PLY) {
+            return standPat;
+        }
+
+        if (standPat > alpha) {
+            alpha = standPat;
+        }
+
+        final int[] buffer = moves[ply];
+        final int[] order = orders[ply];
+        final int pseudoLegal = moveGenerator.generatePseudoLegalMoves(getTeamInTurn(), buffer);
+
+        int count = 0;
+
+        for (int i = 0; i < pseudoLegal; i++) {
+            if (ChessMoveEncoding.isCapture(buffer[i]) || ChessMoveEncoding.isPromotion(buffer[i])) {
+                buffer[count++] = buffer[i];
+            }
+        }
+
+        orderMoves(buffer, order, count, 0, ply);
+
+        for (int i = 0; i < count; i++) {
+            final int move = nextMove(buffer, order, count, i);
+
+            if (!moveGenerator.isLegal(move)) {
+                continue;
+            }
+
+            final ChessMoveUndo undo = model.makeMove(move);
+            final int score = -quiescence(-beta, -alpha, ply + 1);
+
+            model.unmakeMove(undo);
+
+            if (stopped) {
+                return 0;
+            }
+
+            if (score >= beta) {
+                return score;
+            }
+
+            if (score > alpha) {
+                alpha = score;
+            }
+        }
+
+        return alpha;
+    }
+
+    //
+    // Helpers
+    //
+
+    /**
+     * Give every move an ordering score.
+     *
+     * @param buffer the moves
+     * @param order the ordering scores, filled in
+     * @param count the number of moves
+     * @param bestMove the move to search first, or 0
+     * @param ply the distance from the root
+     */
+    private void orderMoves(int[] buffer, int[] order, int count, int bestMove, int ply) {
+        for (int i = 0; i < count; i++) {
+            final int move = buffer[i];
+
+            if (move == bestMove) {
+                order[i] = BEST_MOVE_ORDER;
+            } else if (ChessMoveEncoding.isCapture(move) || ChessMoveEncoding.isPromotion(move)) {
+                order[i] = CAPTURE_ORDER + getMaterialGain(move) * 8 - Evaluation.getPieceValue(ChessMoveEncoding.getPieceIndex(move)) / 100;
+            } else if (move == killers[ply][0] || move == killers[ply][1]) {
+                order[i] = KILLER_ORDER;
+            } else {
+                order[i] = 0;
+            }
+        }
+    }
+
+    /**
+     * Get the material a capture or promotion wins, before any recapture.
+     *
+     * @param move the packed move
+     * @return the value of the captured piece and the promotion, in centipawns
+     */
+    private int getMaterialGain(int move) {
+        final int flags = ChessMoveEncoding.getFlags(move);
+        final int pieceIndex = ChessMoveEncoding.getPieceIndex(move);
+
+        int gain = 0;
+
+        if (flags == ChessMoveEncoding.EN_PASSANT) {
+            gain += Evaluation.getPieceValue(pieceIndex);
+        } else if (ChessMoveEncoding.isCapture(move)) {
+            gain += Evaluation.getPieceValue(boardInformation.getPieceIndex(ChessMoveEncoding.getTo(move)));
+        }
+
+        if (ChessMoveEncoding.isPromotion(move)) {
+            gain += Evaluation.getPieceValue(BitboardBoardInformation.typeIndex(ChessMoveEncoding.getPromotionType(move)))
+                    - Evaluation.getPieceValue(pieceIndex);
+        }
+
+        return gain;
+    }
+
+    /**
+     * Move the best ordered of the remaining moves to an index, one step of a selection sort.
+     *
+     * Most nodes are cut off after a few moves, so sorting all of them up front is wasted.
+     *
+     * @param buffer the moves
+     * @param order the ordering scores
+     * @param count the number of moves
+     * @param index the index to fill
+     * @return the move at the index
+     */
+    private static int nextMove(int[] buffer, int[] order, int count, int index) {
+        int best = index;
+
+        for (int i = index + 1; i < count; i++) {
+            if (order[i] > order[best]) {
+                best = i;
+            }
+        }
+
+        final int move = buffer[best];
+        final int score = order[best];
+
+        buffer[best] = buffer[index];
+        order[best] = order[index];
+        buffer[index] = move;
+        order[index] = score;
+
+        return move;
+    }
+
+    /**
+     * Convert a score to store in the transposition table, mate scores are stored as the
+     * distance from the position instead of from the root.
+     *
+     * @param score the score
+     * @param ply the distance of the position from the root
+     * @return the score to store
+     */
+    private static int toTableScore(int score, int ply) {
+        if (score >= MATE - MAX_PLY) {
+            return score + ply;
+        } else if (score <= -MATE + MAX_PLY) {
+            return score - ply;
+        }
+
+        return score;
+    }
+
+    /**
+     * Convert a score read from the transposition table back to a score from the root.
+     *
+     * @param score the stored score
+     * @param ply the distance of the position from the root
+     * @return the score
+     */
+    private static int fromTableScore(int score, int ply) {
+        if (score >= MATE - MAX_PLY) {
+            return score - ply;
+        } else if (score <= -MATE + MAX_PLY) {
+            return score + ply;
+        }
+
+        return score;
+    }
+
+    /**
+     * Remember a quiet move which caused a beta cutoff.
+     *
+     * @param move the packed move
+     * @param ply the distance from the root
+     */
+    private void storeKiller(int move, int ply) {
+        if (ChessMoveEncoding.isCapture(move) || ChessMoveEncoding.isPromotion(move) || killers[ply][0] == move) {
+            return;
+        }
+
+        killers[ply][1] = killers[ply][0];
+        killers[ply][0] = move;
+    }
+
+    /**
+     * Check the clock every {@link #CHECK_INTERVAL} nodes and stop the search when it has run out.
+     *
+     * @return true if the search has to stop
+     */
+    private boolean isTimeUp() {
+        if (deadline != 0 && (nodes & (CHECK_INTERVAL - 1)) == 0 && System.nanoTime() >= deadline) {
+            stopped = true;
+        }
+
+        return stopped;
+    }
+
+    /**
+     * Evaluate the position from the perspective of the team in turn.
+     *
+     * @return the score in centipawns
+     */
+    private int evaluate() {
+        final int score = Evaluation.evaluate(boardInformation);
+
+        return BitboardBoardInformation.teamIndex(getTeamInTurn()) == 0 ? score : -score;
+    }
+
+    /**
+     * Check if the king of the team in turn is attacked.
+     *
+     * @return true if the team in turn is in check
+     */
+    private boolean isInCheck() {
+        final Identifier teamIdentifier = getTeamInTurn();
+        final int kingSquare = boardInformation.getKingSquare(teamIdentifier);
+
+        return kingSquare >= 0 && moveGenerator.isAttacked(kingSquare, teamIdentifier);
+    }
+
+    /**
+     * Get the team in turn.
+     *
+     * @return the team identifier
+     */
+    private Identifier getTeamInTurn() {
+        return model.getTeamManager().getCurrentTeamIdentifier();
+    }
+}
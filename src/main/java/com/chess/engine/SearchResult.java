@@ -0,0 +1,136 @@
+package com.chess.engine;
+
+import com.chess.model.Move;
+import com.chess.model.chess.ChessMoveEncoding;
+
+/**
+ * The outcome of a search, the best move found and how long it took to find.
+ * @author agent
+ * @version 2026-10-17
+ */
+public final class SearchResult {
+    /**
+     * The best move, packed with {@link ChessMoveEncoding}, or 0 if there is no legal move.
+     */
+    private final int bestMove;
+
+    /**
+     * The score of the best move in centipawns, from the perspective of the team in turn.
+     */
+    private final int score;
+
+    /**
+     * The deepest completed iteration.
+     */
+    private final int depth;
+
+    /**
+     * The number of positions visited.
+     */
+    private final long nodes;
+
+    /**
+     * The time the search took in nanoseconds.
+     */
+    private final long elapsedNanos;
+
+    /**
+     * Creates a new search result.
+     *
+     * @param bestMove the best move, packed with {@link ChessMoveEncoding}, or 0 if there is no legal move
+     * @param score the score in centipawns
+     * @param depth the deepest completed iteration
+     * @param nodes the number of positions visited
+     * @param elapsedNanos the time the search took in nanoseconds
+     */
+    public SearchResult(int bestMove, int score, int depth, long nodes, long elapsedNanos) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Get the best move.
+     *
+     * @return the move packed with {@link ChessMoveEncoding}, or 0 if there is no legal move
+     */
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    /**
+     * Check if a move was found.
+     *
+     * @return false if the team in turn had no legal move
+     */
+    public boolean hasMove() {
+        return bestMove != 0;
+    }
+
+    /**
+     * Get the best move as a move.
+     *
+     * @return the move
+     * @throws IllegalStateException if there is no legal move
+     */
+    public Move getMove() throws IllegalStateException {
+        if (!hasMove()) {
+            throw new IllegalStateException("The search found no legal move");
+        }
+
+        return ChessMoveEncoding.toMove(bestMove);
+    }
+
+    /**
+     * Get the score of the best move.
+     *
+     * @return the score in centipawns, from the perspective of the team in turn
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Get the deepest completed iteration.
+     *
+     * @return the depth in half moves
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Get the number of positions visited.
+     *
+     * @return the number of nodes
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Get the time the search took, the time to move.
+     *
+     * @return the time in milliseconds
+     */
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    /**
+     * Get the search speed.
+     *
+     * @return the number of positions visited per second
+     */
+    public long getNodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : nodes * 1_000_000_000L / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return (hasMove() ? ChessMoveEncoding.toString(bestMove) : "none") + " score " + score + " depth " + depth
+                + " nodes " + nodes + " time " + getElapsedMillis() + " ms nps " + getNodesPerSecond();
+    }
+}
@@ -0,0 +1,297 @@
+package com.chess.engine;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size hash table of searched positions, shared by any number of search threads.
+ *
+ * Entries are packed two longs each into one long array, so millions of them cost a
+ * single allocation and nothing for the garbage collector to trace. An entry is the
+ * Zobrist key XOR the data followed by the data. Threads probe and store without locks,
+ * and an entry torn by two threads writing at once no longer matches its key, so it is
+ * treated as a miss.
+ *
+ * Entries live in buckets of two. A store replaces the entry of the same position, or
+ * else the entry with the least depth, where entries from earlier searches count as
+ * shallower.
+ * @author agent
+ * @version 2026-10-17
+ * @see <a href="https://www.chessprogramming.org/Shared_Hash_Table#Lockless">Lockless hashing</a>
+ */
+public class TranspositionTable {
+    /**
+     * The memory budget of the table if none is given, in megabytes.
+     */
+    public static final int DEFAULT_MEGABYTES = 16;
+
+    /**
+     * The score is exact.
+     */
+    public static final int EXACT = 3;
+
+    /**
+     * The score is a lower bound, the search failed high.
+     */
+    public static final int LOWER = 1;
+
+    /**
+     * The score is an upper bound, the search failed low.
+     */
+    public static final int UPPER = 2;
+
+    /**
+     * The number of longs in an entry.
+     */
+    private static final int ENTRY_LONGS = 2;
+
+    /**
+     * The number of entries in a bucket.
+     */
+    private static final int BUCKET_ENTRIES = 2;
+
+    /**
+     * The most longs the table may hold, the largest power of two an array can be.
+     */
+    private static final int MAX_LONGS = 1 << 30;
+
+    /**
+     * Bits 0-19 of the data hold the move.
+     */
+    private static final long MOVE_MASK = (1L << 20) - 1;
+
+    /**
+     * Bits 20-27 of the data hold the depth.
+     */
+    private static final int DEPTH_SHIFT = 20;
+
+    /**
+     * Bits 28-29 of the data hold the bound.
+     */
+    private static final int BOUND_SHIFT = 28;
+
+    /**
+     * Bits 32-39 of the data hold the generation.
+     */
+    private static final int GENERATION_SHIFT = 32;
+
+    /**
+     * Bits 48-63 of the data hold the score.
+     */
+    private static final int SCORE_SHIFT = 48;
+
+    /**
+     * Mask for the depth and the generation.
+     */
+    private static final int BYTE_MASK = 0xFF;
+
+    /**
+     * The entries, the key XOR the data followed by the data.
+     */
+    private final long[] entries;
+
+    /**
+     * Mask from a key to the first long of a bucket.
+     */
+    private final int mask;
+
+    /**
+     * The generation of the current search, stored with every entry.
+     */
+    private volatile int generation;
+
+    /**
+     * Creates a new transposition table with the default memory budget.
+     */
+    public TranspositionTable() {
+        this(DEFAULT_MEGABYTES);
+    }
+
+    /**
+     * Creates a new transposition table.
+     *
+     * The number of entries is rounded down to a power of two.
+     *
+     * @param megabytes the memory budget
+     * @throws IllegalArgumentException if the budget is less than one megabyte
+     */
+    public TranspositionTable(int megabytes) throws IllegalArgumentException {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Invalid transposition table size: " + megabytes + " MB");
+        }
+
+        final long longs = Math.min((long) megabytes * (1 << 20) / Long.BYTES, MAX_LONGS);
+
+        this.entries = new long[(int) Long.highestOneBit(longs)];
+        this.mask = (entries.length - 1) & ~(ENTRY_LONGS * BUCKET_ENTRIES - 1);
+    }
+
+    /**
+     * Look up a position.
+     *
+     * @param key the Zobrist key of the position
+     * @return the data of the entry, or 0 if the position is not in the table
+     */
+    public long probe(long key) {
+        final int bucket = (int) key & mask;
+
+        for (int i = bucket; i < bucket + ENTRY_LONGS * BUCKET_ENTRIES; i += ENTRY_LONGS) {
+            final long data = entries[i + 1];
+
+            if ((entries[i] ^ data) == key && data != 0) {
+                return data;
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * Store a searched position.
+     *
+     * @param key the Zobrist key of the position
+     * @param move the best move, packed with {@link com.chess.model.chess.ChessMoveEncoding}, or 0
+     * @param score the score, mate scores relative to the position
+     * @param depth the depth searched
+     * @param bound {@link #EXACT}, {@link #LOWER} or {@link #UPPER}
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        final int bucket = (int) key & mask;
+        final int currentGeneration = generation;
+
+        int target = bucket;
+        int targetWorth = Integer.MAX_VALUE;
+
+        for (int i = bucket; i < bucket + ENTRY_LONGS * BUCKET_ENTRIES; i += ENTRY_LONGS) {
+            final long data = entries[i + 1];
+
+            if ((entries[i] ^ data) == key) {
+                // Keep a deeper result of the same position, but never its best move for none
+                if (depth < getDepth(data) && bound != EXACT && getGeneration(data) == currentGeneration) {
+                    return;
+                }
+
+                if (move == 0) {
+                    move = getMove(data);
+                }
+
+                target = i;
+                break;
+            }
+
+            // An entry left from an earlier search is worth less than any from this one
+            final int worth = data == 0 ? Integer.MIN_VALUE
+                    : getDepth(data) - (getGeneration(data) == currentGeneration ? 0 : BYTE_MASK);
+
+            if (worth < targetWorth) {
+                target = i;
+                targetWorth = worth;
+            }
+        }
+
+        final long data = (move & MOVE_MASK)
+                | ((long) (depth & BYTE_MASK) << DEPTH_SHIFT)
+                | ((long) bound << BOUND_SHIFT)
+                | ((long) currentGeneration << GENERATION_SHIFT)
+                | ((long) score << SCORE_SHIFT);
+
+        entries[target] = key ^ data;
+        entries[target + 1] = data;
+    }
+
+    /**
+     * Start a new search, the entries of earlier searches are replaced first.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & BYTE_MASK;
+    }
+
+    /**
+     * Remove every entry.
+     */
+    public void clear() {
+        Arrays.fill(entries, 0);
+    }
+
+    /**
+     * Get the number of entries the table holds.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return entries.length / ENTRY_LONGS;
+    }
+
+    /**
+     * Estimate how full the table is from a sample of its entries.
+     *
+     * @return the share of entries from the current search, in permille
+     */
+    public int getHashFull() {
+        final int sample = Math.min(1000, getCapacity());
+        final int currentGeneration = generation;
+
+        int used = 0;
+
+        for (int i = 0; i < sample * ENTRY_LONGS; i += ENTRY_LONGS) {
+            if (entries[i + 1] != 0 && getGeneration(entries[i + 1]) == currentGeneration) {
+                used++;
+            }
+        }
+
+        return used * 1000 / sample;
+    }
+
+    //
+    // Entry data
+    //
+
+    /**
+     * Get the best move of an entry.
+     *
+     * @param data the data returned by {@link #probe(long)}
+     * @return the packed move, or 0
+     */
+    public static int getMove(long data) {
+        return (int) (data & MOVE_MASK);
+    }
+
+    /**
+     * Get the score of an entry.
+     *
+     * @param data the data returned by {@link #probe(long)}
+     * @return the score
+     */
+    public static int getScore(long data) {
+        return (int) (data >> SCORE_SHIFT);
+    }
+
+    /**
+     * Get the depth of an entry.
+     *
+     * @param data the data returned by {@link #probe(long)}
+     * @return the depth
+     */
+    public static int getDepth(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & BYTE_MASK;
+    }
+
+    /**
+     * Get the bound of an entry.
+     *
+     * @param data the data returned by {@link #probe(long)}
+     * @return {@link #EXACT}, {@link #LOWER} or {@link #UPPER}
+     */
+    public static int getBound(long data) {
+        return (int) (data >>> BOUND_SHIFT) & 3;
+    }
+
+    /**
+     * Get the generation of an entry.
+     *
+     * @param data the data of an entry
+     * @return the generation
+     */
+    private static int getGeneration(long data) {
+        return (int) (data >>> GENERATION_SHIFT) & BYTE_MASK;
+    }
+}
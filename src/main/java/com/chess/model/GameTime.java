@@ -8,6 +8,10 @@ import java.io.Serializable;
  * @version 2022-03-02
  */
 public class GameTime implements Serializable {
+    /**
+     * The version written by the first saves, before toMillis changed the computed one.
+     */
+    private static final long serialVersionUID = 4126058097174595034L;
 
     /**
      * The amount of time in minutes.
@@ -54,6 +58,16 @@ public class GameTime implements Serializable {
         }
     }
 
+    /**
+     * Get the remaining time in milliseconds.
+     * 
+     * The clock ticks every 100 milliseconds, so the millisecond field counts tenths of a second.
+     * @return The remaining time in milliseconds.
+     */
+    public long toMillis() {
+        return minutes * 60_000L + seconds * 1_000L + milliseconds * 100L;
+    }
+
     /**
      * Returns the string representation of the time a player has left to play.
      * @return A string representation of the time a player has left to play.
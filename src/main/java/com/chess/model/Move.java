@@ -134,6 +134,15 @@ public class Move {
         this.isEnPassant = isEnPassant;
     }
 
+    /**
+     * Get bool for if this move is En Passant
+     * 
+     * @return True if this move captures a pawn En Passant
+     */
+    public boolean getIsEnPassant() {
+        return isEnPassant;
+    }
+
     /**
      * Get bool for if this move is castling on the kings side
      * 
@@ -217,8 +226,8 @@ public class Move {
             String piecePrefix = pieceType.toString();
             if(piecePrefix.equals("p")) {
                 if(elimination) {
-                    if(isEnPassant) result.append(new Position(0, fromCell.getCol()).toString().charAt(0)+"x"+colAndRow + " e.p");
-                    else result.append(new Position(0, fromCell.getCol()).toString().charAt(0)+"x"+colAndRow);
+                    if(isEnPassant) result.append(Position.of(0, fromCell.getCol()).toString().charAt(0)+"x"+colAndRow + " e.p");
+                    else result.append(Position.of(0, fromCell.getCol()).toString().charAt(0)+"x"+colAndRow);
                 }
                 else result.append(colAndRow);
             }
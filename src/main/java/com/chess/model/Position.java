@@ -7,6 +7,22 @@ package com.chess.model;
  * @version 2022-03-02
  */
 public class Position {
+    /**
+     * Positions on a board of up to this many rows and columns are interned.
+     */
+    public static final int INTERNED_SIZE = 8;
+
+    /**
+     * The interned positions, indexed by row * INTERNED_SIZE + col.
+     */
+    private static final Position[] SQUARES = new Position[INTERNED_SIZE * INTERNED_SIZE];
+
+    static {
+        for (int index = 0; index < SQUARES.length; index++) {
+            SQUARES[index] = new Position(index / INTERNED_SIZE, index % INTERNED_SIZE);
+        }
+    }
+
     /**
      * Indicates that the position is invalid.
      */
@@ -22,25 +38,87 @@ public class Position {
      */
     private final int col;
 
+    /**
+     * The square index of the position, or -1 if it is outside the interned squares.
+     */
+    private final int index;
+
     /**
      * Constructor for Position
      * 
+     * Prefer {@link Position#of(int, int)}, which returns the interned instance.
+     * 
      * @param row The row of the position.
      * @param col The column of the position.
      */
     public Position(int row, int col) {
         this.row = row;
         this.col = col;
+        this.index = isInterned(row, col) ? row * INTERNED_SIZE + col : -1;
     }
 
     /**
      * Construct a position from a string.
      * 
+     * Prefer {@link Position#of(String)}, which returns the interned instance.
+     * 
      * @param position The string representation of the position.
      */
     public Position(String position) {
-        this.row = Integer.parseInt(position.substring(1, 2)) - 1;
-        this.col = position.charAt(0) - 'a';
+        this(Integer.parseInt(position.substring(1, 2)) - 1, position.charAt(0) - 'a');
+    }
+
+    /**
+     * Get the position for a row and column.
+     * 
+     * Positions within the interned squares are shared instances, others are created.
+     * 
+     * @param row The row of the position.
+     * @param col The column of the position.
+     * @return The position.
+     */
+    public static Position of(int row, int col) {
+        if (isInterned(row, col)) {
+            return SQUARES[row * INTERNED_SIZE + col];
+        }
+
+        return new Position(row, col);
+    }
+
+    /**
+     * Get the interned position for a square index.
+     * 
+     * @param index The square index, row * INTERNED_SIZE + col.
+     * @return The position.
+     * @throws IllegalArgumentException If the index is outside the interned squares.
+     */
+    public static Position of(int index) throws IllegalArgumentException {
+        if (index < 0 || index >= SQUARES.length) {
+            throw new IllegalArgumentException("Invalid square index: " + index);
+        }
+
+        return SQUARES[index];
+    }
+
+    /**
+     * Get the position for a string, such as e4.
+     * 
+     * @param position The string representation of the position.
+     * @return The position.
+     */
+    public static Position of(String position) {
+        return of(Integer.parseInt(position.substring(1, 2)) - 1, position.charAt(0) - 'a');
+    }
+
+    /**
+     * Check if a row and column is within the interned squares.
+     * 
+     * @param row The row.
+     * @param col The column.
+     * @return True if the position is interned.
+     */
+    private static boolean isInterned(int row, int col) {
+        return row >= 0 && row < INTERNED_SIZE && col >= 0 && col < INTERNED_SIZE;
     }
 
     /**
@@ -61,22 +139,31 @@ public class Position {
         return col;
     }
 
+    /**
+     * Get the square index of the position.
+     * 
+     * @return The square index, row * INTERNED_SIZE + col, or -1 if the position is outside the interned squares.
+     */
+    public int getIndex() {
+        return index;
+    }
+
     /**
      * Adds units number of rows to the current position.
      * @param units Number of rows to be added to the current position.
-     * @return A new position with units number of rows added to it.
+     * @return A position with units number of rows added to it.
      */
     public Position addRow(int units) {
-        return new Position(row + units, col);
+        return of(row + units, col);
     }
 
     /**
      * Adds units number of columns to the current position.
      * @param units Number of columns to be added to the current position.
-     * @return A new position with units number of columns added to it.
+     * @return A position with units number of columns added to it.
      */
     public Position addCol(int units) {
-        return new Position(row, col + units);
+        return of(row, col + units);
     }
 
     /**
@@ -106,7 +193,7 @@ public class Position {
             int rowUnit = rowDiff / Math.abs(rowDiff);
             int colUnit = colDiff / Math.abs(colDiff);
 
-            return addRow(rowUnit * units).addCol(colUnit * units);
+            return of(row + rowUnit * units, col + colUnit * units);
         }
     }
 
@@ -130,6 +217,10 @@ public class Position {
 
     /**
      * Equals method for Position
+     * 
+     * The identity check is a fast path for interned positions. The field
+     * comparison keeps equals correct for positions created through the
+     * constructors, which are equal to the interned position of their square.
      */
     @Override
     public boolean equals(Object o) {
@@ -65,6 +65,33 @@ public interface Rule {
         Position position
     ) throws IllegalArgumentException;
 
+    /**
+     * Check if a position is attacked by any piece which does not belong to a team.
+     * 
+     * @param position       The position to check.
+     * @param teamIdentifier The team which is being attacked.
+     * @return               True if an enemy piece attacks the position, false otherwise.
+     * @throws IllegalArgumentException if the position is invalid.
+     */
+    public boolean isAttacked(
+        Position position,
+        Identifier teamIdentifier
+    ) throws IllegalArgumentException;
+
+    /**
+     * Check if a move is legal, that is if it does not leave the team's king in check.
+     * 
+     * @param pieceIdentifier The type of the piece that is moving.
+     * @param teamIdentifier  The team of the piece that is moving.
+     * @param move            The move to check.
+     * @return                True if the move is legal, false otherwise.
+     */
+    public boolean isLegalMove(
+        Identifier pieceIdentifier,
+        Identifier teamIdentifier,
+        Move move
+    );
+
     /**
      * Calculate a moveset.
      * 
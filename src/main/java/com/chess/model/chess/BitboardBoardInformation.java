@@ -0,0 +1,507 @@
+package com.chess.model.chess;
+
+import java.util.Arrays;
+
+import com.chess.model.Board;
+import com.chess.model.Cell;
+import com.chess.model.Identifier;
+import com.chess.model.MovesCalculator;
+import com.chess.model.Piece;
+import com.chess.model.Position;
+
+/**
+ * Board information backed by bitboards.
+ *
+ * Keeps one 64-bit board for every piece type and team, together with occupancy masks
+ * for each team and the whole board. Squares are indexed as row * 8 + col, so a1 is bit 0
+ * and h8 is bit 63. The bitboards are kept in sync with the cells of the chess board, both
+ * through the cells' change events and through the write methods of this class.
+ * @author agent
+ * @version 2026-10-17
+ */
+public class BitboardBoardInformation implements BoardInformation, BitboardPosition {
+
+    /**
+     * The size of a board that can be represented with bitboards.
+     */
+    public static final int BOARD_SIZE = Position.INTERNED_SIZE;
+
+    /**
+     * The number of squares on the board.
+     */
+    public static final int SQUARES = BOARD_SIZE * BOARD_SIZE;
+
+    /**
+     * The number of piece types per team.
+     */
+    public static final int PIECE_TYPES = 6;
+
+    /**
+     * Value in the mailbox for an empty square.
+     */
+    private static final byte EMPTY = -1;
+
+    /**
+     * Piece types ordered by their index.
+     */
+    private static final ChessTypeIdentifier[] TYPES = {
+        ChessTypeIdentifier.PAWN,
+        ChessTypeIdentifier.ROOK,
+        ChessTypeIdentifier.KNIGHT,
+        ChessTypeIdentifier.BISHOP,
+        ChessTypeIdentifier.QUEEN,
+        ChessTypeIdentifier.KING
+    };
+
+    /**
+     * Teams ordered by their index.
+     */
+    private static final ChessTeamIdentifier[] TEAMS = {
+        ChessTeamIdentifier.WHITE,
+        ChessTeamIdentifier.BLACK
+    };
+
+    /**
+     * The board.
+     */
+    private final Board board;
+
+    /**
+     * The team manager.
+     */
+    private final TeamManager teamManager;
+
+    /**
+     * One bitboard for each piece type and team, indexed by team * PIECE_TYPES + type.
+     */
+    private final long[] pieceBoards = new long[TEAMS.length * PIECE_TYPES];
+
+    /**
+     * One occupancy bitboard for each team.
+     */
+    private final long[] teamBoards = new long[TEAMS.length];
+
+    /**
+     * Occupancy bitboard for the whole board.
+     */
+    private long occupancy;
+
+    /**
+     * The XOR of the Zobrist keys of every piece on its square.
+     */
+    private long pieceKey;
+
+    /**
+     * The piece index of every square, or EMPTY.
+     */
+    private final byte[] mailbox = new byte[SQUARES];
+
+    /**
+     * The piece on every square, or null.
+     */
+    private final Piece[] pieces = new Piece[SQUARES];
+
+    /**
+     * Creates a new bitboard board information.
+     *
+     * @param board the board, must be 8x8
+     * @param teamManager the team manager
+     * @throws IllegalArgumentException if the board is not 8x8
+     */
+    public BitboardBoardInformation(Board board, TeamManager teamManager) throws IllegalArgumentException {
+        if (board.getRows() != BOARD_SIZE || board.getColumns() != BOARD_SIZE) {
+            throw new IllegalArgumentException("Bitboards require a board of size " + BOARD_SIZE + ", got " + board.getRows() + "x" + board.getColumns());
+        }
+
+        this.board = board;
+        this.teamManager = teamManager;
+
+        // Every square starts empty, so the first synchronization only adds pieces
+        Arrays.fill(mailbox, EMPTY);
+
+        // Listen to changes made directly on the cells
+        for (int row = 0; row < BOARD_SIZE; row++) {
+            for (int col = 0; col < BOARD_SIZE; col++) {
+                final int square = toSquare(row, col);
+
+                board.getCell(row, col).getOnPieceChangedEvent().addDelegate(piece -> updateSquare(square, piece));
+            }
+        }
+
+        synchronize();
+    }
+
+    //
+    // Static helpers
+    //
+
+    /**
+     * Convert a row and column to a square index.
+     *
+     * @param row the row
+     * @param col the column
+     * @return the square index
+     * @throws IllegalArgumentException if the row or column is outside the board
+     */
+    public static int toSquare(int row, int col) throws IllegalArgumentException {
+        if (row < 0 || row >= BOARD_SIZE || col < 0 || col >= BOARD_SIZE) {
+            throw new IllegalArgumentException("Invalid board position (" + row + ", " + col + "), board size is " + BOARD_SIZE);
+        }
+
+        return row * BOARD_SIZE + col;
+    }
+
+    /**
+     * Convert a position to a square index.
+     *
+     * Interned positions already know their index, so no arithmetic is needed for them.
+     *
+     * @param position the position
+     * @return the square index
+     * @throws IllegalArgumentException if the position is outside the board
+     */
+    public static int toSquare(Position position) throws IllegalArgumentException {
+        final int index = position.getIndex();
+
+        if (index >= 0) {
+            return index;
+        }
+
+        return toSquare(position.getRow(), position.getCol());
+    }
+
+    /**
+     * Get the index of a piece type.
+     *
+     * @param typeIdentifier the piece type
+     * @return the index of the piece type, between 0 and PIECE_TYPES - 1
+     * @throws IllegalArgumentException if the identifier is not a chess piece type
+     */
+    public static int typeIndex(Identifier typeIdentifier) throws IllegalArgumentException {
+        if (!(typeIdentifier instanceof ChessTypeIdentifier) || typeIdentifier == ChessTypeIdentifier.NULL) {
+            throw new IllegalArgumentException("Invalid piece type: " + typeIdentifier);
+        }
+
+        return ((ChessTypeIdentifier) typeIdentifier).ordinal();
+    }
+
+    /**
+     * Get the index of a team.
+     *
+     * @param teamIdentifier the team
+     * @return 0 for white, 1 for black
+     * @throws IllegalArgumentException if the identifier is not a chess team
+     */
+    public static int teamIndex(Identifier teamIdentifier) throws IllegalArgumentException {
+        if (teamIdentifier == ChessTeamIdentifier.WHITE) {
+            return 0;
+        } else if (teamIdentifier == ChessTeamIdentifier.BLACK) {
+            return 1;
+        }
+
+        throw new IllegalArgumentException("Invalid team identifier: " + teamIdentifier);
+    }
+
+    /**
+     * Get the index of the bitboard for a piece type and team.
+     *
+     * @param typeIdentifier the piece type
+     * @param teamIdentifier the team
+     * @return the index of the bitboard
+     * @throws IllegalArgumentException if either identifier is invalid
+     */
+    public static int pieceIndex(Identifier typeIdentifier, Identifier teamIdentifier) throws IllegalArgumentException {
+        return teamIndex(teamIdentifier) * PIECE_TYPES + typeIndex(typeIdentifier);
+    }
+
+    /**
+     * Get the piece type for a bitboard index.
+     *
+     * @param pieceIndex the bitboard index
+     * @return the piece type
+     */
+    public static ChessTypeIdentifier getType(int pieceIndex) {
+        return TYPES[pieceIndex % PIECE_TYPES];
+    }
+
+    /**
+     * Get the team for a bitboard index.
+     *
+     * @param pieceIndex the bitboard index
+     * @return the team
+     */
+    public static ChessTeamIdentifier getTeam(int pieceIndex) {
+        return TEAMS[pieceIndex / PIECE_TYPES];
+    }
+
+    //
+    // Bitboard getters
+    //
+
+    /**
+     * Get the bitboard of a piece type for a team.
+     *
+     * @param typeIdentifier the piece type
+     * @param teamIdentifier the team
+     * @return the bitboard
+     * @throws IllegalArgumentException if either identifier is invalid
+     */
+    public long getPieceBoard(Identifier typeIdentifier, Identifier teamIdentifier) throws IllegalArgumentException {
+        return pieceBoards[pieceIndex(typeIdentifier, teamIdentifier)];
+    }
+
+    /**
+     * Get the bitboard for a piece index.
+     *
+     * @param pieceIndex the piece index, as returned by {@link #pieceIndex(Identifier, Identifier)}
+     * @return the bitboard
+     */
+    @Override
+    public long getPieceBoard(int pieceIndex) {
+        return pieceBoards[pieceIndex];
+    }
+
+    /**
+     * Get the piece index of the piece on a square.
+     *
+     * @param square the square index
+     * @return the piece index, or -1 if the square is empty
+     */
+    @Override
+    public int getPieceIndex(int square) {
+        return mailbox[square];
+    }
+
+    /**
+     * Get the occupancy bitboard for a team.
+     *
+     * @param teamIdentifier the team
+     * @return the occupancy bitboard
+     * @throws IllegalArgumentException if the team is invalid
+     */
+    public long getTeamBoard(Identifier teamIdentifier) throws IllegalArgumentException {
+        return teamBoards[teamIndex(teamIdentifier)];
+    }
+
+    /**
+     * Get the occupancy bitboard for the whole board.
+     *
+     * @return the occupancy bitboard
+     */
+    @Override
+    public long getOccupancy() {
+        return occupancy;
+    }
+
+    /**
+     * Get the Zobrist key of the pieces on the board, updated with every change to a square.
+     *
+     * @return the key of the pieces
+     * @see ChessZobrist
+     */
+    public long getPieceKey() {
+        return pieceKey;
+    }
+
+    /**
+     * Rebuild all bitboards from the cells of the board.
+     */
+    public void synchronize() {
+        for (int row = 0; row < BOARD_SIZE; row++) {
+            for (int col = 0; col < BOARD_SIZE; col++) {
+                updateSquare(toSquare(row, col), board.getCell(row, col).getPiece());
+            }
+        }
+    }
+
+    //
+    // BitboardPosition
+    //
+
+    @Override
+    public long getTeamBoard(int team) {
+        return teamBoards[team];
+    }
+
+    @Override
+    public boolean canCastle(int index) {
+        final ChessTeamParameters teamParameters = teamManager.getTeamParameters(TEAMS[index / 2]);
+
+        return index % 2 == 0 ? teamParameters.canCastleKingside() : teamParameters.canCastleQueenside();
+    }
+
+    @Override
+    public int getEnPassantSquare(int team) {
+        final SharedChessTeamParameters sharedParameters = teamManager.getTeamParameters(TEAMS[team]).getSharedTeamParameters();
+        final Position enPassantPosition = sharedParameters.getEnPassantPosition();
+
+        // En passant may only be taken by the team which did not enable it
+        if (enPassantPosition.equals(Position.INVALID) || sharedParameters.getEnPassantTeam().equals(TEAMS[team])) {
+            return -1;
+        }
+
+        return toSquare(enPassantPosition);
+    }
+
+    //
+    // BoardInformation
+    //
+
+    @Override
+    public boolean isEmpty(int row, int col) throws IllegalArgumentException {
+        return (occupancy & (1L << toSquare(row, col))) == 0;
+    }
+
+    @Override
+    public boolean isEmpty(Position position) throws IllegalArgumentException {
+        return (occupancy & (1L << toSquare(position))) == 0;
+    }
+
+    @Override
+    public boolean isValid(Position position) {
+        int row = position.getRow();
+        int col = position.getCol();
+        return row >= 0 && row < BOARD_SIZE && col >= 0 && col < BOARD_SIZE;
+    }
+
+    @Override
+    public Identifier getTeamIdentifier(int row, int col) throws IllegalArgumentException {
+        return getTeamIdentifier(toSquare(row, col));
+    }
+
+    @Override
+    public Identifier getTeamIdentifier(Position position) throws IllegalArgumentException {
+        return getTeamIdentifier(toSquare(position));
+    }
+
+    /**
+     * Get the team of the piece on a square.
+     *
+     * @param square the square index
+     * @return the team
+     * @throws IllegalArgumentException if the square is empty
+     */
+    public Identifier getTeamIdentifier(int square) throws IllegalArgumentException {
+        final long mask = 1L << square;
+
+        if ((teamBoards[0] & mask) != 0) {
+            return TEAMS[0];
+        } else if ((teamBoards[1] & mask) != 0) {
+            return TEAMS[1];
+        }
+
+        throw new IllegalArgumentException("No piece at " + Position.of(square));
+    }
+
+    @Override
+    public Identifier getTypeIdentifier(int row, int col) throws IllegalArgumentException {
+        final byte pieceIndex = mailbox[toSquare(row, col)];
+
+        if (pieceIndex == EMPTY) {
+            throw new IllegalArgumentException("No piece at (" + row + ", " + col + ")");
+        }
+
+        return getType(pieceIndex);
+    }
+
+    @Override
+    public Identifier getTypeIdentifier(Position position) throws IllegalArgumentException {
+        return getTypeIdentifier(position.getRow(), position.getCol());
+    }
+
+    @Override
+    public int getKingSquare(Identifier teamIdentifier) {
+        final long kingBoard = pieceBoards[pieceIndex(ChessTypeIdentifier.KING, teamIdentifier)];
+
+        return kingBoard == 0 ? -1 : Long.numberOfTrailingZeros(kingBoard);
+    }
+
+    @Override
+    public int getBoardSize() {
+        return BOARD_SIZE;
+    }
+
+    @Override
+    public void setPiece(Position position, Identifier piece, Identifier team, boolean isFinalMove) throws IllegalArgumentException {
+        placePiece(position, ChessPieceFactory.createPiece(piece, teamManager.getTeam(team)), isFinalMove);
+    }
+
+    @Override
+    public void clearPiece(Position position, boolean isFinalMove) throws IllegalArgumentException {
+        clearPiece(position.getRow(), position.getCol(), isFinalMove);
+    }
+
+    @Override
+    public void clearPiece(int row, int col, boolean isFinalMove) throws IllegalArgumentException {
+        placePiece(row, col, null, isFinalMove);
+    }
+
+    @Override
+    public Piece getPiece(Position position) throws IllegalArgumentException {
+        return pieces[toSquare(position)];
+    }
+
+    @Override
+    public Piece getPiece(int row, int col) throws IllegalArgumentException {
+        return pieces[toSquare(row, col)];
+    }
+
+    @Override
+    public void placePiece(Position position, Piece piece, boolean isFinalMove) throws IllegalArgumentException {
+        placePiece(position.getRow(), position.getCol(), piece, isFinalMove);
+    }
+
+    @Override
+    public void placePiece(int row, int col, Piece piece, boolean isFinalMove) throws IllegalArgumentException {
+        final Cell cell = board.getCell(row, col);
+
+        cell.updatePiece(piece, isFinalMove);
+
+        // The cell event is only triggered for final moves, so update here as well
+        updateSquare(toSquare(row, col), piece);
+    }
+
+    @Override
+    public MovesCalculator getPossibleMovesIterator(Position position) throws IllegalArgumentException {
+        final Piece piece = getPiece(position);
+
+        return (rule, pos) -> {
+            return piece.getPossibleMoves(rule, pos);
+        };
+    }
+
+    /**
+     * Update the bitboards for a single square.
+     *
+     * @param square the square index
+     * @param piece the piece now on the square, or null if it is empty
+     */
+    private void updateSquare(int square, Piece piece) {
+        final long mask = 1L << square;
+        final byte previous = mailbox[square];
+
+        // Remove the previous piece
+        if (previous != EMPTY) {
+            pieceBoards[previous] &= ~mask;
+            teamBoards[previous / PIECE_TYPES] &= ~mask;
+            occupancy &= ~mask;
+            mailbox[square] = EMPTY;
+            pieceKey ^= ChessZobrist.getPieceKey(previous, square);
+        }
+
+        pieces[square] = piece;
+
+        if (piece == null) {
+            return;
+        }
+
+        // Add the new piece
+        final int pieceIndex = pieceIndex(piece.getTypeIdentifier(), piece.getTeamIdentifier());
+
+        pieceBoards[pieceIndex] |= mask;
+        teamBoards[pieceIndex / PIECE_TYPES] |= mask;
+        occupancy |= mask;
+        mailbox[square] = (byte) pieceIndex;
+        pieceKey ^= ChessZobrist.getPieceKey(pieceIndex, square);
+    }
+}
@@ -0,0 +1,58 @@
+package com.chess.model.chess;
+
+/**
+ * A chess position seen as bitboards, the state {@link ChessMoveGenerator} generates moves from.
+ *
+ * Teams are indexed 0 for white and 1 for black, and pieces by
+ * {@link BitboardBoardInformation#pieceIndex}. Squares are indexed as row * 8 + col.
+ * @author agent
+ * @version 2026-10-17
+ */
+public interface BitboardPosition {
+    /**
+     * Get the bitboard of a piece index.
+     *
+     * @param pieceIndex the piece index
+     * @return the bitboard
+     */
+    public long getPieceBoard(int pieceIndex);
+
+    /**
+     * Get the piece index of the piece on a square.
+     *
+     * @param square the square index
+     * @return the piece index, or -1 if the square is empty
+     */
+    public int getPieceIndex(int square);
+
+    /**
+     * Get the occupancy bitboard of a team.
+     *
+     * @param team the index of the team
+     * @return the occupancy bitboard
+     */
+    public long getTeamBoard(int team);
+
+    /**
+     * Get the occupancy bitboard of the whole board.
+     *
+     * @return the occupancy bitboard
+     */
+    public long getOccupancy();
+
+    /**
+     * Check if a castling right is still held.
+     *
+     * @param index 0 for white kingside, 1 for white queenside, 2 for black kingside, 3 for black queenside
+     * @return true if the right is held
+     */
+    public boolean canCastle(int index);
+
+    /**
+     * Get the square a team may capture en passant on.
+     *
+     * @param team the index of the team
+     * @return the square, or -1 if the team may not capture en passant
+     */
+    public int getEnPassantSquare(int team);
+}
@@ -2,6 +2,7 @@ package com.chess.model.chess;
 
 import com.chess.model.Identifier;
 import com.chess.model.MovesCalculator;
+import com.chess.model.Piece;
 import com.chess.model.Position;
 
 /**
@@ -75,6 +76,14 @@ public interface BoardInformation {
      */
     public Identifier getTypeIdentifier(int row, int col) throws IllegalArgumentException;
 
+    /**
+     * Returns the square of the king of a team, as row * board size + column.
+     * 
+     * @param teamIdentifier the team of the king
+     * @return the square of the king, or -1 if the team has no king on the board
+     */
+    public int getKingSquare(Identifier teamIdentifier);
+
     /**
      * Returns the board size.
      * 
@@ -102,6 +111,56 @@ public interface BoardInformation {
      */
     public void clearPiece(Position position, boolean isFinalMove) throws IllegalArgumentException;
 
+    /**
+     * Clear the piece at a specific row and column.
+     * 
+     * @param row the row to clear
+     * @param col the column to clear
+     * @param isFinalMove whether the move is final and should trigger the cell's on change event
+     * @throws IllegalArgumentException if the position is invalid
+     */
+    public void clearPiece(int row, int col, boolean isFinalMove) throws IllegalArgumentException;
+
+    /**
+     * Returns the piece at the specified position.
+     * 
+     * @param position the position to check
+     * @return the piece at the specified position, or null if it is empty
+     * @throws IllegalArgumentException if the position is invalid
+     */
+    public Piece getPiece(Position position) throws IllegalArgumentException;
+
+    /**
+     * Returns the piece at a specific row and column.
+     * 
+     * @param row the row to check
+     * @param col the column to check
+     * @return the piece at a specific row and column, or null if it is empty
+     * @throws IllegalArgumentException if the position is invalid
+     */
+    public Piece getPiece(int row, int col) throws IllegalArgumentException;
+
+    /**
+     * Place an existing piece at the specified position, without creating a new piece.
+     * 
+     * @param position the position to set
+     * @param piece the piece to place, or null to clear the position
+     * @param isFinalMove whether the move is final and should trigger the cell's on change event
+     * @throws IllegalArgumentException if the position is invalid
+     */
+    public void placePiece(Position position, Piece piece, boolean isFinalMove) throws IllegalArgumentException;
+
+    /**
+     * Place an existing piece at a specific row and column, without creating a new piece.
+     * 
+     * @param row the row to set
+     * @param col the column to set
+     * @param piece the piece to place, or null to clear the position
+     * @param isFinalMove whether the move is final and should trigger the cell's on change event
+     * @throws IllegalArgumentException if the position is invalid
+     */
+    public void placePiece(int row, int col, Piece piece, boolean isFinalMove) throws IllegalArgumentException;
+
     /**
      * Returns the move calculator of a piece at the specified position.
      * 
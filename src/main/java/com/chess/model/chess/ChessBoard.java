@@ -65,7 +65,7 @@ public class ChessBoard implements Board {
         cellMatrix = new Cell[gameSize][gameSize];
         for (int row = 0; row < gameSize; row++) {
             for (int col = 0; col < gameSize; col++) {
-                cellMatrix[row][col] = new Cell(new Position(gameSize - 1 - row, col));
+                cellMatrix[row][col] = new Cell(Position.of(gameSize - 1 - row, col));
             }
         }
     }
@@ -4,6 +4,7 @@ import com.chess.model.Board;
 import com.chess.model.Cell;
 import com.chess.model.Identifier;
 import com.chess.model.MovesCalculator;
+import com.chess.model.Piece;
 import com.chess.model.Position;
 
 /**
@@ -69,6 +70,23 @@ public class ChessBoardInformation implements BoardInformation {
         return this.board.getCell(row, col).getPiece().getTypeIdentifier();
     }
 
+    @Override
+    public int getKingSquare(Identifier teamIdentifier) {
+        final int size = getBoardSize();
+
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                final Piece piece = board.getCell(row, col).getPiece();
+
+                if (piece != null && piece.getTeamIdentifier().equals(teamIdentifier) && piece.getTypeIdentifier().equals(ChessTypeIdentifier.KING)) {
+                    return row * size + col;
+                }
+            }
+        }
+
+        return -1;
+    }
+
     @Override
     public int getBoardSize() {
         return this.board.getRows();
@@ -94,6 +112,31 @@ public class ChessBoardInformation implements BoardInformation {
         cell.emptyCell(isFinalMove);
     }
 
+    @Override
+    public void clearPiece(int row, int col, boolean isFinalMove) throws IllegalArgumentException {
+        board.getCell(row, col).emptyCell(isFinalMove);
+    }
+
+    @Override
+    public Piece getPiece(Position position) throws IllegalArgumentException {
+        return board.getCell(position).getPiece();
+    }
+
+    @Override
+    public Piece getPiece(int row, int col) throws IllegalArgumentException {
+        return board.getCell(row, col).getPiece();
+    }
+
+    @Override
+    public void placePiece(Position position, Piece piece, boolean isFinalMove) throws IllegalArgumentException {
+        placePiece(position.getRow(), position.getCol(), piece, isFinalMove);
+    }
+
+    @Override
+    public void placePiece(int row, int col, Piece piece, boolean isFinalMove) throws IllegalArgumentException {
+        board.getCell(row, col).updatePiece(piece, isFinalMove);
+    }
+
 
     @Override
     public MovesCalculator getPossibleMovesIterator(Position position) throws IllegalArgumentException {
@@ -0,0 +1,371 @@
+package com.chess.model.chess;
+
+import java.util.Arrays;
+
+/**
+ * Reads and writes Forsyth-Edwards Notation.
+ *
+ * Notation is read in one pass over the characters, without splitting it or creating strings,
+ * into fields which are reused between reads. Nothing is changed until the whole notation has
+ * been read, so invalid notation leaves the target of the read as it was.
+ * @author agent
+ * @version 2026-10-17
+ * @see <a href="http://en.wikipedia.org/wiki/Forsyth%E2%80%93Edwards_Notation">Forsyth-Edwards Notation</a>
+ */
+final class ChessFEN {
+    /**
+     * The characters of the pieces, indexed by piece index.
+     */
+    static final String PIECE_CHARACTERS = "PRNBQKprnbqk";
+
+    /**
+     * The characters of the castling rights, indexed as {@link BitboardPosition#canCastle(int)}.
+     */
+    static final String CASTLING_CHARACTERS = "KQkq";
+
+    /**
+     * The characters of the teams, indexed by team index.
+     */
+    private static final String TEAM_CHARACTERS = "wb";
+
+    /**
+     * The length of a side of the board.
+     */
+    private static final int SIZE = BitboardBoardInformation.BOARD_SIZE;
+
+    /**
+     * The piece index on every square read, or -1 if the square is empty.
+     */
+    final byte[] mailbox = new byte[BitboardBoardInformation.SQUARES];
+
+    /**
+     * The index of the team in turn.
+     */
+    int team;
+
+    /**
+     * The castling rights, one bit for each right indexed as {@link BitboardPosition#canCastle(int)}.
+     */
+    int castlingRights;
+
+    /**
+     * The en passant target square, or -1 if there is none.
+     */
+    int enPassantSquare;
+
+    /**
+     * The half move clock, 0 if left out.
+     */
+    int halfMoves;
+
+    /**
+     * The full move number, 1 if left out.
+     */
+    int fullMoves;
+
+    /**
+     * The notation being read.
+     */
+    private CharSequence fen;
+
+    /**
+     * The index of the next character to read.
+     */
+    private int index;
+
+    //
+    // Reading
+    //
+
+    /**
+     * Read notation into the fields.
+     *
+     * The move clocks may be left out, they default to 0 and 1.
+     *
+     * @param fen the notation
+     * @throws IllegalArgumentException if the notation is invalid
+     */
+    void read(CharSequence fen) throws IllegalArgumentException {
+        this.fen = fen;
+        this.index = 0;
+
+        try {
+            skipWhitespace();
+            readPlacement();
+
+            nextField();
+            team = TEAM_CHARACTERS.indexOf(next());
+
+            if (team < 0 || !isEndOfField()) {
+                throw invalid("side to move");
+            }
+
+            nextField();
+            readCastlingRights();
+
+            nextField();
+            readEnPassantSquare();
+
+            skipWhitespace();
+            halfMoves = index < fen.length() ? readNumber("half move clock") : 0;
+
+            skipWhitespace();
+            fullMoves = index < fen.length() ? readNumber("full move number") : 1;
+
+            skipWhitespace();
+
+            if (index < fen.length()) {
+                throw invalid("trailing characters");
+            }
+        } finally {
+            this.fen = null;
+        }
+    }
+
+    /**
+     * Read the placement of the pieces.
+     *
+     * @throws IllegalArgumentException if the placement is invalid
+     */
+    private void readPlacement() throws IllegalArgumentException {
+        Arrays.fill(mailbox, (byte) -1);
+
+        int row = SIZE - 1;
+        int col = 0;
+
+        while (index < fen.length() && !Character.isWhitespace(fen.charAt(index))) {
+            final char c = next();
+
+            if (c == '/') {
+                if (col != SIZE || row == 0) {
+                    throw invalid("row " + (row + 1) + " is not " + SIZE + " squares");
+                }
+
+                row--;
+                col = 0;
+            } else if (c >= '1' && c <= '8') {
+                col += c - '0';
+
+                if (col > SIZE) {
+                    throw invalid("row " + (row + 1) + " is more than " + SIZE + " squares");
+                }
+            } else {
+                final int pieceIndex = PIECE_CHARACTERS.indexOf(c);
+
+                if (pieceIndex < 0) {
+                    throw invalid("unknown piece " + c);
+                }
+
+                if (col >= SIZE) {
+                    throw invalid("row " + (row + 1) + " is more than " + SIZE + " squares");
+                }
+
+                mailbox[row * SIZE + col] = (byte) pieceIndex;
+                col++;
+            }
+        }
+
+        if (row != 0 || col != SIZE) {
+            throw invalid("expected " + SIZE + " rows of " + SIZE + " squares");
+        }
+    }
+
+    /**
+     * Read the castling rights.
+     *
+     * @throws IllegalArgumentException if the castling rights are invalid
+     */
+    private void readCastlingRights() throws IllegalArgumentException {
+        castlingRights = 0;
+
+        if (fen.charAt(index) == '-') {
+            index++;
+        } else {
+            while (!isEndOfField()) {
+                final int right = CASTLING_CHARACTERS.indexOf(next());
+
+                if (right < 0) {
+                    throw invalid("castling rights");
+                }
+
+                castlingRights |= 1 << right;
+            }
+        }
+
+        if (!isEndOfField()) {
+            throw invalid("castling rights");
+        }
+    }
+
+    /**
+     * Read the en passant target square.
+     *
+     * @throws IllegalArgumentException if the square is invalid
+     */
+    private void readEnPassantSquare() throws IllegalArgumentException {
+        if (fen.charAt(index) == '-') {
+            index++;
+            enPassantSquare = -1;
+        } else if (index + 1 < fen.length()) {
+            final char file = next();
+            final char rank = next();
+
+            if (file < 'a' || file > 'h' || rank < '1' || rank > '8') {
+                throw invalid("en passant square");
+            }
+
+            enPassantSquare = (rank - '1') * SIZE + (file - 'a');
+        } else {
+            throw invalid("en passant square");
+        }
+
+        if (!isEndOfField()) {
+            throw invalid("en passant square");
+        }
+    }
+
+    /**
+     * Read a number which is not negative.
+     *
+     * @param name the name of the field, for error messages
+     * @return the number
+     * @throws IllegalArgumentException if the field is not a number
+     */
+    private int readNumber(String name) throws IllegalArgumentException {
+        int value = 0;
+        int digits = 0;
+
+        while (!isEndOfField()) {
+            final char c = next();
+
+            if (c < '0' || c > '9' || digits == 9) {
+                throw invalid(name);
+            }
+
+            value = value * 10 + (c - '0');
+            digits++;
+        }
+
+        return value;
+    }
+
+    /**
+     * Skip the whitespace before the next field, which must exist.
+     *
+     * @throws IllegalArgumentException if the notation ends
+     */
+    private void nextField() throws IllegalArgumentException {
+        skipWhitespace();
+
+        if (index == fen.length()) {
+            throw invalid("expected at least 4 fields");
+        }
+    }
+
+    /**
+     * Skip whitespace.
+     */
+    private void skipWhitespace() {
+        while (index < fen.length() && Character.isWhitespace(fen.charAt(index))) {
+            index++;
+        }
+    }
+
+    /**
+     * Check if the current field has been read.
+     *
+     * @return true at whitespace or the end of the notation
+     */
+    private boolean isEndOfField() {
+        return index == fen.length() || Character.isWhitespace(fen.charAt(index));
+    }
+
+    /**
+     * Read the next character.
+     *
+     * @return the character
+     */
+    private char next() {
+        return fen.charAt(index++);
+    }
+
+    /**
+     * Create the exception for invalid notation.
+     *
+     * @param reason what is invalid
+     * @return the exception
+     */
+    private IllegalArgumentException invalid(String reason) {
+        return new IllegalArgumentException("Invalid FEN, " + reason + ": " + fen);
+    }
+
+    //
+    // Writing
+    //
+
+    /**
+     * Write a position in Forsyth-Edwards Notation.
+     *
+     * @param fen the builder the notation is appended to
+     * @param position the position
+     * @param team the index of the team in turn
+     * @param halfMoves the half move clock
+     * @param fullMoves the full move number
+     * @return the builder
+     */
+    static StringBuilder write(StringBuilder fen, BitboardPosition position, int team, int halfMoves, int fullMoves) {
+        for (int row = SIZE - 1; row >= 0; row--) {
+            int empty = 0;
+
+            for (int col = 0; col < SIZE; col++) {
+                final int pieceIndex = position.getPieceIndex(row * SIZE + col);
+
+                if (pieceIndex < 0) {
+                    empty++;
+                    continue;
+                }
+
+                if (empty > 0) {
+                    fen.append((char) ('0' + empty));
+                    empty = 0;
+                }
+
+                fen.append(PIECE_CHARACTERS.charAt(pieceIndex));
+            }
+
+            if (empty > 0) {
+                fen.append((char) ('0' + empty));
+            }
+
+            if (row != 0) {
+                fen.append('/');
+            }
+        }
+
+        fen.append(' ').append(TEAM_CHARACTERS.charAt(team)).append(' ');
+
+        final int length = fen.length();
+
+        for (int i = 0; i < CASTLING_CHARACTERS.length(); i++) {
+            if (position.canCastle(i)) {
+                fen.append(CASTLING_CHARACTERS.charAt(i));
+            }
+        }
+
+        if (fen.length() == length) {
+            fen.append('-');
+        }
+
+        fen.append(' ');
+
+        final int enPassantSquare = position.getEnPassantSquare(team);
+
+        if (enPassantSquare < 0) {
+            fen.append('-');
+        } else {
+            fen.append((char) ('a' + enPassantSquare % SIZE)).append((char) ('1' + enPassantSquare / SIZE));
+        }
+
+        return fen.append(' ').append(halfMoves).append(' ').append(fullMoves);
+    }
+}
@@ -3,6 +3,7 @@ package com.chess.model.chess;
 import java.awt.*;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 
 import com.chess.model.*;
@@ -20,15 +21,25 @@ public class ChessModel {
      */
     private static final int GAMESIZE = 8;
 
+    /**
+     * The number of half moves without a capture or pawn move which draws the game.
+     */
+    public static final int FIFTY_MOVE_HALF_MOVES = 100;
+
+    /**
+     * The number of times a position has to occur to draw the game.
+     */
+    public static final int REPETITIONS = 3;
+
     /**
      * The chess board.
      */
     private final ChessBoard board;
 
     /**
-     * The chess board information.
+     * The chess board information, backed by bitboards.
      */
-    private final ChessBoardInformation boardInformation;
+    private final BitboardBoardInformation boardInformation;
 
     /**
      * The team manager.
@@ -40,6 +51,11 @@ public class ChessModel {
      */
     private final ChessRule rule;
 
+    /**
+     * The move generator, working on the bitboards.
+     */
+    private final ChessMoveGenerator moveGenerator;
+
     /**
      * The shared team parameters.
      */
@@ -75,6 +91,57 @@ public class ChessModel {
      */
     private List<String> moveList;
 
+    /**
+     * Zobrist keys of the positions reached, the newest last.
+     */
+    private long[] keyHistory = new long[FIFTY_MOVE_HALF_MOVES];
+
+    /**
+     * The number of keys in the history.
+     */
+    private int historySize;
+
+    /**
+     * The index of the first key since the last capture or pawn move.
+     * Earlier positions can never be repeated.
+     */
+    private int historyStart;
+
+    /**
+     * The reader of Forsyth-Edwards Notation, reused between loads.
+     */
+    private final ChessFEN fenReader = new ChessFEN();
+
+    /**
+     * The pieces taken off the board while a position is loaded.
+     */
+    private final Piece[] spares = new Piece[BitboardBoardInformation.SQUARES];
+
+    /**
+     * The piece indices of the pieces taken off the board while a position is loaded.
+     */
+    private final byte[] spareIndices = new byte[BitboardBoardInformation.SQUARES];
+
+    /**
+     * The position the move history starts from, in Forsyth-Edwards Notation.
+     */
+    private String startFEN;
+
+    /**
+     * The moves played since the start position, packed with {@link ChessMoveEncoding}.
+     */
+    private int[] moveHistory = new int[FIFTY_MOVE_HALF_MOVES];
+
+    /**
+     * The number of moves in the move history.
+     */
+    private int moveHistorySize;
+
+    /**
+     * The position before the next move, used to recognise the moves played.
+     */
+    private ChessPosition historyPosition;
+
     /**
      * The event which is triggered when the team changes.
      */
@@ -119,8 +186,8 @@ public class ChessModel {
         whiteParameters.setCanCastleQueenside(true);
 
         // Set castling positions
-        whiteParameters.setCastlingKingSidePosition(new Position("g1"));
-        whiteParameters.setCastlingQueenSidePosition(new Position("c1"));
+        whiteParameters.setCastlingKingSidePosition(Position.of("g1"));
+        whiteParameters.setCastlingQueenSidePosition(Position.of("c1"));
 
         // Create white team
         final ChessTeam whiteTeam = new ChessTeam(
@@ -144,8 +211,8 @@ public class ChessModel {
         blackParameters.setCanCastleQueenside(true);
 
         // Set castling positions
-        blackParameters.setCastlingKingSidePosition(new Position("g8"));
-        blackParameters.setCastlingQueenSidePosition(new Position("c8"));
+        blackParameters.setCastlingKingSidePosition(Position.of("g8"));
+        blackParameters.setCastlingQueenSidePosition(Position.of("c8"));
 
         // Create black team
         final ChessTeam blackTeam = new ChessTeam(
@@ -166,12 +233,16 @@ public class ChessModel {
 
         // Setup board information
 
-        boardInformation = new ChessBoardInformation(board, teamManager);
+        boardInformation = new BitboardBoardInformation(board, teamManager);
 
         // Setup rule
 
         rule = new ChessRule(boardInformation, teamManager);
 
+        // Setup move generator
+
+        moveGenerator = new ChessMoveGenerator(boardInformation);
+
         // Setup other variables
 
         paused = true;
@@ -225,6 +296,8 @@ public class ChessModel {
         serialModel.setWhiteTime(getTeamWhite().getTime());
         serialModel.setBlackTime(getTeamBlack().getTime());
         serialModel.setStarted(getStarted());
+        serialModel.setStartFen(startFEN);
+        serialModel.setMoveHistory(getMoveHistory());
 
         return serialModel;
     }
@@ -250,6 +323,7 @@ public class ChessModel {
         moveList = smodel.getMoveList();
 
         loadFEN(smodel.getFen());
+        restoreHistory(smodel.getStartFen(), smodel.getMoveHistory());
         setPaused(true);
         setStarted(smodel.getStarted());
 
@@ -257,15 +331,65 @@ public class ChessModel {
     }
 
     /**
-     * Checks if it is checkmate or stalemate. If it is checkmate it returns 2. If
-     * it is stalemate it return 1. Else 0.
+     * Checks if the game is over. If it is checkmate it returns 2. If
+     * it is stalemate it return 1. If the position has been repeated three times
+     * it returns 3, and if fifty moves have been made without a capture or pawn
+     * move it returns 4. Else 0.
      * 
      * @param enemyTeamIdentifier the team of the enemy player
-     * @return 0 if it is not checkmate or stalemate, 1 if it is stalemate, 2 if
-     *        it is checkmate
+     * @return 0 if the game is not over, 1 if it is stalemate, 2 if it is checkmate,
+     *        3 if it is a draw by repetition, 4 if it is a draw by the fifty-move rule
      */
     public int isGameOver(Identifier enemyTeamIdentifier) {
-        return rule.isGameOver(enemyTeamIdentifier);
+        // The packed move generator answers without allocating any moves
+        if (!moveGenerator.hasLegalMove(enemyTeamIdentifier)) {
+            return rule.isCheck(enemyTeamIdentifier) ? 2 : 1;
+        }
+
+        if (isRepetition()) {
+            return 3;
+        }
+
+        if (halfMoves >= FIFTY_MOVE_HALF_MOVES) {
+            return 4;
+        }
+
+        return 0;
+    }
+
+    /**
+     * Count how many times the current position has occurred.
+     * 
+     * Only positions since the last capture or pawn move with the same team in turn
+     * are compared, so this is proportional to the half move clock.
+     * 
+     * @return The number of times the current position has occurred, including now
+     */
+    public int getRepetitionCount() {
+        if (historySize == 0) {
+            return 0;
+        }
+
+        final long key = keyHistory[historySize - 1];
+
+        int count = 1;
+
+        for (int i = historySize - 3; i >= historyStart; i -= 2) {
+            if (keyHistory[i] == key) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Check if the current position has occurred three times.
+     * 
+     * @return True if the game is drawn by repetition
+     */
+    public boolean isRepetition() {
+        return getRepetitionCount() >= REPETITIONS;
     }
 
     /**
@@ -278,29 +402,80 @@ public class ChessModel {
     }
 
     /**
-     * Get the king cell for a team
-     * @param teamIdentifier the team identifier
-     * @return the king cell
+     * Get the Zobrist key of the current position.
+     * 
+     * The key of the pieces is kept up to date by the board information with every change
+     * to a cell, the team in turn, castling rights and a capturable en passant position
+     * are added to it here.
+     * 
+     * @return The 64-bit key of the position
+     * @see ChessZobrist
      */
-    public Cell getKingCell(Identifier teamIdentifier) {
-        // Loop through all cells
-        for (int row = 0; row < GAMESIZE; row++) {
-            for (int col = 0; col < GAMESIZE; col++) {
-                final Cell cell = board.getCell(row, col);
+    public long getPositionKey() {
+        long key = boardInformation.getPieceKey();
 
-                if (cell.isEmpty()) {
-                    continue;
-                }
+        final Identifier currentTeamIdentifier = teamManager.getCurrentTeamIdentifier();
+
+        if (currentTeamIdentifier.equals(ChessTeamIdentifier.BLACK)) {
+            key ^= ChessZobrist.getSideKey();
+        }
 
-                final Piece piece = cell.getPiece();
+        final ChessTeamParameters whiteParameters = getTeamWhite().getTeamParameters();
+        final ChessTeamParameters blackParameters = getTeamBlack().getTeamParameters();
 
-                if (piece.getTeamIdentifier().equals(teamIdentifier) && piece.getTypeIdentifier().equals(ChessTypeIdentifier.KING)) {
-                    return cell;
+        if (whiteParameters.canCastleKingside()) {
+            key ^= ChessZobrist.getCastlingKey(0);
+        }
+        if (whiteParameters.canCastleQueenside()) {
+            key ^= ChessZobrist.getCastlingKey(1);
+        }
+        if (blackParameters.canCastleKingside()) {
+            key ^= ChessZobrist.getCastlingKey(2);
+        }
+        if (blackParameters.canCastleQueenside()) {
+            key ^= ChessZobrist.getCastlingKey(3);
+        }
+
+        // En passant only changes the position if a pawn of the team in turn can take it
+        final Position enPassantPosition = sharedChessTeamParameters.getEnPassantPosition();
+
+        if (!enPassantPosition.equals(Position.INVALID) && !sharedChessTeamParameters.getEnPassantTeam().equals(currentTeamIdentifier)) {
+            final int pawnRow = enPassantPosition.getRow() - teamManager.getTeamParameters(currentTeamIdentifier).getPawnDirection();
+            final long pawns = boardInformation.getPieceBoard(ChessTypeIdentifier.PAWN, currentTeamIdentifier);
+
+            for (int col = enPassantPosition.getCol() - 1; col <= enPassantPosition.getCol() + 1; col += 2) {
+                if (col >= 0 && col < GAMESIZE && (pawns & (1L << (pawnRow * GAMESIZE + col))) != 0) {
+                    key ^= ChessZobrist.getEnPassantKey(enPassantPosition.getCol());
+                    break;
                 }
             }
         }
-        
-        throw new IllegalStateException("King not found");
+
+        return key;
+    }
+
+    /**
+     * Take an immutable snapshot of the current position, which other threads may read.
+     * 
+     * @return The position
+     */
+    public ChessPosition getPosition() {
+        return ChessPosition.of(this);
+    }
+
+    /**
+     * Get the king cell for a team
+     * @param teamIdentifier the team identifier
+     * @return the king cell
+     */
+    public Cell getKingCell(Identifier teamIdentifier) {
+        final int square = boardInformation.getKingSquare(teamIdentifier);
+
+        if (square < 0) {
+            throw new IllegalStateException("King not found");
+        }
+
+        return board.getCell(square / GAMESIZE, square % GAMESIZE);
     }
 
     /**
@@ -335,7 +510,7 @@ public class ChessModel {
      * 
      * @return The board information for this model
      */
-    public ChessBoardInformation getBoardInformation() {
+    public BitboardBoardInformation getBoardInformation() {
         return this.boardInformation;
     }
 
@@ -357,6 +532,15 @@ public class ChessModel {
         return this.rule;
     }
 
+    /**
+     * Get the move generator for this model
+     * 
+     * @return The move generator for this model
+     */
+    public ChessMoveGenerator getMoveGenerator() {
+        return this.moveGenerator;
+    }
+
     /**
      * Get which team whose turn it currently is
      * 
@@ -541,6 +725,15 @@ public class ChessModel {
         // Switch teams
         teamManager.switchCurrentTeam();
 
+        // Positions before an irreversible move can not be repeated, so they are dropped
+        if (!halfMove) {
+            historySize = 0;
+        }
+
+        recordPosition(!halfMove);
+
+        recordMove();
+
         // Invoke events
         onTeamChangeEvent.trigger(getCurrentTeam());
 
@@ -573,6 +766,11 @@ public class ChessModel {
         // Get the piece to move
         final Piece piece = fromCell.getPiece();
 
+        // Capturing a rook in its corner removes the castling right on that side
+        if (toCell.getPiece() != null) {
+            revokeCastlingOnCapture(to, toCell.getPiece());
+        }
+
         // Call the before move event
         piece.beforeMove(rule, from, to);
 
@@ -623,6 +821,11 @@ public class ChessModel {
             throw new IllegalArgumentException("Cannot move to that position");
         }
 
+        // Capturing a rook in its corner removes the castling right on that side
+        if (toCell.getPiece() != null) {
+            revokeCastlingOnCapture(to, toCell.getPiece());
+        }
+
         // Call the before move event
         piece.beforeMove(rule, from, to);
 
@@ -636,6 +839,360 @@ public class ChessModel {
         piece.afterMove(rule, from, to);
     }
 
+    /**
+     * Make a move without triggering any events.
+     *
+     * The move is applied directly to the board information and team parameters,
+     * including castling, en passant, promotion, castling rights and the move clocks,
+     * and the turn is passed to the other team. The move is assumed to be legal.
+     *
+     * @param move The move to make
+     * @param promotionType The type a pawn reaching the last row is promoted to, null for a queen
+     * @return The record needed to unmake the move
+     * @throws IllegalArgumentException If there is no piece on the from position
+     * @see ChessModel#unmakeMove(ChessMoveUndo)
+     */
+    public ChessMoveUndo makeMove(Move move, Identifier promotionType) throws IllegalArgumentException {
+        return makeMove(move.getFromCell(), move.getToCell(), promotionType);
+    }
+
+    /**
+     * Make a packed move without triggering any events.
+     *
+     * @param move The move, packed with {@link ChessMoveEncoding}
+     * @return The record needed to unmake the move
+     * @throws IllegalArgumentException If there is no piece on the from square
+     * @see ChessModel#makeMove(Move, Identifier)
+     */
+    public ChessMoveUndo makeMove(int move) throws IllegalArgumentException {
+        return makeMove(
+            Position.of(ChessMoveEncoding.getFrom(move)),
+            Position.of(ChessMoveEncoding.getTo(move)),
+            ChessMoveEncoding.getPromotionType(move)
+        );
+    }
+
+    /**
+     * Make a move without triggering any events.
+     *
+     * @param from The position the piece is moving from
+     * @param to The position the piece is moving to
+     * @param promotionType The type a pawn reaching the last row is promoted to, null for a queen
+     * @return The record needed to unmake the move
+     * @throws IllegalArgumentException If there is no piece on the from position
+     */
+    private ChessMoveUndo makeMove(Position from, Position to, Identifier promotionType) throws IllegalArgumentException {
+        final Piece piece = boardInformation.getPiece(from);
+
+        if (piece == null) {
+            throw new IllegalArgumentException("No piece at " + from);
+        }
+
+        final ChessTeam team = teamManager.getTeam(piece.getTeamIdentifier());
+        final ChessTeamParameters teamParameters = team.getTeamParameters();
+        final Identifier typeIdentifier = piece.getTypeIdentifier();
+        final boolean isPawn = typeIdentifier.equals(ChessTypeIdentifier.PAWN);
+
+        // Save the state that the move changes
+        final ChessMoveUndo undo = new ChessMoveUndo();
+        final ChessTeamParameters whiteParameters = getTeamWhite().getTeamParameters();
+        final ChessTeamParameters blackParameters = getTeamBlack().getTeamParameters();
+
+        undo.from = from;
+        undo.to = to;
+        undo.movingPiece = piece;
+        undo.castlingRights[0] = whiteParameters.canCastleKingside();
+        undo.castlingRights[1] = whiteParameters.canCastleQueenside();
+        undo.castlingRights[2] = blackParameters.canCastleKingside();
+        undo.castlingRights[3] = blackParameters.canCastleQueenside();
+        undo.enPassantPosition = sharedChessTeamParameters.getEnPassantPosition();
+        undo.enPassantTeam = sharedChessTeamParameters.getEnPassantTeam();
+        undo.halfMoves = halfMoves;
+        undo.fullMoves = fullMoves;
+        undo.teamIdentifier = teamManager.getCurrentTeamIdentifier();
+
+        // A pawn moving diagonally onto an empty cell takes en passant
+        Position capturedPosition = to;
+
+        if (isPawn && from.getCol() != to.getCol() && boardInformation.isEmpty(to)) {
+            capturedPosition = Position.of(from.getRow(), to.getCol());
+        }
+
+        final Piece capturedPiece = boardInformation.getPiece(capturedPosition);
+
+        undo.capturedPiece = capturedPiece;
+        undo.capturedPosition = capturedPosition;
+
+        if (capturedPiece != null) {
+            boardInformation.clearPiece(capturedPosition, false);
+            revokeCastlingOnCapture(capturedPosition, capturedPiece);
+        }
+
+        // A king moving two columns castles, the rook jumps over it
+        if (typeIdentifier.equals(ChessTypeIdentifier.KING) && Math.abs(to.getCol() - from.getCol()) == 2) {
+            final boolean kingSide = to.getCol() > from.getCol();
+
+            undo.rookFrom = Position.of(from.getRow(), kingSide ? GAMESIZE - 1 : 0);
+            undo.rookTo = Position.of(from.getRow(), kingSide ? from.getCol() + 1 : from.getCol() - 1);
+
+            final Piece rook = boardInformation.getPiece(undo.rookFrom);
+
+            boardInformation.clearPiece(undo.rookFrom, false);
+            boardInformation.placePiece(undo.rookTo, rook, false);
+        }
+
+        // Move the piece, promoting pawns which reach the last row
+        Piece placed = piece;
+
+        if (isPawn && to.getRow() == getOtherTeam(team).getTeamParameters().getKingRow()) {
+            placed = ChessPieceFactory.createPiece(promotionType == null ? ChessTypeIdentifier.QUEEN : promotionType, team);
+        }
+
+        boardInformation.clearPiece(from, false);
+        boardInformation.placePiece(to, placed, false);
+
+        // Castling rights are lost when the king or a rook leaves its starting cell
+        if (typeIdentifier.equals(ChessTypeIdentifier.KING)) {
+            teamParameters.setCanCastleKingside(false);
+            teamParameters.setCanCastleQueenside(false);
+        } else if (typeIdentifier.equals(ChessTypeIdentifier.ROOK) && from.getRow() == teamParameters.getKingRow()) {
+            if (from.getCol() == 0) {
+                teamParameters.setCanCastleQueenside(false);
+            } else if (from.getCol() == GAMESIZE - 1) {
+                teamParameters.setCanCastleKingside(false);
+            }
+        }
+
+        // En passant is only available directly after a pawn moved two rows
+        if (isPawn && from.distanceRow(to) == 2) {
+            sharedChessTeamParameters.setEnPassantPosition(Position.of(from.getRow() + teamParameters.getPawnDirection(), from.getCol()));
+            sharedChessTeamParameters.setEnPassantTeam(team.getTeamIdentifier());
+        } else {
+            sharedChessTeamParameters.setEnPassantPosition(Position.INVALID);
+            sharedChessTeamParameters.setEnPassantTeam(ChessTypeIdentifier.NULL);
+        }
+
+        // Move clocks
+        if (isPawn || capturedPiece != null) {
+            halfMoves = 0;
+        } else {
+            halfMoves++;
+        }
+
+        if (team.getTeamIdentifier().equals(ChessTeamIdentifier.BLACK)) {
+            fullMoves++;
+        }
+
+        teamManager.setCurrentTeamIdentifier(getOtherTeamIdentifier(team.getTeamIdentifier()));
+
+        undo.historyStart = historyStart;
+
+        recordPosition(isPawn || capturedPiece != null);
+
+        return undo;
+    }
+
+    /**
+     * Unmake a move made with {@link ChessModel#makeMove(Move, Identifier)}, without triggering any events.
+     *
+     * Moves must be unmade in the reverse order they were made.
+     *
+     * @param undo The record returned when the move was made
+     */
+    public void unmakeMove(ChessMoveUndo undo) {
+        // Put the pieces back
+        boardInformation.clearPiece(undo.to, false);
+        boardInformation.placePiece(undo.from, undo.movingPiece, false);
+
+        if (undo.capturedPiece != null) {
+            boardInformation.placePiece(undo.capturedPosition, undo.capturedPiece, false);
+        }
+
+        if (undo.rookFrom != null) {
+            final Piece rook = boardInformation.getPiece(undo.rookTo);
+
+            boardInformation.clearPiece(undo.rookTo, false);
+            boardInformation.placePiece(undo.rookFrom, rook, false);
+        }
+
+        // Restore the state
+        final ChessTeamParameters whiteParameters = getTeamWhite().getTeamParameters();
+        final ChessTeamParameters blackParameters = getTeamBlack().getTeamParameters();
+
+        whiteParameters.setCanCastleKingside(undo.castlingRights[0]);
+        whiteParameters.setCanCastleQueenside(undo.castlingRights[1]);
+        blackParameters.setCanCastleKingside(undo.castlingRights[2]);
+        blackParameters.setCanCastleQueenside(undo.castlingRights[3]);
+
+        sharedChessTeamParameters.setEnPassantPosition(undo.enPassantPosition);
+        sharedChessTeamParameters.setEnPassantTeam(undo.enPassantTeam);
+
+        halfMoves = undo.halfMoves;
+        fullMoves = undo.fullMoves;
+
+        teamManager.setCurrentTeamIdentifier(undo.teamIdentifier);
+
+        historySize--;
+        historyStart = undo.historyStart;
+    }
+
+    /**
+     * Add the key of the current position to the history.
+     * 
+     * @param irreversible True if the position was reached by a capture or pawn move
+     */
+    private void recordPosition(boolean irreversible) {
+        if (historySize == keyHistory.length) {
+            keyHistory = Arrays.copyOf(keyHistory, keyHistory.length * 2);
+        }
+
+        if (irreversible) {
+            historyStart = historySize;
+        }
+
+        keyHistory[historySize++] = getPositionKey();
+    }
+
+    /**
+     * Add the move which led to the current position to the move history.
+     *
+     * The move is the legal move of the previous position which leads to the current placement
+     * of the pieces, so promotions registered after the pawn moved are recorded as one move. If
+     * no legal move does, the board was changed in some other way and the history starts over
+     * from the current position.
+     */
+    private void recordMove() {
+        if (historyPosition != null) {
+            final int[] moves = new int[ChessMoveGenerator.MAX_MOVES];
+            final int count = historyPosition.generateLegalMoves(moves);
+
+            for (int i = 0; i < count; i++) {
+                final ChessPosition next = historyPosition.makeMove(moves[i]);
+
+                if (hasSamePieces(next)) {
+                    if (moveHistorySize == moveHistory.length) {
+                        moveHistory = Arrays.copyOf(moveHistory, moveHistory.length * 2);
+                    }
+
+                    moveHistory[moveHistorySize++] = moves[i];
+                    historyPosition = next;
+
+                    return;
+                }
+            }
+        }
+
+        startFEN = toFEN();
+        moveHistorySize = 0;
+        historyPosition = ChessPosition.of(this);
+    }
+
+    /**
+     * Restore the move history of a loaded game, if it leads to the loaded position.
+     *
+     * The positions since the last capture or pawn move are recorded again, so repetitions
+     * across the save are still detected.
+     *
+     * @param start The position the history starts from, or null if there is none
+     * @param moves The moves played from the start position, or null if there are none
+     */
+    private void restoreHistory(String start, int[] moves) {
+        if (start == null || moves == null) {
+            return;
+        }
+
+        final long[] keys = new long[moves.length + 1];
+        int lastIrreversible = 0;
+
+        ChessPosition position;
+
+        try {
+            position = ChessPosition.fromFEN(start);
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+
+        keys[0] = position.getKey();
+
+        for (int i = 0; i < moves.length; i++) {
+            if (ChessMoveEncoding.isCapture(moves[i]) || BitboardBoardInformation.getType(ChessMoveEncoding.getPieceIndex(moves[i])) == ChessTypeIdentifier.PAWN) {
+                lastIrreversible = i + 1;
+            }
+
+            position = position.makeMove(moves[i]);
+            keys[i + 1] = position.getKey();
+        }
+
+        if (position.getKey() != getPositionKey()) {
+            return;
+        }
+
+        startFEN = start;
+        moveHistory = Arrays.copyOf(moves, Math.max(moves.length, FIFTY_MOVE_HALF_MOVES));
+        moveHistorySize = moves.length;
+        historyPosition = position;
+
+        historySize = keys.length - lastIrreversible;
+        historyStart = 0;
+        keyHistory = Arrays.copyOf(Arrays.copyOfRange(keys, lastIrreversible, keys.length), Math.max(historySize, FIFTY_MOVE_HALF_MOVES));
+    }
+
+    /**
+     * Check if the pieces of a position are placed as on the board.
+     *
+     * @param position The position to compare with
+     * @return True if every piece bitboard is equal
+     */
+    private boolean hasSamePieces(ChessPosition position) {
+        for (int pieceIndex = 0; pieceIndex < 2 * BitboardBoardInformation.PIECE_TYPES; pieceIndex++) {
+            if (position.getPieceBoard(pieceIndex) != boardInformation.getPieceBoard(pieceIndex)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Check if a move takes a pawn to the last row, where it has to be promoted.
+     *
+     * @param move The move to check
+     * @return True if the move is a promotion
+     */
+    public boolean isPromotion(Move move) {
+        if (!move.getPieceType().equals(ChessTypeIdentifier.PAWN)) {
+            return false;
+        }
+
+        final Identifier teamIdentifier = boardInformation.getTeamIdentifier(move.getFromCell());
+
+        return move.getToCell().getRow() == teamManager.getTeamParameters(getOtherTeamIdentifier(teamIdentifier)).getKingRow();
+    }
+
+    /**
+     * Remove the castling right of a team if its rook is captured in the corner it castles with.
+     *
+     * @param position The position of the captured piece
+     * @param captured The captured piece
+     */
+    private void revokeCastlingOnCapture(Position position, Piece captured) {
+        if (!captured.getTypeIdentifier().equals(ChessTypeIdentifier.ROOK)) {
+            return;
+        }
+
+        final ChessTeamParameters parameters = teamManager.getTeamParameters(captured.getTeamIdentifier());
+
+        if (position.getRow() != parameters.getKingRow()) {
+            return;
+        }
+
+        if (position.getCol() == 0) {
+            parameters.setCanCastleQueenside(false);
+        } else if (position.getCol() == GAMESIZE - 1) {
+            parameters.setCanCastleKingside(false);
+        }
+    }
+
     /**
      * Given a team, this method returns the opposite team
      * 
@@ -667,183 +1224,201 @@ public class ChessModel {
     }
 
     /**
-     * Convert the state of the game to Forsyth-Edwards Notation.
-     * 
-     * @return the Forsyth-Edwards Notation
-     * @see <a href="http://en.wikipedia.org/wiki/Forsyth%E2%80%93Edwards_Notation">Forsyth-Edwards Notation</a>
+     * Get the position the move history starts from.
+     *
+     * This is the last position loaded, or the position after the board was last changed
+     * by something other than a legal move.
+     *
+     * @return The position in Forsyth-Edwards Notation, or null if no position has been loaded
      */
-    public String toFEN() {
-        String fen = "";
-        for (int rowi = 0; rowi < GAMESIZE; rowi++) {
-            int emptyCells = 0;
-            int row = GAMESIZE - rowi - 1;
-            for (int col = 0; col < GAMESIZE; col++) {
-                if (boardInformation.isEmpty(row, col)) {
-                    emptyCells++;
-                } else {
-                    if (emptyCells > 0) {
-                        fen += emptyCells;
-                        emptyCells = 0;
-                    }
-                    Piece piece = board.getCell(row, col).getPiece();
-                    String character = piece.getTypeIdentifier().toString();
-                    if (piece.getTeamIdentifier().equals(ChessTeamIdentifier.WHITE)) {
-                        character = character.toUpperCase();
-                    }
-                    fen += character;
-                }
-            }
-            if (emptyCells > 0) {
-                fen += emptyCells;
-            }
-            if (row != 0) {
-                fen += "/";
-            }
-        }
+    public String getStartFEN() {
+        return startFEN;
+    }
 
-        // Add 'w' or 'b' for the side to move
-        fen += " " + teamManager.getCurrentTeamIdentifier();
+    /**
+     * Get the moves played since the start position.
+     *
+     * @return The moves, packed with {@link ChessMoveEncoding}
+     * @see ChessModel#getStartFEN()
+     */
+    public int[] getMoveHistory() {
+        return Arrays.copyOf(moveHistory, moveHistorySize);
+    }
 
-        // Castling rights
-        ChessTeam white = getTeamWhite();
-        ChessTeam black = getTeamBlack();
-        ChessTeamParameters whiteParams = white.getTeamParameters();
-        ChessTeamParameters blackParams = black.getTeamParameters();
-        boolean whiteKingSide = whiteParams.canCastleKingside();
-        boolean whiteQueenSide = whiteParams.canCastleQueenside();
-        boolean blackKingSide = blackParams.canCastleKingside();
-        boolean blackQueenSide = blackParams.canCastleQueenside();
-
-        fen += " ";
-        if (!whiteKingSide && !whiteQueenSide && !blackKingSide && !blackQueenSide) {
-            fen += "-";
-        } else {
-            if (whiteKingSide) {
-                fen += "K";
-            }
-            if (whiteQueenSide) {
-                fen += "Q";
-            }
-            if (blackKingSide) {
-                fen += "k";
-            }
-            if (blackQueenSide) {
-                fen += "q";
-            }
+    /**
+     * Take back the moves played after some of the move history, without loading the game again.
+     *
+     * The board, the history and the notation of the moves go back to the position after the moves
+     * kept. The game is not paused and no load event is invoked.
+     *
+     * @param start The position the history starts from
+     * @param moves The moves to keep, which the move history must start with
+     * @throws IllegalArgumentException if the move history does not start with the moves from the position
+     * @see ChessModel#getStartFEN()
+     */
+    public void takeBack(String start, int[] moves) throws IllegalArgumentException {
+        if (startFEN == null || !startFEN.equals(start) || moves.length > moveHistorySize
+                || !Arrays.equals(moves, 0, moves.length, moveHistory, 0, moves.length)) {
+            throw new IllegalArgumentException("The move history does not start with the moves");
         }
 
-        // En passant target square
-        Position enPassantPosition = sharedChessTeamParameters.getEnPassantPosition();
+        final int takenBack = moveHistorySize - moves.length;
 
-        if (!enPassantPosition.equals(Position.INVALID)) {
-            fen += " " + enPassantPosition;
-        } else {
-            fen += " -";
+        loadMoves(start, moves);
+
+        moveList.subList(Math.max(0, moveList.size() - takenBack), moveList.size()).clear();
+    }
+
+    /**
+     * Load the position reached by playing moves from a position, with the moves as the move history.
+     *
+     * Repetitions of the positions passed through are detected as if the moves had been played here.
+     *
+     * @param start The position the moves are played from
+     * @param moves The moves, packed with {@link ChessMoveEncoding}
+     * @throws IllegalArgumentException if the position is invalid
+     */
+    public void loadMoves(String start, int[] moves) throws IllegalArgumentException {
+        ChessPosition position = ChessPosition.fromFEN(start);
+
+        for (int move : moves) {
+            position = position.makeMove(move);
         }
 
-        // Half move clock
-        fen += " " + getHalfMoves();
+        loadFEN(position.toFEN());
+        restoreHistory(start, moves);
+    }
 
-        // Full move number
-        fen += " " + getFullMoves();
+    /**
+     * Get the state of the game in Forsyth-Edwards Notation.
+     * 
+     * @return the Forsyth-Edwards Notation
+     * @see <a href="http://en.wikipedia.org/wiki/Forsyth%E2%80%93Edwards_Notation">Forsyth-Edwards Notation</a>
+     */
+    public String toFEN() {
+        return appendFEN(new StringBuilder(90)).toString();
+    }
 
-        return fen;
+    /**
+     * Append the state of the game in Forsyth-Edwards Notation to a builder.
+     * 
+     * Callers writing many positions may reuse one builder, resetting its length in between.
+     * 
+     * @param fen the builder to append to
+     * @return the builder
+     */
+    public StringBuilder appendFEN(StringBuilder fen) {
+        return ChessFEN.write(fen, boardInformation, BitboardBoardInformation.teamIndex(teamManager.getCurrentTeamIdentifier()), halfMoves, fullMoves);
     }
 
     /**
      * Load the state of the game from Forsyth-Edwards Notation.
      * 
+     * The whole notation is read before the board is changed, so invalid notation leaves the
+     * game as it was. Only the cells whose piece changes are updated and fire their events,
+     * and pieces taken off the board are placed again instead of creating new ones.
+     * 
      * @param fen the Forsyth-Edwards Notation
      * @see <a href="http://en.wikipedia.org/wiki/Forsyth%E2%80%93Edwards_Notation">Forsyth-Edwards Notation</a>
      * @throws IllegalArgumentException if the FEN is invalid
      */
-    public void loadFEN(String fen) throws IllegalArgumentException {
-        System.out.println("Loading FEN: " + fen);
+    public void loadFEN(CharSequence fen) throws IllegalArgumentException {
+        fenReader.read(fen);
 
-        String[] parts = fen.split(" ");
-        String[] rows = parts[0].split("/");
+        final byte[] mailbox = fenReader.mailbox;
 
-        // Check that we have the correct number of rows
-        if (rows.length != GAMESIZE) {
-            throw new IllegalArgumentException("Invalid number of rows, got " + rows.length + ", expected " + GAMESIZE);
-        }
+        // Take the pieces off the cells which change
+        int spareCount = 0;
 
-        // Empty all cells
-        for (int row = 0; row < GAMESIZE; row++) {
-            for (int col = 0; col < GAMESIZE; col++) {
-                board.getCell(row, col).emptyCell(true);
+        for (int square = 0; square < mailbox.length; square++) {
+            final int current = boardInformation.getPieceIndex(square);
+
+            if (current >= 0 && current != mailbox[square]) {
+                spareIndices[spareCount] = (byte) current;
+                spares[spareCount++] = board.getCell(square / GAMESIZE, square % GAMESIZE).getPiece();
             }
         }
 
-        int row = GAMESIZE - 1;
-        int col = 0;
-        for (String rowString : rows) {
-            for (int i = 0; i < rowString.length(); i++) {
-                // Check that we have the correct number of columns
-                if (col > GAMESIZE) {
-                    throw new IllegalArgumentException("Invalid number of columns, got " + col + ", expected a max of " + GAMESIZE);
-                }
-
-                Cell cell = board.getCell(row, col);
-
-                char c = rowString.charAt(i);
-                if (Character.isDigit(c)) {
-                    for (int j = 0; j < Character.getNumericValue(c); j++) {
-                        
-                        cell.emptyCell(true);
-                        col++;
-                    }
-                } else {
-                    ChessTeam team = c == Character.toUpperCase(c) ? getTeamWhite() : getTeamBlack();
-
-                    Identifier typeIdentifier = ChessTypeIdentifier.getIdentifier(String.valueOf(Character.toLowerCase(c)));
+        // Place the pieces, reusing the pieces taken off
+        for (int square = 0; square < mailbox.length; square++) {
+            final int target = mailbox[square];
 
-                    Piece piece = ChessPieceFactory.createPiece(typeIdentifier, team);
+            if (boardInformation.getPieceIndex(square) == target) {
+                continue;
+            }
 
-                    cell.updatePiece(piece, true);
+            final Cell cell = board.getCell(square / GAMESIZE, square % GAMESIZE);
 
-                    col++;
-                }
+            if (target < 0) {
+                cell.emptyCell(true);
+            } else {
+                cell.updatePiece(takeSpare(target, spareCount), true);
             }
-            row--;
-            col = 0;
         }
 
+        Arrays.fill(spares, 0, spareCount, null);
 
-        ChessTeam team = parts[1].equals("w") ? getTeamWhite() : getTeamBlack();
-        setCurrentTeam(team);
+        // Side to move
+        setCurrentTeam(fenReader.team == 0 ? getTeamWhite() : getTeamBlack());
 
         // Castling rights
-        String castlingRights = parts[2];
-        ChessTeam white = getTeamWhite();
-        ChessTeam black = getTeamBlack();
-        ChessTeamParameters whiteParams = white.getTeamParameters();
-        ChessTeamParameters blackParams = black.getTeamParameters();
-
-        whiteParams.setCanCastleKingside(castlingRights.contains("K"));
-        whiteParams.setCanCastleQueenside(castlingRights.contains("Q"));
-        blackParams.setCanCastleKingside(castlingRights.contains("k"));
-        blackParams.setCanCastleQueenside(castlingRights.contains("q"));
-
-        // En passant target square
-        if (parts[3].equals("-")) {
+        final ChessTeamParameters whiteParams = getTeamWhite().getTeamParameters();
+        final ChessTeamParameters blackParams = getTeamBlack().getTeamParameters();
+
+        whiteParams.setCanCastleKingside((fenReader.castlingRights & 1) != 0);
+        whiteParams.setCanCastleQueenside((fenReader.castlingRights & 2) != 0);
+        blackParams.setCanCastleKingside((fenReader.castlingRights & 4) != 0);
+        blackParams.setCanCastleQueenside((fenReader.castlingRights & 8) != 0);
+
+        // En passant target square, enabled by the team not in turn
+        if (fenReader.enPassantSquare < 0) {
             sharedChessTeamParameters.setEnPassantPosition(Position.INVALID);
+            sharedChessTeamParameters.setEnPassantTeam(ChessTypeIdentifier.NULL);
         } else {
-            Cell cell = board.getCell(parts[3]);
-            
-            sharedChessTeamParameters.setEnPassantPosition(cell.getPosition());
+            sharedChessTeamParameters.setEnPassantPosition(Position.of(fenReader.enPassantSquare));
+            sharedChessTeamParameters.setEnPassantTeam(getOtherTeamIdentifier(teamManager.getCurrentTeamIdentifier()));
         }
 
-        // Half move clock
-        setHalfMoves(Integer.parseInt(parts[4]));
+        // Move clocks
+        setHalfMoves(fenReader.halfMoves);
+        setFullMoves(fenReader.fullMoves);
+
+        // The history starts over from the loaded position
+        historySize = 0;
+        recordPosition(true);
 
-        // Full move number
-        setFullMoves(Integer.parseInt(parts[5]));
+        startFEN = toFEN();
+        moveHistorySize = 0;
+        historyPosition = ChessPosition.of(this);
 
         /*
          * Invoke events
          */
 
-        getOnGameLoadedEvent().trigger(fen);
+        getOnGameLoadedEvent().trigger(fen.toString());
+    }
+
+    /**
+     * Take a piece taken off the board while loading a position, or create one if there is none.
+     * 
+     * @param pieceIndex the piece index of the piece
+     * @param spareCount the number of pieces taken off
+     * @return the piece
+     */
+    private Piece takeSpare(int pieceIndex, int spareCount) {
+        for (int i = 0; i < spareCount; i++) {
+            if (spareIndices[i] == pieceIndex) {
+                final Piece piece = spares[i];
+
+                spareIndices[i] = -1;
+                spares[i] = null;
+
+                return piece;
+            }
+        }
+
+        final ChessTeam team = getTeam(BitboardBoardInformation.getTeam(pieceIndex));
+
+        return ChessPieceFactory.createPiece(BitboardBoardInformation.getType(pieceIndex), team);
     }
 }
\ No newline at end of file
@@ -0,0 +1,232 @@
+package com.chess.model.chess;
+
+import com.chess.model.Identifier;
+import com.chess.model.Move;
+import com.chess.model.Position;
+
+/**
+ * Packs chess moves into a single int.
+ *
+ * Bits 0-5 hold the square moved from, bits 6-11 the square moved to, bits 12-15 the
+ * flags and bits 16-19 the piece index of the moving piece, as used by
+ * {@link BitboardBoardInformation#pieceIndex(Identifier, Identifier)}. Squares are indexed
+ * as row * 8 + col.
+ * @author agent
+ * @version 2026-10-17
+ */
+public final class ChessMoveEncoding {
+    /**
+     * A move to an empty square.
+     */
+    public static final int QUIET = 0;
+
+    /**
+     * A pawn moving two rows.
+     */
+    public static final int DOUBLE_PUSH = 1;
+
+    /**
+     * Castling on the king side.
+     */
+    public static final int KING_CASTLE = 2;
+
+    /**
+     * Castling on the queen side.
+     */
+    public static final int QUEEN_CASTLE = 3;
+
+    /**
+     * Flag bit set for every capture.
+     */
+    public static final int CAPTURE = 4;
+
+    /**
+     * A pawn capturing en passant.
+     */
+    public static final int EN_PASSANT = CAPTURE | 1;
+
+    /**
+     * Flag bit set for every promotion, the two lowest flag bits hold the promotion type.
+     */
+    public static final int PROMOTION = 8;
+
+    /**
+     * The piece types a pawn may be promoted to, indexed by the two lowest flag bits.
+     */
+    private static final ChessTypeIdentifier[] PROMOTION_TYPES = {
+        ChessTypeIdentifier.KNIGHT,
+        ChessTypeIdentifier.BISHOP,
+        ChessTypeIdentifier.ROOK,
+        ChessTypeIdentifier.QUEEN
+    };
+
+    /**
+     * Mask for a square.
+     */
+    private static final int SQUARE_MASK = 0x3F;
+
+    /**
+     * Mask for the flags and the piece index.
+     */
+    private static final int NIBBLE_MASK = 0xF;
+
+    /**
+     * Utility class, not to be instantiated.
+     */
+    private ChessMoveEncoding() {
+    }
+
+    /**
+     * Pack a move.
+     *
+     * @param from the square moved from
+     * @param to the square moved to
+     * @param flags the flags
+     * @param pieceIndex the piece index of the moving piece
+     * @return the packed move
+     */
+    public static int encode(int from, int to, int flags, int pieceIndex) {
+        return from | (to << 6) | (flags << 12) | (pieceIndex << 16);
+    }
+
+    /**
+     * Get the square a move is made from.
+     *
+     * @param move the packed move
+     * @return the square
+     */
+    public static int getFrom(int move) {
+        return move & SQUARE_MASK;
+    }
+
+    /**
+     * Get the square a move is made to.
+     *
+     * @param move the packed move
+     * @return the square
+     */
+    public static int getTo(int move) {
+        return (move >>> 6) & SQUARE_MASK;
+    }
+
+    /**
+     * Get the flags of a move.
+     *
+     * @param move the packed move
+     * @return the flags
+     */
+    public static int getFlags(int move) {
+        return (move >>> 12) & NIBBLE_MASK;
+    }
+
+    /**
+     * Get the piece index of the moving piece.
+     *
+     * @param move the packed move
+     * @return the piece index
+     */
+    public static int getPieceIndex(int move) {
+        return (move >>> 16) & NIBBLE_MASK;
+    }
+
+    /**
+     * Check if a move captures a piece.
+     *
+     * @param move the packed move
+     * @return true if the move is a capture
+     */
+    public static boolean isCapture(int move) {
+        return (getFlags(move) & CAPTURE) != 0;
+    }
+
+    /**
+     * Check if a move promotes a pawn.
+     *
+     * @param move the packed move
+     * @return true if the move is a promotion
+     */
+    public static boolean isPromotion(int move) {
+        return (getFlags(move) & PROMOTION) != 0;
+    }
+
+    /**
+     * Get the flags for a promotion.
+     *
+     * @param promotionType the piece type promoted to
+     * @param isCapture if the promotion captures a piece
+     * @return the flags
+     * @throws IllegalArgumentException if a pawn may not be promoted to the type
+     */
+    public static int getPromotionFlags(Identifier promotionType, boolean isCapture) throws IllegalArgumentException {
+        for (int i = 0; i < PROMOTION_TYPES.length; i++) {
+            if (PROMOTION_TYPES[i] == promotionType) {
+                return PROMOTION | (isCapture ? CAPTURE : 0) | i;
+            }
+        }
+
+        throw new IllegalArgumentException("Invalid promotion type: " + promotionType);
+    }
+
+    /**
+     * Get the piece type a move promotes to.
+     *
+     * @param move the packed move
+     * @return the piece type, or null if the move is not a promotion
+     */
+    public static ChessTypeIdentifier getPromotionType(int move) {
+        if (!isPromotion(move)) {
+            return null;
+        }
+
+        return PROMOTION_TYPES[getFlags(move) & 3];
+    }
+
+    /**
+     * Convert a packed move to a move.
+     *
+     * The promotion type is not part of a move, so every promotion of a pawn converts to the same move.
+     *
+     * @param move the packed move
+     * @return the move
+     */
+    public static Move toMove(int move) {
+        final int from = getFrom(move);
+        final int to = getTo(move);
+        final int flags = getFlags(move);
+
+        final Move result = new Move(
+            Position.of(to),
+            Position.of(from),
+            BitboardBoardInformation.getType(getPieceIndex(move)),
+            isCapture(move)
+        );
+
+        result.setIsEnPassant(flags == EN_PASSANT);
+        result.setIsCastleKingSide(flags == KING_CASTLE);
+        result.setIsCastleQueenSide(flags == QUEEN_CASTLE);
+
+        return result;
+    }
+
+    /**
+     * Get a readable representation of a packed move, such as e7e8q.
+     *
+     * @param move the packed move
+     * @return the representation
+     */
+    public static String toString(int move) {
+        final ChessTypeIdentifier promotionType = getPromotionType(move);
+
+        return squareName(getFrom(move)) + squareName(getTo(move)) + (promotionType == null ? "" : promotionType.toString());
+    }
+
+    /**
+     * Get the name of a square, such as e4.
+     *
+     * @param square the square
+     * @return the name
+     */
+    private static String squareName(int square) {
+        return "" + (char) ('a' + square % BitboardBoardInformation.BOARD_SIZE) + (char) ('1' + square / BitboardBoardInformation.BOARD_SIZE);
+    }
+}
@@ -0,0 +1,632 @@
+package com.chess.model.chess;
+
+import java.util.Collection;
+
+import com.chess.model.Identifier;
+import com.chess.model.Move;
+
+/**
+ * Generates chess moves as packed ints from the bitboards.
+ *
+ * Moves are written into a buffer owned by the caller and encoded with
+ * {@link ChessMoveEncoding}, so generating moves does not allocate. Attacks are looked up
+ * in precomputed tables for pawns, knights and kings, and along precomputed rays for
+ * sliding pieces. Moves can be generated for the live board or for any other
+ * {@link BitboardPosition}, such as a {@link ChessPosition} snapshot. A generator keeps a
+ * scratch buffer and is not thread safe.
+ * @author agent
+ * @version 2026-10-17
+ */
+public class ChessMoveGenerator {
+    /**
+     * A buffer of this size holds the moves of any legal position.
+     */
+    public static final int MAX_MOVES = 256;
+
+    /**
+     * The size of the board.
+     */
+    private static final int SIZE = BitboardBoardInformation.BOARD_SIZE;
+
+    /**
+     * The column of the king before castling.
+     */
+    private static final int KING_COL = 4;
+
+    /**
+     * Ray directions as row and column steps. The first four point towards higher squares.
+     */
+    private static final int[][] DIRECTIONS = {
+        {1, 0}, {1, 1}, {0, 1}, {1, -1},
+        {-1, 0}, {-1, -1}, {0, -1}, {-1, 1}
+    };
+
+    /**
+     * The ray directions of a rook.
+     */
+    private static final int[] ROOK_DIRECTIONS = {0, 2, 4, 6};
+
+    /**
+     * The ray directions of a bishop.
+     */
+    private static final int[] BISHOP_DIRECTIONS = {1, 3, 5, 7};
+
+    /**
+     * The squares along each ray from each square, not including the square itself.
+     */
+    private static final long[][] RAYS = new long[DIRECTIONS.length][BitboardBoardInformation.SQUARES];
+
+    /**
+     * The squares a knight attacks from each square.
+     */
+    private static final long[] KNIGHT_ATTACKS = new long[BitboardBoardInformation.SQUARES];
+
+    /**
+     * The squares a king attacks from each square.
+     */
+    private static final long[] KING_ATTACKS = new long[BitboardBoardInformation.SQUARES];
+
+    /**
+     * The squares a pawn of each team attacks from each square.
+     */
+    private static final long[][] PAWN_ATTACKS = new long[2][BitboardBoardInformation.SQUARES];
+
+    static {
+        final int[][] knightOffsets = {
+            {1, 2}, {1, -2}, {-1, 2}, {-1, -2}, {2, 1}, {2, -1}, {-2, 1}, {-2, -1}
+        };
+
+        for (int square = 0; square < BitboardBoardInformation.SQUARES; square++) {
+            final int row = square / SIZE;
+            final int col = square % SIZE;
+
+            for (int direction = 0; direction < DIRECTIONS.length; direction++) {
+                int nextRow = row + DIRECTIONS[direction][0];
+                int nextCol = col + DIRECTIONS[direction][1];
+
+                // The first step of every ray is a king step
+                KING_ATTACKS[square] |= mask(nextRow, nextCol);
+
+                while (isInside(nextRow, nextCol)) {
+                    RAYS[direction][square] |= mask(nextRow, nextCol);
+                    nextRow += DIRECTIONS[direction][0];
+                    nextCol += DIRECTIONS[direction][1];
+                }
+            }
+
+            for (int[] offset : knightOffsets) {
+                KNIGHT_ATTACKS[square] |= mask(row + offset[0], col + offset[1]);
+            }
+
+            // White pawns move up the board, black pawns down
+            PAWN_ATTACKS[0][square] = mask(row + 1, col - 1) | mask(row + 1, col + 1);
+            PAWN_ATTACKS[1][square] = mask(row - 1, col - 1) | mask(row - 1, col + 1);
+        }
+    }
+
+    /**
+     * The position moves are generated for.
+     */
+    private final BitboardPosition position;
+
+    /**
+     * Scratch buffer used when only the number of legal moves is needed, created on first use.
+     */
+    private int[] scratch;
+
+    /**
+     * Creates a new move generator.
+     *
+     * @param position the position to read the bitboards, castling rights and en passant from
+     */
+    public ChessMoveGenerator(BitboardPosition position) {
+        this.position = position;
+    }
+
+    //
+    // Static helpers
+    //
+
+    /**
+     * Get the squares from which a pawn of a team attacks a square.
+     *
+     * @param team the index of the team of the pawn
+     * @param square the attacked square
+     * @return the squares
+     */
+    static long getPawnAttackers(int team, int square) {
+        return PAWN_ATTACKS[1 - team][square];
+    }
+
+    /**
+     * Get the row of the pieces of a team at the start of the game.
+     *
+     * @param team the index of the team
+     * @return the row
+     */
+    static int getKingRow(int team) {
+        return team == 0 ? 0 : SIZE - 1;
+    }
+
+    /**
+     * Get the row direction the pawns of a team move in.
+     *
+     * @param team the index of the team
+     * @return 1 for white, -1 for black
+     */
+    static int getPawnDirection(int team) {
+        return team == 0 ? 1 : -1;
+    }
+
+    /**
+     * Get a bitboard with a single square set.
+     *
+     * @param row the row, may be outside the board
+     * @param col the column, may be outside the board
+     * @return the bitboard, or 0 if the square is outside the board
+     */
+    private static long mask(int row, int col) {
+        return isInside(row, col) ? 1L << (row * SIZE + col) : 0;
+    }
+
+    /**
+     * Checks if a row and column is inside the board.
+     *
+     * @param row the row
+     * @param col the column
+     * @return true if the row and column is inside the board
+     */
+    private static boolean isInside(int row, int col) {
+        return row >= 0 && row < SIZE && col >= 0 && col < SIZE;
+    }
+
+    /**
+     * Get the squares attacked along a ray, up to and including the first occupied square.
+     *
+     * @param square the square the ray starts from
+     * @param direction the direction of the ray
+     * @param occupancy the occupied squares
+     * @return the attacked squares
+     */
+    private static long rayAttacks(int square, int direction, long occupancy) {
+        long attacks = RAYS[direction][square];
+        final long blockers = attacks & occupancy;
+
+        if (blockers != 0) {
+            // The first four directions point towards higher squares, so the nearest blocker is the lowest bit
+            final int blocker = direction < 4 ? Long.numberOfTrailingZeros(blockers) : 63 - Long.numberOfLeadingZeros(blockers);
+
+            attacks ^= RAYS[direction][blocker];
+        }
+
+        return attacks;
+    }
+
+    /**
+     * Get the squares a sliding piece attacks.
+     *
+     * @param square the square of the piece
+     * @param directions the directions the piece slides in
+     * @param occupancy the occupied squares
+     * @return the attacked squares
+     */
+    private static long slidingAttacks(int square, int[] directions, long occupancy) {
+        long attacks = 0;
+
+        for (int direction : directions) {
+            attacks |= rayAttacks(square, direction, occupancy);
+        }
+
+        return attacks;
+    }
+
+    /**
+     * Get the squares a rook attacks.
+     *
+     * @param square the square of the rook
+     * @param occupancy the occupied squares
+     * @return the attacked squares
+     */
+    public static long rookAttacks(int square, long occupancy) {
+        return slidingAttacks(square, ROOK_DIRECTIONS, occupancy);
+    }
+
+    /**
+     * Get the squares a bishop attacks.
+     *
+     * @param square the square of the bishop
+     * @param occupancy the occupied squares
+     * @return the attacked squares
+     */
+    public static long bishopAttacks(int square, long occupancy) {
+        return slidingAttacks(square, BISHOP_DIRECTIONS, occupancy);
+    }
+
+    //
+    // Generation
+    //
+
+    /**
+     * Generate the pseudo-legal moves of a team, moves which may leave its king in check.
+     *
+     * Promotions are generated once for every piece type a pawn may be promoted to.
+     *
+     * @param teamIdentifier the team to generate moves for
+     * @param buffer the buffer the packed moves are written to, at least {@link #MAX_MOVES} long
+     * @return the number of moves written
+     * @throws IllegalArgumentException if the team is invalid
+     */
+    public int generatePseudoLegalMoves(Identifier teamIdentifier, int[] buffer) throws IllegalArgumentException {
+        final int team = BitboardBoardInformation.teamIndex(teamIdentifier);
+        final int base = team * BitboardBoardInformation.PIECE_TYPES;
+
+        final long own = position.getTeamBoard(team);
+        final long enemy = position.getOccupancy() & ~own;
+        final long occupancy = position.getOccupancy();
+
+        int count = 0;
+
+        count = generatePawnMoves(team, base, enemy, occupancy, buffer, count);
+
+        // Knights
+        final int knight = base + BitboardBoardInformation.typeIndex(ChessTypeIdentifier.KNIGHT);
+
+        for (long pieces = position.getPieceBoard(knight); pieces != 0; pieces &= pieces - 1) {
+            final int from = Long.numberOfTrailingZeros(pieces);
+
+            count = addMoves(from, KNIGHT_ATTACKS[from] & ~own, enemy, knight, buffer, count);
+        }
+
+        // Sliding pieces
+        final int bishop = base + BitboardBoardInformation.typeIndex(ChessTypeIdentifier.BISHOP);
+        final int rook = base + BitboardBoardInformation.typeIndex(ChessTypeIdentifier.ROOK);
+        final int queen = base + BitboardBoardInformation.typeIndex(ChessTypeIdentifier.QUEEN);
+
+        for (long pieces = position.getPieceBoard(bishop); pieces != 0; pieces &= pieces - 1) {
+            final int from = Long.numberOfTrailingZeros(pieces);
+
+            count = addMoves(from, bishopAttacks(from, occupancy) & ~own, enemy, bishop, buffer, count);
+        }
+
+        for (long pieces = position.getPieceBoard(rook); pieces != 0; pieces &= pieces - 1) {
+            final int from = Long.numberOfTrailingZeros(pieces);
+
+            count = addMoves(from, rookAttacks(from, occupancy) & ~own, enemy, rook, buffer, count);
+        }
+
+        for (long pieces = position.getPieceBoard(queen); pieces != 0; pieces &= pieces - 1) {
+            final int from = Long.numberOfTrailingZeros(pieces);
+            final long attacks = rookAttacks(from, occupancy) | bishopAttacks(from, occupancy);
+
+            count = addMoves(from, attacks & ~own, enemy, queen, buffer, count);
+        }
+
+        // King
+        final int king = base + BitboardBoardInformation.typeIndex(ChessTypeIdentifier.KING);
+        final long kingBoard = position.getPieceBoard(king);
+
+        if (kingBoard != 0) {
+            final int from = Long.numberOfTrailingZeros(kingBoard);
+
+            count = addMoves(from, KING_ATTACKS[from] & ~own, enemy, king, buffer, count);
+            count = generateCastlingMoves(team, from, king, rook, occupancy, buffer, count);
+        }
+
+        return count;
+    }
+
+    /**
+     * Generate the legal moves of a team.
+     *
+     * @param teamIdentifier the team to generate moves for
+     * @param buffer the buffer the packed moves are written to, at least {@link #MAX_MOVES} long
+     * @return the number of moves written
+     * @throws IllegalArgumentException if the team is invalid
+     */
+    public int generateLegalMoves(Identifier teamIdentifier, int[] buffer) throws IllegalArgumentException {
+        final int pseudoLegal = generatePseudoLegalMoves(teamIdentifier, buffer);
+
+        // Compact the legal moves to the start of the buffer
+        int count = 0;
+
+        for (int i = 0; i < pseudoLegal; i++) {
+            if (isLegal(buffer[i])) {
+                buffer[count++] = buffer[i];
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Checks if a team has any legal move.
+     *
+     * @param teamIdentifier the team
+     * @return true if the team can move
+     * @throws IllegalArgumentException if the team is invalid
+     */
+    public boolean hasLegalMove(Identifier teamIdentifier) throws IllegalArgumentException {
+        final int[] scratch = getScratch();
+        final int pseudoLegal = generatePseudoLegalMoves(teamIdentifier, scratch);
+
+        for (int i = 0; i < pseudoLegal; i++) {
+            if (isLegal(scratch[i])) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Collect the legal moves of a team as moves.
+     *
+     * Every promotion of a pawn converts to the same move, so only one of them is added.
+     *
+     * @param teamIdentifier the team
+     * @param registry the collection the moves are added to
+     * @throws IllegalArgumentException if the team is invalid
+     */
+    public void getLegalMoves(Identifier teamIdentifier, Collection<Move> registry) throws IllegalArgumentException {
+        final int[] scratch = getScratch();
+        final int count = generateLegalMoves(teamIdentifier, scratch);
+
+        for (int i = 0; i < count; i++) {
+            final int move = scratch[i];
+
+            if (ChessMoveEncoding.isPromotion(move) && ChessMoveEncoding.getPromotionType(move) != ChessTypeIdentifier.QUEEN) {
+                continue;
+            }
+
+            registry.add(ChessMoveEncoding.toMove(move));
+        }
+    }
+
+    /**
+     * Checks if a pseudo-legal move leaves the king of the moving team out of check.
+     *
+     * The move is not made, the attacks are computed on the occupancy after the move.
+     *
+     * @param move the packed move
+     * @return true if the move is legal
+     */
+    public boolean isLegal(int move) {
+        final int flags = ChessMoveEncoding.getFlags(move);
+
+        // Castling is only generated when the king does not pass an attacked square
+        if (flags == ChessMoveEncoding.KING_CASTLE || flags == ChessMoveEncoding.QUEEN_CASTLE) {
+            return true;
+        }
+
+        final int from = ChessMoveEncoding.getFrom(move);
+        final int to = ChessMoveEncoding.getTo(move);
+        final int pieceIndex = ChessMoveEncoding.getPieceIndex(move);
+        final int team = pieceIndex / BitboardBoardInformation.PIECE_TYPES;
+        final int kingIndex = team * BitboardBoardInformation.PIECE_TYPES + BitboardBoardInformation.typeIndex(ChessTypeIdentifier.KING);
+
+        // En passant captures the pawn beside the moving pawn
+        long captured = 0;
+
+        if (flags == ChessMoveEncoding.EN_PASSANT) {
+            captured = 1L << ((from & ~(SIZE - 1)) | (to & (SIZE - 1)));
+        } else if ((flags & ChessMoveEncoding.CAPTURE) != 0) {
+            captured = 1L << to;
+        }
+
+        final long occupancy = (position.getOccupancy() & ~(1L << from) & ~captured) | (1L << to);
+
+        final int kingSquare = pieceIndex == kingIndex ? to : Long.numberOfTrailingZeros(position.getPieceBoard(kingIndex));
+
+        // A team without a king can not be in check
+        if (kingSquare == Long.SIZE) {
+            return true;
+        }
+
+        return !isAttackedBy(kingSquare, 1 - team, occupancy, captured);
+    }
+
+    /**
+     * Check if a square is attacked by any piece which does not belong to a team.
+     *
+     * @param square the square
+     * @param teamIdentifier the team which is being attacked
+     * @return true if an enemy piece attacks the square
+     * @throws IllegalArgumentException if the team is invalid
+     */
+    public boolean isAttacked(int square, Identifier teamIdentifier) throws IllegalArgumentException {
+        final int team = BitboardBoardInformation.teamIndex(teamIdentifier);
+
+        return isAttackedBy(square, 1 - team, position.getOccupancy(), 0);
+    }
+
+    /**
+     * Check if a square is attacked by a team.
+     *
+     * @param square the square
+     * @param attacker the index of the attacking team
+     * @param occupancy the occupied squares
+     * @param removed squares whose pieces have been captured and no longer attack
+     * @return true if the square is attacked
+     */
+    private boolean isAttackedBy(int square, int attacker, long occupancy, long removed) {
+        final int base = attacker * BitboardBoardInformation.PIECE_TYPES;
+        final long keep = ~removed;
+
+        final long pawns = position.getPieceBoard(base + BitboardBoardInformation.typeIndex(ChessTypeIdentifier.PAWN)) & keep;
+        final long knights = position.getPieceBoard(base + BitboardBoardInformation.typeIndex(ChessTypeIdentifier.KNIGHT)) & keep;
+        final long bishops = position.getPieceBoard(base + BitboardBoardInformation.typeIndex(ChessTypeIdentifier.BISHOP)) & keep;
+        final long rooks = position.getPieceBoard(base + BitboardBoardInformation.typeIndex(ChessTypeIdentifier.ROOK)) & keep;
+        final long queens = position.getPieceBoard(base + BitboardBoardInformation.typeIndex(ChessTypeIdentifier.QUEEN)) & keep;
+        final long kings = position.getPieceBoard(base + BitboardBoardInformation.typeIndex(ChessTypeIdentifier.KING));
+
+        // A pawn of the other team on the square attacks the squares the attacking pawns stand on
+        if ((PAWN_ATTACKS[1 - attacker][square] & pawns) != 0) {
+            return true;
+        }
+
+        if ((KNIGHT_ATTACKS[square] & knights) != 0 || (KING_ATTACKS[square] & kings) != 0) {
+            return true;
+        }
+
+        if ((rookAttacks(square, occupancy) & (rooks | queens)) != 0) {
+            return true;
+        }
+
+        return (bishopAttacks(square, occupancy) & (bishops | queens)) != 0;
+    }
+
+    /**
+     * Generate the moves of the pawns of a team.
+     *
+     * @param team the index of the team
+     * @param base the piece index of the first piece type of the team
+     * @param enemy the squares occupied by the other team
+     * @param occupancy the occupied squares
+     * @param buffer the buffer the moves are written to
+     * @param count the number of moves already in the buffer
+     * @return the number of moves in the buffer
+     */
+    private int generatePawnMoves(int team, int base, long enemy, long occupancy, int[] buffer, int count) {
+        final int pawn = base + BitboardBoardInformation.typeIndex(ChessTypeIdentifier.PAWN);
+        final int pawnDirection = getPawnDirection(team);
+        final int direction = pawnDirection * SIZE;
+        final int startRow = getKingRow(team) + pawnDirection;
+        final int lastRow = getKingRow(1 - team);
+
+        final int enPassantSquare = position.getEnPassantSquare(team);
+        final long enPassant = enPassantSquare < 0 ? 0 : 1L << enPassantSquare;
+
+        for (long pieces = position.getPieceBoard(pawn); pieces != 0; pieces &= pieces - 1) {
+            final int from = Long.numberOfTrailingZeros(pieces);
+            final int single = from + direction;
+
+            // Pushes
+            if (single >= 0 && single < BitboardBoardInformation.SQUARES && (occupancy & (1L << single)) == 0) {
+                if (single / SIZE == lastRow) {
+                    count = addPromotions(from, single, false, pawn, buffer, count);
+                } else {
+                    buffer[count++] = ChessMoveEncoding.encode(from, single, ChessMoveEncoding.QUIET, pawn);
+
+                    final int twice = single + direction;
+
+                    if (from / SIZE == startRow && (occupancy & (1L << twice)) == 0) {
+                        buffer[count++] = ChessMoveEncoding.encode(from, twice, ChessMoveEncoding.DOUBLE_PUSH, pawn);
+                    }
+                }
+            }
+
+            // Captures
+            for (long targets = PAWN_ATTACKS[team][from] & enemy; targets != 0; targets &= targets - 1) {
+                final int to = Long.numberOfTrailingZeros(targets);
+
+                if (to / SIZE == lastRow) {
+                    count = addPromotions(from, to, true, pawn, buffer, count);
+                } else {
+                    buffer[count++] = ChessMoveEncoding.encode(from, to, ChessMoveEncoding.CAPTURE, pawn);
+                }
+            }
+
+            if ((PAWN_ATTACKS[team][from] & enPassant) != 0) {
+                buffer[count++] = ChessMoveEncoding.encode(from, Long.numberOfTrailingZeros(enPassant), ChessMoveEncoding.EN_PASSANT, pawn);
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Generate the castling moves of a team.
+     *
+     * @param team the index of the team
+     * @param from the square of the king
+     * @param king the piece index of the king of the team
+     * @param rook the piece index of the rooks of the team
+     * @param occupancy the occupied squares
+     * @param buffer the buffer the moves are written to
+     * @param count the number of moves already in the buffer
+     * @return the number of moves in the buffer
+     */
+    private int generateCastlingMoves(int team, int from, int king, int rook, long occupancy, int[] buffer, int count) {
+        final int kingRow = getKingRow(team);
+
+        if (from != kingRow * SIZE + KING_COL) {
+            return count;
+        }
+
+        final boolean kingSide = position.canCastle(team * 2) && (position.getPieceBoard(rook) & (1L << (from + 3))) != 0;
+        final boolean queenSide = position.canCastle(team * 2 + 1) && (position.getPieceBoard(rook) & (1L << (from - 4))) != 0;
+
+        if (!kingSide && !queenSide || isAttackedBy(from, 1 - team, occupancy, 0)) {
+            return count;
+        }
+
+        // The squares between the king and the rook must be empty, and the king may not pass an attacked square
+        if (kingSide && (occupancy & ((1L << (from + 1)) | (1L << (from + 2)))) == 0
+                && !isAttackedBy(from + 1, 1 - team, occupancy, 0) && !isAttackedBy(from + 2, 1 - team, occupancy, 0)) {
+            buffer[count++] = ChessMoveEncoding.encode(from, from + 2, ChessMoveEncoding.KING_CASTLE, king);
+        }
+
+        if (queenSide && (occupancy & ((1L << (from - 1)) | (1L << (from - 2)) | (1L << (from - 3)))) == 0
+                && !isAttackedBy(from - 1, 1 - team, occupancy, 0) && !isAttackedBy(from - 2, 1 - team, occupancy, 0)) {
+            buffer[count++] = ChessMoveEncoding.encode(from, from - 2, ChessMoveEncoding.QUEEN_CASTLE, king);
+        }
+
+        return count;
+    }
+
+    /**
+     * Get the scratch buffer, creating it on first use.
+     *
+     * @return the scratch buffer
+     */
+    private int[] getScratch() {
+        if (scratch == null) {
+            scratch = new int[MAX_MOVES];
+        }
+
+        return scratch;
+    }
+
+    /**
+     * Add a move to every target square, flagging captures.
+     *
+     * @param from the square moved from
+     * @param targets the squares moved to
+     * @param enemy the squares occupied by the other team
+     * @param pieceIndex the piece index of the moving piece
+     * @param buffer the buffer the moves are written to
+     * @param count the number of moves already in the buffer
+     * @return the number of moves in the buffer
+     */
+    private static int addMoves(int from, long targets, long enemy, int pieceIndex, int[] buffer, int count) {
+        for (; targets != 0; targets &= targets - 1) {
+            final int to = Long.numberOfTrailingZeros(targets);
+            final int flags = (enemy & (1L << to)) != 0 ? ChessMoveEncoding.CAPTURE : ChessMoveEncoding.QUIET;
+
+            buffer[count++] = ChessMoveEncoding.encode(from, to, flags, pieceIndex);
+        }
+
+        return count;
+    }
+
+    /**
+     * Add a promotion to every piece type a pawn may be promoted to.
+     *
+     * @param from the square moved from
+     * @param to the square moved to
+     * @param isCapture if the promotion captures a piece
+     * @param pieceIndex the piece index of the pawn
+     * @param buffer the buffer the moves are written to
+     * @param count the number of moves already in the buffer
+     * @return the number of moves in the buffer
+     */
+    private static int addPromotions(int from, int to, boolean isCapture, int pieceIndex, int[] buffer, int count) {
+        final int flags = ChessMoveEncoding.PROMOTION | (isCapture ? ChessMoveEncoding.CAPTURE : 0);
+
+        for (int type = 0; type < 4; type++) {
+            buffer[count++] = ChessMoveEncoding.encode(from, to, flags | type, pieceIndex);
+        }
+
+        return count;
+    }
+}
@@ -0,0 +1,91 @@
+package com.chess.model.chess;
+
+import com.chess.model.Identifier;
+import com.chess.model.Piece;
+import com.chess.model.Position;
+
+/**
+ * The state needed to take back a move made with {@link ChessModel#makeMove(com.chess.model.Move, Identifier)}.
+ *
+ * Only the model reads and writes the fields, callers just hand the record back to
+ * {@link ChessModel#unmakeMove(ChessMoveUndo)}.
+ * @author agent
+ * @version 2026-10-17
+ */
+public final class ChessMoveUndo {
+    /**
+     * The position the piece moved from.
+     */
+    Position from;
+
+    /**
+     * The position the piece moved to.
+     */
+    Position to;
+
+    /**
+     * The piece that moved, before any promotion.
+     */
+    Piece movingPiece;
+
+    /**
+     * The captured piece, or null.
+     */
+    Piece capturedPiece;
+
+    /**
+     * The position of the captured piece, differs from the target for en passant.
+     */
+    Position capturedPosition;
+
+    /**
+     * The position the rook moved from when castling, or null.
+     */
+    Position rookFrom;
+
+    /**
+     * The position the rook moved to when castling, or null.
+     */
+    Position rookTo;
+
+    /**
+     * Castling rights before the move, ordered white kingside, white queenside, black kingside, black queenside.
+     */
+    final boolean[] castlingRights = new boolean[4];
+
+    /**
+     * The en passant position before the move.
+     */
+    Position enPassantPosition;
+
+    /**
+     * The en passant team before the move.
+     */
+    Identifier enPassantTeam;
+
+    /**
+     * The half move clock before the move.
+     */
+    int halfMoves;
+
+    /**
+     * The full move number before the move.
+     */
+    int fullMoves;
+
+    /**
+     * The team whose turn it was before the move.
+     */
+    Identifier teamIdentifier;
+
+    /**
+     * The start of the repetition window before the move.
+     */
+    int historyStart;
+
+    /**
+     * Package-private, records are only created by the model.
+     */
+    ChessMoveUndo() {
+    }
+}
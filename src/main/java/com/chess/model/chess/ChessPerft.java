@@ -0,0 +1,227 @@
+package com.chess.model.chess;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.chess.model.Identifier;
+import com.chess.model.Move;
+
+/**
+ * Performance test, move path enumeration.
+ *
+ * Counts the leaf nodes of the legal move tree to a fixed depth. The counts for the
+ * standard positions are well known, so comparing against them verifies the move
+ * generator, and timing them measures it.
+ * @author agent
+ * @version 2026-10-17
+ * @see <a href="https://www.chessprogramming.org/Perft_Results">Perft Results</a>
+ */
+public final class ChessPerft {
+    /**
+     * The start position.
+     */
+    public static final String START_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    /**
+     * Kiwipete, a position with castling, en passant, promotions and pins.
+     */
+    public static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+    /**
+     * An endgame with en passant discovered checks.
+     */
+    public static final String POSITION_3 = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+
+    /**
+     * A position with promotions to every piece type.
+     */
+    public static final String POSITION_4 = "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1";
+
+    /**
+     * The piece types a pawn may be promoted to.
+     */
+    private static final Identifier[] PROMOTION_TYPES = {
+        ChessTypeIdentifier.QUEEN,
+        ChessTypeIdentifier.ROOK,
+        ChessTypeIdentifier.BISHOP,
+        ChessTypeIdentifier.KNIGHT
+    };
+
+    /**
+     * Known node counts for the positions, indexed by depth - 1.
+     */
+    private static final Object[][] KNOWN_RESULTS = {
+        { START_POSITION, new long[] { 20, 400, 8902, 197281 } },
+        { KIWIPETE, new long[] { 48, 2039, 97862 } },
+        { POSITION_3, new long[] { 14, 191, 2812, 43238 } },
+        { POSITION_4, new long[] { 6, 264, 9467 } }
+    };
+
+    /**
+     * Utility class, not to be instantiated.
+     */
+    private ChessPerft() {
+    }
+
+    /**
+     * Count the leaf nodes of the legal move tree from the current position of a model.
+     *
+     * The model is left in the position it started in.
+     *
+     * @param model the model
+     * @param depth the depth, in half moves
+     * @return the number of leaf nodes
+     */
+    public static long perft(ChessModel model, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+
+        final List<Move> moves = new ArrayList<>();
+
+        model.getRule().calculateLegalMoves(model.getCurrentTeam().getTeamIdentifier(), moves);
+
+        long nodes = 0;
+
+        for (Move move : moves) {
+            final boolean isPromotion = model.isPromotion(move);
+            final int variations = isPromotion ? PROMOTION_TYPES.length : 1;
+
+            // The moves are legal, so the last depth does not need to be made
+            if (depth == 1) {
+                nodes += variations;
+                continue;
+            }
+
+            for (int i = 0; i < variations; i++) {
+                final ChessMoveUndo undo = model.makeMove(move, isPromotion ? PROMOTION_TYPES[i] : null);
+
+                nodes += perft(model, depth - 1);
+
+                model.unmakeMove(undo);
+            }
+        }
+
+        return nodes;
+    }
+
+    /**
+     * Count the leaf nodes of the legal move tree from the current position of a model,
+     * generating the moves as packed ints with {@link ChessMoveGenerator}.
+     *
+     * The model is left in the position it started in.
+     *
+     * @param model the model
+     * @param depth the depth, in half moves
+     * @return the number of leaf nodes
+     */
+    public static long perftPacked(ChessModel model, int depth) {
+        return perftPacked(model, depth, new int[Math.max(depth, 1)][ChessMoveGenerator.MAX_MOVES]);
+    }
+
+    /**
+     * Count the leaf nodes of the legal move tree with one move buffer per depth.
+     *
+     * @param model the model
+     * @param depth the depth, in half moves
+     * @param buffers the move buffers, indexed by depth - 1
+     * @return the number of leaf nodes
+     */
+    private static long perftPacked(ChessModel model, int depth, int[][] buffers) {
+        if (depth == 0) {
+            return 1;
+        }
+
+        final int[] moves = buffers[depth - 1];
+        final int count = model.getMoveGenerator().generateLegalMoves(model.getCurrentTeam().getTeamIdentifier(), moves);
+
+        // Promotions are generated once per piece type, so the count is exact
+        if (depth == 1) {
+            return count;
+        }
+
+        long nodes = 0;
+
+        for (int i = 0; i < count; i++) {
+            final ChessMoveUndo undo = model.makeMove(moves[i]);
+
+            nodes += perftPacked(model, depth - 1, buffers);
+
+            model.unmakeMove(undo);
+        }
+
+        return nodes;
+    }
+
+    /**
+     * Load a position and count the leaf nodes of its legal move tree.
+     *
+     * @param model the model, its position is replaced
+     * @param fen the position in Forsyth-Edwards Notation
+     * @param depth the depth, in half moves
+     * @return the number of leaf nodes
+     * @throws IllegalArgumentException if the FEN is invalid
+     */
+    public static long perft(ChessModel model, String fen, int depth) throws IllegalArgumentException {
+        model.loadFEN(fen);
+
+        return perft(model, depth);
+    }
+
+    /**
+     * Get the known node count of a standard position.
+     *
+     * @param fen the position in Forsyth-Edwards Notation
+     * @param depth the depth, in half moves
+     * @return the known node count
+     * @throws IllegalArgumentException if the count is not known
+     */
+    public static long getKnownResult(String fen, int depth) throws IllegalArgumentException {
+        for (Object[] result : KNOWN_RESULTS) {
+            final long[] counts = (long[]) result[1];
+
+            if (result[0].equals(fen) && depth >= 1 && depth <= counts.length) {
+                return counts[depth - 1];
+            }
+        }
+
+        throw new IllegalArgumentException("No known result for " + fen + " at depth " + depth);
+    }
+
+    /**
+     * Run perft on the standard positions and compare against the known counts.
+     *
+     * @param args the maximum depth, defaults to 3
+     */
+    public static void main(String[] args) {
+        final int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+
+        final ChessModel model = new ChessModel();
+
+        boolean failed = false;
+
+        for (Object[] result : KNOWN_RESULTS) {
+            final String fen = (String) result[0];
+            final long[] counts = (long[]) result[1];
+
+            for (int depth = 1; depth <= Math.min(maxDepth, counts.length); depth++) {
+                model.loadFEN(fen);
+
+                final long start = System.nanoTime();
+                final long nodes = perftPacked(model, depth);
+                final long millis = (System.nanoTime() - start) / 1_000_000;
+
+                final boolean correct = nodes == counts[depth - 1];
+
+                failed |= !correct;
+
+                System.out.println((correct ? "OK   " : "FAIL ") + fen + " depth " + depth + ": " + nodes
+                        + " nodes (expected " + counts[depth - 1] + ") in " + millis + " ms");
+            }
+        }
+
+        if (failed) {
+            System.exit(1);
+        }
+    }
+}
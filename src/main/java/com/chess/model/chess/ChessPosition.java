@@ -0,0 +1,496 @@
+package com.chess.model.chess;
+
+import java.util.Arrays;
+
+import com.chess.model.Identifier;
+
+/**
+ * An immutable snapshot of a chess position.
+ *
+ * A position is the bitboards of the pieces, the team in turn, castling rights, the en
+ * passant square and the move clocks, with no board, cells, teams or events behind it.
+ * It can be taken from a {@link ChessModel} on the thread which owns the model and then
+ * read, searched and played on by any number of threads. Making a move returns a new
+ * position and leaves this one unchanged.
+ * @author agent
+ * @version 2026-10-17
+ */
+public final class ChessPosition implements BitboardPosition {
+    /**
+     * The size of the board.
+     */
+    private static final int SIZE = BitboardBoardInformation.BOARD_SIZE;
+
+    /**
+     * The square of the rook each castling right moves, ordered as the rights.
+     */
+    private static final int[] CASTLING_ROOKS = { 7, 0, 63, 56 };
+
+    /**
+     * The start position, declared after the constants it is read with.
+     */
+    public static final ChessPosition START = fromFEN(ChessPerft.START_POSITION);
+
+    /**
+     * One bitboard for each piece index, never changed after construction.
+     */
+    private final long[] pieceBoards;
+
+    /**
+     * The occupancy of white.
+     */
+    private final long whiteBoard;
+
+    /**
+     * The occupancy of black.
+     */
+    private final long blackBoard;
+
+    /**
+     * The index of the team in turn.
+     */
+    private final int team;
+
+    /**
+     * The castling rights held, one bit for each right.
+     */
+    private final int castlingRights;
+
+    /**
+     * The square the team in turn may capture en passant on, or -1.
+     */
+    private final int enPassantSquare;
+
+    /**
+     * The number of half moves since the last capture or pawn move.
+     */
+    private final int halfMoves;
+
+    /**
+     * The number of the full move, starting at 1.
+     */
+    private final int fullMoves;
+
+    /**
+     * The XOR of the Zobrist keys of every piece on its square.
+     */
+    private final long pieceKey;
+
+    /**
+     * The Zobrist key of the position, the same as {@link ChessModel#getPositionKey()} gives.
+     */
+    private final long key;
+
+    /**
+     * Creates a new position, taking ownership of the piece bitboards.
+     *
+     * @param pieceBoards the bitboards of the pieces
+     * @param pieceKey the XOR of the Zobrist keys of every piece on its square
+     * @param team the index of the team in turn
+     * @param castlingRights the castling rights
+     * @param enPassantSquare the en passant square, or -1
+     * @param halfMoves the half move clock
+     * @param fullMoves the full move number
+     */
+    private ChessPosition(long[] pieceBoards, long pieceKey, int team, int castlingRights, int enPassantSquare, int halfMoves, int fullMoves) {
+        this.pieceBoards = pieceBoards;
+        this.pieceKey = pieceKey;
+        this.team = team;
+        this.castlingRights = castlingRights;
+        this.enPassantSquare = enPassantSquare;
+        this.halfMoves = halfMoves;
+        this.fullMoves = fullMoves;
+
+        long white = 0;
+        long black = 0;
+
+        for (int type = 0; type < BitboardBoardInformation.PIECE_TYPES; type++) {
+            white |= pieceBoards[type];
+            black |= pieceBoards[BitboardBoardInformation.PIECE_TYPES + type];
+        }
+
+        this.whiteBoard = white;
+        this.blackBoard = black;
+        this.key = pieceKey ^ getStateKey();
+    }
+
+    /**
+     * Creates a new position, computing the key of the pieces.
+     *
+     * @param pieceBoards the bitboards of the pieces
+     * @param team the index of the team in turn
+     * @param castlingRights the castling rights
+     * @param enPassantSquare the en passant square, or -1
+     * @param halfMoves the half move clock
+     * @param fullMoves the full move number
+     */
+    private ChessPosition(long[] pieceBoards, int team, int castlingRights, int enPassantSquare, int halfMoves, int fullMoves) {
+        this(pieceBoards, computePieceKey(pieceBoards), team, castlingRights, enPassantSquare, halfMoves, fullMoves);
+    }
+
+    /**
+     * Take a snapshot of the current position of a model.
+     *
+     * @param model the model
+     * @return the position
+     */
+    public static ChessPosition of(ChessModel model) {
+        final BitboardBoardInformation boardInformation = model.getBoardInformation();
+        final long[] pieceBoards = new long[2 * BitboardBoardInformation.PIECE_TYPES];
+
+        for (int pieceIndex = 0; pieceIndex < pieceBoards.length; pieceIndex++) {
+            pieceBoards[pieceIndex] = boardInformation.getPieceBoard(pieceIndex);
+        }
+
+        final int team = BitboardBoardInformation.teamIndex(model.getCurrentTeam().getTeamIdentifier());
+
+        int castlingRights = 0;
+
+        for (int i = 0; i < CASTLING_ROOKS.length; i++) {
+            if (boardInformation.canCastle(i)) {
+                castlingRights |= 1 << i;
+            }
+        }
+
+        return new ChessPosition(pieceBoards, team, castlingRights, boardInformation.getEnPassantSquare(team),
+                model.getHalfMoves(), model.getFullMoves());
+    }
+
+    /**
+     * Read a position from Forsyth-Edwards Notation.
+     *
+     * The move clocks may be left out, they default to 0 and 1.
+     *
+     * @param fen the Forsyth-Edwards Notation
+     * @return the position
+     * @throws IllegalArgumentException if the notation is invalid
+     */
+    public static ChessPosition fromFEN(CharSequence fen) throws IllegalArgumentException {
+        final ChessFEN parsed = new ChessFEN();
+
+        parsed.read(fen);
+
+        return of(parsed.mailbox, parsed.team, parsed.castlingRights, parsed.enPassantSquare, parsed.halfMoves, parsed.fullMoves);
+    }
+
+    /**
+     * Create a position from the piece on every square.
+     *
+     * @param mailbox the piece index on every square, or -1 if the square is empty
+     * @param team the index of the team in turn
+     * @param castlingRights the castling rights, one bit for each right indexed as {@link #canCastle(int)}
+     * @param enPassantSquare the en passant target square, or -1
+     * @param halfMoves the half move clock
+     * @param fullMoves the full move number
+     * @return the position
+     */
+    static ChessPosition of(byte[] mailbox, int team, int castlingRights, int enPassantSquare, int halfMoves, int fullMoves) {
+        final long[] pieceBoards = new long[2 * BitboardBoardInformation.PIECE_TYPES];
+
+        for (int square = 0; square < mailbox.length; square++) {
+            if (mailbox[square] >= 0) {
+                pieceBoards[mailbox[square]] |= 1L << square;
+            }
+        }
+
+        return new ChessPosition(pieceBoards, team, castlingRights, enPassantSquare, halfMoves, fullMoves);
+    }
+
+    /**
+     * Get the index of the team in turn.
+     *
+     * @return 0 for white, 1 for black
+     */
+    int getTeam() {
+        return team;
+    }
+
+    /**
+     * Get the castling rights.
+     *
+     * @return one bit for each right, indexed as {@link #canCastle(int)}
+     */
+    int getCastlingRights() {
+        return castlingRights;
+    }
+
+    //
+    // Moves
+    //
+
+    /**
+     * Make a move, returning the position after it.
+     *
+     * @param move a legal move of the team in turn, packed with {@link ChessMoveEncoding}
+     * @return the new position
+     */
+    public ChessPosition makeMove(int move) {
+        final long[] boards = pieceBoards.clone();
+
+        final int from = ChessMoveEncoding.getFrom(move);
+        final int to = ChessMoveEncoding.getTo(move);
+        final int flags = ChessMoveEncoding.getFlags(move);
+        final int pieceIndex = ChessMoveEncoding.getPieceIndex(move);
+        final int base = team * BitboardBoardInformation.PIECE_TYPES;
+        final int enemyBase = (1 - team) * BitboardBoardInformation.PIECE_TYPES;
+
+        long newPieceKey = pieceKey;
+
+        boards[pieceIndex] &= ~(1L << from);
+        newPieceKey ^= ChessZobrist.getPieceKey(pieceIndex, from);
+
+        // Remove the captured piece
+        if (flags == ChessMoveEncoding.EN_PASSANT) {
+            final int pawn = enemyBase + BitboardBoardInformation.typeIndex(ChessTypeIdentifier.PAWN);
+            final int captured = (from & ~(SIZE - 1)) | (to & (SIZE - 1));
+
+            boards[pawn] &= ~(1L << captured);
+            newPieceKey ^= ChessZobrist.getPieceKey(pawn, captured);
+        } else if (ChessMoveEncoding.isCapture(move)) {
+            final int captured = getPieceIndex(to);
+
+            boards[captured] &= ~(1L << to);
+            newPieceKey ^= ChessZobrist.getPieceKey(captured, to);
+        }
+
+        final ChessTypeIdentifier promotionType = ChessMoveEncoding.getPromotionType(move);
+        final int placedIndex = promotionType == null ? pieceIndex : base + BitboardBoardInformation.typeIndex(promotionType);
+
+        boards[placedIndex] |= 1L << to;
+        newPieceKey ^= ChessZobrist.getPieceKey(placedIndex, to);
+
+        // Move the rook when castling
+        final int rook = base + BitboardBoardInformation.typeIndex(ChessTypeIdentifier.ROOK);
+        final int rookFrom = flags == ChessMoveEncoding.KING_CASTLE ? from + 3 : from - 4;
+        final int rookTo = flags == ChessMoveEncoding.KING_CASTLE ? from + 1 : from - 1;
+
+        if (flags == ChessMoveEncoding.KING_CASTLE || flags == ChessMoveEncoding.QUEEN_CASTLE) {
+            boards[rook] ^= (1L << rookFrom) | (1L << rookTo);
+            newPieceKey ^= ChessZobrist.getPieceKey(rook, rookFrom) ^ ChessZobrist.getPieceKey(rook, rookTo);
+        }
+
+        // A king move gives up both rights, a move from or to a rook corner the right of that rook
+        int rights = castlingRights;
+
+        if (pieceIndex == base + BitboardBoardInformation.typeIndex(ChessTypeIdentifier.KING)) {
+            rights &= ~(3 << (team * 2));
+        }
+
+        for (int i = 0; i < CASTLING_ROOKS.length; i++) {
+            if (from == CASTLING_ROOKS[i] || to == CASTLING_ROOKS[i]) {
+                rights &= ~(1 << i);
+            }
+        }
+
+        final boolean isPawn = pieceIndex == base + BitboardBoardInformation.typeIndex(ChessTypeIdentifier.PAWN);
+
+        return new ChessPosition(
+            boards,
+            newPieceKey,
+            1 - team,
+            rights,
+            flags == ChessMoveEncoding.DOUBLE_PUSH ? (from + to) / 2 : -1,
+            isPawn || ChessMoveEncoding.isCapture(move) ? 0 : halfMoves + 1,
+            team == 1 ? fullMoves + 1 : fullMoves
+        );
+    }
+
+    /**
+     * Generate the legal moves of the team in turn.
+     *
+     * @param buffer the buffer the packed moves are written to, at least {@link ChessMoveGenerator#MAX_MOVES} long
+     * @return the number of moves written
+     */
+    public int generateLegalMoves(int[] buffer) {
+        return new ChessMoveGenerator(this).generateLegalMoves(getTeamIdentifier(), buffer);
+    }
+
+    /**
+     * Check if the king of the team in turn is attacked.
+     *
+     * @return true if the team in turn is in check
+     */
+    public boolean isCheck() {
+        final long king = pieceBoards[team * BitboardBoardInformation.PIECE_TYPES + BitboardBoardInformation.typeIndex(ChessTypeIdentifier.KING)];
+
+        return king != 0 && new ChessMoveGenerator(this).isAttacked(Long.numberOfTrailingZeros(king), getTeamIdentifier());
+    }
+
+    //
+    // Getters
+    //
+
+    /**
+     * Get the team in turn.
+     *
+     * @return the team identifier
+     */
+    public ChessTeamIdentifier getTeamIdentifier() {
+        return BitboardBoardInformation.getTeam(team * BitboardBoardInformation.PIECE_TYPES);
+    }
+
+    /**
+     * Get the piece index of the piece on a square.
+     *
+     * @param square the square index
+     * @return the piece index, or -1 if the square is empty
+     */
+    @Override
+    public int getPieceIndex(int square) {
+        final long mask = 1L << square;
+
+        for (int pieceIndex = 0; pieceIndex < pieceBoards.length; pieceIndex++) {
+            if ((pieceBoards[pieceIndex] & mask) != 0) {
+                return pieceIndex;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Get the half move clock.
+     *
+     * @return the number of half moves since the last capture or pawn move
+     */
+    public int getHalfMoves() {
+        return halfMoves;
+    }
+
+    /**
+     * Get the full move number.
+     *
+     * @return the full move number, starting at 1
+     */
+    public int getFullMoves() {
+        return fullMoves;
+    }
+
+    /**
+     * Get the Zobrist key of the position.
+     *
+     * @return the key, the same as {@link ChessModel#getPositionKey()} gives for the same position
+     */
+    public long getKey() {
+        return key;
+    }
+
+    /**
+     * Write the position in Forsyth-Edwards Notation.
+     *
+     * @return the Forsyth-Edwards Notation
+     */
+    public String toFEN() {
+        return ChessFEN.write(new StringBuilder(90), this, team, halfMoves, fullMoves).toString();
+    }
+
+    //
+    // BitboardPosition
+    //
+
+    @Override
+    public long getPieceBoard(int pieceIndex) {
+        return pieceBoards[pieceIndex];
+    }
+
+    @Override
+    public long getTeamBoard(int team) {
+        return team == 0 ? whiteBoard : blackBoard;
+    }
+
+    @Override
+    public long getOccupancy() {
+        return whiteBoard | blackBoard;
+    }
+
+    @Override
+    public boolean canCastle(int index) {
+        return (castlingRights & (1 << index)) != 0;
+    }
+
+    @Override
+    public int getEnPassantSquare(int team) {
+        return team == this.team ? enPassantSquare : -1;
+    }
+
+    //
+    // Object
+    //
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (!(obj instanceof ChessPosition)) {
+            return false;
+        }
+
+        final ChessPosition other = (ChessPosition) obj;
+
+        return key == other.key
+                && team == other.team
+                && castlingRights == other.castlingRights
+                && enPassantSquare == other.enPassantSquare
+                && halfMoves == other.halfMoves
+                && fullMoves == other.fullMoves
+                && Arrays.equals(pieceBoards, other.pieceBoards);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(key);
+    }
+
+    @Override
+    public String toString() {
+        return toFEN();
+    }
+
+    //
+    // Helpers
+    //
+
+    /**
+     * Get the part of the Zobrist key not made of pieces.
+     *
+     * @return the key of the team in turn, the castling rights and a capturable en passant square
+     */
+    private long getStateKey() {
+        long stateKey = team == 1 ? ChessZobrist.getSideKey() : 0;
+
+        for (int i = 0; i < CASTLING_ROOKS.length; i++) {
+            if (canCastle(i)) {
+                stateKey ^= ChessZobrist.getCastlingKey(i);
+            }
+        }
+
+        // En passant only changes the position if a pawn of the team in turn can take it
+        final long pawns = pieceBoards[team * BitboardBoardInformation.PIECE_TYPES + BitboardBoardInformation.typeIndex(ChessTypeIdentifier.PAWN)];
+
+        if (enPassantSquare >= 0 && (ChessMoveGenerator.getPawnAttackers(team, enPassantSquare) & pawns) != 0) {
+            stateKey ^= ChessZobrist.getEnPassantKey(enPassantSquare % SIZE);
+        }
+
+        return stateKey;
+    }
+
+    /**
+     * Compute the XOR of the Zobrist keys of every piece on its square.
+     *
+     * @param pieceBoards the bitboards of the pieces
+     * @return the key of the pieces
+     */
+    private static long computePieceKey(long[] pieceBoards) {
+        long pieceKey = 0;
+
+        for (int pieceIndex = 0; pieceIndex < pieceBoards.length; pieceIndex++) {
+            for (long pieces = pieceBoards[pieceIndex]; pieces != 0; pieces &= pieces - 1) {
+                pieceKey ^= ChessZobrist.getPieceKey(pieceIndex, Long.numberOfTrailingZeros(pieces));
+            }
+        }
+
+        return pieceKey;
+    }
+}
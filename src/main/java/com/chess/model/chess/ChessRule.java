@@ -2,7 +2,6 @@ package com.chess.model.chess;
 
 import com.chess.model.*;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
@@ -13,6 +12,27 @@ import java.util.List;
  * @version 2022-03-02
  */
 public class ChessRule implements Rule {
+    /**
+     * The row and column offsets of a knight jump.
+     */
+    private static final int[][] KNIGHT_OFFSETS = {
+        {1, 2}, {1, -2}, {-1, 2}, {-1, -2}, {2, 1}, {2, -1}, {-2, 1}, {-2, -1}
+    };
+
+    /**
+     * The row and column directions along files and ranks.
+     */
+    private static final int[][] STRAIGHT_DIRECTIONS = {
+        {1, 0}, {-1, 0}, {0, 1}, {0, -1}
+    };
+
+    /**
+     * The row and column directions along diagonals.
+     */
+    private static final int[][] DIAGONAL_DIRECTIONS = {
+        {1, 1}, {1, -1}, {-1, 1}, {-1, -1}
+    };
+
     /**
      * The board information.
      */
@@ -59,11 +79,11 @@ public class ChessRule implements Rule {
             return false;
         }
 
-        Identifier typeIdentifier = this.getTypeIdentifier(from);
-        Identifier teamIdentifier = this.getTeamIdentifier(from);
+        // Move the existing piece rather than creating a new one
+        final Piece piece = boardInfo.getPiece(from);
 
         boardInfo.clearPiece(from, true);
-        boardInfo.setPiece(to, typeIdentifier, teamIdentifier, true);
+        boardInfo.placePiece(to, piece, true);
 
         return true;
     }
@@ -89,6 +109,138 @@ public class ChessRule implements Rule {
         return boardInfo.isEmpty(position);
     }
 
+    @Override
+    public boolean isAttacked(
+        Position position,
+        Identifier teamIdentifier
+    ) throws IllegalArgumentException {
+        if (!boardInfo.isValid(position)) {
+            throw new IllegalArgumentException("Invalid position: " + position);
+        }
+
+        return isAttacked(position.getRow(), position.getCol(), teamIdentifier);
+    }
+
+    /**
+     * Check if a square is attacked by any piece which does not belong to a team.
+     * 
+     * Looks outward from the square along the rays, knight jumps and pawn diagonals,
+     * instead of generating the moves of every enemy piece.
+     * 
+     * @param row the row of the square
+     * @param col the column of the square
+     * @param teamIdentifier the team which is being attacked
+     * @return true if an enemy piece attacks the square
+     */
+    public boolean isAttacked(int row, int col, Identifier teamIdentifier) {
+        final Identifier enemyTeamIdentifier = teamManager.getOtherTeamIdentifier(teamIdentifier);
+
+        // Pawns attack diagonally forwards, so look one row backwards from their point of view
+        final int pawnRow = row - teamManager.getTeamParameters(enemyTeamIdentifier).getPawnDirection();
+
+        if (isEnemyPiece(pawnRow, col - 1, enemyTeamIdentifier, ChessTypeIdentifier.PAWN, null) ||
+            isEnemyPiece(pawnRow, col + 1, enemyTeamIdentifier, ChessTypeIdentifier.PAWN, null)) {
+            return true;
+        }
+
+        // Knights
+        for (int[] offset : KNIGHT_OFFSETS) {
+            if (isEnemyPiece(row + offset[0], col + offset[1], enemyTeamIdentifier, ChessTypeIdentifier.KNIGHT, null)) {
+                return true;
+            }
+        }
+
+        // Kings, one step in every direction
+        for (int[] direction : STRAIGHT_DIRECTIONS) {
+            if (isEnemyPiece(row + direction[0], col + direction[1], enemyTeamIdentifier, ChessTypeIdentifier.KING, null)) {
+                return true;
+            }
+        }
+
+        for (int[] direction : DIAGONAL_DIRECTIONS) {
+            if (isEnemyPiece(row + direction[0], col + direction[1], enemyTeamIdentifier, ChessTypeIdentifier.KING, null)) {
+                return true;
+            }
+        }
+
+        // Sliding pieces, the first piece along each ray decides
+        for (int[] direction : STRAIGHT_DIRECTIONS) {
+            if (isAttackedAlongRay(row, col, direction[0], direction[1], enemyTeamIdentifier, ChessTypeIdentifier.ROOK)) {
+                return true;
+            }
+        }
+
+        for (int[] direction : DIAGONAL_DIRECTIONS) {
+            if (isAttackedAlongRay(row, col, direction[0], direction[1], enemyTeamIdentifier, ChessTypeIdentifier.BISHOP)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks if the first piece along a ray is an enemy slider which moves along it.
+     * 
+     * @param row the row of the square
+     * @param col the column of the square
+     * @param directionRow the row direction of the ray
+     * @param directionCol the column direction of the ray
+     * @param enemyTeamIdentifier the attacking team
+     * @param sliderType the piece type which moves along the ray, in addition to the queen
+     * @return true if the square is attacked along the ray
+     */
+    private boolean isAttackedAlongRay(int row, int col, int directionRow, int directionCol, Identifier enemyTeamIdentifier, Identifier sliderType) {
+        int nextRow = row + directionRow;
+        int nextCol = col + directionCol;
+
+        while (isInside(nextRow, nextCol)) {
+            if (!boardInfo.isEmpty(nextRow, nextCol)) {
+                return isEnemyPiece(nextRow, nextCol, enemyTeamIdentifier, sliderType, ChessTypeIdentifier.QUEEN);
+            }
+
+            nextRow += directionRow;
+            nextCol += directionCol;
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks if a square holds an enemy piece of one of two types.
+     * 
+     * @param row the row of the square, may be outside the board
+     * @param col the column of the square, may be outside the board
+     * @param enemyTeamIdentifier the enemy team
+     * @param type the piece type to look for
+     * @param otherType another piece type to look for, or null
+     * @return true if the square holds an enemy piece of either type
+     */
+    private boolean isEnemyPiece(int row, int col, Identifier enemyTeamIdentifier, Identifier type, Identifier otherType) {
+        if (!isInside(row, col) || boardInfo.isEmpty(row, col)) {
+            return false;
+        }
+
+        if (!boardInfo.getTeamIdentifier(row, col).equals(enemyTeamIdentifier)) {
+            return false;
+        }
+
+        final Identifier pieceType = boardInfo.getTypeIdentifier(row, col);
+
+        return pieceType.equals(type) || pieceType.equals(otherType);
+    }
+
+    /**
+     * Checks if a row and column is inside the board.
+     * 
+     * @param row the row
+     * @param col the column
+     * @return true if the row and column is inside the board
+     */
+    private boolean isInside(int row, int col) {
+        return row >= 0 && row < gameSize && col >= 0 && col < gameSize;
+    }
+
     @Override
     public void calculateMoves(
             Position position,
@@ -111,20 +263,23 @@ public class ChessRule implements Rule {
             maxSteps = gameSize;
         }
 
+        // Moves registered before this call have already been validated
+        final int registered = registry.size();
+
         // Step through the board
         int step = 1;
 
         while (step <= maxSteps) {
             final int nextRow = row + step * directionRow;
             final int nextCol = col + step * directionCol;
-            Position nextPosition = new Position(nextRow,nextCol);
 
             step++;
 
-            if (!boardInfo.isValid(nextPosition)) {
+            if (!isInside(nextRow, nextCol)) {
                 break;
             }
 
+            final Position nextPosition = Position.of(nextRow, nextCol);
 
             if (boardInfo.isEmpty(nextPosition)) {
                 // If the cell is both empty and we require a capture, then we can't move here
@@ -153,7 +308,7 @@ public class ChessRule implements Rule {
         }
 
         if (teamManager.getCurrentTeamIdentifier().equals(teamIdentifier)) {
-            validateMoves(pieceIdentifier, teamIdentifier, registry);
+            validateMoves(pieceIdentifier, teamIdentifier, registry, registered);
         }
 
     }
@@ -164,10 +319,12 @@ public class ChessRule implements Rule {
      * @param pieceIdentifier The type of the piece which moves will be validated
      * @param teamIdentifier The team the piece belongs to
      * @param moves The collection of moves that will be checked and validated.
+     * @param start The number of moves at the start of the collection that are already validated.
+     *              Only used if the collection is a list, otherwise every move is validated.
      */
-    private void validateMoves(Identifier pieceIdentifier, Identifier teamIdentifier, Collection<Move> moves) {
+    private void validateMoves(Identifier pieceIdentifier, Identifier teamIdentifier, Collection<Move> moves, int start) {
         // Remove all illegal moves from the list
-        Iterator<Move> it = moves.iterator();
+        Iterator<Move> it = moves instanceof List ? ((List<Move>) moves).listIterator(start) : moves.iterator();
         while (it.hasNext()) {
             Move move = it.next();
             if (!isLegalMove(pieceIdentifier, teamIdentifier, move)) {
@@ -180,39 +337,38 @@ public class ChessRule implements Rule {
      * Checks if the move is legal.
      * 
      * A legal move is one that does not leave the king in check.
+     * The move is made and unmade in place by moving the existing pieces,
+     * so no pieces are created while checking.
      * 
      * @param pieceIdentifier the piece identifier for the piece that is moving
      * @param teamIdentifier the team identifier for the team that is moving
      * @param move the move details
      * @return true if the move is legal
      */
+    @Override
     public boolean isLegalMove(Identifier pieceIdentifier, Identifier teamIdentifier, Move move) {
         // Collect relevant details
         final Position from = move.getFromCell();
         final Position to = move.getToCell();
-        final boolean isEmpty = boardInfo.isEmpty(to);
 
-        // If the cell is not empty store the details of the piece which is theoretically being captured
-        Identifier originPiece = null;
-        Identifier originTeam = null;
+        // Store the piece that is moving and the piece which is theoretically being captured
+        final Piece movingPiece = boardInfo.getPiece(from);
+        final Piece capturedPiece = boardInfo.getPiece(to);
 
-        if (!isEmpty) {
-            originPiece = boardInfo.getTypeIdentifier(to);
-            originTeam = boardInfo.getTeamIdentifier(to);
-        }
+        // En passant captures a pawn which is not on the target cell
+        final boolean isEnPassant = move.getIsEnPassant();
+        final int enPassantRow = from.getRow();
+        final int enPassantCol = to.getCol();
+        Piece enPassantPiece = null;
 
         // Do a theoretical move
-        boardInfo.setPiece(
-            to,
-            pieceIdentifier,
-            teamIdentifier,
-            false
-        );
-        
-        boardInfo.clearPiece(
-            from,
-            false
-        );
+        boardInfo.placePiece(to, movingPiece, false);
+        boardInfo.clearPiece(from, false);
+
+        if (isEnPassant) {
+            enPassantPiece = boardInfo.getPiece(enPassantRow, enPassantCol);
+            boardInfo.clearPiece(enPassantRow, enPassantCol, false);
+        }
 
         // Check if it results in us being in check
         final boolean isCheck = isCheck(teamIdentifier);
@@ -221,81 +377,69 @@ public class ChessRule implements Rule {
         final boolean isLegalMove = !isCheck;
 
         // Revert the theoretical move
-        boardInfo.setPiece(
-            from,
-            pieceIdentifier,
-            teamIdentifier,
-            false
-        );
-
-        if (!isEmpty) {
-            boardInfo.setPiece(
-                to,
-                originPiece,
-                originTeam,
-                false
-            );
-        } else {
-            boardInfo.clearPiece(
-                to,
-                false
-            );
+        if (isEnPassant) {
+            boardInfo.placePiece(enPassantRow, enPassantCol, enPassantPiece, false);
         }
 
+        boardInfo.placePiece(from, movingPiece, false);
+        boardInfo.placePiece(to, capturedPiece, false);
+
         return isLegalMove;
     }
 
     /**
-     * Get a list of all enemy moves.
+     * Checks to see if there is any available move for a team
      *
-     * @param playerTeamIdentifier the team of the player
-     * @return the list of all enemy moves
+     * @param playerTeamIdentifier The team to check if there is any available move
+     * @return True if the tream can move, false otherwise
      */
-    private List<Move> allEnemyMoves(Identifier playerTeamIdentifier) {
-        List<Move> enemyMovesList = new ArrayList<>();
+    private boolean canMove(Identifier playerTeamIdentifier) {
         for (int row = 0; row < gameSize; row++) {
             for (int col = 0; col < gameSize; col++) {
-                if (!boardInfo.isEmpty(row, col) && !boardInfo.getTeamIdentifier(row, col).equals(playerTeamIdentifier)) {
-                    
+                if (!boardInfo.isEmpty(row, col) && boardInfo.getTeamIdentifier(row, col).equals(playerTeamIdentifier)) {
+
+                    final Position position = Position.of(row, col);
+
                     // Get the moves calculator
-                    MovesCalculator calculator = boardInfo.getPossibleMovesIterator(new Position(row, col));
+                    MovesCalculator calculator = boardInfo.getPossibleMovesIterator(position);
                     
                     // Calculate the moves
-                    Iterator<Move> it = calculator.getPossibleMoves(this, new Position(row, col));
-
-                    while (it.hasNext()) {
-                        enemyMovesList.add(it.next());
+                    Iterator<Move> it = calculator.getPossibleMoves(this, position);
+                    
+                    if (it.hasNext()) {
+                        return true;
                     }
                 }
             }
         }
-        return enemyMovesList;
+        return false;
     }
 
     /**
-     * Checks to see if there is any available move for a team
+     * Collect every legal move of a team.
+     * 
+     * Moves are only validated for the team whose turn it is, so the team
+     * should be the current team.
      *
-     * @param playerTeamIdentifier The team to check if there is any available move
-     * @return True if the tream can move, false otherwise
+     * @param teamIdentifier The team to collect the moves for
+     * @param registry The collection the moves are added to
      */
-    private boolean canMove(Identifier playerTeamIdentifier) {
+    public void calculateLegalMoves(Identifier teamIdentifier, Collection<Move> registry) {
         for (int row = 0; row < gameSize; row++) {
             for (int col = 0; col < gameSize; col++) {
-                if (!boardInfo.isEmpty(row, col) && boardInfo.getTeamIdentifier(row, col).equals(playerTeamIdentifier)) {
+                if (boardInfo.isEmpty(row, col) || !boardInfo.getTeamIdentifier(row, col).equals(teamIdentifier)) {
+                    continue;
+                }
 
-                    // Get the moves calculator
-                    MovesCalculator calculator = boardInfo.getPossibleMovesIterator(new Position(row, col));
-                    
-                    // Calculate the moves
-                    Iterator<Move> it = calculator.getPossibleMoves(this, new Position(row, col));
-                    
-                    if (it.hasNext()) {
-                        return true;
-                    }
+                final Position position = Position.of(row, col);
+
+                Iterator<Move> it = boardInfo.getPossibleMovesIterator(position).getPossibleMoves(this, position);
+
+                while (it.hasNext()) {
+                    registry.add(it.next());
                 }
             }
         }
-        return false;
     }
 
     /**
@@ -322,22 +466,12 @@ public class ChessRule implements Rule {
      * @return true if the team is in check
      */
     public boolean isCheck(Identifier teamIdentifier) {
-        List<Move> allEnemyMoves = allEnemyMoves(teamIdentifier);
-        for (Move m : allEnemyMoves) {
-            Position toCell = m.getToCell();
-            if (boardInfo.isEmpty(toCell)) {
-                continue;
-            }
+        final int kingSquare = boardInfo.getKingSquare(teamIdentifier);
 
-            if (boardInfo.getTeamIdentifier(toCell).equals(teamIdentifier) &&
-                boardInfo.getTypeIdentifier(toCell).equals(ChessTypeIdentifier.KING)) {
-                return true;
-            }
+        if (kingSquare < 0) {
+            return false;
         }
-        
-        return false;
+
+        return isAttacked(kingSquare / gameSize, kingSquare % gameSize, teamIdentifier);
     }
 }
-
-
-
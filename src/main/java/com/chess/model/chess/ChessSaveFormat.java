@@ -0,0 +1,742 @@
+package com.chess.model.chess;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.chess.model.GameTime;
+import com.chess.model.Identifier;
+import com.chess.model.Move;
+import com.chess.model.Position;
+
+/**
+ * The binary format of saved games.
+ *
+ * A save holds the position the game started from, packed as one nibble per square, and the
+ * moves played from it in 16 bits each. The current position and the move list are rebuilt by
+ * playing the moves. Names are stored as UTF-8, clocks and counts as variable length integers,
+ * and the skins of both teams share one table of paths. Version 1 is laid out as:
+ *
+ * <pre>
+ * magic "C2SG", version byte, flags byte (bit 0 started)
+ * white name, black name, white clock, black clock
+ * start position: 32 bytes of pieces, state byte, en passant byte, half moves, full moves
+ * notation count, notations of moves from before the start position
+ * move count, moves
+ * path count, paths, white skins, black skins
+ * </pre>
+ *
+ * Saves written with Java serialization of {@link SerialModel} are recognised and still read.
+ * @author agent
+ * @version 2026-10-17
+ */
+public final class ChessSaveFormat {
+    /**
+     * The bytes every save starts with.
+     */
+    private static final byte[] MAGIC = { 'C', '2', 'S', 'G' };
+
+    /**
+     * The version written.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * The first two bytes of a Java serialization stream.
+     */
+    private static final short SERIALIZATION_MAGIC = (short) 0xACED;
+
+    /**
+     * The flag of a started game.
+     */
+    private static final int FLAG_STARTED = 1;
+
+    /**
+     * The value of a move with no promotion in the promotion bits.
+     */
+    private static final int NO_PROMOTION = 0;
+
+    /**
+     * The piece types with skins, in the order their ordinal is stored.
+     */
+    private static final ChessTypeIdentifier[] SKIN_TYPES = ChessTypeIdentifier.values();
+
+    /**
+     * The fewest bytes a skin takes, its type, path, index and flag.
+     */
+    private static final int SKIN_BYTES = 4;
+
+    private ChessSaveFormat() {
+    }
+
+    //
+    // Files
+    //
+
+    /**
+     * Save a game to a file, replacing it.
+     *
+     * @param path the file
+     * @param model the game
+     * @throws IOException if the file can not be written
+     */
+    public static void save(Path path, SerialModel model) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(channel, model);
+        }
+    }
+
+    /**
+     * Load a game from a file, in this format or serialized by earlier versions.
+     *
+     * @param path the file
+     * @return the game
+     * @throws IOException if the file can not be read or is not a save
+     */
+    public static SerialModel load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return read(channel);
+        }
+    }
+
+    //
+    // Channels
+    //
+
+    /**
+     * Write a game to a channel.
+     *
+     * @param channel the channel
+     * @param model the game
+     * @throws IOException if the channel can not be written
+     */
+    public static void write(WritableByteChannel channel, SerialModel model) throws IOException {
+        final ByteBuffer buffer = encode(model);
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Read a game from a channel, in this format or serialized by earlier versions.
+     *
+     * @param channel the channel, read to its end
+     * @return the game
+     * @throws IOException if the channel can not be read or does not hold a save
+     */
+    public static SerialModel read(ReadableByteChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+
+        while (channel.read(buffer) >= 0) {
+            if (!buffer.hasRemaining()) {
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2).put(buffer.flip());
+            }
+        }
+
+        buffer.flip();
+
+        if (buffer.remaining() >= 2 && buffer.getShort(0) == SERIALIZATION_MAGIC) {
+            return readSerialized(buffer);
+        }
+
+        return decode(buffer);
+    }
+
+    //
+    // Encoding
+    //
+
+    /**
+     * Encode a game.
+     *
+     * @param model the game
+     * @return the encoded game, from its position to its limit
+     */
+    public static ByteBuffer encode(SerialModel model) {
+        final Output out = new Output();
+
+        out.put(MAGIC);
+        out.put(VERSION);
+        out.put(model.getStarted() ? FLAG_STARTED : 0);
+
+        out.putString(model.getWhiteName());
+        out.putString(model.getBlackName());
+        out.putTime(model.getWhiteTime());
+        out.putTime(model.getBlackTime());
+
+        // The history is used if it leads to the saved position, else the game starts at it
+        ChessPosition start = ChessPosition.fromFEN(model.getFen());
+        int[] moves = new int[0];
+
+        if (model.getStartFen() != null && model.getMoveHistory() != null) {
+            final ChessPosition historyStart = ChessPosition.fromFEN(model.getStartFen());
+
+            ChessPosition position = historyStart;
+
+            for (int move : model.getMoveHistory()) {
+                position = position.makeMove(move);
+            }
+
+            if (position.equals(start)) {
+                start = historyStart;
+                moves = model.getMoveHistory();
+            }
+        }
+
+        putPosition(out, start);
+
+        // Moves from before the start position are kept as notation
+        final List<String> moveList = model.getMoveList() == null ? new ArrayList<>() : model.getMoveList();
+        final int notations = Math.max(moveList.size() - moves.length, 0);
+
+        out.putVarint(notations);
+
+        for (int i = 0; i < notations; i++) {
+            out.putString(moveList.get(i));
+        }
+
+        out.putVarint(moves.length);
+
+        for (int move : moves) {
+            out.putShort(packMove(move));
+        }
+
+        putSkins(out, model.getWhiteSkinMap(), model.getBlackSkinMap());
+
+        return out.toBuffer();
+    }
+
+    /**
+     * Pack a move into 16 bits: the from square, the to square and the promotion.
+     *
+     * @param move the move, packed with {@link ChessMoveEncoding}
+     * @return the 16 bit move
+     */
+    public static int packMove(int move) {
+        final int promotion = ChessMoveEncoding.isPromotion(move) ? (ChessMoveEncoding.getFlags(move) & 3) + 1 : NO_PROMOTION;
+
+        return ChessMoveEncoding.getFrom(move) | ChessMoveEncoding.getTo(move) << 6 | promotion << 12;
+    }
+
+    /**
+     * Write a position.
+     *
+     * @param out the output
+     * @param position the position
+     */
+    private static void putPosition(Output out, ChessPosition position) {
+        for (int square = 0; square < BitboardBoardInformation.SQUARES; square += 2) {
+            out.put((position.getPieceIndex(square) + 1) | (position.getPieceIndex(square + 1) + 1) << 4);
+        }
+
+        out.put(position.getTeam() | position.getCastlingRights() << 1);
+        out.put(position.getEnPassantSquare(position.getTeam()));
+        out.putVarint(position.getHalfMoves());
+        out.putVarint(position.getFullMoves());
+    }
+
+    /**
+     * Write the skins of both teams, sharing one table of paths.
+     *
+     * @param out the output
+     * @param white the skins of white, or null
+     * @param black the skins of black, or null
+     */
+    private static void putSkins(Output out, Map<Identifier, ChessSkinInfo> white, Map<Identifier, ChessSkinInfo> black) {
+        final Map<String, Integer> paths = new LinkedHashMap<>();
+
+        for (Map<Identifier, ChessSkinInfo> skins : List.of(nonNull(white), nonNull(black))) {
+            for (ChessSkinInfo skin : skins.values()) {
+                paths.putIfAbsent(skin.getSkinPath(), paths.size());
+            }
+        }
+
+        out.putVarint(paths.size());
+
+        for (String path : paths.keySet()) {
+            out.putString(path);
+        }
+
+        for (Map<Identifier, ChessSkinInfo> skins : Arrays.asList(white, black)) {
+            if (skins == null) {
+                out.putVarint(0);
+                continue;
+            }
+
+            out.putVarint(skins.size() + 1);
+
+            for (Map.Entry<Identifier, ChessSkinInfo> skin : skins.entrySet()) {
+                out.put(((ChessTypeIdentifier) skin.getKey()).ordinal());
+                out.putVarint(paths.get(skin.getValue().getSkinPath()));
+                out.putVarint(zigzag(skin.getValue().getSkinIndex()));
+                out.put(skin.getValue().getOwnSkin() ? 1 : 0);
+            }
+        }
+    }
+
+    //
+    // Decoding
+    //
+
+    /**
+     * Decode a game.
+     *
+     * @param buffer the encoded game, read from its position
+     * @return the game
+     * @throws IOException if the buffer does not hold a valid save
+     */
+    public static SerialModel decode(ByteBuffer buffer) throws IOException {
+        try {
+            for (byte b : MAGIC) {
+                if (buffer.get() != b) {
+                    throw new IOException("Not a saved game");
+                }
+            }
+
+            final int version = buffer.get() & 0xFF;
+
+            if (version > VERSION) {
+                throw new IOException("Unsupported save version " + version);
+            }
+
+            final SerialModel model = new SerialModel();
+            final int flags = buffer.get();
+
+            model.setStarted((flags & FLAG_STARTED) != 0);
+            model.setWhiteName(getString(buffer));
+            model.setBlackName(getString(buffer));
+            model.setWhiteTime(getTime(buffer));
+            model.setBlackTime(getTime(buffer));
+
+            final ChessPosition start = getPosition(buffer);
+            final List<String> moveList = new ArrayList<>();
+
+            for (int i = getCount(buffer, 1); i > 0; i--) {
+                moveList.add(getString(buffer));
+            }
+
+            // Replay the moves, rebuilding the move list as the game wrote it
+            final int[] moves = new int[getCount(buffer, Short.BYTES)];
+            final int[] legalMoves = new int[ChessMoveGenerator.MAX_MOVES];
+
+            ChessPosition position = start;
+
+            for (int i = 0; i < moves.length; i++) {
+                moves[i] = unpackMove(position, buffer.getShort() & 0xFFFF, legalMoves);
+
+                final ChessPosition next = position.makeMove(moves[i]);
+
+                moveList.add(toNotation(moves[i], next, legalMoves));
+                position = next;
+            }
+
+            model.setFen(position.toFEN());
+            model.setStartFen(start.toFEN());
+            model.setMoveHistory(moves);
+            model.setMoveList(moveList);
+
+            getSkins(buffer, model);
+
+            return model;
+        } catch (RuntimeException e) {
+            // Running past the end, or a value the checks above let through
+            throw new IOException("Corrupt saved game", e);
+        }
+    }
+
+    /**
+     * Find the legal move a 16 bit move stands for.
+     *
+     * @param position the position the move is played in
+     * @param packed the 16 bit move
+     * @return the move, packed with {@link ChessMoveEncoding}
+     * @throws IOException if the move is not legal
+     */
+    public static int unpackMove(ChessPosition position, int packed) throws IOException {
+        return unpackMove(position, packed, new int[ChessMoveGenerator.MAX_MOVES]);
+    }
+
+    /**
+     * Find the legal move a 16 bit move stands for, generating the legal moves into a buffer.
+     *
+     * @param position the position the move is played in
+     * @param packed the 16 bit move
+     * @param buffer the buffer legal moves are generated into
+     * @return the move, packed with {@link ChessMoveEncoding}
+     * @throws IOException if the move is not legal
+     */
+    private static int unpackMove(ChessPosition position, int packed, int[] buffer) throws IOException {
+        final int count = position.generateLegalMoves(buffer);
+
+        for (int i = 0; i < count; i++) {
+            if (packMove(buffer[i]) == packed) {
+                return buffer[i];
+            }
+        }
+
+        throw new IOException("Corrupt saved game, illegal move " + packed + " in " + position.toFEN());
+    }
+
+    /**
+     * Write a move as the move list of the model does.
+     *
+     * @param move the move
+     * @param next the position after the move
+     * @param buffer the buffer legal moves are generated into
+     * @return the notation
+     */
+    private static String toNotation(int move, ChessPosition next, int[] buffer) {
+        if (ChessMoveEncoding.isPromotion(move)) {
+            return new Move(Position.of(ChessMoveEncoding.getTo(move)), ChessMoveEncoding.getPromotionType(move)).toString();
+        }
+
+        final Move result = ChessMoveEncoding.toMove(move);
+
+        if (next.isCheck()) {
+            if (next.generateLegalMoves(buffer) == 0) {
+                result.setCheckMate(true);
+            } else {
+                result.setCheck(true);
+            }
+        }
+
+        return result.toString();
+    }
+
+    /**
+     * Read a position.
+     *
+     * @param buffer the buffer
+     * @return the position
+     * @throws IllegalArgumentException if a piece or the en passant square does not exist
+     */
+    private static ChessPosition getPosition(ByteBuffer buffer) throws IllegalArgumentException {
+        final byte[] mailbox = new byte[BitboardBoardInformation.SQUARES];
+
+        for (int square = 0; square < mailbox.length; square += 2) {
+            final int pieces = buffer.get() & 0xFF;
+
+            mailbox[square] = getPieceIndex(pieces & 0xF);
+            mailbox[square + 1] = getPieceIndex(pieces >>> 4);
+        }
+
+        final int state = buffer.get();
+        final int enPassantSquare = buffer.get();
+
+        if (enPassantSquare < -1 || enPassantSquare >= BitboardBoardInformation.SQUARES) {
+            throw new IllegalArgumentException("Invalid en passant square " + enPassantSquare);
+        }
+
+        return ChessPosition.of(mailbox, state & 1, (state >>> 1) & 0xF, enPassantSquare, getVarint(buffer), getVarint(buffer));
+    }
+
+    /**
+     * Read the piece on a square from its nibble.
+     *
+     * @param nibble the piece index plus one, or 0 for an empty square
+     * @return the piece index, or -1
+     * @throws IllegalArgumentException if there is no such piece
+     */
+    private static byte getPieceIndex(int nibble) throws IllegalArgumentException {
+        if (nibble > 2 * BitboardBoardInformation.PIECE_TYPES) {
+            throw new IllegalArgumentException("Invalid piece " + nibble);
+        }
+
+        return (byte) (nibble - 1);
+    }
+
+    /**
+     * Read the skins of both teams.
+     *
+     * @param buffer the buffer
+     * @param model the game the skins are set on
+     * @throws IllegalArgumentException if a count, piece type or path does not fit the save
+     */
+    private static void getSkins(ByteBuffer buffer, SerialModel model) throws IllegalArgumentException {
+        final String[] paths = new String[getCount(buffer, 1)];
+
+        for (int i = 0; i < paths.length; i++) {
+            paths[i] = getString(buffer);
+        }
+
+        for (ChessTeamIdentifier team : new ChessTeamIdentifier[] { ChessTeamIdentifier.WHITE, ChessTeamIdentifier.BLACK }) {
+            // The count is stored plus one, 0 for no skins at all
+            final int count = getCount(buffer, SKIN_BYTES) - 1;
+            final HashMap<Identifier, ChessSkinInfo> skins = count < 0 ? null : new HashMap<>();
+
+            for (int i = 0; i < count; i++) {
+                final int ordinal = buffer.get();
+
+                if (ordinal < 0 || ordinal >= SKIN_TYPES.length) {
+                    throw new IllegalArgumentException("Invalid piece type " + ordinal);
+                }
+
+                final ChessTypeIdentifier type = SKIN_TYPES[ordinal];
+                final ChessSkinInfo skin = new ChessSkinInfo(type, team);
+                final int path = getVarint(buffer);
+
+                if (path < 0 || path >= paths.length) {
+                    throw new IllegalArgumentException("Invalid skin path " + path);
+                }
+
+                skin.setSkinPath(paths[path]);
+                skin.setSkinIndex(unzigzag(getVarint(buffer)));
+                skin.setOwnSkin(buffer.get() != 0);
+
+                skins.put(type, skin);
+            }
+
+            if (team == ChessTeamIdentifier.WHITE) {
+                model.setSkinMapWhite(skins);
+            } else {
+                model.setSkinMapBlack(skins);
+            }
+        }
+    }
+
+    /**
+     * Read a game written with Java serialization by earlier versions.
+     *
+     * @param buffer the buffer
+     * @return the game
+     * @throws IOException if the save can not be read
+     */
+    private static SerialModel readSerialized(ByteBuffer buffer) throws IOException {
+        final byte[] bytes = new byte[buffer.remaining()];
+
+        buffer.get(bytes);
+
+        try (ObjectInputStream stream = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (SerialModel) stream.readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Save file is out of date", e);
+        }
+    }
+
+    //
+    // Primitives
+    //
+
+    /**
+     * Growing output of bytes.
+     */
+    private static final class Output {
+        /**
+         * The bytes written.
+         */
+        private ByteBuffer buffer = ByteBuffer.allocate(256);
+
+        /**
+         * Make room for bytes.
+         *
+         * @param bytes the number of bytes
+         */
+        private void ensure(int bytes) {
+            if (buffer.remaining() < bytes) {
+                buffer = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes)).put(buffer.flip());
+            }
+        }
+
+        /**
+         * Write a byte.
+         *
+         * @param value the byte, in its low 8 bits
+         */
+        private void put(int value) {
+            ensure(1);
+            buffer.put((byte) value);
+        }
+
+        /**
+         * Write bytes.
+         *
+         * @param bytes the bytes
+         */
+        private void put(byte[] bytes) {
+            ensure(bytes.length);
+            buffer.put(bytes);
+        }
+
+        /**
+         * Write 16 bits.
+         *
+         * @param value the value, in its low 16 bits
+         */
+        private void putShort(int value) {
+            ensure(2);
+            buffer.putShort((short) value);
+        }
+
+        /**
+         * Write a value which is not negative in 7 bit groups, the high bit set on every group but the last.
+         *
+         * @param value the value
+         */
+        private void putVarint(int value) {
+            while ((value & ~0x7F) != 0) {
+                put((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+
+            put(value);
+        }
+
+        /**
+         * Write a string as its UTF-8 length plus one and bytes, or 0 for null.
+         *
+         * @param value the string, or null
+         */
+        private void putString(String value) {
+            if (value == null) {
+                putVarint(0);
+                return;
+            }
+
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+            putVarint(bytes.length + 1);
+            put(bytes);
+        }
+
+        /**
+         * Write a clock in tenths of a second plus one, or 0 for null.
+         *
+         * @param time the clock, or null
+         */
+        private void putTime(GameTime time) {
+            putVarint(time == null ? 0 : (int) (time.toMillis() / 100) + 1);
+        }
+
+        /**
+         * Get the bytes written.
+         *
+         * @return the bytes, from position to limit
+         */
+        private ByteBuffer toBuffer() {
+            return buffer.flip();
+        }
+    }
+
+    /**
+     * Read a variable length integer.
+     *
+     * @param buffer the buffer
+     * @return the value
+     * @throws IllegalArgumentException if the value is longer than an int
+     */
+    private static int getVarint(ByteBuffer buffer) throws IllegalArgumentException {
+        int value = 0;
+
+        for (int shift = 0; shift < 32; shift += 7) {
+            final int b = buffer.get();
+
+            value |= (b & 0x7F) << shift;
+
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        throw new IllegalArgumentException("Variable length integer too long");
+    }
+
+    /**
+     * Read a number of items, each taking at least some of the bytes left.
+     *
+     * @param buffer the buffer
+     * @param minBytes the fewest bytes an item takes
+     * @return the number
+     * @throws IllegalArgumentException if the number is negative or the items can not fit in the buffer
+     */
+    private static int getCount(ByteBuffer buffer, int minBytes) throws IllegalArgumentException {
+        final int count = getVarint(buffer);
+
+        // One more is allowed, as some counts are stored plus one
+        if (count < 0 || count > buffer.remaining() / minBytes + 1) {
+            throw new IllegalArgumentException("Invalid count " + count + " with " + buffer.remaining() + " bytes left");
+        }
+
+        return count;
+    }
+
+    /**
+     * Read a string.
+     *
+     * @param buffer the buffer
+     * @return the string, or null
+     * @throws IllegalArgumentException if the string is longer than the bytes left
+     */
+    private static String getString(ByteBuffer buffer) throws IllegalArgumentException {
+        final int length = getCount(buffer, 1) - 1;
+
+        if (length < 0) {
+            return null;
+        }
+
+        final byte[] bytes = new byte[length];
+
+        buffer.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read a clock.
+     *
+     * @param buffer the buffer
+     * @return the clock, or null
+     */
+    private static GameTime getTime(ByteBuffer buffer) {
+        final int tenths = getVarint(buffer) - 1;
+
+        if (tenths < 0) {
+            return null;
+        }
+
+        return new GameTime(tenths / 600, tenths / 10 % 60, tenths % 10);
+    }
+
+    /**
+     * Map a signed value to one which is not negative, small values to small values.
+     *
+     * @param value the value
+     * @return the mapped value
+     */
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    /**
+     * Undo {@link #zigzag(int)}.
+     *
+     * @param value the mapped value
+     * @return the value
+     */
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Get a map, or an empty map for null.
+     *
+     * @param map the map, or null
+     * @return the map
+     */
+    private static Map<Identifier, ChessSkinInfo> nonNull(Map<Identifier, ChessSkinInfo> map) {
+        return map == null ? Map.of() : map;
+    }
+}
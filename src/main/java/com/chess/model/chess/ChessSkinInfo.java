@@ -10,6 +10,10 @@ import java.io.Serializable;
  * @version 2022-03-02
  */
 public class ChessSkinInfo implements SkinInfo, Serializable {
+    /**
+     * Fixed so that saved games keep loading when this class changes.
+     */
+    private static final long serialVersionUID = 5450259237076758685L;
 
     /**
      * The path to the .png image file that represents the skin the given team and piece type combination uses.
@@ -0,0 +1,107 @@
+package com.chess.model.chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for Zobrist hashing of chess positions.
+ *
+ * A position key is the XOR of one key for every piece on its square, a key if black is
+ * to move, one key for every castling right and a key for the column of a capturable
+ * en passant position. Making a move only needs to XOR the keys which changed. The keys
+ * are generated from a fixed seed, so they are the same in every run.
+ * @author agent
+ * @version 2026-10-17
+ * @see <a href="https://www.chessprogramming.org/Zobrist_Hashing">Zobrist Hashing</a>
+ */
+public final class ChessZobrist {
+    /**
+     * The seed the keys are generated from.
+     */
+    private static final long SEED = 0x2F9E1C0A7B3D5E61L;
+
+    /**
+     * One key for every piece index and square.
+     */
+    private static final long[][] PIECE_KEYS = new long[2 * BitboardBoardInformation.PIECE_TYPES][BitboardBoardInformation.SQUARES];
+
+    /**
+     * Key for black to move.
+     */
+    private static final long SIDE_KEY;
+
+    /**
+     * One key for every castling right, ordered white kingside, white queenside, black kingside, black queenside.
+     */
+    private static final long[] CASTLING_KEYS = new long[4];
+
+    /**
+     * One key for every column of the en passant position.
+     */
+    private static final long[] EN_PASSANT_KEYS = new long[BitboardBoardInformation.BOARD_SIZE];
+
+    static {
+        final SplittableRandom random = new SplittableRandom(SEED);
+
+        for (long[] keys : PIECE_KEYS) {
+            for (int square = 0; square < keys.length; square++) {
+                keys[square] = random.nextLong();
+            }
+        }
+
+        SIDE_KEY = random.nextLong();
+
+        for (int i = 0; i < CASTLING_KEYS.length; i++) {
+            CASTLING_KEYS[i] = random.nextLong();
+        }
+
+        for (int i = 0; i < EN_PASSANT_KEYS.length; i++) {
+            EN_PASSANT_KEYS[i] = random.nextLong();
+        }
+    }
+
+    /**
+     * Utility class, not to be instantiated.
+     */
+    private ChessZobrist() {
+    }
+
+    /**
+     * Get the key of a piece on a square.
+     *
+     * @param pieceIndex the piece index, as returned by {@link BitboardBoardInformation#pieceIndex}
+     * @param square the square index
+     * @return the key
+     */
+    public static long getPieceKey(int pieceIndex, int square) {
+        return PIECE_KEYS[pieceIndex][square];
+    }
+
+    /**
+     * Get the key for black to move.
+     *
+     * @return the key
+     */
+    public static long getSideKey() {
+        return SIDE_KEY;
+    }
+
+    /**
+     * Get the key of a castling right.
+     *
+     * @param index 0 for white kingside, 1 for white queenside, 2 for black kingside, 3 for black queenside
+     * @return the key
+     */
+    public static long getCastlingKey(int index) {
+        return CASTLING_KEYS[index];
+    }
+
+    /**
+     * Get the key of an en passant column.
+     *
+     * @param col the column of the en passant position
+     * @return the key
+     */
+    public static long getEnPassantKey(int col) {
+        return EN_PASSANT_KEYS[col];
+    }
+}
@@ -48,12 +48,20 @@ public class PieceKing implements PieceBehavior {
         final boolean canCastleKingside = teamParameters.canCastleKingside();
         final boolean canCastleQueenside = teamParameters.canCastleQueenside();
 
+        // The king may not castle out of check.
+        if (!canCastleKingside && !canCastleQueenside || rule.isAttacked(position, teamIdentifier)) {
+            return possibleMoves.iterator();
+        }
+
         if (canCastleKingside) {
             boolean canCastle = true;
             
-            // Check that the positions between the king and the rook are empty.
+            // Check that the positions between the king and the rook are empty,
+            // and that the king does not pass through or land on an attacked position.
             for (int i = position.getCol() + 1; i < position.getCol() + 3; i++) {
-                if (!rule.isEmpty(new Position(position.getRow(), i))) {
+                final Position passing = Position.of(position.getRow(), i);
+
+                if (!rule.isEmpty(passing) || rule.isAttacked(passing, teamIdentifier)) {
                     canCastle = false;
                     break;
                 }
@@ -69,9 +77,18 @@ public class PieceKing implements PieceBehavior {
         if (canCastleQueenside) {
             boolean canCastle = true;
 
-            // Check that the positions between the king and the rook are empty.
+            // Check that the positions between the king and the rook are empty,
+            // and that the king does not pass through or land on an attacked position.
             for (int i = position.getCol() - 1; i > position.getCol() - 4; i--) {
-                if (!rule.isEmpty(new Position(position.getRow(), i))) {
+                final Position passing = Position.of(position.getRow(), i);
+
+                if (!rule.isEmpty(passing)) {
+                    canCastle = false;
+                    break;
+                }
+
+                // The king only passes the two positions closest to it.
+                if (i > position.getCol() - 3 && rule.isAttacked(passing, teamIdentifier)) {
                     canCastle = false;
                     break;
                 }
@@ -101,7 +118,7 @@ public class PieceKing implements PieceBehavior {
 
         if (canCastleKingSide && to.equals(teamParameters.getCastlingKingSidePosition())) {
             // Move the rook
-            boolean success = rule.requestMove(new Position(from.getRow(), from.getCol() + 3), new Position(from.getRow(), from.getCol() + 1));
+            boolean success = rule.requestMove(Position.of(from.getRow(), from.getCol() + 3), Position.of(from.getRow(), from.getCol() + 1));
             
             if (!success) {
                 throw new IllegalStateException("Failed to move the rook for castling.");
@@ -110,7 +127,7 @@ public class PieceKing implements PieceBehavior {
 
         if (canCastleQueenSide && to.equals(teamParameters.getCastlingQueenSidePosition())) {
             // Move the rook
-            boolean success = rule.requestMove(new Position(from.getRow(), from.getCol() - 4), new Position(from.getRow(), from.getCol() - 1));
+            boolean success = rule.requestMove(Position.of(from.getRow(), from.getCol() - 4), Position.of(from.getRow(), from.getCol() - 1));
         
             if (!success) {
                 throw new IllegalStateException("Failed to move the rook for castling.");
@@ -35,7 +35,7 @@ public class PiecePawn implements PieceBehavior {
 
         // Check if we moved 2 cells.
         if (from.distanceRow(to) == 2) {
-            sharedTeamParameters.setEnPassantPosition(new Position(to.getRow() - teamParameters.getPawnDirection(), to.getCol()));
+            sharedTeamParameters.setEnPassantPosition(Position.of(to.getRow() - teamParameters.getPawnDirection(), to.getCol()));
             sharedTeamParameters.setEnPassantTeam(teamParameters.getTeamIdentifier());
 
             return;
@@ -45,7 +45,7 @@ public class PiecePawn implements PieceBehavior {
 
         // Check if we did en passant.
         if (enPassentPosition.equals(to)) {
-            boolean success = rule.requestClear(new Position(to.getRow() - teamParameters.getPawnDirection(), to.getCol()));
+            boolean success = rule.requestClear(Position.of(to.getRow() - teamParameters.getPawnDirection(), to.getCol()));
 
             if (!success) {
                 throw new IllegalStateException("En Passant failed.");
@@ -79,17 +79,31 @@ public class PiecePawn implements PieceBehavior {
         rule.calculateMoves(position, teamIdentifier, possibleMoves, dirRow, 1, 1, false, false, true);
         rule.calculateMoves(position, teamIdentifier, possibleMoves, dirRow, -1, 1, false, false, true);
 
-        Position enPassentRow = teamParameters.getSharedTeamParameters().getEnPassantPosition();
+        final SharedChessTeamParameters sharedTeamParameters = teamParameters.getSharedTeamParameters();
+
+        Position enPassentRow = sharedTeamParameters.getEnPassantPosition();
+
+        // Only the team which did not enable en passant may take it.
+        if (sharedTeamParameters.getEnPassantTeam().equals(teamIdentifier)) {
+            return possibleMoves.iterator();
+        }
+
+        Move move = null;
 
         // Check if we can take en passant.
-        if (enPassentRow.equals(new Position(row + dirRow, col + 1))) {
-            Move move = new Move(new Position(row + dirRow, col + 1), position, getTypeIdentifier(), true);
-            move.setIsEnPassant(true);
-            possibleMoves.add(move);
-        } else if (enPassentRow.equals(new Position(row + dirRow, col - 1))) {
-            Move move = new Move(new Position(row + dirRow, col - 1), position, getTypeIdentifier(), true);
+        if (enPassentRow.equals(Position.of(row + dirRow, col + 1))) {
+            move = new Move(Position.of(row + dirRow, col + 1), position, getTypeIdentifier(), true);
+        } else if (enPassentRow.equals(Position.of(row + dirRow, col - 1))) {
+            move = new Move(Position.of(row + dirRow, col - 1), position, getTypeIdentifier(), true);
+        }
+
+        // En passant is not created through the rule's move calculation, so check that it is legal here.
+        if (move != null) {
             move.setIsEnPassant(true);
-            possibleMoves.add(move);
+
+            if (rule.isLegalMove(getTypeIdentifier(), teamIdentifier, move)) {
+                possibleMoves.add(move);
+            }
         }
 
         return possibleMoves.iterator();
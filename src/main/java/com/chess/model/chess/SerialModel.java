@@ -12,6 +12,11 @@ import com.chess.model.GameTime;
  * @version 2022-03-01
  */
 public class SerialModel implements Serializable {
+    /**
+     * Fixed to the version of the first saves, so that adding fields does not break them.
+     */
+    private static final long serialVersionUID = 8919563289914674159L;
+
     /**
      * A string representation of the state of the board.
      */
@@ -44,6 +49,14 @@ public class SerialModel implements Serializable {
      * Keeps track of whether the game has been started or not.
      */
     private boolean started;
+    /**
+     * The position the move history starts from, or null if there is no move history.
+     */
+    private String startFen;
+    /**
+     * The moves played from the start position, packed with ChessMoveEncoding, or null if there is no move history.
+     */
+    private int[] moveHistory;
 
     //
     // Getters
@@ -121,6 +134,22 @@ public class SerialModel implements Serializable {
         return started;
     }
 
+    /**
+     * Gets the position the move history starts from.
+     * @return The position in Forsyth-Edwards Notation, or null if there is no move history.
+     */
+    public String getStartFen() {
+        return startFen;
+    }
+
+    /**
+     * Gets the moves played from the start position.
+     * @return The moves packed with ChessMoveEncoding, or null if there is no move history.
+     */
+    public int[] getMoveHistory() {
+        return moveHistory;
+    }
+
     //
     // Setters
     //
@@ -197,4 +226,19 @@ public class SerialModel implements Serializable {
         this.started = started;
     }
 
+    /**
+     * Sets the position the move history starts from.
+     * @param startFen The position in Forsyth-Edwards Notation, or null if there is no move history.
+     */
+    public void setStartFen(String startFen) {
+        this.startFen = startFen;
+    }
+
+    /**
+     * Sets the moves played from the start position.
+     * @param moveHistory The moves packed with ChessMoveEncoding, or null if there is no move history.
+     */
+    public void setMoveHistory(int[] moveHistory) {
+        this.moveHistory = moveHistory;
+    }
 }
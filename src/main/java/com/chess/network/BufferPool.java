@@ -0,0 +1,71 @@
+package com.chess.network;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * A pool of direct buffers of one size, used by a single thread.
+ *
+ * Direct buffers are expensive to allocate and are freed only by the garbage collector, so
+ * connections borrow them for as long as they hold a partial frame and give them back after.
+ * @author agent
+ * @version 2026-10-17
+ */
+final class BufferPool {
+    /**
+     * The size of every buffer.
+     */
+    private final int bufferSize;
+
+    /**
+     * The most buffers kept when they are given back.
+     */
+    private final int maxPooled;
+
+    /**
+     * The buffers not borrowed.
+     */
+    private final ArrayDeque<ByteBuffer> buffers = new ArrayDeque<>();
+
+    /**
+     * Creates a new pool.
+     *
+     * @param bufferSize the size of every buffer
+     * @param maxPooled the most buffers kept when they are given back
+     */
+    BufferPool(int bufferSize, int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    /**
+     * Get the size of the buffers.
+     *
+     * @return the size in bytes
+     */
+    int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Borrow a buffer.
+     *
+     * @return a cleared buffer
+     */
+    ByteBuffer take() {
+        final ByteBuffer buffer = buffers.poll();
+
+        return buffer != null ? buffer : ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    /**
+     * Give a borrowed buffer back.
+     *
+     * @param buffer the buffer, which must not be used after
+     */
+    void release(ByteBuffer buffer) {
+        if (buffer.isDirect() && buffer.capacity() == bufferSize && buffers.size() < maxPooled) {
+            buffers.push(buffer.clear());
+        }
+    }
+}
@@ -2,6 +2,9 @@ package com.chess.network;
 
 import java.io.*;
 import java.net.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.chess.utils.Delegate;
 
@@ -11,6 +14,11 @@ import com.chess.utils.Delegate;
  * @version 2022-03-02
  */
 public class Client {
+    /**
+     * The most bytes queued for a client before it is disconnected for not keeping up.
+     */
+    protected static final int MAX_QUEUED_BYTES = 4 << 20;
+
     /**
      * The socket used to communicate with the client.
      */
@@ -26,15 +34,40 @@ public class Client {
      */    
     private OutputStream out;
 
+    /**
+     * The protocol messages are sent with.
+     */
+    private final MessageProtocol protocol;
+
     /**
      * The thread used to listen for messages from the client.
      */
     private Thread messageThread;
 
+    /**
+     * Indicates if the thread listening for messages is a virtual thread.
+     */
+    private final boolean virtualThread;
+
+    /**
+     * Indicates if a thread is writing the queued frames to the client.
+     */
+    private final AtomicBoolean writing = new AtomicBoolean();
+
+    /**
+     * The frames waiting to be written, shared with other clients and never modified.
+     */
+    private final ConcurrentLinkedQueue<byte[]> outbound = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The number of bytes waiting to be written.
+     */
+    private final AtomicInteger queuedBytes = new AtomicInteger();
+
     /**
      * Indicates if the receiver thread is running and we are connected to the client.
      */
-    private boolean running;
+    private volatile boolean running;
 
     /**
      * The delegate to call when the server receives a message from the client.
@@ -50,18 +83,44 @@ public class Client {
      * Creates a new client.
      * 
      * @param socket The socket to use for communication.
+     * @param protocol The protocol messages are sent with.
+     * @param virtualThread True to serve the connection on virtual threads.
      */
-    public Client(Socket socket) {
+    public Client(Socket socket, MessageProtocol protocol, boolean virtualThread) {
         this.socket = socket;
+        this.protocol = protocol;
+        this.virtualThread = virtualThread;
         try {
-            // Collect the streams
-            in = socket.getInputStream();
-            out = socket.getOutputStream();
+            // Moves are small and latency matters, send them without waiting to fill a packet
+            socket.setTcpNoDelay(true);
+
+            // Collect the streams, kept for the whole connection
+            in = new BufferedInputStream(socket.getInputStream());
+            out = new BufferedOutputStream(socket.getOutputStream());
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
+    /**
+     * Creates a client whose connection is driven by a subclass instead of a socket and a thread.
+     * 
+     * @param protocol The protocol messages are sent with.
+     */
+    protected Client(MessageProtocol protocol) {
+        this.protocol = protocol;
+        this.virtualThread = false;
+    }
+
+    /**
+     * Gets the protocol messages are sent with.
+     * 
+     * @return The protocol.
+     */
+    protected MessageProtocol getProtocol() {
+        return protocol;
+    }
+
     /**
      * Sends a message to the client.
      * 
@@ -69,20 +128,38 @@ public class Client {
      */
     public void sendMessage(Message message) {
         try {
-            // Create an object output stream
-            ObjectOutputStream objectStream = new ObjectOutputStream(out);
+            sendFrame(protocol.encode(message));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
 
-            // Write the message
-            objectStream.writeObject(message);
+    /**
+     * Sends a message already encoded by the protocol, so a broadcast encodes it once.
+     * 
+     * The frame is queued and written by a writer thread, so the sender never waits for a slow
+     * client. The thread is started when frames are queued and ends once they are written, so an
+     * idle connection holds no thread but the one receiving. A client which falls too far behind
+     * is disconnected.
+     * 
+     * @param frame The encoded message, which must not be modified after.
+     */
+    protected void sendFrame(byte[] frame) {
+        if (!running) {
+            return;
+        }
 
-            // Flush the stream
-            objectStream.flush();
-        } catch (SocketException e) {
-            // The socket was closed
+        if (queuedBytes.addAndGet(frame.length) > MAX_QUEUED_BYTES) {
             stop();
-        } catch (IOException e) {
-            e.printStackTrace();
-        } 
+            return;
+        }
+
+        outbound.add(frame);
+
+        // Start a writer unless one is writing, which then writes this frame too
+        if (writing.compareAndSet(false, true)) {
+            NetworkThreads.newThread("network-client-writer-" + socket.getPort(), () -> writeQueued(), virtualThread).start();
+        }
     }
 
     /**
@@ -112,67 +189,100 @@ public class Client {
         running = true;
 
         // Start the thread that will receive messages
-        messageThread = new Thread(() -> receiveLoop());
+        messageThread = NetworkThreads.newThread("network-client-" + socket.getPort(), () -> receiveLoop(), virtualThread);
         messageThread.start();
     }
 
+    /**
+     * Marks the client as connected without starting a thread, for subclasses which receive
+     * messages some other way.
+     */
+    protected void setRunning() {
+        running = true;
+    }
+
+    /**
+     * Checks if the client is connected.
+     * 
+     * @return true until the client is stopped.
+     */
+    protected boolean isRunning() {
+        return running;
+    }
+
     /**
      * Stops the client.
      */
     protected void stop() {
-        // If we are not running, return
-        if (!running) {
-            return;
-        }
+        // If we are not running, return. Stop may be called from the receiving thread and any other at once.
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
 
-        running = false;
+            running = false;
+        }
 
         try {
-            // If the client is still connected, close the socket
-            if (!socket.isClosed()) {
-                socket.close();
-            }
+            closeConnection();
         } catch (IOException e) {
             e.printStackTrace();
         }
 
+        // A writer blocked on the socket fails now that it is closed
+        outbound.clear();
+
         // Call the disconnect delegate
         if (onDisconnectDelegate != null) {
             onDisconnectDelegate.trigger(this);
         }
     }
-    
+
+    /**
+     * Closes the connection to the client.
+     * 
+     * @throws IOException If the connection could not be closed.
+     */
+    protected void closeConnection() throws IOException {
+        // If the client is still connected, close the socket
+        if (!socket.isClosed()) {
+            socket.close();
+        }
+    }
+
+    /**
+     * Passes a received message to the delegate.
+     * 
+     * @param message The message.
+     */
+    protected void receive(Message message) {
+        // If there is a delegate for this message type, call it
+        if (messageDelegate != null) {
+            messageDelegate.trigger(message);
+        }
+    }
+
     /**
      * Loop that receives messages from the client.
      */
     private void receiveLoop() {
         while (running) {
             try {
-                // Create an object input stream
-                ObjectInputStream objectStream = new ObjectInputStream(in);
-
                 // Read the message
-                Message message = (Message) objectStream.readObject();
+                Message message = protocol.read(in);
 
                 // If the message is null, the client has disconnected
                 if (message == null) {
                     break;
                 }
 
-                // If there is a delegate for this message type, call it
-                if (messageDelegate != null) {
-                    messageDelegate.trigger(message);
-                }
+                receive(message);
 
             } catch (SocketException e) {
                 // The socket was closed
                 break;
             } catch (IOException e) {
-                // Can occur when the client disconnects, close it
-                break;
-            } catch (ClassNotFoundException e) {
-                // Something went wrong, client out of date, close it
-                e.printStackTrace();
+                // Can occur when the client disconnects, or sends a message we do not understand, close it
                 break;
             }
         }
@@ -180,4 +290,30 @@ public class Client {
         // Close the client
         stop();
     }
+
+    /**
+     * Writes the queued frames to the client, flushing once the queue is empty, until no frame is left.
+     */
+    private void writeQueued() {
+        try {
+            do {
+                byte[] frame;
+
+                // Write everything queued meanwhile before flushing, so a burst goes out in few packets
+                while (running && (frame = outbound.poll()) != null) {
+                    out.write(frame);
+                    queuedBytes.addAndGet(-frame.length);
+                }
+
+                out.flush();
+                writing.set(false);
+
+                // A frame queued after the last poll saw the flag still set, so it is written here
+            } while (running && !outbound.isEmpty() && writing.compareAndSet(false, true));
+        } catch (IOException e) {
+            // The socket was closed
+            outbound.clear();
+            stop();
+        }
+    }
 }
@@ -0,0 +1,311 @@
+package com.chess.network;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * The binary wire protocol of the messages sent between a server and its clients.
+ *
+ * Every message is sent as one frame: its length as a variable length integer, a tag byte
+ * identifying its type, and the fields written by the codec registered for the type. Messages
+ * are never sent with Java serialization, so a peer can only make us create the registered types,
+ * and a frame with a tag nobody registered closes the connection as malformed.
+ *
+ * Codecs are registered before the protocol is used; after that it may be shared by any number
+ * of connections and threads.
+ * @author agent
+ * @version 2026-10-17
+ */
+public class MessageProtocol {
+    /**
+     * The largest frame accepted, larger frames close the connection.
+     */
+    public static final int MAX_FRAME_LENGTH = 1 << 20;
+
+    /**
+     * The tag no message type is registered with.
+     */
+    private static final int NO_TAG = 0;
+
+    /**
+     * Writes the fields of a message.
+     *
+     * @param <T> the type of the message
+     */
+    @FunctionalInterface
+    public interface Writer<T extends Message> {
+        /**
+         * Write the fields of a message.
+         *
+         * @param message the message
+         * @param out the output
+         * @throws IOException if the output can not be written
+         */
+        void write(T message, DataOutput out) throws IOException;
+    }
+
+    /**
+     * Reads the fields of a message and creates it.
+     *
+     * @param <T> the type of the message
+     */
+    @FunctionalInterface
+    public interface Reader<T extends Message> {
+        /**
+         * Read a message.
+         *
+         * @param in the input, holding the fields written for the message
+         * @return the message
+         * @throws IOException if the fields are malformed
+         */
+        T read(DataInput in) throws IOException;
+    }
+
+    /**
+     * The tag of every registered message type.
+     */
+    private final HashMap<Class<?>, Integer> tags = new HashMap<>();
+
+    /**
+     * The writers, indexed by tag.
+     */
+    private final Writer<?>[] writers = new Writer<?>[256];
+
+    /**
+     * The readers, indexed by tag.
+     */
+    private final Reader<?>[] readers = new Reader<?>[256];
+
+    /**
+     * Register the codec of a message type.
+     *
+     * @param <T> the type of the message
+     * @param tag the tag identifying the type on the wire, from 1 to 255
+     * @param type the class of the message, subclasses need their own codec
+     * @param writer writes the fields of a message
+     * @param reader reads the fields and creates the message
+     * @throws IllegalArgumentException if the tag is out of range or already used, or the type is already registered
+     */
+    public <T extends Message> void register(int tag, Class<T> type, Writer<T> writer, Reader<T> reader) throws IllegalArgumentException {
+        if (tag <= NO_TAG || tag >= readers.length) {
+            throw new IllegalArgumentException("Tag must be from 1 to " + (readers.length - 1) + ": " + tag);
+        }
+
+        if (readers[tag] != null || tags.containsKey(type)) {
+            throw new IllegalArgumentException("Tag " + tag + " or " + type.getName() + " is already registered");
+        }
+
+        tags.put(type, tag);
+        writers[tag] = writer;
+        readers[tag] = reader;
+    }
+
+    //
+    // Writing
+    //
+
+    /**
+     * Encode a message as a frame.
+     *
+     * The frame is complete, so one encoded message can be written to many connections.
+     *
+     * @param message the message
+     * @return the frame
+     * @throws IOException if the message can not be encoded or its type has no codec
+     * @throws IllegalArgumentException if the frame is larger than {@link #MAX_FRAME_LENGTH}
+     */
+    @SuppressWarnings("unchecked")
+    public byte[] encode(Message message) throws IOException, IllegalArgumentException {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream(32);
+        final Integer tag = tags.get(message.getClass());
+
+        if (tag == null) {
+            throw new IOException("No codec for " + message.getClass().getName());
+        }
+
+        body.write(tag);
+        ((Writer<Message>) writers[tag]).write(message, new DataOutputStream(body));
+
+        if (body.size() > MAX_FRAME_LENGTH) {
+            throw new IllegalArgumentException("Message of " + body.size() + " bytes is too large to send");
+        }
+
+        final ByteArrayOutputStream frame = new ByteArrayOutputStream(body.size() + 3);
+
+        writeLength(frame, body.size());
+        body.writeTo(frame);
+
+        return frame.toByteArray();
+    }
+
+    /**
+     * Write a message to a stream and flush it.
+     *
+     * @param message the message
+     * @param out the stream
+     * @throws IOException if the message can not be written
+     */
+    public void write(Message message, OutputStream out) throws IOException {
+        out.write(encode(message));
+        out.flush();
+    }
+
+    //
+    // Reading
+    //
+
+    /**
+     * Read the next message from a stream, blocking until it has arrived.
+     *
+     * @param in the stream
+     * @return the message
+     * @throws EOFException if the stream ends before the next frame
+     * @throws IOException if the stream can not be read or the frame is malformed
+     */
+    public Message read(InputStream in) throws EOFException, IOException {
+        final int length = readLength(in);
+        final byte[] body = new byte[length];
+
+        new DataInputStream(in).readFully(body);
+
+        return decode(body);
+    }
+
+    /**
+     * Read the next message from a buffer, if all of its frame has arrived.
+     *
+     * @param buffer the buffer, read from its position, which is moved past the frame
+     * @return the message, or null if the frame is incomplete and the position was not moved
+     * @throws IOException if the frame is malformed
+     */
+    public Message read(ByteBuffer buffer) throws IOException {
+        final int frameLength = getFrameLength(buffer);
+
+        if (frameLength < 0 || buffer.remaining() < frameLength) {
+            return null;
+        }
+
+        final int start = buffer.position();
+
+        while ((buffer.get() & 0x80) != 0) {
+            // Skip the length
+        }
+
+        final byte[] body = new byte[frameLength - (buffer.position() - start)];
+
+        buffer.get(body);
+
+        return decode(body);
+    }
+
+    /**
+     * Get the length of the frame at the position of a buffer, without moving the position.
+     *
+     * @param buffer the buffer
+     * @return the length of the whole frame, or -1 if its length has not arrived
+     * @throws IOException if the length is malformed or too large
+     */
+    public int getFrameLength(ByteBuffer buffer) throws IOException {
+        int length = 0;
+
+        for (int i = 0; i < 4; i++) {
+            if (buffer.position() + i == buffer.limit()) {
+                return -1;
+            }
+
+            final int b = buffer.get(buffer.position() + i);
+
+            length |= (b & 0x7F) << (7 * i);
+
+            if ((b & 0x80) == 0) {
+                if (length > MAX_FRAME_LENGTH) {
+                    throw new IOException("Frame of " + length + " bytes is too large");
+                }
+
+                return i + 1 + length;
+            }
+        }
+
+        throw new IOException("Malformed frame length");
+    }
+
+    /**
+     * Decode the body of a frame, the tag and the fields of the message.
+     *
+     * @param body the body
+     * @return the message
+     * @throws IOException if the body is malformed or its tag is not registered
+     */
+    public Message decode(byte[] body) throws IOException {
+        if (body.length == 0) {
+            throw new IOException("Empty frame");
+        }
+
+        final int tag = body[0] & 0xFF;
+        final ByteArrayInputStream fields = new ByteArrayInputStream(body, 1, body.length - 1);
+
+        if (readers[tag] == null) {
+            throw new IOException("Unknown message tag " + tag);
+        }
+
+        final Message message = readers[tag].read(new DataInputStream(fields));
+
+        if (fields.available() > 0) {
+            throw new IOException("Malformed message, " + fields.available() + " bytes left of tag " + tag);
+        }
+
+        return message;
+    }
+
+    //
+    // Helpers
+    //
+
+    /**
+     * Write the length of a frame as a variable length integer, 7 bits per byte.
+     *
+     * @param out the stream
+     * @param length the length
+     */
+    private static void writeLength(ByteArrayOutputStream out, int length) {
+        while ((length & ~0x7F) != 0) {
+            out.write((length & 0x7F) | 0x80);
+            length >>>= 7;
+        }
+
+        out.write(length);
+    }
+
+    /**
+     * Read the length of a frame.
+     *
+     * @param in the stream
+     * @return the length
+     * @throws EOFException if the stream ends before the length
+     * @throws IOException if the length is malformed or too large
+     */
+    private static int readLength(InputStream in) throws EOFException, IOException {
+        int length = 0;
+
+        for (int shift = 0; shift < 28; shift += 7) {
+            final int b = in.read();
+
+            if (b < 0) {
+                throw new EOFException();
+            }
+
+            length |= (b & 0x7F) << shift;
+
+            if ((b & 0x80) == 0) {
+                if (length > MAX_FRAME_LENGTH) {
+                    throw new IOException("Frame of " + length + " bytes is too large");
+                }
+
+                return length;
+            }
+        }
+
+        throw new IOException("Malformed frame length");
+    }
+}
@@ -39,6 +39,16 @@ public class NetworkClient {
      */
     private OutputStream out;
 
+    /**
+     * The protocol messages are sent with.
+     */
+    private final MessageProtocol protocol;
+
+    /**
+     * Lock held while a message is written, apart from the lock the delegates are called with.
+     */
+    private final Object sendLock = new Object();
+
     /**
      * The thread used to listen for messages from the server.
      */
@@ -66,10 +76,12 @@ public class NetworkClient {
      * 
      * @param ip The ip to connect to.
      * @param port The port to connect to.
+     * @param protocol The protocol messages are sent with.
      */
-    public NetworkClient(String ip, int port) {
+    public NetworkClient(String ip, int port, MessageProtocol protocol) {
         this.ip = ip;
         this.port = port;
+        this.protocol = protocol;
         this.messageDelegates = new HashMap<>();
     }
 
@@ -77,9 +89,10 @@ public class NetworkClient {
      * Creates a new client from host details.
      * 
      * @param host The host to connect to.
+     * @param protocol The protocol messages are sent with.
      */
-    public NetworkClient(HostDetails host) {
-        this(host.getIp(), host.getPort());
+    public NetworkClient(HostDetails host, MessageProtocol protocol) {
+        this(host.getIp(), host.getPort(), protocol);
     }
 
     /**
@@ -89,14 +102,10 @@ public class NetworkClient {
      */
     public void sendMessage(Message message) {
         try {
-            // Create an object output stream
-            ObjectOutputStream objectStream = new ObjectOutputStream(out);
-            
-            // Write the message
-            objectStream.writeObject(message);
-
-            // Flush the stream
-            objectStream.flush();
+            // One write per message, on the stream kept for the whole connection
+            synchronized (sendLock) {
+                protocol.write(message, out);
+            }
         } catch (SocketException e) {
             // The socket was closed
             stop();
@@ -166,8 +175,11 @@ public class NetworkClient {
         // Connect to the server
         socket = new Socket(ip, port);
 
+        // Moves are small and latency matters, send them without waiting to fill a packet
+        socket.setTcpNoDelay(true);
+
         // Collect the streams
-        in = socket.getInputStream();
+        in = new BufferedInputStream(socket.getInputStream());
         out = socket.getOutputStream();
         running = true;
 
@@ -182,11 +194,8 @@ public class NetworkClient {
     private void receiveLoop() {
         while (running) {
             try {
-                // Create an object input stream
-                ObjectInputStream objectStream = new ObjectInputStream(in);
-
                 // Read the message
-                Message message = (Message) objectStream.readObject();
+                Message message = protocol.read(in);
 
                 if (message == null) {
                     break;
@@ -206,10 +215,7 @@ public class NetworkClient {
                 break;
             } catch (IOException e) {
                 // Here we should also disconnect from the server, can happen when the server is closed
-                break;
-            } catch (ClassNotFoundException e) {
-                // Something went wrong, disconnect from the server
-                e.printStackTrace();
+                // or sends a message we do not understand
                 break;
             }
         }
@@ -4,6 +4,7 @@ import java.io.*;
 import java.lang.reflect.Type;
 import java.net.*;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import com.chess.utils.Delegate;
 
@@ -40,9 +41,19 @@ public class NetworkServer {
     private Thread acceptionThread;
 
     /**
-     * List of connected clients.
+     * Indicates if connections are served on virtual threads instead of platform threads.
      */
-    private List<Client> clients;
+    private boolean virtualThreads = NetworkThreads.isVirtualByDefault();
+
+    /**
+     * The protocol messages are sent with.
+     */
+    private final MessageProtocol protocol;
+
+    /**
+     * List of connected clients, copied on change as it is read by every broadcast.
+     */
+    private final List<Client> clients;
 
     /**
      * Delegete for when a client connects.
@@ -71,13 +82,15 @@ public class NetworkServer {
      * 
      * @param port The port to listen on.
      * @param ip The ip to listen on.
+     * @param protocol The protocol messages are sent with.
      */
-    public NetworkServer(String ip, int port) {
+    public NetworkServer(String ip, int port, MessageProtocol protocol) {
         this.port = port;
         this.ip = ip;
+        this.protocol = protocol;
 
         running = false;
-        clients = new ArrayList<>();
+        clients = new CopyOnWriteArrayList<>();
         messageDelegates = new HashMap<>();
     }
 
@@ -85,9 +98,10 @@ public class NetworkServer {
      * Creates a new server from host details.
      * 
      * @param host The host to connect to.
+     * @param protocol The protocol messages are sent with.
      */
-    public NetworkServer(HostDetails host) {
-        this(host.getIp(), host.getPort());
+    public NetworkServer(HostDetails host, MessageProtocol protocol) {
+        this(host.getIp(), host.getPort(), protocol);
     }
 
     /**
@@ -105,11 +119,40 @@ public class NetworkServer {
         
         running = true;
 
-        acceptionThread = new Thread(() -> acceptLoop());
+        acceptionThread = NetworkThreads.newThread("network-server-accept", () -> acceptLoop(), virtualThreads);
 
         acceptionThread.start();
     }
 
+    /**
+     * Chooses whether connections are served on virtual threads, one per connection either way.
+     * 
+     * The default is set by the system property {@value NetworkThreads#VIRTUAL_THREADS_PROPERTY}.
+     * 
+     * @param virtualThreads true for virtual threads, false for platform threads.
+     * @throws IllegalStateException If virtual threads are chosen and the runtime has none, or the server is running.
+     */
+    public synchronized void setVirtualThreads(boolean virtualThreads) throws IllegalStateException {
+        if (running) {
+            throw new IllegalStateException("Threads can not be changed while the server is running.");
+        }
+
+        if (virtualThreads && !NetworkThreads.isVirtualSupported()) {
+            throw new IllegalStateException("Virtual threads need Java 21.");
+        }
+
+        this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * Returns true if connections are served on virtual threads.
+     * 
+     * @return true for virtual threads, false for platform threads.
+     */
+    public synchronized boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
     /**
      * Stops the server.
      */
@@ -136,6 +179,15 @@ public class NetworkServer {
         }
     }
 
+    /**
+     * Gets the port the server listens on.
+     *
+     * @return The port, which is chosen by the system if the server was created with port 0.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
     /**
      * Sets the delegate that will be called when a client connects.
      * @param onClientConnectedDelegate The delegate that will be colled when the client connects.
@@ -182,12 +234,24 @@ public class NetworkServer {
 
     /**
      * Sends a message to all clients.
+     * 
+     * The message is encoded once and queued for every client, so no client waits for another
+     * and the server is not locked while they are written.
      *
      * @param message The message to send.
      */
-    public synchronized void broadcastMessage(Message message) {
+    public void broadcastMessage(Message message) {
+        final byte[] frame;
+
+        try {
+            frame = protocol.encode(message);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+
         for (Client client : clients) {
-            client.sendMessage(message);
+            client.sendFrame(frame);
         }
     }
 
@@ -237,7 +301,7 @@ public class NetworkServer {
                 Socket socket = serverSocket.accept();
                 
                 // Create a new client.
-                Client client = new Client(socket);
+                Client client = new Client(socket, protocol, virtualThreads);
 
                 // Setup handling of incoming messages for this client.
                 client.setMessageDelegate(message -> handleMessage(client, message));
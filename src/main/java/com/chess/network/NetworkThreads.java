@@ -0,0 +1,106 @@
+package com.chess.network;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Creates the threads connections are served on, platform threads or virtual threads.
+ *
+ * A blocked platform thread holds its whole stack, which limits a server with a thread per
+ * connection to a few thousand connections. Virtual threads are cheap enough to have one per
+ * connection for far more. They exist from Java 21, so they are looked up when the class loads
+ * and the build keeps its older target; on older runtimes only platform threads are available.
+ *
+ * Virtual threads are used by default when the system property {@value #VIRTUAL_THREADS_PROPERTY}
+ * is true, for example with {@code java -Dchess.network.virtualThreads=true -jar chess.jar}.
+ * @author agent
+ * @version 2026-10-17
+ */
+public final class NetworkThreads {
+    /**
+     * The system property choosing virtual threads by default.
+     */
+    public static final String VIRTUAL_THREADS_PROPERTY = "chess.network.virtualThreads";
+
+    /**
+     * Creates a virtual thread which is not started, or null if the runtime has no virtual threads.
+     */
+    private static final MethodHandle NEW_VIRTUAL_THREAD = findVirtualThreadFactory();
+
+    private NetworkThreads() {
+    }
+
+    /**
+     * Check if the runtime has virtual threads.
+     *
+     * @return true on Java 21 and later
+     */
+    public static boolean isVirtualSupported() {
+        return NEW_VIRTUAL_THREAD != null;
+    }
+
+    /**
+     * Check if virtual threads are chosen by default.
+     *
+     * @return true if the system property is set and the runtime has virtual threads
+     */
+    public static boolean isVirtualByDefault() {
+        return Boolean.getBoolean(VIRTUAL_THREADS_PROPERTY) && isVirtualSupported();
+    }
+
+    /**
+     * Create a thread which is not started.
+     *
+     * @param name the name of the thread
+     * @param task the task the thread runs
+     * @param virtual true for a virtual thread, false for a platform thread
+     * @return the thread
+     * @throws IllegalStateException if a virtual thread is asked for and the runtime has none
+     */
+    public static Thread newThread(String name, Runnable task, boolean virtual) throws IllegalStateException {
+        if (!virtual) {
+            return new Thread(task, name);
+        }
+
+        if (!isVirtualSupported()) {
+            throw new IllegalStateException("Virtual threads need Java 21, running " + System.getProperty("java.version"));
+        }
+
+        try {
+            return (Thread) NEW_VIRTUAL_THREAD.invoke(name, task);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Could not create a virtual thread", e);
+        }
+    }
+
+    /**
+     * Look up {@code Thread.ofVirtual().name(name).unstarted(task)}.
+     *
+     * @return a handle taking the name and the task, or null if the runtime has no virtual threads
+     */
+    private static MethodHandle findVirtualThreadFactory() {
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            final Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            final Class<?> ofVirtual = Class.forName("java.lang.Thread$Builder$OfVirtual");
+
+            final MethodHandle create = lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(ofVirtual));
+            final MethodHandle name = lookup.findVirtual(builder, "name", MethodType.methodType(builder, String.class));
+            final MethodHandle unstarted = lookup.findVirtual(builder, "unstarted", MethodType.methodType(Thread.class, Runnable.class));
+
+            // unstarted(name(ofVirtual(), name), task)
+            final MethodHandle named = MethodHandles.foldArguments(name, create.asType(MethodType.methodType(builder)));
+            final MethodHandle factory = MethodHandles.collectArguments(unstarted, 0, named);
+
+            // Virtual threads are a preview on Java 19 and 20, creating one fails unless previews are enabled
+            factory.invoke("probe", (Runnable) () -> { });
+
+            return factory;
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+}
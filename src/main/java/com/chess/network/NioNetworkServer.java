@@ -0,0 +1,701 @@
+package com.chess.network;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.chess.utils.Delegate;
+
+/**
+ * A TCP server for many connections, driven by a small fixed set of event loop threads.
+ *
+ * Every event loop owns a selector and the connections assigned to it, which it reads, decodes
+ * and writes without blocking. The first loop also accepts connections and hands them out in
+ * turn. A connection only borrows a buffer from the pool of its loop while it holds a partial
+ * frame, so idle connections cost no buffer memory, and messages sent to a connection are queued
+ * and written by its loop, so a slow connection never blocks the sender. A connection which falls
+ * too far behind is closed rather than queued for without end.
+ *
+ * Message delegates are called on the event loop of the connection, and must not block; work
+ * which does should be handed to an executor.
+ * @author agent
+ * @version 2026-10-17
+ */
+public class NioNetworkServer {
+    /**
+     * The size of the buffer every event loop reads into.
+     */
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The size of the pooled buffers holding partial frames.
+     */
+    private static final int POOL_BUFFER_SIZE = 16 * 1024;
+
+    /**
+     * The most buffers every event loop keeps pooled.
+     */
+    private static final int MAX_POOLED_BUFFERS = 256;
+
+    /**
+     * The most queued frames written to a connection in one call.
+     */
+    private static final int MAX_GATHER = 64;
+
+    /**
+     * The port we are listening on.
+     */
+    private final int port;
+
+    /**
+     * The ip we are listening on, or null for every interface.
+     */
+    private final String ip;
+
+    /**
+     * The protocol messages are sent with.
+     */
+    private final MessageProtocol protocol;
+
+    /**
+     * The number of event loops.
+     */
+    private final int eventLoopCount;
+
+    /**
+     * The channel connections are accepted on.
+     */
+    private ServerSocketChannel serverChannel;
+
+    /**
+     * The event loops.
+     */
+    private EventLoop[] eventLoops;
+
+    /**
+     * The number of connections accepted, used to pick the event loop of the next.
+     */
+    private final AtomicInteger accepted = new AtomicInteger();
+
+    /**
+     * Indicates if the server is running.
+     */
+    private volatile boolean running;
+
+    /**
+     * The connected clients.
+     */
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Delegate for when a client connects.
+     */
+    private volatile Delegate<Client> onClientConnectedDelegate;
+
+    /**
+     * Delegate for when a client disconnects.
+     */
+    private volatile Delegate<Client> onClientDisconnectedDelegate;
+
+    /**
+     * Delegate for when the server closes.
+     */
+    private volatile Runnable onCloseDelegate;
+
+    /**
+     * Delegates for each message type.
+     */
+    private final ConcurrentHashMap<Type, MessageDelegate> messageDelegates = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new server.
+     *
+     * @param ip The ip to listen on, or null for every interface.
+     * @param port The port to listen on, 0 for any free port.
+     * @param protocol The protocol messages are sent with.
+     * @param eventLoopCount The number of event loop threads.
+     * @throws IllegalArgumentException If there is not at least one event loop.
+     */
+    public NioNetworkServer(String ip, int port, MessageProtocol protocol, int eventLoopCount) throws IllegalArgumentException {
+        if (eventLoopCount < 1) {
+            throw new IllegalArgumentException("At least one event loop is needed");
+        }
+
+        this.ip = ip;
+        this.port = port;
+        this.protocol = protocol;
+        this.eventLoopCount = eventLoopCount;
+    }
+
+    /**
+     * Creates a new server from host details, with an event loop for every processor.
+     *
+     * @param host The host to listen on.
+     * @param protocol The protocol messages are sent with.
+     */
+    public NioNetworkServer(HostDetails host, MessageProtocol protocol) {
+        this(host.getIp(), host.getPort(), protocol, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Starts the server.
+     *
+     * @throws IOException If the port can not be listened on.
+     */
+    public synchronized void start() throws IOException {
+        serverChannel = ServerSocketChannel.open();
+
+        try {
+            serverChannel.bind(ip == null ? new InetSocketAddress(port) : new InetSocketAddress(ip, port));
+            serverChannel.configureBlocking(false);
+
+            eventLoops = new EventLoop[eventLoopCount];
+
+            for (int i = 0; i < eventLoops.length; i++) {
+                eventLoops[i] = new EventLoop(i);
+            }
+
+            serverChannel.register(eventLoops[0].selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            serverChannel.close();
+            throw e;
+        }
+
+        running = true;
+
+        for (EventLoop eventLoop : eventLoops) {
+            eventLoop.thread.start();
+        }
+    }
+
+    /**
+     * Stops the server, closing every connection.
+     */
+    public void stop() {
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+
+            running = false;
+        }
+
+        try {
+            serverChannel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        for (Client client : new ArrayList<>(clients)) {
+            client.stop();
+        }
+
+        for (EventLoop eventLoop : eventLoops) {
+            eventLoop.selector.wakeup();
+        }
+
+        if (onCloseDelegate != null) {
+            onCloseDelegate.run();
+        }
+    }
+
+    /**
+     * Gets the port the server listens on.
+     *
+     * @return The port, which is chosen by the system if the server was created with port 0.
+     * @throws IOException If the port can not be read.
+     */
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+    }
+
+    /**
+     * Gets the number of connected clients.
+     *
+     * @return The number of clients.
+     */
+    public int getClientCount() {
+        return clients.size();
+    }
+
+    /**
+     * Sets the delegate that will be called when a client connects.
+     *
+     * @param onClientConnectedDelegate The delegate, called on the event loop of the client.
+     */
+    public void setOnClientConnectedDelegate(Delegate<Client> onClientConnectedDelegate) {
+        this.onClientConnectedDelegate = onClientConnectedDelegate;
+    }
+
+    /**
+     * Sets the delegate that will be called when a client disconnects.
+     *
+     * @param onClientDisconnectedDelegate The delegate.
+     */
+    public void setOnClientDisconnectedDelegate(Delegate<Client> onClientDisconnectedDelegate) {
+        this.onClientDisconnectedDelegate = onClientDisconnectedDelegate;
+    }
+
+    /**
+     * Sets the delegate that will be called when the server closes.
+     *
+     * @param onCloseDelegate The delegate.
+     */
+    public void setOnCloseDelegate(Runnable onCloseDelegate) {
+        this.onCloseDelegate = onCloseDelegate;
+    }
+
+    /**
+     * Sets the delegate that will be called when a message is received.
+     *
+     * @param type The type of message to listen for.
+     * @param messageDelegate The delegate, called on the event loop of the client which sent the message.
+     */
+    public void setMessageDelegate(Type type, MessageDelegate messageDelegate) {
+        messageDelegates.put(type, messageDelegate);
+    }
+
+    /**
+     * Sets the delegate that will be called when a message is received, not including the client that sent it.
+     *
+     * @param type The type of message to listen for.
+     * @param messageDelegate The delegate, called on the event loop of the client which sent the message.
+     */
+    public void setMessageDelegate(Type type, Delegate<Message> messageDelegate) {
+        messageDelegates.put(type, (client, message) -> messageDelegate.trigger(message));
+    }
+
+    /**
+     * Sends a message to all clients. The message is encoded once and queued for every client.
+     *
+     * @param message The message to send.
+     */
+    public void broadcastMessage(Message message) {
+        broadcastMessage(clients, message);
+    }
+
+    /**
+     * Sends a message to some of the clients. The message is encoded once and queued for every client.
+     *
+     * @param recipients The clients to send to.
+     * @param message The message to send.
+     */
+    public void broadcastMessage(Iterable<? extends Client> recipients, Message message) {
+        final byte[] frame;
+
+        try {
+            frame = protocol.encode(message);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+
+        for (Client client : recipients) {
+            client.sendFrame(frame);
+        }
+    }
+
+    /**
+     * Close a client.
+     *
+     * @param client The client to close.
+     */
+    public void closeClient(Client client) {
+        client.stop();
+    }
+
+    //
+    // Connections
+    //
+
+    /**
+     * Accept every pending connection and hand them to the event loops in turn.
+     */
+    private void accept() {
+        while (true) {
+            final SocketChannel channel;
+
+            try {
+                channel = serverChannel.accept();
+
+                if (channel == null) {
+                    return;
+                }
+
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            } catch (IOException e) {
+                // Out of file descriptors or the connection was reset, try again on the next event
+                e.printStackTrace();
+                return;
+            }
+
+            final EventLoop eventLoop = eventLoops[Math.floorMod(accepted.getAndIncrement(), eventLoops.length)];
+            final NioClient client = new NioClient(channel, eventLoop);
+
+            eventLoop.execute(client::register);
+        }
+    }
+
+    /**
+     * A thread with a selector, driving the connections assigned to it.
+     */
+    private final class EventLoop implements Runnable {
+        /**
+         * The selector of the connections.
+         */
+        private final Selector selector;
+
+        /**
+         * The thread running the loop.
+         */
+        private final Thread thread;
+
+        /**
+         * Tasks to run on the loop, given by other threads.
+         */
+        private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+        /**
+         * The buffer every connection is read into first.
+         */
+        private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+
+        /**
+         * The buffers held by connections with a partial frame.
+         */
+        private final BufferPool pool = new BufferPool(POOL_BUFFER_SIZE, MAX_POOLED_BUFFERS);
+
+        /**
+         * The frames written in one call, reused between writes.
+         */
+        private final ByteBuffer[] gather = new ByteBuffer[MAX_GATHER];
+
+        /**
+         * Creates a new event loop.
+         *
+         * @param index The index of the loop, for the name of its thread.
+         * @throws IOException If the selector can not be opened.
+         */
+        private EventLoop(int index) throws IOException {
+            this.selector = Selector.open();
+            this.thread = new Thread(this, "nio-event-loop-" + index);
+        }
+
+        /**
+         * Run a task on the loop.
+         *
+         * @param task The task.
+         */
+        private void execute(Runnable task) {
+            tasks.add(task);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    selector.select();
+
+                    Runnable task;
+
+                    while ((task = tasks.poll()) != null) {
+                        task.run();
+                    }
+
+                    final Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+
+                    while (keys.hasNext()) {
+                        final SelectionKey key = keys.next();
+
+                        keys.remove();
+
+                        try {
+                            if (key.isAcceptable()) {
+                                accept();
+                            } else {
+                                final NioClient client = (NioClient) key.attachment();
+
+                                if (key.isReadable()) {
+                                    client.read();
+                                }
+
+                                if (key.isValid() && key.isWritable()) {
+                                    client.flush();
+                                }
+                            }
+                        } catch (CancelledKeyException e) {
+                            // The connection was closed by another thread
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            } finally {
+                try {
+                    selector.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * A connection driven by an event loop.
+     */
+    private final class NioClient extends Client {
+        /**
+         * The channel of the connection.
+         */
+        private final SocketChannel channel;
+
+        /**
+         * The event loop the connection is assigned to.
+         */
+        private final EventLoop eventLoop;
+
+        /**
+         * The key of the channel in the selector of the loop.
+         */
+        private SelectionKey key;
+
+        /**
+         * The partial frame read so far, or null if there is none.
+         */
+        private ByteBuffer inbound;
+
+        /**
+         * The frames waiting to be written.
+         */
+        private final ConcurrentLinkedQueue<ByteBuffer> outbound = new ConcurrentLinkedQueue<>();
+
+        /**
+         * Indicates if a flush has been queued on the loop.
+         */
+        private final AtomicBoolean flushQueued = new AtomicBoolean();
+
+        /**
+         * The number of bytes waiting to be written.
+         */
+        private final AtomicInteger queuedBytes = new AtomicInteger();
+
+        /**
+         * Creates a new connection.
+         *
+         * @param channel The channel.
+         * @param eventLoop The event loop the connection is assigned to.
+         */
+        private NioClient(SocketChannel channel, EventLoop eventLoop) {
+            super(protocol);
+
+            this.channel = channel;
+            this.eventLoop = eventLoop;
+        }
+
+        /**
+         * Register the connection with its loop, on the loop.
+         */
+        private void register() {
+            try {
+                if (!running) {
+                    channel.close();
+                    return;
+                }
+
+                key = channel.register(eventLoop.selector, SelectionKey.OP_READ, this);
+            } catch (IOException e) {
+                e.printStackTrace();
+                return;
+            }
+
+            setMessageDelegate((message) -> {
+                final MessageDelegate delegate = messageDelegates.get(message.getClass());
+
+                if (delegate != null) {
+                    delegate.onMessage(this, message);
+                }
+            });
+
+            setOnDisconnectDelegate((client) -> {
+                clients.remove(client);
+
+                if (onClientDisconnectedDelegate != null) {
+                    onClientDisconnectedDelegate.trigger(client);
+                }
+            });
+
+            setRunning();
+            clients.add(this);
+
+            if (onClientConnectedDelegate != null) {
+                onClientConnectedDelegate.trigger(this);
+            }
+        }
+
+        @Override
+        protected void sendFrame(byte[] frame) {
+            // A connection which does not read its frames would hold every broadcast in memory
+            if (queuedBytes.addAndGet(frame.length) > MAX_QUEUED_BYTES) {
+                stop();
+                return;
+            }
+
+            // Every client gets its own view of the frame, which may be shared with others
+            outbound.add(ByteBuffer.wrap(frame));
+
+            if (flushQueued.compareAndSet(false, true)) {
+                eventLoop.execute(this::flush);
+            }
+        }
+
+        /**
+         * Read what has arrived and deliver every complete message, on the loop.
+         */
+        private void read() {
+            try {
+                final ByteBuffer buffer = inbound != null ? inbound : eventLoop.readBuffer;
+
+                if (channel.read(buffer) < 0) {
+                    stop();
+                    return;
+                }
+
+                buffer.flip();
+
+                Message message;
+
+                while (isRunning() && (message = getProtocol().read(buffer)) != null) {
+                    receive(message);
+                }
+
+                keepPartialFrame(buffer);
+            } catch (IOException | RuntimeException e) {
+                // Disconnected, sent a malformed frame, or a delegate failed
+                if (!(e instanceof IOException)) {
+                    e.printStackTrace();
+                }
+
+                stop();
+            }
+        }
+
+        /**
+         * Keep the bytes of a partial frame left in a buffer until the rest arrives.
+         *
+         * @param buffer The buffer, flipped.
+         * @throws IOException If the length of the frame is malformed.
+         */
+        private void keepPartialFrame(ByteBuffer buffer) throws IOException {
+            if (!buffer.hasRemaining() || !isRunning()) {
+                releaseInbound();
+                eventLoop.readBuffer.clear();
+                return;
+            }
+
+            final int frameLength = getProtocol().getFrameLength(buffer);
+
+            if (buffer == inbound && frameLength <= buffer.capacity()) {
+                buffer.compact();
+                return;
+            }
+
+            // Frames larger than the pooled buffers get a buffer of their own
+            final ByteBuffer partial = frameLength > eventLoop.pool.getBufferSize()
+                ? ByteBuffer.allocate(frameLength)
+                : eventLoop.pool.take();
+
+            partial.put(buffer);
+
+            releaseInbound();
+            eventLoop.readBuffer.clear();
+            inbound = partial;
+        }
+
+        /**
+         * Give the buffer of the partial frame back to the pool.
+         */
+        private void releaseInbound() {
+            if (inbound != null) {
+                eventLoop.pool.release(inbound);
+                inbound = null;
+            }
+        }
+
+        /**
+         * Write the queued frames until they are written or the socket is full, on the loop.
+         */
+        private void flush() {
+            flushQueued.set(false);
+
+            if (key == null || !key.isValid()) {
+                return;
+            }
+
+            try {
+                while (true) {
+                    int count = 0;
+
+                    for (ByteBuffer frame : outbound) {
+                        eventLoop.gather[count++] = frame;
+
+                        if (count == MAX_GATHER) {
+                            break;
+                        }
+                    }
+
+                    if (count == 0) {
+                        break;
+                    }
+
+                    channel.write(eventLoop.gather, 0, count);
+
+                    final boolean full = eventLoop.gather[count - 1].hasRemaining();
+
+                    while (!outbound.isEmpty() && !outbound.peek().hasRemaining()) {
+                        queuedBytes.addAndGet(-outbound.poll().capacity());
+                    }
+
+                    Arrays.fill(eventLoop.gather, 0, count, null);
+
+                    if (full) {
+                        // The socket is full, continue when it can be written
+                        key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                        return;
+                    }
+                }
+
+                key.interestOps(SelectionKey.OP_READ);
+            } catch (IOException | CancelledKeyException e) {
+                stop();
+            }
+        }
+
+        @Override
+        protected void closeConnection() throws IOException {
+            channel.close();
+
+            // The buffers belong to the loop, give them back on it
+            eventLoop.execute(() -> {
+                releaseInbound();
+                outbound.clear();
+            });
+        }
+    }
+}
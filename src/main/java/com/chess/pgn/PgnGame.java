@@ -0,0 +1,194 @@
+package com.chess.pgn;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.chess.model.chess.ChessModel;
+import com.chess.model.chess.ChessMoveGenerator;
+import com.chess.model.chess.ChessPerft;
+import com.chess.model.chess.ChessPosition;
+import com.chess.model.chess.ChessTeamIdentifier;
+
+/**
+ * A game read from Portable Game Notation, its tags and its moves in standard algebraic notation.
+ * @author agent
+ * @version 2026-10-17
+ */
+public final class PgnGame {
+    /**
+     * The result of a game which is still going or unknown.
+     */
+    public static final String UNKNOWN_RESULT = "*";
+
+    /**
+     * The format of the Date tag.
+     */
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy.MM.dd");
+
+    /**
+     * The tags, in the order they were read.
+     */
+    private final Map<String, String> tags;
+
+    /**
+     * The moves of the main line.
+     */
+    private final List<String> moves;
+
+    /**
+     * The result at the end of the movetext.
+     */
+    private final String result;
+
+    /**
+     * Why the game could not be read as written, or null if it could.
+     */
+    private final String error;
+
+    /**
+     * Creates a new game.
+     *
+     * @param tags the tags
+     * @param moves the moves of the main line in standard algebraic notation
+     * @param result the result, such as 1-0
+     */
+    public PgnGame(Map<String, String> tags, List<String> moves, String result) {
+        this(tags, moves, result, null);
+    }
+
+    /**
+     * Creates a new game which may have been malformed.
+     *
+     * @param tags the tags which could be read
+     * @param moves the moves of the main line in standard algebraic notation
+     * @param result the result, such as 1-0
+     * @param error why the game could not be read as written, or null if it could
+     */
+    public PgnGame(Map<String, String> tags, List<String> moves, String result, String error) {
+        this.tags = Collections.unmodifiableMap(new LinkedHashMap<>(tags));
+        this.moves = Collections.unmodifiableList(new ArrayList<>(moves));
+        this.result = result;
+        this.error = error;
+    }
+
+    /**
+     * Create a game from the move history of a model.
+     *
+     * @param model the model
+     * @return the game, with the names of the teams and the result if the game is over
+     * @throws IllegalStateException if no position has been loaded in the model
+     */
+    public static PgnGame of(ChessModel model) throws IllegalStateException {
+        final String startFEN = model.getStartFEN();
+
+        if (startFEN == null) {
+            throw new IllegalStateException("No game has been loaded");
+        }
+
+        // Moves
+        final int[] history = model.getMoveHistory();
+        final int[] buffer = new int[ChessMoveGenerator.MAX_MOVES];
+        final List<String> moves = new ArrayList<>(history.length);
+
+        ChessPosition position = ChessPosition.fromFEN(startFEN);
+
+        for (int move : history) {
+            moves.add(SanNotation.toSan(position, move, buffer));
+            position = position.makeMove(move);
+        }
+
+        // Result
+        final String result;
+
+        switch (model.isGameOver(model.getTeamManager().getCurrentTeamIdentifier())) {
+            case 2:
+                result = model.getTeamManager().getCurrentTeamIdentifier() == ChessTeamIdentifier.WHITE ? "0-1" : "1-0";
+                break;
+            case 1:
+            case 3:
+            case 4:
+                result = "1/2-1/2";
+                break;
+            default:
+                result = UNKNOWN_RESULT;
+        }
+
+        // Tags, the seven tag roster first
+        final Map<String, String> tags = new LinkedHashMap<>();
+
+        tags.put("Event", "Casual game");
+        tags.put("Site", "?");
+        tags.put("Date", LocalDate.now().format(DATE_FORMAT));
+        tags.put("Round", "-");
+        tags.put("White", model.getTeamWhite().getName());
+        tags.put("Black", model.getTeamBlack().getName());
+        tags.put("Result", result);
+
+        if (!startFEN.equals(ChessPerft.START_POSITION)) {
+            tags.put("SetUp", "1");
+            tags.put("FEN", startFEN);
+        }
+
+        return new PgnGame(tags, moves, result);
+    }
+
+    /**
+     * Get the tags.
+     *
+     * @return the tags, in the order they were read
+     */
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    /**
+     * Get a tag.
+     *
+     * @param name the name of the tag
+     * @return the value, or null if the game has no such tag
+     */
+    public String getTag(String name) {
+        return tags.get(name);
+    }
+
+    /**
+     * Get the moves of the main line.
+     *
+     * @return the moves in standard algebraic notation
+     */
+    public List<String> getMoves() {
+        return moves;
+    }
+
+    /**
+     * Get the result.
+     *
+     * @return the result, such as 1-0, or {@link #UNKNOWN_RESULT}
+     */
+    public String getResult() {
+        return result;
+    }
+
+    /**
+     * Get the position the game starts from.
+     *
+     * @return the FEN tag, or null if the game starts from the start position
+     */
+    public String getStartFEN() {
+        return tags.get("FEN");
+    }
+
+    /**
+     * Get why the game could not be read as written.
+     *
+     * @return the reason, such as a malformed tag, or null if the game was read as written
+     */
+    public String getError() {
+        return error;
+    }
+}
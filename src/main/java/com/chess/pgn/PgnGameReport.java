@@ -0,0 +1,129 @@
+package com.chess.pgn;
+
+/**
+ * The outcome of replaying a game read from Portable Game Notation.
+ * @author agent
+ * @version 2026-10-17
+ */
+public final class PgnGameReport {
+    /**
+     * The index of the game in its file, starting at 1.
+     */
+    private final long gameIndex;
+
+    /**
+     * The game.
+     */
+    private final PgnGame game;
+
+    /**
+     * The number of moves which were played.
+     */
+    private final int plies;
+
+    /**
+     * The first move which could not be played, or null if every move was played.
+     */
+    private final String illegalMove;
+
+    /**
+     * Why the game could not be replayed, or null if it was.
+     */
+    private final String error;
+
+    /**
+     * The position after the last move which was played, or null if the game or its start position could not be read.
+     */
+    private final String finalFEN;
+
+    /**
+     * Creates a new report.
+     *
+     * @param gameIndex the index of the game in its file, starting at 1
+     * @param game the game
+     * @param plies the number of moves which were played
+     * @param illegalMove the first move which could not be played, or null
+     * @param error why the game could not be replayed, or null
+     * @param finalFEN the position after the last move which was played, or null
+     */
+    public PgnGameReport(long gameIndex, PgnGame game, int plies, String illegalMove, String error, String finalFEN) {
+        this.gameIndex = gameIndex;
+        this.game = game;
+        this.plies = plies;
+        this.illegalMove = illegalMove;
+        this.error = error;
+        this.finalFEN = finalFEN;
+    }
+
+    /**
+     * Get the index of the game in its file.
+     *
+     * @return the index, starting at 1
+     */
+    public long getGameIndex() {
+        return gameIndex;
+    }
+
+    /**
+     * Get the game.
+     *
+     * @return the game
+     */
+    public PgnGame getGame() {
+        return game;
+    }
+
+    /**
+     * Get the number of moves which were played.
+     *
+     * @return the number of half moves, the index of the illegal move if there is one
+     */
+    public int getPlies() {
+        return plies;
+    }
+
+    /**
+     * Check if every move of the game was legal.
+     *
+     * @return true if the game was replayed to its end
+     */
+    public boolean isValid() {
+        return error == null;
+    }
+
+    /**
+     * Get the first move which could not be played.
+     *
+     * @return the move as written, or null if there was none
+     */
+    public String getIllegalMove() {
+        return illegalMove;
+    }
+
+    /**
+     * Get why the game could not be replayed.
+     *
+     * @return the reason, or null if the game is valid
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Get the position after the last move which was played.
+     *
+     * @return the FEN, or null if the game or its start position could not be read
+     */
+    public String getFinalFEN() {
+        return finalFEN;
+    }
+
+    @Override
+    public String toString() {
+        if (isValid()) {
+            return "Game " + gameIndex + ": " + plies + " plies, " + finalFEN;
+        }
+
+        return "Game " + gameIndex + ": " + error + ", " + finalFEN;
+    }
+}
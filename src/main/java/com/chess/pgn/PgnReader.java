@@ -0,0 +1,382 @@
+package com.chess.pgn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads games from Portable Game Notation one at a time.
+ *
+ * The input is read through a fixed buffer and only the game being read is kept, so files
+ * of any size can be read. Comments, variations, numeric annotation glyphs and move
+ * numbers are skipped, only the tags and the moves of the main line are kept. A malformed
+ * tag is skipped to the end of its line and the rest of its game is read, so the game is
+ * returned with its error and the next game is read as usual.
+ * @author agent
+ * @version 2026-10-17
+ * @see <a href="http://www.saremba.de/chessgml/standards/pgn/pgn-complete.htm">PGN Standard</a>
+ */
+public class PgnReader implements Closeable {
+    /**
+     * The size of the read buffer in characters.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The tokens ending the movetext of a game.
+     */
+    private static final String[] RESULTS = { "1-0", "0-1", "1/2-1/2", PgnGame.UNKNOWN_RESULT };
+
+    /**
+     * The input.
+     */
+    private final Reader in;
+
+    /**
+     * The read buffer.
+     */
+    private final char[] buffer = new char[BUFFER_SIZE];
+
+    /**
+     * The number of characters in the buffer.
+     */
+    private int length;
+
+    /**
+     * The position of the next character in the buffer.
+     */
+    private int position;
+
+    /**
+     * The token being read, reused between tokens.
+     */
+    private final StringBuilder token = new StringBuilder();
+
+    /**
+     * The number of games read.
+     */
+    private long games;
+
+    /**
+     * Why the game being read is malformed, or null.
+     */
+    private String error;
+
+    /**
+     * Creates a new reader.
+     *
+     * @param in the input, closed with the reader
+     */
+    public PgnReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Read the next game.
+     *
+     * @return the game, which has an error if it is malformed, or null at the end of the input
+     * @throws IOException if the input can not be read
+     */
+    public PgnGame next() throws IOException {
+        final Map<String, String> tags = new LinkedHashMap<>();
+        final List<String> moves = new ArrayList<>();
+
+        error = null;
+
+        // Tag pairs
+        int c;
+
+        while ((c = skipWhitespace()) == '[') {
+            read();
+            readTag(tags);
+        }
+
+        if (c == -1 && tags.isEmpty() && error == null) {
+            return null;
+        }
+
+        // Movetext, until a result or the tags of the next game
+        String result = PgnGame.UNKNOWN_RESULT;
+
+        while ((c = skipWhitespace()) != -1 && c != '[') {
+            read();
+
+            if (c == '{') {
+                skipUntil('}');
+            } else if (c == ';' || c == '%') {
+                skipUntil('\n');
+            } else if (c == '(') {
+                skipVariation();
+            } else if (c == '$') {
+                readToken(c);
+            } else {
+                final String text = readToken(c);
+
+                if (isResult(text)) {
+                    result = text;
+                    break;
+                }
+
+                final String move = stripMoveNumber(text);
+
+                if (!move.isEmpty()) {
+                    moves.add(move);
+                }
+            }
+        }
+
+        games++;
+
+        return new PgnGame(tags, moves, result, error);
+    }
+
+    /**
+     * Get the number of games read.
+     *
+     * @return the number of games
+     */
+    public long getGames() {
+        return games;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    //
+    // Helpers
+    //
+
+    /**
+     * Read a tag pair after its opening bracket, skipping the rest of its line if it is malformed.
+     *
+     * @param tags the tags the pair is added to
+     * @throws IOException if the input can not be read
+     */
+    private void readTag(Map<String, String> tags) throws IOException {
+        final String name = readToken(skipWhitespaceAndRead());
+
+        int c = skipWhitespaceAndRead();
+
+        if (c != '"') {
+            skipMalformedTag("Invalid PGN tag " + name, c);
+            return;
+        }
+
+        token.setLength(0);
+
+        while ((c = read()) != '"') {
+            if (c == -1 || c == '\n') {
+                skipMalformedTag("Unterminated PGN tag " + name, c);
+                return;
+            }
+
+            if (c == '\\') {
+                c = read();
+            }
+
+            token.append((char) c);
+        }
+
+        final String value = token.toString();
+
+        c = skipWhitespaceAndRead();
+
+        if (c != ']') {
+            skipMalformedTag("Invalid PGN tag " + name, c);
+            return;
+        }
+
+        tags.put(name, value);
+    }
+
+    /**
+     * Keep the first error of the game and skip the rest of the line of a malformed tag.
+     *
+     * @param message the error
+     * @param last the last character read
+     * @throws IOException if the input can not be read
+     */
+    private void skipMalformedTag(String message, int last) throws IOException {
+        if (error == null) {
+            error = message + " in game " + (games + 1);
+        }
+
+        if (last != '\n' && last != -1) {
+            skipUntil('\n');
+        }
+    }
+
+    /**
+     * Read the rest of a token, up to whitespace or a delimiter.
+     *
+     * @param first the first character of the token, already read
+     * @return the token
+     * @throws IOException if the input can not be read
+     */
+    private String readToken(int first) throws IOException {
+        token.setLength(0);
+        token.append((char) first);
+
+        int c;
+
+        while ((c = peek()) != -1 && !Character.isWhitespace(c) && "{}()[];\"".indexOf(c) < 0) {
+            token.append((char) read());
+        }
+
+        return token.toString();
+    }
+
+    /**
+     * Skip a variation after its opening parenthesis, including nested variations and comments.
+     *
+     * @throws IOException if the input can not be read
+     */
+    private void skipVariation() throws IOException {
+        int depth = 1;
+
+        while (depth > 0) {
+            final int c = read();
+
+            if (c == -1) {
+                return;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '{') {
+                skipUntil('}');
+            }
+        }
+    }
+
+    /**
+     * Skip characters up to and including a character.
+     *
+     * @param end the character
+     * @throws IOException if the input can not be read
+     */
+    private void skipUntil(char end) throws IOException {
+        int c;
+
+        while ((c = read()) != -1 && c != end) {
+            // Skipped
+        }
+    }
+
+    /**
+     * Skip whitespace and return the next character without reading it.
+     *
+     * @return the next character, or -1 at the end of the input
+     * @throws IOException if the input can not be read
+     */
+    private int skipWhitespace() throws IOException {
+        int c;
+
+        while ((c = peek()) != -1 && Character.isWhitespace(c)) {
+            read();
+        }
+
+        return c;
+    }
+
+    /**
+     * Skip whitespace and read the next character.
+     *
+     * @return the next character, or -1 at the end of the input
+     * @throws IOException if the input can not be read
+     */
+    private int skipWhitespaceAndRead() throws IOException {
+        skipWhitespace();
+
+        return read();
+    }
+
+    /**
+     * Get the next character without reading it.
+     *
+     * @return the next character, or -1 at the end of the input
+     * @throws IOException if the input can not be read
+     */
+    private int peek() throws IOException {
+        if (position == length && !fill()) {
+            return -1;
+        }
+
+        return buffer[position];
+    }
+
+    /**
+     * Read the next character.
+     *
+     * @return the next character, or -1 at the end of the input
+     * @throws IOException if the input can not be read
+     */
+    private int read() throws IOException {
+        if (position == length && !fill()) {
+            return -1;
+        }
+
+        return buffer[position++];
+    }
+
+    /**
+     * Refill the buffer.
+     *
+     * @return false at the end of the input
+     * @throws IOException if the input can not be read
+     */
+    private boolean fill() throws IOException {
+        final int read = in.read(buffer, 0, buffer.length);
+
+        position = 0;
+        length = Math.max(read, 0);
+
+        return read > 0;
+    }
+
+    /**
+     * Check if a token is a game result.
+     *
+     * @param text the token
+     * @return true if the token ends the game
+     */
+    private static boolean isResult(String text) {
+        for (String result : RESULTS) {
+            if (result.equals(text)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Remove a leading move number, such as 12. or 12..., from a token.
+     *
+     * @param text the token
+     * @return the move, empty if the token was only a move number
+     */
+    private static String stripMoveNumber(String text) {
+        int i = 0;
+
+        while (i < text.length() && Character.isDigit(text.charAt(i))) {
+            i++;
+        }
+
+        if (i == 0 || i == text.length() || text.charAt(i) != '.') {
+            return i == text.length() ? "" : text;
+        }
+
+        while (i < text.length() && text.charAt(i) == '.') {
+            i++;
+        }
+
+        return text.substring(i);
+    }
+}
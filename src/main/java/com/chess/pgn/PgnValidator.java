@@ -0,0 +1,420 @@
+package com.chess.pgn;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import com.chess.model.chess.ChessMoveGenerator;
+import com.chess.model.chess.ChessPosition;
+import com.chess.model.chess.ChessTeamIdentifier;
+import com.chess.utils.Delegate;
+
+/**
+ * Replays the games of Portable Game Notation files in parallel and reports the illegal moves
+ * and the final position of every game.
+ *
+ * Games are read in batches. While one batch is replayed on a fork-join pool the next is read,
+ * so at most two batches are held at a time and files of any size are validated at the speed
+ * of the slower of reading and replaying. Reports are delivered in the order of the file, on
+ * the thread calling {@link #validate(Reader, Delegate)}.
+ * @author agent
+ * @version 2026-10-17
+ */
+public class PgnValidator {
+    /**
+     * The default number of games in a batch.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+
+    /**
+     * The largest number of games one fork-join task replays without splitting.
+     */
+    private static final int THRESHOLD = 16;
+
+    /**
+     * The pool the games are replayed on.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * The number of games in a batch.
+     */
+    private final int batchSize;
+
+    /**
+     * Creates a new validator using every processor.
+     */
+    public PgnValidator() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Creates a new validator.
+     *
+     * @param parallelism the number of threads replaying games
+     * @param batchSize the number of games in a batch
+     * @throws IllegalArgumentException if the parallelism or the batch size is less than 1
+     */
+    public PgnValidator(int parallelism, int batchSize) throws IllegalArgumentException {
+        if (parallelism < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Parallelism and batch size must be positive");
+        }
+
+        this.pool = new ForkJoinPool(parallelism);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Result of validating a file.
+     */
+    public static final class Summary {
+        /**
+         * The number of games read.
+         */
+        private final long games;
+
+        /**
+         * The number of games with an illegal move.
+         */
+        private final long invalidGames;
+
+        /**
+         * The time the validation took, in nanoseconds.
+         */
+        private final long elapsedNanos;
+
+        /**
+         * Creates a new summary.
+         *
+         * @param games the number of games read
+         * @param invalidGames the number of games with an illegal move
+         * @param elapsedNanos the time the validation took, in nanoseconds
+         */
+        private Summary(long games, long invalidGames, long elapsedNanos) {
+            this.games = games;
+            this.invalidGames = invalidGames;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Get the number of games read.
+         *
+         * @return the number of games
+         */
+        public long getGames() {
+            return games;
+        }
+
+        /**
+         * Get the number of games with an illegal move.
+         *
+         * @return the number of games
+         */
+        public long getInvalidGames() {
+            return invalidGames;
+        }
+
+        /**
+         * Get the time the validation took.
+         *
+         * @return the time in milliseconds
+         */
+        public long getElapsedMillis() {
+            return elapsedNanos / 1_000_000;
+        }
+
+        /**
+         * Get the number of games validated per second.
+         *
+         * @return the games per second
+         */
+        public double getGamesPerSecond() {
+            return elapsedNanos == 0 ? 0 : games * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d games, %d invalid, %d ms, %.0f games/s", games, invalidGames, getElapsedMillis(), getGamesPerSecond());
+        }
+    }
+
+    /**
+     * Validate every game of a file.
+     *
+     * @param path the file
+     * @param delegate called with the report of every game, in the order of the file
+     * @return the summary
+     * @throws IOException if the file can not be read
+     */
+    public Summary validate(Path path, Delegate<PgnGameReport> delegate) throws IOException {
+        try (Reader in = new InputStreamReader(Files.newInputStream(path), StandardCharsets.ISO_8859_1)) {
+            return validate(in, delegate);
+        }
+    }
+
+    /**
+     * Validate every game of an input.
+     *
+     * @param in the input
+     * @param delegate called with the report of every game, in the order of the input
+     * @return the summary
+     * @throws IOException if the input can not be read
+     */
+    public Summary validate(Reader in, Delegate<PgnGameReport> delegate) throws IOException {
+        final long start = System.nanoTime();
+        final PgnReader reader = new PgnReader(in);
+
+        long games = 0;
+        long invalidGames = 0;
+
+        Batch running = null;
+
+        while (true) {
+            final Batch next = readBatch(reader, games);
+
+            games += next.games.length;
+
+            if (running != null) {
+                invalidGames += deliver(running, delegate);
+            }
+
+            if (next.games.length == 0) {
+                break;
+            }
+
+            running = next;
+            running.task = pool.submit(new ReplayTask(running, 0, running.games.length));
+        }
+
+        return new Summary(games, invalidGames, System.nanoTime() - start);
+    }
+
+    /**
+     * Stop the threads of the validator.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    //
+    // Replaying
+    //
+
+    /**
+     * Replay a game.
+     *
+     * @param gameIndex the index of the game in its file
+     * @param game the game
+     * @param buffer the buffer legal moves are generated into
+     * @return the report
+     */
+    public static PgnGameReport replay(long gameIndex, PgnGame game, int[] buffer) {
+        if (game.getError() != null) {
+            return new PgnGameReport(gameIndex, game, 0, null, game.getError(), null);
+        }
+
+        ChessPosition position;
+
+        try {
+            position = game.getStartFEN() == null ? ChessPosition.START : ChessPosition.fromFEN(game.getStartFEN());
+        } catch (IllegalArgumentException e) {
+            return new PgnGameReport(gameIndex, game, 0, null, "Invalid FEN " + game.getStartFEN(), null);
+        }
+
+        final List<String> moves = game.getMoves();
+
+        for (int ply = 0; ply < moves.size(); ply++) {
+            final int move = SanNotation.parse(position, moves.get(ply), buffer);
+
+            if (move == SanNotation.NO_MOVE) {
+                final String error = "Illegal move " + position.getFullMoves()
+                    + (position.getTeamIdentifier() == ChessTeamIdentifier.WHITE ? ". " : "... ") + moves.get(ply);
+
+                return new PgnGameReport(gameIndex, game, ply, moves.get(ply), error, position.toFEN());
+            }
+
+            position = position.makeMove(move);
+        }
+
+        return new PgnGameReport(gameIndex, game, moves.size(), null, null, position.toFEN());
+    }
+
+    /**
+     * Games being replayed together.
+     */
+    private static final class Batch {
+        /**
+         * The index of the first game in its file.
+         */
+        private final long firstIndex;
+
+        /**
+         * The games.
+         */
+        private final PgnGame[] games;
+
+        /**
+         * The reports, indexed as the games.
+         */
+        private final PgnGameReport[] reports;
+
+        /**
+         * The task replaying the games.
+         */
+        private ForkJoinTask<?> task;
+
+        /**
+         * Creates a new batch.
+         *
+         * @param firstIndex the index of the first game in its file
+         * @param games the games
+         */
+        private Batch(long firstIndex, PgnGame[] games) {
+            this.firstIndex = firstIndex;
+            this.games = games;
+            this.reports = new PgnGameReport[games.length];
+        }
+    }
+
+    /**
+     * Replays a range of the games of a batch, splitting it while it is large.
+     */
+    private static final class ReplayTask extends RecursiveAction {
+        /**
+         * Serial version UID.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The batch.
+         */
+        private final Batch batch;
+
+        /**
+         * The first game of the range.
+         */
+        private final int from;
+
+        /**
+         * The end of the range, exclusive.
+         */
+        private final int to;
+
+        /**
+         * Creates a new task.
+         *
+         * @param batch the batch
+         * @param from the first game of the range
+         * @param to the end of the range, exclusive
+         */
+        private ReplayTask(Batch batch, int from, int to) {
+            this.batch = batch;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > THRESHOLD) {
+                final int middle = (from + to) >>> 1;
+
+                invokeAll(new ReplayTask(batch, from, middle), new ReplayTask(batch, middle, to));
+
+                return;
+            }
+
+            final int[] buffer = new int[ChessMoveGenerator.MAX_MOVES];
+
+            for (int i = from; i < to; i++) {
+                batch.reports[i] = replay(batch.firstIndex + i + 1, batch.games[i], buffer);
+            }
+        }
+    }
+
+    //
+    // Helpers
+    //
+
+    /**
+     * Read the next batch of games.
+     *
+     * @param reader the reader
+     * @param gamesRead the number of games read before the batch
+     * @return the batch, empty at the end of the input
+     * @throws IOException if the input can not be read
+     */
+    private Batch readBatch(PgnReader reader, long gamesRead) throws IOException {
+        final PgnGame[] games = new PgnGame[batchSize];
+
+        int count = 0;
+        PgnGame game;
+
+        while (count < batchSize && (game = reader.next()) != null) {
+            games[count++] = game;
+        }
+
+        return new Batch(gamesRead, count == batchSize ? games : Arrays.copyOf(games, count));
+    }
+
+    /**
+     * Wait for a batch to be replayed and deliver its reports.
+     *
+     * @param batch the batch
+     * @param delegate called with every report
+     * @return the number of invalid games in the batch
+     */
+    private static long deliver(Batch batch, Delegate<PgnGameReport> delegate) {
+        batch.task.join();
+
+        long invalidGames = 0;
+
+        for (PgnGameReport report : batch.reports) {
+            if (!report.isValid()) {
+                invalidGames++;
+            }
+
+            if (delegate != null) {
+                delegate.trigger(report);
+            }
+        }
+
+        return invalidGames;
+    }
+
+    /**
+     * Validate a file from the command line, printing the invalid games and the summary.
+     *
+     * @param args the path of the file, and optionally the number of threads
+     * @throws IOException if the file can not be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: PgnValidator <file.pgn> [threads]");
+            return;
+        }
+
+        final int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        final PgnValidator validator = new PgnValidator(threads, DEFAULT_BATCH_SIZE);
+
+        try {
+            final Summary summary = validator.validate(Paths.get(args[0]), (report) -> {
+                if (!report.isValid()) {
+                    System.out.println(report);
+                }
+            });
+
+            System.out.println(summary);
+        } finally {
+            validator.shutdown();
+        }
+    }
+}
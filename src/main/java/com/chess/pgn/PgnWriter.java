@@ -0,0 +1,200 @@
+package com.chess.pgn;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+
+import com.chess.model.chess.ChessModel;
+import com.chess.model.chess.ChessPosition;
+import com.chess.model.chess.ChessTeamIdentifier;
+
+/**
+ * Writes games in Portable Game Notation, one at a time.
+ *
+ * Games are written in export format: the seven tag roster first, then the other tags, and
+ * movetext wrapped at 80 columns. Each game is written straight to the output, so any number
+ * of games can be written without holding them.
+ * @author agent
+ * @version 2026-10-17
+ * @see <a href="http://www.saremba.de/chessgml/standards/pgn/pgn-complete.htm">PGN Standard</a>
+ */
+public class PgnWriter implements Closeable, Flushable {
+    /**
+     * The longest line of movetext.
+     */
+    private static final int LINE_LENGTH = 80;
+
+    /**
+     * The seven tag roster and the values of its tags when they are missing.
+     */
+    private static final String[][] SEVEN_TAG_ROSTER = {
+        { "Event", "?" },
+        { "Site", "?" },
+        { "Date", "????.??.??" },
+        { "Round", "?" },
+        { "White", "?" },
+        { "Black", "?" },
+        { "Result", PgnGame.UNKNOWN_RESULT }
+    };
+
+    /**
+     * The output.
+     */
+    private final Writer out;
+
+    /**
+     * The line of movetext being written, reused between games.
+     */
+    private final StringBuilder line = new StringBuilder(LINE_LENGTH + 16);
+
+    /**
+     * Creates a new writer.
+     *
+     * @param out the output, closed with the writer
+     */
+    public PgnWriter(Writer out) {
+        this.out = out;
+    }
+
+    /**
+     * Write the game played in a model.
+     *
+     * @param model the model
+     * @throws IOException if the output can not be written
+     * @throws IllegalStateException if no position has been loaded in the model
+     * @see PgnGame#of(ChessModel)
+     */
+    public void write(ChessModel model) throws IOException, IllegalStateException {
+        write(PgnGame.of(model));
+    }
+
+    /**
+     * Write a game.
+     *
+     * @param game the game, with its moves in standard algebraic notation
+     * @throws IOException if the output can not be written
+     * @throws IllegalArgumentException if the FEN tag of the game is invalid
+     */
+    public void write(PgnGame game) throws IOException, IllegalArgumentException {
+        final Map<String, String> tags = game.getTags();
+
+        // Tags
+        for (String[] tag : SEVEN_TAG_ROSTER) {
+            final String value = tag[0].equals("Result") ? game.getResult() : tags.getOrDefault(tag[0], tag[1]);
+
+            writeTag(tag[0], value);
+        }
+
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            if (!isInSevenTagRoster(tag.getKey())) {
+                writeTag(tag.getKey(), tag.getValue());
+            }
+        }
+
+        out.write('\n');
+
+        // Movetext, numbered from the start position
+        int fullMoves = 1;
+        boolean white = true;
+
+        if (game.getStartFEN() != null) {
+            final ChessPosition start = ChessPosition.fromFEN(game.getStartFEN());
+
+            fullMoves = start.getFullMoves();
+            white = start.getTeamIdentifier() == ChessTeamIdentifier.WHITE;
+        }
+
+        final List<String> moves = game.getMoves();
+
+        line.setLength(0);
+
+        for (int i = 0; i < moves.size(); i++) {
+            if (white) {
+                writeToken(fullMoves + ".");
+            } else if (i == 0) {
+                writeToken(fullMoves + "...");
+            }
+
+            writeToken(moves.get(i));
+
+            if (!white) {
+                fullMoves++;
+            }
+
+            white = !white;
+        }
+
+        writeToken(game.getResult());
+
+        out.write(line.toString());
+        out.write("\n\n");
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    //
+    // Helpers
+    //
+
+    /**
+     * Write a tag pair, escaping quotes and backslashes in its value.
+     *
+     * @param name the name
+     * @param value the value
+     * @throws IOException if the output can not be written
+     */
+    private void writeTag(String name, String value) throws IOException {
+        out.write('[');
+        out.write(name);
+        out.write(" \"");
+        out.write(value.replace("\\", "\\\\").replace("\"", "\\\""));
+        out.write("\"]\n");
+    }
+
+    /**
+     * Add a token to the line of movetext, writing the line first if the token does not fit.
+     *
+     * @param token the token
+     * @throws IOException if the output can not be written
+     */
+    private void writeToken(String token) throws IOException {
+        if (line.length() > 0 && line.length() + 1 + token.length() > LINE_LENGTH) {
+            out.write(line.toString());
+            out.write('\n');
+            line.setLength(0);
+        }
+
+        if (line.length() > 0) {
+            line.append(' ');
+        }
+
+        line.append(token);
+    }
+
+    /**
+     * Check if a tag is part of the seven tag roster.
+     *
+     * @param name the name of the tag
+     * @return true if the tag is written first
+     */
+    private static boolean isInSevenTagRoster(String name) {
+        for (String[] tag : SEVEN_TAG_ROSTER) {
+            if (tag[0].equals(name)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
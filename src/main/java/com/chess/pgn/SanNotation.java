@@ -0,0 +1,328 @@
+package com.chess.pgn;
+
+import com.chess.model.chess.BitboardBoardInformation;
+import com.chess.model.chess.ChessMoveEncoding;
+import com.chess.model.chess.ChessMoveGenerator;
+import com.chess.model.chess.ChessPosition;
+import com.chess.model.chess.ChessTypeIdentifier;
+
+/**
+ * Converts between packed moves and standard algebraic notation, such as Nbd7 or exd8=Q+.
+ *
+ * A move is read by matching it against the legal moves of a position, so a move which
+ * reads but is not legal, or which fits more than one legal move, is rejected.
+ * @author agent
+ * @version 2026-10-17
+ */
+public final class SanNotation {
+    /**
+     * The letters of the piece types, indexed by type index. Pawns have no letter.
+     */
+    private static final String PIECE_LETTERS = " RNBQK";
+
+    /**
+     * The letters of the promotion types, indexed by the two lowest promotion flag bits.
+     */
+    private static final String PROMOTION_LETTERS = "NBRQ";
+
+    /**
+     * The type index of pawns.
+     */
+    private static final int PAWN = BitboardBoardInformation.typeIndex(ChessTypeIdentifier.PAWN);
+
+    /**
+     * The value of a move which could not be read.
+     */
+    public static final int NO_MOVE = 0;
+
+    private SanNotation() {
+    }
+
+    /**
+     * Read a move in standard algebraic notation.
+     *
+     * Check and annotation suffixes are ignored, and castling may be written with zeros.
+     *
+     * @param position the position the move is played in
+     * @param san the move
+     * @return the packed move, or {@link #NO_MOVE} if the move is malformed, illegal or ambiguous
+     */
+    public static int parse(ChessPosition position, String san) {
+        return parse(position, san, new int[ChessMoveGenerator.MAX_MOVES]);
+    }
+
+    /**
+     * Read a move in standard algebraic notation.
+     *
+     * Check and annotation suffixes are ignored, and castling may be written with zeros.
+     *
+     * @param position the position the move is played in
+     * @param san the move
+     * @param buffer the buffer the legal moves are generated into, at least {@link ChessMoveGenerator#MAX_MOVES} long
+     * @return the packed move, or {@link #NO_MOVE} if the move is malformed, illegal or ambiguous
+     */
+    public static int parse(ChessPosition position, String san, int[] buffer) {
+        int end = san.length();
+
+        while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) {
+            end--;
+        }
+
+        final String text = san.substring(0, end);
+        final int count = position.generateLegalMoves(buffer);
+
+        // Castling
+        if (text.equals("O-O") || text.equals("0-0")) {
+            return find(buffer, count, ChessMoveEncoding.KING_CASTLE);
+        }
+
+        if (text.equals("O-O-O") || text.equals("0-0-0")) {
+            return find(buffer, count, ChessMoveEncoding.QUEEN_CASTLE);
+        }
+
+        int i = 0;
+
+        // Piece type
+        int type = PAWN;
+
+        if (i < end && PIECE_LETTERS.indexOf(text.charAt(i)) > 0) {
+            type = PIECE_LETTERS.indexOf(text.charAt(i));
+            i++;
+        }
+
+        // Promotion, with or without the equals sign
+        int promotion = -1;
+
+        if (end > i && PROMOTION_LETTERS.indexOf(Character.toUpperCase(text.charAt(end - 1))) >= 0 && type == PAWN) {
+            promotion = PROMOTION_LETTERS.indexOf(Character.toUpperCase(text.charAt(end - 1)));
+            end--;
+
+            if (end > i && text.charAt(end - 1) == '=') {
+                end--;
+            }
+        }
+
+        // Target square
+        if (end - i < 2) {
+            return NO_MOVE;
+        }
+
+        final int to = square(text.charAt(end - 2), text.charAt(end - 1));
+
+        if (to < 0) {
+            return NO_MOVE;
+        }
+
+        end -= 2;
+
+        if (end > i && (text.charAt(end - 1) == 'x' || text.charAt(end - 1) == ':')) {
+            end--;
+        }
+
+        // Disambiguation, a file, a rank or both
+        int fromFile = -1;
+        int fromRank = -1;
+
+        for (; i < end; i++) {
+            final char c = text.charAt(i);
+
+            if (c >= 'a' && c <= 'h') {
+                fromFile = c - 'a';
+            } else if (c >= '1' && c <= '8') {
+                fromRank = c - '1';
+            } else {
+                return NO_MOVE;
+            }
+        }
+
+        // Match against the legal moves
+        int match = NO_MOVE;
+
+        for (int j = 0; j < count; j++) {
+            final int move = buffer[j];
+            final int from = ChessMoveEncoding.getFrom(move);
+
+            if (ChessMoveEncoding.getTo(move) != to
+                || ChessMoveEncoding.getPieceIndex(move) % BitboardBoardInformation.PIECE_TYPES != type
+                || (fromFile >= 0 && from % BitboardBoardInformation.BOARD_SIZE != fromFile)
+                || (fromRank >= 0 && from / BitboardBoardInformation.BOARD_SIZE != fromRank)
+                || isCastle(move)) {
+                continue;
+            }
+
+            if (ChessMoveEncoding.isPromotion(move) != (promotion >= 0)
+                || (promotion >= 0 && (ChessMoveEncoding.getFlags(move) & 3) != promotion)) {
+                continue;
+            }
+
+            if (match != NO_MOVE) {
+                return NO_MOVE;
+            }
+
+            match = move;
+        }
+
+        return match;
+    }
+
+    /**
+     * Write a move in standard algebraic notation.
+     *
+     * @param position the position the move is played in
+     * @param move the packed move, legal in the position
+     * @return the move, such as Nbd7 or exd8=Q+
+     */
+    public static String toSan(ChessPosition position, int move) {
+        return toSan(position, move, new int[ChessMoveGenerator.MAX_MOVES]);
+    }
+
+    /**
+     * Write a move in standard algebraic notation.
+     *
+     * The piece moving is named by its file if no other piece of its type can move to the same
+     * square from that file, else by its rank if no other can from that rank, else by both.
+     *
+     * @param position the position the move is played in
+     * @param move the packed move, legal in the position
+     * @param buffer the buffer the legal moves are generated into, at least {@link ChessMoveGenerator#MAX_MOVES} long
+     * @return the move, such as Nbd7 or exd8=Q+
+     */
+    public static String toSan(ChessPosition position, int move, int[] buffer) {
+        final StringBuilder san = new StringBuilder(8);
+
+        final int from = ChessMoveEncoding.getFrom(move);
+        final int to = ChessMoveEncoding.getTo(move);
+        final int flags = ChessMoveEncoding.getFlags(move);
+        final int pieceIndex = ChessMoveEncoding.getPieceIndex(move);
+        final int type = pieceIndex % BitboardBoardInformation.PIECE_TYPES;
+
+        if (flags == ChessMoveEncoding.KING_CASTLE) {
+            san.append("O-O");
+        } else if (flags == ChessMoveEncoding.QUEEN_CASTLE) {
+            san.append("O-O-O");
+        } else if (type == PAWN) {
+            if (ChessMoveEncoding.isCapture(move)) {
+                san.append(fileName(from)).append('x');
+            }
+
+            san.append(fileName(to)).append(rankName(to));
+
+            if (ChessMoveEncoding.isPromotion(move)) {
+                san.append('=').append(PROMOTION_LETTERS.charAt(flags & 3));
+            }
+        } else {
+            san.append(PIECE_LETTERS.charAt(type));
+
+            // Disambiguation from the other pieces of the same type reaching the same square
+            final int count = position.generateLegalMoves(buffer);
+
+            boolean ambiguous = false;
+            boolean sameFile = false;
+            boolean sameRank = false;
+
+            for (int i = 0; i < count; i++) {
+                final int other = ChessMoveEncoding.getFrom(buffer[i]);
+
+                if (ChessMoveEncoding.getTo(buffer[i]) != to || ChessMoveEncoding.getPieceIndex(buffer[i]) != pieceIndex || other == from) {
+                    continue;
+                }
+
+                ambiguous = true;
+                sameFile |= other % BitboardBoardInformation.BOARD_SIZE == from % BitboardBoardInformation.BOARD_SIZE;
+                sameRank |= other / BitboardBoardInformation.BOARD_SIZE == from / BitboardBoardInformation.BOARD_SIZE;
+            }
+
+            if (ambiguous && (!sameFile || sameRank)) {
+                san.append(fileName(from));
+            }
+
+            if (ambiguous && sameFile) {
+                san.append(rankName(from));
+            }
+
+            if (ChessMoveEncoding.isCapture(move)) {
+                san.append('x');
+            }
+
+            san.append(fileName(to)).append(rankName(to));
+        }
+
+        // Check and checkmate
+        final ChessPosition next = position.makeMove(move);
+
+        if (next.isCheck()) {
+            san.append(next.generateLegalMoves(buffer) == 0 ? '#' : '+');
+        }
+
+        return san.toString();
+    }
+
+    //
+    // Helpers
+    //
+
+    /**
+     * Get the file of a square.
+     *
+     * @param square the square
+     * @return the file, a to h
+     */
+    private static char fileName(int square) {
+        return (char) ('a' + square % BitboardBoardInformation.BOARD_SIZE);
+    }
+
+    /**
+     * Get the rank of a square.
+     *
+     * @param square the square
+     * @return the rank, 1 to 8
+     */
+    private static char rankName(int square) {
+        return (char) ('1' + square / BitboardBoardInformation.BOARD_SIZE);
+    }
+
+    /**
+     * Find the move with some flags among moves.
+     *
+     * @param moves the moves
+     * @param count the number of moves
+     * @param flags the flags
+     * @return the move, or {@link #NO_MOVE} if there is none
+     */
+    private static int find(int[] moves, int count, int flags) {
+        for (int i = 0; i < count; i++) {
+            if (ChessMoveEncoding.getFlags(moves[i]) == flags) {
+                return moves[i];
+            }
+        }
+
+        return NO_MOVE;
+    }
+
+    /**
+     * Check if a move castles.
+     *
+     * @param move the packed move
+     * @return true if the move castles
+     */
+    private static boolean isCastle(int move) {
+        final int flags = ChessMoveEncoding.getFlags(move);
+
+        return flags == ChessMoveEncoding.KING_CASTLE || flags == ChessMoveEncoding.QUEEN_CASTLE;
+    }
+
+    /**
+     * Get the square of a file and a rank, such as e and 4.
+     *
+     * @param file the file, a to h
+     * @param rank the rank, 1 to 8
+     * @return the square, or -1 if the name is not a square
+     */
+    private static int square(char file, char rank) {
+        if (file < 'a' || file > 'h' || rank < '1' || rank > '8') {
+            return -1;
+        }
+
+        return (rank - '1') * BitboardBoardInformation.BOARD_SIZE + (file - 'a');
+    }
+}
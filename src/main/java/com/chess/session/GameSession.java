@@ -0,0 +1,546 @@
+package com.chess.session;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.chess.control.GameSync;
+import com.chess.control.MoveValidator;
+import com.chess.control.messages.AffirmMoveMessage;
+import com.chess.control.messages.ChangeNameMessage;
+import com.chess.control.messages.JoinSessionMessage;
+import com.chess.control.messages.MovePieceMessage;
+import com.chess.control.messages.PauseGameMessage;
+import com.chess.control.messages.PromotePawnMessage;
+import com.chess.control.messages.RejectMoveMessage;
+import com.chess.control.messages.SetTeamMessage;
+import com.chess.control.messages.SyncRequestMessage;
+import com.chess.model.Cell;
+import com.chess.model.GameTime;
+import com.chess.model.Identifier;
+import com.chess.model.Move;
+import com.chess.model.Position;
+import com.chess.model.chess.ChessModel;
+import com.chess.model.chess.ChessMoveEncoding;
+import com.chess.model.chess.ChessPieceFactory;
+import com.chess.model.chess.ChessTeam;
+import com.chess.model.chess.ChessTypeIdentifier;
+import com.chess.network.Client;
+import com.chess.network.Message;
+import com.chess.network.NioNetworkServer;
+
+/**
+ * One game hosted by a {@link SessionManager}, with its own model, clock, players and spectators.
+ *
+ * Everything that touches the model runs as a task of the session. The tasks of one session run
+ * one at a time and in order on the executor shared by all sessions, and a session gives its
+ * worker back after a few tasks, so a game flooded with messages only delays itself.
+ * @author agent
+ * @version 2026-10-17
+ */
+final class GameSession {
+    /**
+     * The most tasks run before the worker is given to the next session.
+     */
+    private static final int MAX_TASKS_PER_TURN = 32;
+
+    /**
+     * The index of the white seat.
+     */
+    private static final int WHITE = 0;
+
+    /**
+     * The index of the black seat.
+     */
+    private static final int BLACK = 1;
+
+    /**
+     * The id of the session.
+     */
+    private final int id;
+
+    /**
+     * The server the clients are connected to.
+     */
+    private final NioNetworkServer server;
+
+    /**
+     * The executor the tasks run on.
+     */
+    private final Executor executor;
+
+    /**
+     * The legal moves of the positions of this and other sessions.
+     */
+    private final MoveValidator validator;
+
+    /**
+     * The id clients catching up tell the game by, which differs between servers.
+     */
+    private final int gameId = ThreadLocalRandom.current().nextInt(1, Integer.MAX_VALUE);
+
+    /**
+     * The game, only used by the tasks.
+     */
+    private final ChessModel model = new ChessModel();
+
+    /**
+     * The players, white and black, or null for a free seat.
+     */
+    private final AtomicReferenceArray<Client> seats = new AtomicReferenceArray<>(2);
+
+    /**
+     * The players and spectators sent every change of the game, only used by the tasks.
+     */
+    private final List<Client> clients = new ArrayList<>();
+
+    /**
+     * The tasks not run yet.
+     */
+    private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Indicates if a worker is running or about to run the tasks.
+     */
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /**
+     * Indicates if the clock of the team in turn is running.
+     */
+    private volatile boolean clockRunning;
+
+    /**
+     * Indicates if the game has started and is not over.
+     */
+    private volatile boolean inProgress;
+
+    /**
+     * The number of clients which joined and have not left, guarded by the manager.
+     */
+    private int members;
+
+    /**
+     * The time in nanoseconds the last client left at, guarded by the manager.
+     */
+    private long emptySince;
+
+    /**
+     * Indicates if the session was created for paired clients and goes when they do, guarded by the manager.
+     */
+    private boolean temporary;
+
+    /**
+     * The cell of a pawn waiting to be promoted, or null.
+     */
+    private Position pendingPromotion;
+
+    /**
+     * Creates a new session with the starting position.
+     *
+     * @param id The id of the session.
+     * @param server The server the clients are connected to.
+     * @param executor The executor the tasks run on.
+     * @param validator The legal moves, which may be shared with other sessions.
+     * @param time The time each player has.
+     */
+    GameSession(int id, NioNetworkServer server, Executor executor, MoveValidator validator, GameTime time) {
+        this.id = id;
+        this.server = server;
+        this.executor = executor;
+        this.validator = validator;
+
+        model.resetState(time);
+    }
+
+    /**
+     * Get the id of the session.
+     *
+     * @return The id.
+     */
+    int getId() {
+        return id;
+    }
+
+    /**
+     * Check if a player may still join.
+     *
+     * @return True if a seat is free.
+     */
+    boolean hasFreeSeat() {
+        return seats.get(WHITE) == null || seats.get(BLACK) == null;
+    }
+
+    /**
+     * Check if a game has started and is not over, which may be read outside the tasks.
+     *
+     * @return True if the game is in progress.
+     */
+    boolean isInProgress() {
+        return inProgress;
+    }
+
+    /**
+     * Check if the session goes when its clients do, with the manager locked.
+     *
+     * @return True if the session was created for paired clients.
+     */
+    boolean isTemporary() {
+        return temporary;
+    }
+
+    /**
+     * Mark the session as created for paired clients, with the manager locked.
+     */
+    void setTemporary() {
+        temporary = true;
+    }
+
+    /**
+     * Count a client joining, with the manager locked.
+     */
+    void addMember() {
+        members++;
+    }
+
+    /**
+     * Count a client leaving, with the manager locked.
+     *
+     * @return The number of clients left.
+     */
+    int removeMember() {
+        if (--members == 0) {
+            emptySince = System.nanoTime();
+        }
+
+        return members;
+    }
+
+    /**
+     * Check if every client has left, with the manager locked.
+     *
+     * @param time A time in nanoseconds.
+     * @return True if nobody has been in the session since the time.
+     */
+    boolean isEmptySince(long time) {
+        return members == 0 && emptySince - time <= 0;
+    }
+
+    /**
+     * Take a free seat.
+     *
+     * @param client The client taking the seat.
+     * @return True if the client got a seat.
+     */
+    boolean takeSeat(Client client) {
+        return seats.compareAndSet(WHITE, null, client) || seats.compareAndSet(BLACK, null, client);
+    }
+
+    //
+    // Tasks
+    //
+
+    /**
+     * Run a task after the tasks already queued.
+     *
+     * @param task The task, which may use the model.
+     */
+    void execute(Runnable task) {
+        tasks.add(task);
+        schedule();
+    }
+
+    /**
+     * Hand the tasks to a worker, unless one already has them.
+     */
+    private void schedule() {
+        if (!scheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            executor.execute(this::runTasks);
+        } catch (RejectedExecutionException e) {
+            // The manager has stopped
+            tasks.clear();
+        }
+    }
+
+    /**
+     * Run the queued tasks, up to the most of one turn.
+     */
+    private void runTasks() {
+        for (int i = 0; i < MAX_TASKS_PER_TURN; i++) {
+            final Runnable task = tasks.poll();
+
+            if (task == null) {
+                break;
+            }
+
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+
+        scheduled.set(false);
+
+        // Tasks left over, or queued after the last poll, go to the back of the executor
+        if (!tasks.isEmpty()) {
+            schedule();
+        }
+    }
+
+    //
+    // Messages, run as tasks
+    //
+
+    /**
+     * Add a client, which has a seat if it took one. The client asks for the game after.
+     *
+     * @param client The client.
+     */
+    void join(Client client) {
+        clients.add(client);
+
+        client.sendMessage(new JoinSessionMessage(id));
+
+        if (seats.get(WHITE) == client) {
+            client.sendMessage(new SetTeamMessage(true));
+        } else if (seats.get(BLACK) == client) {
+            client.sendMessage(new SetTeamMessage(false));
+        }
+    }
+
+    /**
+     * Send a client the moves it is missing, or the whole game.
+     *
+     * @param client The client.
+     * @param message The request.
+     */
+    void sync(Client client, SyncRequestMessage message) {
+        client.sendMessage(GameSync.reply(model, gameId, message));
+    }
+
+    /**
+     * Remove a client, pausing the game if it was a player.
+     *
+     * @param client The client.
+     */
+    void leave(Client client) {
+        clients.remove(client);
+
+        if (seats.compareAndSet(WHITE, client, null) | seats.compareAndSet(BLACK, client, null)) {
+            setPaused(true);
+        }
+    }
+
+    /**
+     * Make a move of the player in turn.
+     *
+     * @param client The client which sent the move.
+     * @param message The move.
+     */
+    void movePiece(Client client, MovePieceMessage message) {
+        final int legalMove = isInTurn(client) && pendingPromotion == null && !hasFreeSeat()
+                ? validator.findMove(model, message.getFromRow(), message.getFromCol(), message.getToRow(), message.getToCol())
+                : MoveValidator.NO_MOVE;
+
+        // The client takes the move back and catches up with the game
+        if (legalMove == MoveValidator.NO_MOVE) {
+            client.sendMessage(new RejectMoveMessage(message.getSequence()));
+            return;
+        }
+
+        // The piece type and elimination flag of the message are not trusted
+        final Move move = ChessMoveEncoding.toMove(legalMove);
+
+        if (!model.getStarted()) {
+            model.setStarted(true);
+            inProgress = true;
+            setPaused(false);
+        }
+
+        final Position from = move.getFromCell();
+        final Position to = move.getToCell();
+        final boolean isPromotion = model.isPromotion(move);
+        final boolean halfMove = !move.getPieceType().equals(ChessTypeIdentifier.PAWN) && !move.isEliminatable();
+
+        model.movePiece(from, to);
+
+        broadcast(new AffirmMoveMessage(from.getRow(), from.getCol(), to.getRow(), to.getCol(), move.isEliminatable(), move.getPieceType(), message.getSequence()));
+
+        // The turn passes once the player has picked the piece
+        if (isPromotion) {
+            pendingPromotion = to;
+            return;
+        }
+
+        model.registerMove(halfMove, move);
+        checkGameOver();
+    }
+
+    /**
+     * Promote the pawn which just reached the last row.
+     *
+     * A promotion which is not the one pending is answered with the whole game, as the client
+     * waits for it with the pawn on the last row.
+     *
+     * @param client The client which sent the promotion.
+     * @param message The promotion.
+     */
+    void promotePawn(Client client, PromotePawnMessage message) {
+        final Position position = pendingPromotion;
+        final Identifier type = message.getPieceType();
+
+        if (position == null || !isInTurn(client)
+                || message.getRow() != position.getRow() || message.getCol() != position.getCol()
+                || type != ChessTypeIdentifier.QUEEN && type != ChessTypeIdentifier.ROOK
+                && type != ChessTypeIdentifier.BISHOP && type != ChessTypeIdentifier.KNIGHT) {
+            client.sendMessage(GameSync.reply(model, gameId, new SyncRequestMessage(0, 0, 0)));
+            return;
+        }
+
+        final Cell cell = model.getBoard().getCell(position);
+
+        cell.updatePiece(ChessPieceFactory.createPiece(type, model.getCurrentTeam()), true);
+
+        pendingPromotion = null;
+
+        model.registerMove(false, new Move(position, type));
+
+        broadcast(message);
+        checkGameOver();
+    }
+
+    /**
+     * Rename the team of a player.
+     *
+     * @param client The client which sent the name.
+     * @param message The name.
+     */
+    void changeName(Client client, ChangeNameMessage message) {
+        if (seats.get(message.isWhite() ? WHITE : BLACK) != client || message.getName().isEmpty()) {
+            return;
+        }
+
+        (message.isWhite() ? model.getTeamWhite() : model.getTeamBlack()).setName(message.getName());
+
+        broadcast(message);
+    }
+
+    /**
+     * Pause or resume the game on the request of a player.
+     *
+     * @param client The client which sent the request.
+     * @param message The request.
+     */
+    void pauseGame(Client client, PauseGameMessage message) {
+        if (!isPlayer(client) || !model.getStarted() || model.getGameOver()) {
+            return;
+        }
+
+        // Both players must be present for the clock to run
+        if (!message.isPaused() && hasFreeSeat()) {
+            return;
+        }
+
+        setPaused(message.isPaused());
+    }
+
+    /**
+     * Count down the clock of the team in turn, ending the game when it runs out.
+     *
+     * The clients are told the game is paused with the clocks it ended with.
+     */
+    void tick() {
+        if (!clockRunning) {
+            return;
+        }
+
+        final ChessTeam team = model.getCurrentTeam();
+
+        team.tickTime();
+
+        if (team.getTime().toMillis() == 0) {
+            model.setGameOver();
+            inProgress = false;
+
+            // The clients run clocks of their own, which are stopped with ours
+            setPaused(true);
+            broadcast(GameSync.reply(model, gameId, new SyncRequestMessage(gameId, model.getMoveHistory().length, model.getPositionKey())));
+        }
+    }
+
+    /**
+     * Check if the clock is running, which may be read outside the tasks.
+     *
+     * @return True if the clock of the team in turn is running.
+     */
+    boolean isClockRunning() {
+        return clockRunning;
+    }
+
+    //
+    // Helpers
+    //
+
+    /**
+     * Send a message to every client of the session.
+     *
+     * @param message The message.
+     */
+    private void broadcast(Message message) {
+        server.broadcastMessage(clients, message);
+    }
+
+    /**
+     * Pause or resume the game, and tell the clients.
+     *
+     * @param paused True to pause.
+     */
+    private void setPaused(boolean paused) {
+        model.setPaused(paused);
+        clockRunning = !paused && model.getStarted() && !model.getGameOver();
+
+        broadcast(new PauseGameMessage(paused));
+    }
+
+    /**
+     * Check if a client is a player.
+     *
+     * @param client The client.
+     * @return True if the client has a seat.
+     */
+    private boolean isPlayer(Client client) {
+        return seats.get(WHITE) == client || seats.get(BLACK) == client;
+    }
+
+    /**
+     * Check if a client plays the team in turn of a game which is not over.
+     *
+     * @param client The client.
+     * @return True if the client may move.
+     */
+    private boolean isInTurn(Client client) {
+        final int seat = model.getCurrentTeam() == model.getTeamWhite() ? WHITE : BLACK;
+
+        return seats.get(seat) == client && !model.getGameOver();
+    }
+
+    /**
+     * End the game if the team now in turn can not go on.
+     */
+    private void checkGameOver() {
+        if (model.isGameOver(model.getCurrentTeam().getTeamIdentifier()) != 0) {
+            model.setGameOver();
+            clockRunning = false;
+            inProgress = false;
+        }
+    }
+}
@@ -0,0 +1,406 @@
+package com.chess.session;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import com.chess.control.MoveValidator;
+import com.chess.control.messages.ChangeNameMessage;
+import com.chess.control.messages.ChessProtocol;
+import com.chess.control.messages.ClientReadyMessage;
+import com.chess.control.messages.JoinSessionMessage;
+import com.chess.control.messages.MovePieceMessage;
+import com.chess.control.messages.PauseGameMessage;
+import com.chess.control.messages.PromotePawnMessage;
+import com.chess.control.messages.SyncRequestMessage;
+import com.chess.model.GameTime;
+import com.chess.network.Client;
+import com.chess.network.NioNetworkServer;
+
+/**
+ * Hosts many independent games on one server, for example the boards of a tournament.
+ *
+ * A client joins a game with a {@link JoinSessionMessage} carrying its id, or with a
+ * {@link ClientReadyMessage} to be paired with the next client doing the same, and is answered
+ * with the id of its game. The first two clients of a game play it and the rest spectate. Every
+ * other message of a client is routed to the game it joined. The first is a
+ * {@link SyncRequestMessage}, answered with the game, or with only the moves missed when a client
+ * rejoins after a dropped connection.
+ *
+ * The games are played by a fixed number of workers. Each game queues its own messages and clock
+ * ticks and has at most one worker at a time, which it gives back after a few tasks, so a busy
+ * game can not hold up the others and the executor never queues more than one entry per game.
+ * @author agent
+ * @version 2026-10-17
+ */
+public class SessionManager {
+    /**
+     * The session id answered when a game does not exist.
+     */
+    public static final int NO_SESSION = -1;
+
+    /**
+     * The milliseconds between two ticks of the clocks.
+     */
+    private static final long TICK_MILLIS = 100;
+
+    /**
+     * The milliseconds a paired game being played is kept after everybody left, if no other time is given.
+     */
+    public static final long DEFAULT_ABANDON_MILLIS = 10 * 60_000;
+
+    /**
+     * The milliseconds between two looks for abandoned games.
+     */
+    private static final long ABANDON_CHECK_MILLIS = 1000;
+
+    /**
+     * The server the clients connect to.
+     */
+    private final NioNetworkServer server;
+
+    /**
+     * The workers the games are played on.
+     */
+    private final ExecutorService workers;
+
+    /**
+     * The thread ticking the clocks.
+     */
+    private final ScheduledExecutorService clock;
+
+    /**
+     * The legal moves of the positions of every game, which share their openings.
+     */
+    private final MoveValidator validator = new MoveValidator();
+
+    /**
+     * The time each player has in the games paired up.
+     */
+    private final int minutes;
+
+    /**
+     * The milliseconds a paired game being played is kept after everybody left, to be rejoined.
+     */
+    private final long abandonMillis;
+
+    /**
+     * The games by id.
+     */
+    private final Map<Integer, GameSession> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * The game each client has joined.
+     */
+    private final Map<Client, GameSession> clientSessions = new ConcurrentHashMap<>();
+
+    /**
+     * The game paired clients join while it has a free seat, guarded by this.
+     */
+    private GameSession lobby;
+
+    /**
+     * The id of the next game, guarded by this.
+     */
+    private int nextId = 1;
+
+    /**
+     * Creates a new manager, handling the messages of a server which is not started.
+     *
+     * @param server The server the clients connect to.
+     * @param workerCount The number of workers the games are played on.
+     * @param minutes The time each player has in the games paired up.
+     * @throws IllegalArgumentException If there is not at least one worker, or the time is not positive.
+     */
+    public SessionManager(NioNetworkServer server, int workerCount, int minutes) throws IllegalArgumentException {
+        this(server, workerCount, minutes, DEFAULT_ABANDON_MILLIS);
+    }
+
+    /**
+     * Creates a new manager, handling the messages of a server which is not started.
+     *
+     * @param server The server the clients connect to.
+     * @param workerCount The number of workers the games are played on.
+     * @param minutes The time each player has in the games paired up.
+     * @param abandonMillis The milliseconds a paired game being played is kept after everybody left.
+     * @throws IllegalArgumentException If there is not at least one worker, or a time is not positive.
+     */
+    public SessionManager(NioNetworkServer server, int workerCount, int minutes, long abandonMillis) throws IllegalArgumentException {
+        if (workerCount < 1) {
+            throw new IllegalArgumentException("At least one worker is needed");
+        }
+
+        if (minutes < 1) {
+            throw new IllegalArgumentException("Invalid number of minutes: " + minutes);
+        }
+
+        if (abandonMillis < 1) {
+            throw new IllegalArgumentException("Invalid abandon time: " + abandonMillis);
+        }
+
+        this.server = server;
+        this.minutes = minutes;
+        this.abandonMillis = abandonMillis;
+
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            final Thread thread = new Thread(runnable, "SessionWorker");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.clock = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "SessionClock");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        server.setMessageDelegate(ClientReadyMessage.class, (client, message) -> joinAny(client));
+        server.setMessageDelegate(JoinSessionMessage.class, (client, message) ->
+            join(client, ((JoinSessionMessage) message).getSessionId())
+        );
+
+        // Game messages go to the game of the client
+        server.setMessageDelegate(MovePieceMessage.class, (client, message) ->
+            route(client, session -> session.movePiece(client, (MovePieceMessage) message))
+        );
+        server.setMessageDelegate(PromotePawnMessage.class, (client, message) ->
+            route(client, session -> session.promotePawn(client, (PromotePawnMessage) message))
+        );
+        server.setMessageDelegate(ChangeNameMessage.class, (client, message) ->
+            route(client, session -> session.changeName(client, (ChangeNameMessage) message))
+        );
+        server.setMessageDelegate(PauseGameMessage.class, (client, message) ->
+            route(client, session -> session.pauseGame(client, (PauseGameMessage) message))
+        );
+        server.setMessageDelegate(SyncRequestMessage.class, (client, message) ->
+            route(client, session -> session.sync(client, (SyncRequestMessage) message))
+        );
+
+        server.setOnClientDisconnectedDelegate(this::leave);
+    }
+
+    /**
+     * Start the server and the clocks.
+     *
+     * @throws IOException If the server can not be started.
+     */
+    public void start() throws IOException {
+        server.start();
+
+        clock.scheduleAtFixedRate(this::tickClocks, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+        clock.scheduleAtFixedRate(this::removeAbandoned, ABANDON_CHECK_MILLIS, ABANDON_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop the server, the clocks and every game.
+     */
+    public void stop() {
+        server.stop();
+        clock.shutdownNow();
+        workers.shutdown();
+
+        synchronized (this) {
+            sessions.clear();
+            clientSessions.clear();
+            lobby = null;
+        }
+    }
+
+    /**
+     * Create a game, which is kept until it is closed.
+     *
+     * @param time The time each player has.
+     * @return The id of the game.
+     */
+    public synchronized int createSession(GameTime time) {
+        return newSession(time).getId();
+    }
+
+    /**
+     * Close a game, disconnecting its players and spectators.
+     *
+     * @param id The id of the game.
+     * @return True if the game existed.
+     */
+    public boolean closeSession(int id) {
+        final GameSession session = sessions.remove(id);
+
+        if (session == null) {
+            return false;
+        }
+
+        clientSessions.forEach((client, joined) -> {
+            if (joined == session) {
+                server.closeClient(client);
+            }
+        });
+
+        return true;
+    }
+
+    /**
+     * Get the number of games.
+     *
+     * @return The number of games.
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    //
+    // Clients
+    //
+
+    /**
+     * Seat a client in the game being paired up, starting a new one when it is full.
+     *
+     * @param client The client.
+     */
+    private synchronized void joinAny(Client client) {
+        leave(client);
+
+        if (lobby == null || sessions.get(lobby.getId()) != lobby || !lobby.takeSeat(client)) {
+            lobby = newSession(new GameTime(minutes, 0, 0));
+            lobby.setTemporary();
+            lobby.takeSeat(client);
+        }
+
+        enter(client, lobby);
+    }
+
+    /**
+     * Let a client join a game, seated if a seat is free.
+     *
+     * @param client The client.
+     * @param id The id of the game.
+     */
+    private synchronized void join(Client client, int id) {
+        final GameSession session = sessions.get(id);
+
+        if (session == null) {
+            client.sendMessage(new JoinSessionMessage(NO_SESSION));
+            return;
+        }
+
+        leave(client);
+
+        session.takeSeat(client);
+
+        enter(client, session);
+    }
+
+    /**
+     * Add a client to a game it may have taken a seat in.
+     *
+     * @param client The client.
+     * @param session The game.
+     */
+    private void enter(Client client, GameSession session) {
+        session.addMember();
+        clientSessions.put(client, session);
+
+        session.execute(() -> session.join(client));
+    }
+
+    /**
+     * Remove a client from its game, removing a paired game nobody is left in unless it is being played.
+     *
+     * A paired game being played is kept for a while, to be rejoined by players who lost their connection.
+     *
+     * @param client The client.
+     */
+    private synchronized void leave(Client client) {
+        final GameSession session = clientSessions.remove(client);
+
+        if (session == null) {
+            return;
+        }
+
+        session.execute(() -> session.leave(client));
+
+        if (session.removeMember() == 0 && session.isTemporary() && !session.isInProgress()) {
+            sessions.remove(session.getId(), session);
+        }
+    }
+
+    /**
+     * Queue a message of a client on its game.
+     *
+     * @param client The client.
+     * @param task The handling of the message.
+     */
+    private void route(Client client, Consumer<GameSession> task) {
+        final GameSession session = clientSessions.get(client);
+
+        if (session != null) {
+            session.execute(() -> task.accept(session));
+        }
+    }
+
+    //
+    // Helpers
+    //
+
+    /**
+     * Create a game with the next id, with this locked.
+     *
+     * @param time The time each player has.
+     * @return The game.
+     */
+    private GameSession newSession(GameTime time) {
+        final GameSession session = new GameSession(nextId++, server, workers, validator, time);
+
+        sessions.put(session.getId(), session);
+
+        return session;
+    }
+
+    /**
+     * Queue a tick on every game with a running clock.
+     */
+    private void tickClocks() {
+        for (GameSession session : sessions.values()) {
+            if (session.isClockRunning()) {
+                session.execute(session::tick);
+            }
+        }
+    }
+
+    /**
+     * Remove the paired games nobody has been in for longer than the abandon time.
+     */
+    private synchronized void removeAbandoned() {
+        final long emptySince = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(abandonMillis);
+
+        sessions.values().removeIf(session -> session.isTemporary() && session.isEmptySince(emptySince));
+    }
+
+    /**
+     * Run a server hosting games from the command line, until the process is stopped.
+     *
+     * @param args the port, and optionally the number of workers and the minutes of paired games
+     * @throws IOException if the server can not be started
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: SessionManager <port> [workers] [minutes]");
+            return;
+        }
+
+        final int port = Integer.parseInt(args[0]);
+        final int workers = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        final int minutes = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        final NioNetworkServer server = new NioNetworkServer(null, port, ChessProtocol.create(), Runtime.getRuntime().availableProcessors());
+        final SessionManager manager = new SessionManager(server, workers, minutes);
+
+        manager.start();
+
+        System.out.println("Hosting games on port " + server.getPort());
+    }
+}
@@ -9,10 +9,16 @@ import java.awt.event.KeyEvent;
 import java.io.*;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
 
 import com.chess.model.GameTime;
+import com.chess.model.Identifier;
 import com.chess.model.chess.ChessModel;
+import com.chess.model.chess.ChessSaveFormat;
+import com.chess.model.chess.ChessTeamIdentifier;
 import com.chess.model.chess.SerialModel;
+import com.chess.pgn.PgnWriter;
 
 /**
  * A class representing the menu bar shown at the top of the window containing the GUI for the game.
@@ -42,6 +48,10 @@ public class Menu extends JMenuBar {
      * A reference to the menu item used for loading the state of a saved game.
      */
     private final JMenuItem load;
+    /**
+     * A reference to the menu item used for exporting the moves of the game in Portable Game Notation.
+     */
+    private final JMenuItem exportPgn;
     /**
      * A reference to the menu item used for starting a server in which the game will be hosted.
      */
@@ -87,6 +97,10 @@ public class Menu extends JMenuBar {
      * A collection of events to be triggered when a game is loaded by the host of a server.
      */
     private Event<SerialModel> onLoadGameEvent = new Event<>();
+    /**
+     * A collection of events to be triggered when the computer is chosen to play a team, or no team.
+     */
+    private Event<Identifier> onComputerTeamEvent = new Event<>();
 
     /**
      * Constructor for Menu.
@@ -109,6 +123,8 @@ public class Menu extends JMenuBar {
         file.add(new JSeparator());
         file.add(load);
         file.add(save);
+        this.exportPgn = new JMenuItem("Export PGN");
+        file.add(exportPgn);
 
         newGame.addActionListener((e) -> {
             JFrame f = new JFrame();
@@ -138,22 +154,36 @@ public class Menu extends JMenuBar {
             if (returnValue == JFileChooser.APPROVE_OPTION){
                 File chosenFile = fileChooser.getSelectedFile();
                 try {
-                    FileOutputStream fOut = new FileOutputStream(chosenFile);
-                    ObjectOutputStream stream = new ObjectOutputStream(fOut);
-                    stream.writeObject(model.getSerialModel());
-                    stream.flush();
-                    stream.close();
-                } catch (FileNotFoundException ex) {
-                    // Show a message to the user that the file was not found
-                    JOptionPane.showMessageDialog(null, "File not found", "Error", JOptionPane.ERROR_MESSAGE);
+                    ChessSaveFormat.save(chosenFile.toPath(), model.getSerialModel());
                 } catch (IOException ex) {
-                    // Show a message to the user that we could not read the file
+                    // Show a message to the user that we could not write the file
                     JOptionPane.showMessageDialog(null, "Could not write to file", "Error", JOptionPane.ERROR_MESSAGE);
                 }
             }
             if(!paused) model.setPaused(false);
         });
 
+        exportPgn.addActionListener((e) -> {
+            JFileChooser fileChooser = new JFileChooser();
+            fileChooser.setDialogTitle("Export PGN");
+            fileChooser.setFileSelectionMode(JFileChooser.FILES_ONLY);
+            fileChooser.setCurrentDirectory(new File(System.getProperty("user.dir")));
+            int returnValue = fileChooser.showSaveDialog(null);
+
+            if (returnValue == JFileChooser.APPROVE_OPTION){
+                File chosenFile = fileChooser.getSelectedFile();
+                try (PgnWriter writer = new PgnWriter(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(chosenFile), StandardCharsets.ISO_8859_1)))) {
+                    writer.write(model);
+                } catch (IllegalStateException ex) {
+                    // Show a message to the user that there is no game to export
+                    JOptionPane.showMessageDialog(null, "There is no game to export", "Error", JOptionPane.ERROR_MESSAGE);
+                } catch (IOException ex) {
+                    // Show a message to the user that we could not write the file
+                    JOptionPane.showMessageDialog(null, "Could not write to file", "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        });
+
         load.addActionListener((e) -> {
             JFileChooser fileChooser = new JFileChooser();
             fileChooser.setDialogTitle("Load");
@@ -164,21 +194,15 @@ public class Menu extends JMenuBar {
             if(returnValue == JFileChooser.APPROVE_OPTION){
                 try {
                     File chosenFile = fileChooser.getSelectedFile();
-                    FileInputStream fIn = new FileInputStream(chosenFile);
-                    ObjectInputStream stream = new ObjectInputStream(fIn);
-                    SerialModel newModel = (SerialModel) stream.readObject();
+                    SerialModel newModel = ChessSaveFormat.load(chosenFile.toPath());
                     onLoadGameEvent.trigger(newModel);
                     movesPanel.loadMovesPanel();
-                    stream.close();
-                } catch (FileNotFoundException ex) {
+                } catch (NoSuchFileException ex) {
                     // Show a message to the user that the file was not found
                     JOptionPane.showMessageDialog(null, "File not found", "Error", JOptionPane.ERROR_MESSAGE);
-                } catch (ClassNotFoundException ex) {
-                    // Show a message to the user that the save file is out of date
-                    JOptionPane.showMessageDialog(null, "Save file is out of date", "Error", JOptionPane.ERROR_MESSAGE);
                 } catch (IOException ex) {
                     // Show a message to the user that we could not read the file
-                    JOptionPane.showMessageDialog(null, "Could not read file, save file might be out of date", "Error", JOptionPane.ERROR_MESSAGE);
+                    JOptionPane.showMessageDialog(null, "Could not read file: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
                 }
             }
         });
@@ -212,6 +236,29 @@ public class Menu extends JMenuBar {
         );
 
 
+        //Creating computer menu
+        JMenu computer = new JMenu("Computer");
+        this.add(computer);
+        ButtonGroup computerTeams = new ButtonGroup();
+        JRadioButtonMenuItem computerOff = new JRadioButtonMenuItem("Off", true);
+        JRadioButtonMenuItem computerWhite = new JRadioButtonMenuItem("Plays white");
+        JRadioButtonMenuItem computerBlack = new JRadioButtonMenuItem("Plays black");
+
+        for (JRadioButtonMenuItem item : new JRadioButtonMenuItem[] { computerOff, computerWhite, computerBlack }) {
+            computerTeams.add(item);
+            computer.add(item);
+        }
+
+        computerOff.addActionListener((e) ->
+            onComputerTeamEvent.trigger(null)
+        );
+        computerWhite.addActionListener((e) ->
+            onComputerTeamEvent.trigger(ChessTeamIdentifier.WHITE)
+        );
+        computerBlack.addActionListener((e) ->
+            onComputerTeamEvent.trigger(ChessTeamIdentifier.BLACK)
+        );
+
         //Creating help menu
         JMenu help = new JMenu("Help");
         JMenuItem wikiLink = new JMenuItem("How to play chess");
@@ -325,6 +372,12 @@ public class Menu extends JMenuBar {
      */
     public Event<SerialModel> getOnLoadGameEvent() { return onLoadGameEvent; }
 
+    /**
+     * Gets the reference to the collection of events to be triggered when the computer is chosen to play a team.
+     * @return A reference to the collection of events, triggered with the team or null for no team.
+     */
+    public Event<Identifier> getOnComputerTeamEvent() { return onComputerTeamEvent; }
+
     /**
      * Gets the reference to the String representing what sound map is currently selected.
      * @return A reference to the String representing what sound map is currently selected.
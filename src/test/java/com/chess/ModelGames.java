@@ -0,0 +1,54 @@
+package com.chess;
+
+import com.chess.model.Identifier;
+import com.chess.model.Move;
+import com.chess.model.Position;
+import com.chess.model.chess.ChessModel;
+import com.chess.model.chess.ChessPerft;
+import com.chess.model.chess.ChessTypeIdentifier;
+
+/**
+ * Games for the tests, played on the model the way the control plays them.
+ */
+final class ModelGames {
+    private ModelGames() {
+    }
+
+    /**
+     * Create a game in the start position.
+     *
+     * @return the model
+     */
+    static ChessModel startGame() {
+        final ChessModel model = new ChessModel();
+
+        model.loadFEN(ChessPerft.START_POSITION);
+
+        return model;
+    }
+
+    /**
+     * Take a turn and register it, as the control does.
+     *
+     * The piece type and capture are read from the board, so the half move clock is only
+     * advanced by moves which are neither pawn moves nor captures.
+     *
+     * @param model the game
+     * @param from the cell moved from, such as "e2"
+     * @param to the cell moved to
+     */
+    static void play(ChessModel model, String from, String to) {
+        final Position fromCell = Position.of(from);
+        final Position toCell = Position.of(to);
+
+        final Identifier type = model.getBoard().getCell(fromCell).getPiece().getTypeIdentifier();
+        final boolean pawn = type == ChessTypeIdentifier.PAWN;
+
+        // A pawn moving sideways to an empty cell takes en passant
+        final boolean capture = model.getBoard().getCell(toCell).getPiece() != null
+                || pawn && fromCell.getCol() != toCell.getCol();
+
+        model.takeTurn(fromCell, toCell);
+        model.registerMove(!pawn && !capture, new Move(toCell, fromCell, type, capture));
+    }
+}
@@ -0,0 +1,85 @@
+package com.chess;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.chess.archive.GameArchive;
+import com.chess.model.chess.ChessModel;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+public class Test_Model_Archive {
+    @TempDir
+    Path directory;
+
+    private ChessModel model;
+
+    @BeforeEach
+    public void setUp() {
+        model = ModelGames.startGame();
+    }
+
+    /**
+     * Test method for {@link com.chess.archive.GameArchive#load(long, ChessModel)}.
+     */
+    @Test
+    public void testAppendAndLoad() throws IOException {
+        final String start = model.toFEN();
+
+        try (GameArchive archive = new GameArchive(directory)) {
+            Assertions.assertEquals(0, archive.append(model));
+
+            ModelGames.play(model, "e2", "e4");
+            ModelGames.play(model, "e7", "e5");
+            ModelGames.play(model, "g1", "f3");
+
+            Assertions.assertEquals(1, archive.append(model));
+        }
+
+        final String played = model.toFEN();
+        final ChessModel loaded = new ChessModel();
+
+        try (GameArchive archive = new GameArchive(directory)) {
+            Assertions.assertEquals(2, archive.getGameCount());
+
+            archive.load(1, loaded);
+            Assertions.assertEquals(played, loaded.toFEN());
+            Assertions.assertEquals(model.getMoveList(), loaded.getMoveList());
+
+            archive.load(0, loaded);
+            Assertions.assertEquals(start, loaded.toFEN());
+
+            Assertions.assertThrows(IllegalArgumentException.class, () -> archive.read(2));
+        }
+    }
+
+    @Test
+    public void testSegments() throws IOException {
+        ModelGames.play(model, "d2", "d4");
+
+        final int gameSize;
+
+        try (GameArchive archive = new GameArchive(directory, 128)) {
+            gameSize = archive.getBytes(archive.append(model)).remaining();
+
+            for (int i = 1; i < 10; i++) {
+                Assertions.assertEquals(i, archive.append(model));
+            }
+
+            Assertions.assertEquals(model.toFEN(), archive.read(9).getFen());
+        }
+
+        // Games do not span segments
+        final int perSegment = 128 / (gameSize + 4);
+
+        Assertions.assertTrue(Files.exists(directory.resolve(String.format("segment-%05d.dat", 9 / perSegment))));
+
+        try (GameArchive archive = new GameArchive(directory, 4096)) {
+            Assertions.assertEquals(10, archive.append(model));
+            Assertions.assertEquals(model.toFEN(), archive.read(10).getFen());
+            Assertions.assertEquals(model.toFEN(), archive.read(3).getFen());
+        }
+    }
+}
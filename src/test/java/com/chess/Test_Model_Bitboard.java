@@ -0,0 +1,72 @@
+package com.chess;
+
+import com.chess.model.*;
+import com.chess.model.chess.*;
+
+import org.junit.jupiter.api.*;
+
+public class Test_Model_Bitboard {
+    private ChessModel model;
+
+    @BeforeEach
+    public void setUp() {
+        model = new ChessModel();
+    }
+
+    private void loadInitialPosition() {
+        /**
+         * Load initial FEN
+         */
+        model.loadFEN("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+    }
+
+    /**
+     * Assert that the bitboards agree with the cells of the board on every square.
+     */
+    private void assertInSync() {
+        final Board board = model.getBoard();
+        final BitboardBoardInformation info = model.getBoardInformation();
+
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                final Piece piece = board.getCell(row, col).getPiece();
+
+                Assertions.assertEquals(piece == null, info.isEmpty(row, col));
+
+                if (piece != null) {
+                    Assertions.assertEquals(piece.getTeamIdentifier(), info.getTeamIdentifier(row, col));
+                    Assertions.assertEquals(piece.getTypeIdentifier(), info.getTypeIdentifier(row, col));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testStartPosition() {
+        loadInitialPosition();
+
+        final BitboardBoardInformation info = model.getBoardInformation();
+
+        Assertions.assertEquals(0xFF00L, info.getPieceBoard(ChessTypeIdentifier.PAWN, ChessTeamIdentifier.WHITE));
+        Assertions.assertEquals(0x00FF000000000000L, info.getPieceBoard(ChessTypeIdentifier.PAWN, ChessTeamIdentifier.BLACK));
+        Assertions.assertEquals(1L << 4, info.getPieceBoard(ChessTypeIdentifier.KING, ChessTeamIdentifier.WHITE));
+        Assertions.assertEquals(0xFFFF00000000FFFFL, info.getOccupancy());
+
+        assertInSync();
+    }
+
+    @Test
+    public void testInSyncAfterMoves() {
+        loadInitialPosition();
+
+        model.takeTurn(new Position("e2"), new Position("e4"));
+        model.takeTurn(new Position("g1"), new Position("f3"));
+
+        assertInSync();
+
+        // Trial moves in the legality check must leave the bitboards untouched
+        Assertions.assertFalse(model.isCheck(ChessTeamIdentifier.WHITE));
+
+        assertInSync();
+    }
+}
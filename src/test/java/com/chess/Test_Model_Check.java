@@ -1,9 +1,12 @@
 package com.chess;
 
+import com.chess.model.Move;
 import com.chess.model.Position;
 import com.chess.model.chess.ChessModel;
 import com.chess.model.chess.ChessTeamIdentifier;
 
+import java.util.Iterator;
+
 import org.junit.jupiter.api.*;
 
 public class Test_Model_Check {
@@ -27,4 +30,31 @@ public class Test_Model_Check {
 
         Assertions.assertTrue(model.isCheck(ChessTeamIdentifier.BLACK));
     }
+
+    /**
+     * Test method for {@link com.chess.model.chess.ChessRule#isAttacked(com.chess.model.Position, com.chess.model.Identifier)}.
+     */
+    @Test
+    public void testCastleThroughAttack() {
+        // The black rook on f8 attacks f1, which the white king has to pass
+        model.loadFEN("4kr2/8/8/8/8/8/8/R3K2R w KQ - 0 1");
+
+        Assertions.assertTrue(model.getRule().isAttacked(new Position("f1"), ChessTeamIdentifier.WHITE));
+        Assertions.assertFalse(model.getRule().isAttacked(new Position("d1"), ChessTeamIdentifier.WHITE));
+
+        boolean canCastleKingside = false;
+        boolean canCastleQueenside = false;
+
+        Iterator<Move> moves = model.getBoard().getCell(new Position("e1")).getPiece().getPossibleMoves(model.getRule(), new Position("e1"));
+
+        while (moves.hasNext()) {
+            Move move = moves.next();
+
+            canCastleKingside |= move.getIsCastleKingSide();
+            canCastleQueenside |= move.getIsCastleQueenSide();
+        }
+
+        Assertions.assertFalse(canCastleKingside);
+        Assertions.assertTrue(canCastleQueenside);
+    }
 }
@@ -0,0 +1,46 @@
+package com.chess;
+
+import com.chess.model.chess.ChessModel;
+import com.chess.model.chess.ChessPerft;
+
+import org.junit.jupiter.api.*;
+
+public class Test_Model_Draw {
+    private ChessModel model;
+
+    @BeforeEach
+    public void setUp() {
+        model = new ChessModel();
+    }
+
+    /**
+     * Test method for {@link com.chess.model.chess.ChessModel#isGameOver(com.chess.model.Identifier)}.
+     */
+    @Test
+    public void testThreefoldRepetition() {
+        model.loadFEN(ChessPerft.START_POSITION);
+
+        for (int i = 0; i < 2; i++) {
+            Assertions.assertEquals(0, model.isGameOver(model.getCurrentTeam().getTeamIdentifier()));
+
+            ModelGames.play(model, "g1", "f3");
+            ModelGames.play(model, "g8", "f6");
+            ModelGames.play(model, "f3", "g1");
+            ModelGames.play(model, "f6", "g8");
+        }
+
+        Assertions.assertEquals(3, model.getRepetitionCount());
+        Assertions.assertEquals(3, model.isGameOver(model.getCurrentTeam().getTeamIdentifier()));
+    }
+
+    @Test
+    public void testFiftyMoveRule() {
+        model.loadFEN("4k3/8/8/8/8/8/8/4K1N1 w - - 99 80");
+
+        Assertions.assertEquals(0, model.isGameOver(model.getCurrentTeam().getTeamIdentifier()));
+
+        ModelGames.play(model, "g1", "f3");
+
+        Assertions.assertEquals(4, model.isGameOver(model.getCurrentTeam().getTeamIdentifier()));
+    }
+}
@@ -1,6 +1,8 @@
 package com.chess;
 
+import com.chess.model.Piece;
 import com.chess.model.chess.ChessModel;
+import com.chess.model.chess.ChessPerft;
 
 import org.junit.jupiter.api.*;
 
@@ -20,7 +22,7 @@ public class Test_Model_FEN {
     }
 
     /**
-     * Test method for {@link com.chess.model.chess.ChessModel#loadFEN(java.lang.String)}. and {@link com.chess.model.chess.ChessModel#toFEN()}.
+     * Test method for {@link com.chess.model.chess.ChessModel#loadFEN(java.lang.CharSequence)}. and {@link com.chess.model.chess.ChessModel#toFEN()}.
      */
     @Test
     public void testStartFEN() {
@@ -28,4 +30,52 @@ public class Test_Model_FEN {
 
         Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1", model.toFEN());
     }
+
+    @Test
+    public void testRoundTrip() {
+        model.loadFEN(ChessPerft.KIWIPETE);
+
+        Assertions.assertEquals(ChessPerft.KIWIPETE, model.toFEN());
+
+        model.loadFEN("  8/8/8/3pP3/8/8/8/k6K   w - d6 3 41 ");
+
+        Assertions.assertEquals("8/8/8/3pP3/8/8/8/k6K w - d6 3 41", model.toFEN());
+
+        // The move clocks may be left out
+        model.loadFEN("8/8/8/8/8/8/8/k6K b - -");
+
+        Assertions.assertEquals("8/8/8/8/8/8/8/k6K b - - 0 1", model.toFEN());
+    }
+
+    @Test
+    public void testInvalidFENLeavesGame() {
+        loadInitialPosition();
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> model.loadFEN("8/8/8/8/8/8/8/k6K w - - x 1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> model.loadFEN("8/8/8/8/8/8/8/k6X w - - 0 1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> model.loadFEN("8/8/8/8/8/8/k6K w - - 0 1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> model.loadFEN("8/8/8/8/8/8/8/k6K w"));
+
+        Assertions.assertEquals(ChessPerft.START_POSITION, model.toFEN());
+    }
+
+    @Test
+    public void testLoadOnlyChangesCells() {
+        loadInitialPosition();
+
+        final Piece knight = model.getBoard().getCell(0, 6).getPiece();
+        final int[] events = new int[1];
+
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                model.getBoard().getCell(row, col).getOnPieceChangedEvent().addDelegate(piece -> events[0]++);
+            }
+        }
+
+        // Only the knight moves, from g1 to f3
+        model.loadFEN("rnbqkbnr/pppppppp/8/8/8/5N2/PPPPPPPP/RNBQKB1R b KQkq - 1 1");
+
+        Assertions.assertEquals(2, events[0]);
+        Assertions.assertSame(knight, model.getBoard().getCell(2, 5).getPiece());
+    }
 }
@@ -0,0 +1,67 @@
+package com.chess;
+
+import com.chess.model.chess.ChessModel;
+import com.chess.model.chess.ChessMoveEncoding;
+import com.chess.model.chess.ChessPerft;
+import com.chess.model.chess.ChessTypeIdentifier;
+
+import org.junit.jupiter.api.*;
+
+public class Test_Model_Perft {
+    private ChessModel model;
+
+    @BeforeEach
+    public void setUp() {
+        model = new ChessModel();
+    }
+
+    /**
+     * Assert that perft of a position matches the known node count, and that the position is left unchanged.
+     */
+    private void assertPerft(String fen, int depth) {
+        Assertions.assertEquals(ChessPerft.getKnownResult(fen, depth), ChessPerft.perft(model, fen, depth));
+        Assertions.assertEquals(fen, model.toFEN());
+
+        // The packed move generator must agree
+        Assertions.assertEquals(ChessPerft.getKnownResult(fen, depth), ChessPerft.perftPacked(model, depth));
+        Assertions.assertEquals(fen, model.toFEN());
+    }
+
+    /**
+     * Test method for {@link com.chess.model.chess.ChessPerft#perft(ChessModel, int)}.
+     */
+    @Test
+    public void testStartPosition() {
+        assertPerft(ChessPerft.START_POSITION, 3);
+    }
+
+    @Test
+    public void testKiwipete() {
+        assertPerft(ChessPerft.KIWIPETE, 3);
+    }
+
+    @Test
+    public void testEndgame() {
+        assertPerft(ChessPerft.POSITION_3, 4);
+    }
+
+    @Test
+    public void testPromotions() {
+        assertPerft(ChessPerft.POSITION_4, 3);
+    }
+
+    /**
+     * Test method for {@link com.chess.model.chess.ChessMoveEncoding#encode(int, int, int, int)}.
+     */
+    @Test
+    public void testMoveEncoding() {
+        final int move = ChessMoveEncoding.encode(52, 60, ChessMoveEncoding.getPromotionFlags(ChessTypeIdentifier.KNIGHT, true), 0);
+
+        Assertions.assertEquals(52, ChessMoveEncoding.getFrom(move));
+        Assertions.assertEquals(60, ChessMoveEncoding.getTo(move));
+        Assertions.assertEquals(0, ChessMoveEncoding.getPieceIndex(move));
+        Assertions.assertTrue(ChessMoveEncoding.isCapture(move));
+        Assertions.assertEquals(ChessTypeIdentifier.KNIGHT, ChessMoveEncoding.getPromotionType(move));
+        Assertions.assertEquals("e7e8n", ChessMoveEncoding.toString(move));
+    }
+}
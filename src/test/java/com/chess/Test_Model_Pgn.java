@@ -0,0 +1,168 @@
+package com.chess;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.chess.model.Move;
+import com.chess.model.Position;
+import com.chess.model.chess.ChessModel;
+import com.chess.model.chess.ChessPosition;
+import com.chess.model.chess.ChessTypeIdentifier;
+import com.chess.pgn.PgnGame;
+import com.chess.pgn.PgnGameReport;
+import com.chess.pgn.PgnReader;
+import com.chess.pgn.PgnValidator;
+import com.chess.pgn.PgnWriter;
+import com.chess.pgn.SanNotation;
+
+import org.junit.jupiter.api.*;
+
+public class Test_Model_Pgn {
+    private static final String GAMES =
+        "[Event \"Scholar\"]\n" +
+        "[Result \"1-0\"]\n" +
+        "\n" +
+        "1. e4 {king pawn} e5 2. Bc4 (2. Nf3 Nc6 (2... d6)) Nc6 3. Qh5 $2 Nf6?? 4. Qxf7# 1-0\n" +
+        "\n" +
+        "[Event \"Illegal\"]\n" +
+        "\n" +
+        "1. e4 e5 2. Ke3 *\n" +
+        "\n" +
+        "[Event \"Promotion\"]\n" +
+        "[SetUp \"1\"]\n" +
+        "[FEN \"4k3/1P6/8/8/8/8/8/R3K2R w KQ - 0 1\"]\n" +
+        "\n" +
+        "1. b8=Q+ Kd7 2. O-O-O+ Kc6 3. Rhe1 ; comment to end of line\n" +
+        "0-1\n";
+
+    @Test
+    public void testReader() throws IOException {
+        final PgnReader reader = new PgnReader(new StringReader(GAMES));
+        final PgnGame game = reader.next();
+
+        Assertions.assertEquals("Scholar", game.getTag("Event"));
+        Assertions.assertEquals("1-0", game.getResult());
+        Assertions.assertEquals(List.of("e4", "e5", "Bc4", "Nc6", "Qh5", "Nf6??", "Qxf7#"), game.getMoves());
+
+        Assertions.assertNotNull(reader.next());
+        Assertions.assertEquals(List.of("b8=Q+", "Kd7", "O-O-O+", "Kc6", "Rhe1"), reader.next().getMoves());
+        Assertions.assertNull(reader.next());
+    }
+
+    @Test
+    public void testSan() {
+        final ChessPosition position = ChessPosition.fromFEN("4k3/8/8/8/8/8/4K3/R6R w - - 0 1");
+
+        // Both rooks reach d1, so the rook must be named
+        Assertions.assertEquals(SanNotation.NO_MOVE, SanNotation.parse(position, "Rd1"));
+        Assertions.assertNotEquals(SanNotation.NO_MOVE, SanNotation.parse(position, "Rad1"));
+        Assertions.assertEquals(SanNotation.NO_MOVE, SanNotation.parse(position, "Rh9"));
+        Assertions.assertEquals(SanNotation.NO_MOVE, SanNotation.parse(position, "O-O"));
+    }
+
+    @Test
+    public void testValidator() throws IOException {
+        final PgnValidator validator = new PgnValidator(2, 2);
+        final List<PgnGameReport> reports = new ArrayList<>();
+
+        try {
+            final PgnValidator.Summary summary = validator.validate(new StringReader(GAMES), reports::add);
+
+            Assertions.assertEquals(3, summary.getGames());
+            Assertions.assertEquals(1, summary.getInvalidGames());
+        } finally {
+            validator.shutdown();
+        }
+
+        Assertions.assertEquals(3, reports.size());
+        Assertions.assertTrue(reports.get(0).isValid());
+        Assertions.assertEquals("r1bqkb1r/pppp1Qpp/2n2n2/4p3/2B1P3/8/PPPP1PPP/RNB1K1NR b KQkq - 0 4", reports.get(0).getFinalFEN());
+
+        Assertions.assertFalse(reports.get(1).isValid());
+        Assertions.assertEquals("Ke3", reports.get(1).getIllegalMove());
+        Assertions.assertEquals(2, reports.get(1).getPlies());
+
+        Assertions.assertTrue(reports.get(2).isValid());
+        Assertions.assertEquals("1Q6/8/2k5/8/8/8/8/2KRR3 b - - 4 3", reports.get(2).getFinalFEN());
+    }
+
+    @Test
+    public void testMalformedTag() throws IOException {
+        final String games =
+            "[Event \"Before\"]\n" +
+            "\n" +
+            "1. d4 d5 *\n" +
+            "\n" +
+            "[Event \"Broken]\n" +
+            "[Site Nowhere]\n" +
+            "\n" +
+            "1. e4 e5 1-0\n" +
+            "\n" +
+            "[Event \"After\"]\n" +
+            "\n" +
+            "1. c4 *\n";
+
+        final PgnValidator validator = new PgnValidator(2, 2);
+        final List<PgnGameReport> reports = new ArrayList<>();
+
+        try {
+            final PgnValidator.Summary summary = validator.validate(new StringReader(games), reports::add);
+
+            Assertions.assertEquals(3, summary.getGames());
+            Assertions.assertEquals(1, summary.getInvalidGames());
+        } finally {
+            validator.shutdown();
+        }
+
+        // The malformed game is reported and skipped, the next is read as usual
+        Assertions.assertTrue(reports.get(0).isValid());
+        Assertions.assertFalse(reports.get(1).isValid());
+        Assertions.assertEquals("Unterminated PGN tag Event in game 2", reports.get(1).getError());
+        Assertions.assertEquals(List.of("e4", "e5"), reports.get(1).getGame().getMoves());
+        Assertions.assertEquals("After", reports.get(2).getGame().getTag("Event"));
+        Assertions.assertTrue(reports.get(2).isValid());
+    }
+
+    @Test
+    public void testSanDisambiguation() {
+        final ChessPosition files = ChessPosition.fromFEN("4k3/8/8/8/8/8/4K3/R6R w - - 0 1");
+        final ChessPosition ranks = ChessPosition.fromFEN("4k3/8/8/R7/8/8/4K3/R7 w - - 0 1");
+        final ChessPosition both = ChessPosition.fromFEN("6k1/8/8/8/Q6Q/8/8/Q3K3 w - - 0 1");
+
+        Assertions.assertEquals("Rad1", SanNotation.toSan(files, SanNotation.parse(files, "Rad1")));
+        Assertions.assertEquals("R1a3", SanNotation.toSan(ranks, SanNotation.parse(ranks, "R1a3")));
+        Assertions.assertEquals("Qa4d4", SanNotation.toSan(both, SanNotation.parse(both, "Qa4d4")));
+
+        final ChessPosition mate = ChessPosition.fromFEN("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+
+        Assertions.assertEquals("Ra8#", SanNotation.toSan(mate, SanNotation.parse(mate, "Ra8")));
+    }
+
+    @Test
+    public void testWriteModel() throws IOException {
+        final ChessModel model = new ChessModel();
+
+        model.loadFEN("4k3/8/8/8/8/8/8/1N2KN2 w - - 0 1");
+        model.takeTurn(Position.of("b1"), Position.of("d2"));
+        model.registerMove(true, new Move(Position.of("d2"), Position.of("b1"), ChessTypeIdentifier.KNIGHT));
+        model.takeTurn(Position.of("e8"), Position.of("d7"));
+        model.registerMove(true, new Move(Position.of("d7"), Position.of("e8"), ChessTypeIdentifier.KING));
+
+        final StringWriter out = new StringWriter();
+
+        try (PgnWriter writer = new PgnWriter(out)) {
+            writer.write(model);
+        }
+
+        Assertions.assertTrue(out.toString().contains("1. Nbd2 Kd7 *"));
+
+        final PgnGame game = new PgnReader(new StringReader(out.toString())).next();
+
+        Assertions.assertEquals(List.of("Nbd2", "Kd7"), game.getMoves());
+        Assertions.assertEquals("4k3/8/8/8/8/8/8/1N2KN2 w - - 0 1", game.getStartFEN());
+        Assertions.assertEquals(model.toFEN(), PgnValidator.replay(1, game, new int[256]).getFinalFEN());
+    }
+}
@@ -40,4 +40,24 @@ public class Test_Model_Position {
 
         Assertions.assertEquals(piece.getTypeIdentifier(), ChessTypeIdentifier.PAWN);
     }
+
+    /**
+     * Test method for {@link com.chess.model.Position#of(int, int)}.
+     */
+    @Test
+    public void testInterned() {
+        final Position e2 = Position.of("e2");
+
+        Assertions.assertSame(e2, Position.of(1, 4));
+        Assertions.assertSame(e2, Position.of(12));
+        Assertions.assertSame(e2, Position.of("e1").addRow(1));
+        Assertions.assertEquals(12, e2.getIndex());
+
+        // Constructed positions are still equal to interned ones
+        Assertions.assertEquals(e2, new Position("e2"));
+
+        // Positions outside the board are not interned
+        Assertions.assertEquals(-1, Position.of(-1, 4).getIndex());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Position.of(64));
+    }
 }
@@ -0,0 +1,118 @@
+package com.chess;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+
+import com.chess.model.chess.ChessModel;
+import com.chess.model.chess.ChessSaveFormat;
+import com.chess.model.chess.ChessTypeIdentifier;
+import com.chess.model.chess.SerialModel;
+
+import org.junit.jupiter.api.*;
+
+public class Test_Model_Save {
+    private ChessModel model;
+
+    @BeforeEach
+    public void setUp() {
+        model = ModelGames.startGame();
+    }
+
+    /**
+     * Test method for {@link com.chess.model.chess.ChessSaveFormat#encode(SerialModel)}.
+     */
+    @Test
+    public void testRoundTrip() throws IOException {
+        ModelGames.play(model, "e2", "e4");
+        ModelGames.play(model, "g8", "f6");
+        ModelGames.play(model, "g1", "f3");
+
+        final SerialModel saved = model.getSerialModel();
+        final SerialModel loaded = ChessSaveFormat.decode(ChessSaveFormat.encode(saved));
+
+        Assertions.assertEquals(saved.getFen(), loaded.getFen());
+        Assertions.assertEquals(saved.getMoveList(), loaded.getMoveList());
+        Assertions.assertEquals(saved.getWhiteName(), loaded.getWhiteName());
+        Assertions.assertEquals(saved.getBlackTime().toString(), loaded.getBlackTime().toString());
+        Assertions.assertEquals(saved.getWhiteSkinMap().get(ChessTypeIdentifier.QUEEN).getSkinPath(),
+                loaded.getWhiteSkinMap().get(ChessTypeIdentifier.QUEEN).getSkinPath());
+    }
+
+    @Test
+    public void testReadsSerializedSave() throws IOException {
+        ModelGames.play(model, "e2", "e4");
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (ObjectOutputStream stream = new ObjectOutputStream(bytes)) {
+            stream.writeObject(model.getSerialModel());
+        }
+
+        final SerialModel loaded = ChessSaveFormat.read(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())));
+
+        Assertions.assertEquals(model.toFEN(), loaded.getFen());
+        Assertions.assertTrue(ChessSaveFormat.encode(model.getSerialModel()).remaining() * 4 < bytes.size());
+    }
+
+    @Test
+    public void testRejectsCorruptSave() {
+        final ByteBuffer buffer = ChessSaveFormat.encode(model.getSerialModel());
+
+        buffer.limit(buffer.limit() - 5);
+
+        Assertions.assertThrows(IOException.class, () -> ChessSaveFormat.decode(buffer));
+        Assertions.assertThrows(IOException.class, () -> ChessSaveFormat.decode(ByteBuffer.wrap(new byte[] { 'P', 'K' })));
+    }
+
+    @Test
+    public void testCorruptBytes() {
+        ModelGames.play(model, "e2", "e4");
+        ModelGames.play(model, "g8", "f6");
+
+        final ByteBuffer save = ChessSaveFormat.encode(model.getSerialModel());
+        final byte[] bytes = new byte[save.remaining()];
+
+        save.get(bytes);
+
+        // Every byte set to every value either decodes or is reported as corrupt
+        for (int i = 0; i < bytes.length; i++) {
+            final byte original = bytes[i];
+
+            for (int value = 0; value < 256; value++) {
+                bytes[i] = (byte) value;
+
+                try {
+                    ChessSaveFormat.decode(ByteBuffer.wrap(bytes));
+                } catch (IOException e) {
+                    // Expected for most values
+                }
+            }
+
+            bytes[i] = original;
+        }
+    }
+
+    @Test
+    public void testRepetitionAcrossSave() throws IOException {
+        ModelGames.play(model, "g1", "f3");
+        ModelGames.play(model, "g8", "f6");
+        ModelGames.play(model, "f3", "g1");
+        ModelGames.play(model, "f6", "g8");
+        ModelGames.play(model, "g1", "f3");
+        ModelGames.play(model, "g8", "f6");
+        ModelGames.play(model, "f3", "g1");
+
+        final SerialModel loaded = ChessSaveFormat.decode(ChessSaveFormat.encode(model.getSerialModel()));
+
+        model = new ChessModel();
+        model.loadModel(loaded);
+
+        ModelGames.play(model, "f6", "g8");
+
+        Assertions.assertEquals(3, model.getRepetitionCount());
+    }
+}
@@ -0,0 +1,246 @@
+package com.chess;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+
+import com.chess.control.ChessControlInterface;
+import com.chess.engine.EnginePlayer;
+import com.chess.engine.ParallelSearch;
+import com.chess.engine.SearchEngine;
+import com.chess.engine.SearchResult;
+import com.chess.engine.TranspositionTable;
+import com.chess.model.Identifier;
+import com.chess.model.Move;
+import com.chess.model.Position;
+import com.chess.model.chess.ChessModel;
+import com.chess.model.chess.ChessMoveEncoding;
+import com.chess.model.chess.ChessPerft;
+import com.chess.model.chess.ChessPosition;
+import com.chess.model.chess.ChessTeam;
+import com.chess.model.chess.ChessTeamIdentifier;
+import com.chess.model.chess.ChessTypeIdentifier;
+import com.chess.pgn.SanNotation;
+
+import org.junit.jupiter.api.*;
+
+public class Test_Model_Search {
+    private ChessModel model;
+    private SearchEngine engine;
+
+    @BeforeEach
+    public void setUp() {
+        model = new ChessModel();
+        engine = new SearchEngine(model);
+    }
+
+    /**
+     * Test method for {@link com.chess.engine.SearchEngine#search(int, long)}.
+     */
+    @Test
+    public void testMateInOne() {
+        final String fen = "6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1";
+
+        model.loadFEN(fen);
+
+        final SearchResult result = engine.search(3, 0);
+
+        Assertions.assertEquals("a1a8", ChessMoveEncoding.toString(result.getBestMove()));
+        Assertions.assertEquals(SearchEngine.MATE - 1, result.getScore());
+        Assertions.assertEquals(fen, model.toFEN());
+    }
+
+    @Test
+    public void testWinsMaterial() {
+        model.loadFEN("4k3/8/8/3q4/8/8/8/3RK3 w - - 0 1");
+
+        Assertions.assertEquals("d1d5", ChessMoveEncoding.toString(engine.search(4, 0).getBestMove()));
+    }
+
+    @Test
+    public void testTimeLimit() {
+        model.loadFEN(ChessPerft.KIWIPETE);
+
+        final SearchResult result = engine.search(SearchEngine.MAX_PLY, 200);
+
+        Assertions.assertTrue(result.hasMove());
+        Assertions.assertTrue(result.getDepth() >= 1);
+        Assertions.assertTrue(result.getElapsedMillis() < 1000);
+        Assertions.assertEquals(ChessPerft.KIWIPETE, model.toFEN());
+    }
+
+    /**
+     * Test method for {@link com.chess.engine.TranspositionTable#store(long, int, int, int, int)}.
+     */
+    @Test
+    public void testTranspositionTable() {
+        final TranspositionTable table = new TranspositionTable(1);
+        final long key = 0x123456789ABCDEFL;
+
+        Assertions.assertEquals(0, table.probe(key));
+
+        table.store(key, 1234, -SearchEngine.MATE + 3, 7, TranspositionTable.LOWER);
+
+        final long entry = table.probe(key);
+
+        Assertions.assertEquals(1234, TranspositionTable.getMove(entry));
+        Assertions.assertEquals(-SearchEngine.MATE + 3, TranspositionTable.getScore(entry));
+        Assertions.assertEquals(7, TranspositionTable.getDepth(entry));
+        Assertions.assertEquals(TranspositionTable.LOWER, TranspositionTable.getBound(entry));
+
+        // A shallower bound does not replace a deeper one
+        table.store(key, 0, 50, 3, TranspositionTable.UPPER);
+
+        Assertions.assertEquals(7, TranspositionTable.getDepth(table.probe(key)));
+        Assertions.assertEquals(0, table.probe(key + 1));
+    }
+
+    /**
+     * Test method for {@link com.chess.engine.ParallelSearch#search(String, int, long)}.
+     */
+    @Test
+    public void testParallelSearch() {
+        final ParallelSearch search = new ParallelSearch(3);
+
+        try {
+            final SearchResult result = search.search("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1", 4, 0);
+
+            Assertions.assertEquals("a1a8", ChessMoveEncoding.toString(result.getBestMove()));
+            Assertions.assertEquals(SearchEngine.MATE - 1, result.getScore());
+        } finally {
+            search.shutdown();
+        }
+    }
+
+    /**
+     * Test method for {@link com.chess.engine.ParallelSearch#search(String, int[], int, long)}.
+     */
+    @Test
+    public void testRepetitionHistory() {
+        final String start = "7k/8/8/8/8/8/1Q6/7K b - - 0 1";
+        final int[] moves = new int[4];
+
+        ChessPosition position = ChessPosition.fromFEN(start);
+
+        // Both sides go back and forth, so Kg8 reaches a position for the second time
+        int i = 0;
+
+        for (String san : new String[] { "Kg8", "Qb3", "Kh8", "Qb2" }) {
+            moves[i++] = SanNotation.parse(position, san);
+            position = position.makeMove(moves[i - 1]);
+        }
+
+        final ParallelSearch search = new ParallelSearch(1);
+
+        try {
+            final SearchResult result = search.search(start, moves, 4, 0);
+
+            // A queen down, black draws by going back once more
+            Assertions.assertEquals("h8g8", ChessMoveEncoding.toString(result.getBestMove()));
+            Assertions.assertEquals(0, result.getScore());
+        } finally {
+            search.shutdown();
+        }
+    }
+
+    /**
+     * Test method for {@link com.chess.engine.EnginePlayer#requestMove()}.
+     */
+    @Test
+    public void testEnginePlayer() throws InterruptedException {
+        final BlockingQueue<Object[]> played = new LinkedBlockingQueue<>();
+
+        model.loadFEN("4k3/P7/8/8/8/8/8/4K3 w - - 0 1");
+
+        final EnginePlayer player = new EnginePlayer(recordingControl(played), model, ChessTeamIdentifier.WHITE);
+
+        player.setMaxDepth(3);
+        player.start();
+
+        try {
+            final Object[] move = played.poll(10, TimeUnit.SECONDS);
+
+            Assertions.assertNotNull(move, "Timed out waiting for the engine");
+            Assertions.assertEquals(Position.of("a7"), ((Move) move[0]).getFromCell());
+            Assertions.assertEquals(Position.of("a8"), ((Move) move[0]).getToCell());
+            Assertions.assertEquals(ChessTypeIdentifier.QUEEN, move[1]);
+            Assertions.assertEquals(true, move[2]);
+        } finally {
+            player.stop();
+        }
+    }
+
+    /**
+     * Test method for {@link com.chess.engine.EnginePlayer#stop()}.
+     */
+    @Test
+    public void testEnginePlayerStopped() throws Exception {
+        final BlockingQueue<Object[]> played = new LinkedBlockingQueue<>();
+        final CountDownLatch searched = new CountDownLatch(1);
+
+        model.loadFEN(ChessPerft.START_POSITION);
+
+        final EnginePlayer player = new EnginePlayer(recordingControl(played), model, ChessTeamIdentifier.WHITE);
+
+        player.setMoveTime(10000);
+        player.getOnSearchCompletedEvent().addDelegate(result -> searched.countDown());
+        player.start();
+
+        Thread.sleep(200);
+
+        // The search returns early with the best move so far, which is not played
+        player.stop();
+
+        Assertions.assertTrue(searched.await(10, TimeUnit.SECONDS));
+
+        // Give the search thread time to queue a move, then run what the event dispatch thread has queued
+        Thread.sleep(100);
+        SwingUtilities.invokeAndWait(() -> { });
+
+        Assertions.assertTrue(played.isEmpty());
+    }
+
+    /**
+     * Create a control recording the moves played through it.
+     *
+     * @param played receives the move, the promotion type and whether it was played on the event dispatch thread
+     * @return the control
+     */
+    private static ChessControlInterface recordingControl(BlockingQueue<Object[]> played) {
+        return new ChessControlInterface() {
+            @Override
+            public void setPaused(boolean paused) {
+            }
+
+            @Override
+            public void setLocalTeam(ChessTeam team) {
+            }
+
+            @Override
+            public void promotePawn(int row, int col, Identifier typeIdentifier, boolean isElimination) {
+                Assertions.fail("The engine promotes with its move");
+            }
+
+            @Override
+            public void executeMove(Move move) {
+            }
+
+            @Override
+            public void replayMove(Move move, Identifier promotionType) {
+            }
+
+            @Override
+            public void movePiece(Move move) {
+                movePiece(move, null);
+            }
+
+            @Override
+            public void movePiece(Move move, Identifier promotionType) {
+                played.add(new Object[] { move, promotionType, SwingUtilities.isEventDispatchThread() });
+            }
+        };
+    }
+}
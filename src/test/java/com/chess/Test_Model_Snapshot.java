@@ -0,0 +1,74 @@
+package com.chess;
+
+import com.chess.model.chess.ChessModel;
+import com.chess.model.chess.ChessMoveGenerator;
+import com.chess.model.chess.ChessMoveUndo;
+import com.chess.model.chess.ChessPerft;
+import com.chess.model.chess.ChessPosition;
+
+import org.junit.jupiter.api.*;
+
+public class Test_Model_Snapshot {
+    private ChessModel model;
+
+    @BeforeEach
+    public void setUp() {
+        model = new ChessModel();
+    }
+
+    /**
+     * Count the leaf nodes of the legal move tree by making moves on positions, and check
+     * that every position agrees with the model playing the same moves.
+     */
+    private long perft(ChessPosition position, int depth) {
+        Assertions.assertEquals(model.getPositionKey(), position.getKey());
+
+        if (depth == 0) {
+            return 1;
+        }
+
+        final int[] moves = new int[ChessMoveGenerator.MAX_MOVES];
+        final int count = position.generateLegalMoves(moves);
+
+        long nodes = 0;
+
+        for (int i = 0; i < count; i++) {
+            final ChessMoveUndo undo = model.makeMove(moves[i]);
+
+            nodes += perft(position.makeMove(moves[i]), depth - 1);
+
+            model.unmakeMove(undo);
+        }
+
+        return nodes;
+    }
+
+    /**
+     * Test method for {@link com.chess.model.chess.ChessPosition#makeMove(int)}.
+     */
+    @Test
+    public void testPerft() {
+        for (String fen : new String[] { ChessPerft.KIWIPETE, ChessPerft.POSITION_3, ChessPerft.POSITION_4 }) {
+            model.loadFEN(fen);
+
+            final ChessPosition position = model.getPosition();
+
+            Assertions.assertEquals(ChessPerft.getKnownResult(fen, 3), perft(position, 3));
+            Assertions.assertEquals(fen, position.toFEN());
+        }
+    }
+
+    /**
+     * Test method for {@link com.chess.model.chess.ChessPosition#fromFEN(CharSequence)}.
+     */
+    @Test
+    public void testFEN() {
+        model.loadFEN(ChessPerft.KIWIPETE);
+
+        final ChessPosition position = ChessPosition.fromFEN(ChessPerft.KIWIPETE);
+
+        Assertions.assertEquals(model.getPosition(), position);
+        Assertions.assertEquals(ChessPerft.START_POSITION, ChessPosition.START.toFEN());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessPosition.fromFEN("8/8/8 w - -"));
+    }
+}
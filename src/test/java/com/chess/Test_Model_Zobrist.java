@@ -0,0 +1,75 @@
+package com.chess;
+
+import com.chess.model.Move;
+import com.chess.model.Position;
+import com.chess.model.chess.ChessModel;
+import com.chess.model.chess.ChessPerft;
+import com.chess.model.chess.ChessTypeIdentifier;
+
+import org.junit.jupiter.api.*;
+
+public class Test_Model_Zobrist {
+    private ChessModel model;
+
+    @BeforeEach
+    public void setUp() {
+        model = new ChessModel();
+        model.loadFEN(ChessPerft.START_POSITION);
+    }
+
+    /**
+     * Make a move given as two position strings.
+     */
+    private void makeMove(String from, String to, ChessTypeIdentifier type) {
+        model.makeMove(new Move(Position.of(to), Position.of(from), type), null);
+    }
+
+    /**
+     * Test method for {@link com.chess.model.chess.ChessModel#getPositionKey()}.
+     */
+    @Test
+    public void testTransposition() {
+        final long start = model.getPositionKey();
+
+        makeMove("g1", "f3", ChessTypeIdentifier.KNIGHT);
+
+        Assertions.assertNotEquals(start, model.getPositionKey());
+
+        makeMove("g8", "f6", ChessTypeIdentifier.KNIGHT);
+        makeMove("f3", "g1", ChessTypeIdentifier.KNIGHT);
+        makeMove("f6", "g8", ChessTypeIdentifier.KNIGHT);
+
+        Assertions.assertEquals(start, model.getPositionKey());
+    }
+
+    @Test
+    public void testSameAsLoaded() {
+        makeMove("e2", "e4", ChessTypeIdentifier.PAWN);
+
+        final ChessModel loaded = new ChessModel();
+
+        // An en passant position which can not be taken does not change the key
+        loaded.loadFEN("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1");
+
+        Assertions.assertEquals(loaded.getPositionKey(), model.getPositionKey());
+
+        makeMove("d7", "d5", ChessTypeIdentifier.PAWN);
+        makeMove("e4", "d5", ChessTypeIdentifier.PAWN);
+        makeMove("e8", "d7", ChessTypeIdentifier.KING);
+
+        loaded.loadFEN(model.toFEN());
+
+        Assertions.assertEquals(loaded.getPositionKey(), model.getPositionKey());
+    }
+
+    @Test
+    public void testUnmake() {
+        model.loadFEN(ChessPerft.KIWIPETE);
+
+        final long start = model.getPositionKey();
+
+        ChessPerft.perftPacked(model, 3);
+
+        Assertions.assertEquals(start, model.getPositionKey());
+    }
+}
@@ -0,0 +1,93 @@
+package com.chess;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.chess.control.messages.ChangeNameMessage;
+import com.chess.control.messages.ChessProtocol;
+import com.chess.network.NetworkClient;
+import com.chess.network.NetworkServer;
+import com.chess.network.NioNetworkServer;
+
+import org.junit.jupiter.api.*;
+
+public class Test_Network_Broadcast {
+    /**
+     * The number of broadcasts, about 12 MB in all.
+     */
+    private static final int BROADCASTS = 200;
+
+    /**
+     * A name as long as a name can be written.
+     */
+    private static final String LONG_NAME = "x".repeat(60000);
+
+    /**
+     * Connect a client which reads every broadcast and one which reads none, broadcast, and
+     * check the broadcasts neither wait for the slow client nor keep it.
+     */
+    private void broadcastPastSlowClient(int port, Runnable broadcast, CountDownLatch disconnected) throws IOException, InterruptedException {
+        final CountDownLatch received = new CountDownLatch(BROADCASTS);
+        final NetworkClient fast = new NetworkClient("127.0.0.1", port, ChessProtocol.create());
+
+        fast.setMessageDelegate(ChangeNameMessage.class, (message) -> received.countDown());
+        fast.start();
+
+        try (Socket slow = new Socket("127.0.0.1", port)) {
+            // Let the server see both connections
+            Thread.sleep(200);
+
+            Assertions.assertTrue(slow.isConnected());
+
+            final long start = System.nanoTime();
+
+            for (int i = 0; i < BROADCASTS; i++) {
+                broadcast.run();
+            }
+
+            Assertions.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2), "Broadcasting waited for the slow client");
+            Assertions.assertTrue(received.await(10, TimeUnit.SECONDS));
+            Assertions.assertTrue(disconnected.await(10, TimeUnit.SECONDS));
+        } finally {
+            fast.stop();
+        }
+    }
+
+    /**
+     * Test method for {@link com.chess.network.NetworkServer#broadcastMessage(com.chess.network.Message)}.
+     */
+    @Test
+    public void testSlowClient() throws IOException, InterruptedException {
+        final NetworkServer server = new NetworkServer("127.0.0.1", 0, ChessProtocol.create());
+        final CountDownLatch disconnected = new CountDownLatch(1);
+
+        server.setOnClientDisconnectedDelegate((client) -> disconnected.countDown());
+        server.start();
+
+        try {
+            broadcastPastSlowClient(server.getPort(), () -> server.broadcastMessage(new ChangeNameMessage(LONG_NAME, true)), disconnected);
+        } finally {
+            server.stop();
+        }
+    }
+
+    /**
+     * Test method for {@link com.chess.network.NioNetworkServer#broadcastMessage(com.chess.network.Message)}.
+     */
+    @Test
+    public void testSlowNioClient() throws IOException, InterruptedException {
+        final NioNetworkServer server = new NioNetworkServer("127.0.0.1", 0, ChessProtocol.create(), 1);
+        final CountDownLatch disconnected = new CountDownLatch(1);
+
+        server.setOnClientDisconnectedDelegate((client) -> disconnected.countDown());
+        server.start();
+
+        try {
+            broadcastPastSlowClient(server.getPort(), () -> server.broadcastMessage(new ChangeNameMessage(LONG_NAME, true)), disconnected);
+        } finally {
+            server.stop();
+        }
+    }
+}
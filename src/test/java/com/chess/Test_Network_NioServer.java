@@ -0,0 +1,131 @@
+package com.chess;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.chess.control.messages.ChangeNameMessage;
+import com.chess.control.messages.ChessProtocol;
+import com.chess.control.messages.PauseGameMessage;
+import com.chess.network.NetworkClient;
+import com.chess.network.NioNetworkServer;
+
+import org.junit.jupiter.api.*;
+
+public class Test_Network_NioServer {
+    private NioNetworkServer server;
+
+    private final List<NetworkClient> clients = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new NioNetworkServer("127.0.0.1", 0, ChessProtocol.create(), 2);
+
+        // Echo names back to the client which sent them
+        server.setMessageDelegate(ChangeNameMessage.class, (client, message) -> client.sendMessage(message));
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        for (NetworkClient client : clients) {
+            client.stop();
+        }
+
+        server.stop();
+    }
+
+    /**
+     * Test method for {@link com.chess.network.NioNetworkServer#broadcastMessage(com.chess.network.Message)}.
+     */
+    @Test
+    public void testManyClients() throws IOException, InterruptedException {
+        final int count = 100;
+        final CountDownLatch echoes = new CountDownLatch(count);
+        final CountDownLatch broadcasts = new CountDownLatch(count);
+
+        for (int i = 0; i < count; i++) {
+            final String name = "Player " + i;
+            final NetworkClient client = new NetworkClient("127.0.0.1", server.getPort(), ChessProtocol.create());
+
+            client.setMessageDelegate(ChangeNameMessage.class, (message) -> {
+                if (((ChangeNameMessage) message).getName().equals(name)) {
+                    echoes.countDown();
+                }
+            });
+            client.setMessageDelegate(PauseGameMessage.class, (message) -> broadcasts.countDown());
+            client.start();
+            client.sendMessage(new ChangeNameMessage(name, i % 2 == 0));
+
+            clients.add(client);
+        }
+
+        Assertions.assertTrue(echoes.await(10, TimeUnit.SECONDS));
+        Assertions.assertEquals(count, server.getClientCount());
+
+        server.broadcastMessage(new PauseGameMessage(true));
+
+        Assertions.assertTrue(broadcasts.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testSplitFrames() throws IOException {
+        final byte[] small = ChessProtocol.create().encode(new ChangeNameMessage("Split", true));
+        final byte[] large = ChessProtocol.create().encode(new ChangeNameMessage("x".repeat(40000), false));
+
+        // Send the frames a few bytes at a time, the echoes must come back whole
+        try (Socket socket = new Socket("127.0.0.1", server.getPort())) {
+            socket.setTcpNoDelay(true);
+
+            final OutputStream out = socket.getOutputStream();
+
+            for (byte b : small) {
+                out.write(b);
+                out.flush();
+            }
+
+            for (int i = 0; i < large.length; i += 1000) {
+                out.write(large, i, Math.min(1000, large.length - i));
+                out.flush();
+            }
+
+            final byte[] received = socket.getInputStream().readNBytes(small.length + large.length);
+
+            Assertions.assertArrayEquals(small, Arrays.copyOf(received, small.length));
+            Assertions.assertArrayEquals(large, Arrays.copyOfRange(received, small.length, received.length));
+        }
+    }
+
+    @Test
+    public void testSerializedFrame() throws IOException {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        // Tag 0 and a serialized message, as frames were once sent for types without a codec
+        body.write(0);
+
+        try (ObjectOutputStream stream = new ObjectOutputStream(body)) {
+            stream.writeObject(new ChangeNameMessage("Serialized", true));
+        }
+
+        try (Socket socket = new Socket("127.0.0.1", server.getPort())) {
+            socket.setSoTimeout(10000);
+
+            final OutputStream out = socket.getOutputStream();
+
+            out.write(body.size() & 0x7F | 0x80);
+            out.write(body.size() >>> 7);
+            body.writeTo(out);
+            out.flush();
+
+            // The server closes the connection instead of echoing the name
+            Assertions.assertEquals(-1, socket.getInputStream().read());
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.chess;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.chess.control.ChessControlInterface;
+import com.chess.control.MovePrediction;
+import com.chess.control.messages.AffirmMoveMessage;
+import com.chess.control.messages.MovePieceMessage;
+import com.chess.control.messages.RejectMoveMessage;
+import com.chess.model.Identifier;
+import com.chess.model.Move;
+import com.chess.model.Position;
+import com.chess.model.chess.ChessModel;
+import com.chess.model.chess.ChessPerft;
+import com.chess.model.chess.ChessTeam;
+import com.chess.model.chess.ChessTypeIdentifier;
+import com.chess.network.Message;
+
+import org.junit.jupiter.api.*;
+
+public class Test_Network_Prediction {
+    /**
+     * Makes moves on the model, as the control does.
+     */
+    private final class StubControl implements ChessControlInterface {
+        private final List<Move> executed = new ArrayList<>();
+
+        @Override
+        public void setPaused(boolean paused) {
+            model.setPaused(paused);
+        }
+
+        @Override
+        public void setLocalTeam(ChessTeam team) {
+        }
+
+        @Override
+        public void promotePawn(int row, int col, Identifier typeIdentifier, boolean isElimination) {
+        }
+
+        @Override
+        public void executeMove(Move move) {
+            executed.add(move);
+
+            model.takeTurn(move.getFromCell(), move.getToCell());
+            model.registerMove(move.getPieceType() != ChessTypeIdentifier.PAWN && !move.isEliminatable(), move);
+        }
+
+        @Override
+        public void replayMove(Move move, Identifier promotionType) {
+            executeMove(move);
+        }
+
+        @Override
+        public void movePiece(Move move) {
+            prediction.predictMove(move);
+            executeMove(move);
+        }
+
+        @Override
+        public void movePiece(Move move, Identifier promotionType) {
+            movePiece(move);
+        }
+    }
+
+    private ChessModel model;
+
+    private StubControl control;
+
+    private MovePrediction prediction;
+
+    private final List<Message> sent = new ArrayList<>();
+
+    private int rollBacks;
+
+    @BeforeEach
+    public void setUp() {
+        model = new ChessModel();
+        model.loadFEN(ChessPerft.START_POSITION);
+
+        control = new StubControl();
+        prediction = new MovePrediction(control, model, sent::add, () -> rollBacks++);
+    }
+
+    private static Move move(String from, String to, ChessTypeIdentifier type) {
+        return new Move(Position.of(to), Position.of(from), type);
+    }
+
+    private static AffirmMoveMessage affirm(String from, String to, ChessTypeIdentifier type, int sequence) {
+        final Position fromCell = Position.of(from);
+        final Position toCell = Position.of(to);
+
+        return new AffirmMoveMessage(fromCell.getRow(), fromCell.getCol(), toCell.getRow(), toCell.getCol(), false, type, sequence);
+    }
+
+    /**
+     * Test method for {@link com.chess.control.MovePrediction#affirmMove(AffirmMoveMessage)}.
+     */
+    @Test
+    public void testAffirmed() {
+        control.movePiece(move("e2", "e4", ChessTypeIdentifier.PAWN));
+
+        final MovePieceMessage request = (MovePieceMessage) sent.get(0);
+
+        Assertions.assertEquals(1, request.getSequence());
+
+        // The move is on the board already, and is not made again
+        prediction.affirmMove(affirm("e2", "e4", ChessTypeIdentifier.PAWN, request.getSequence()));
+
+        Assertions.assertEquals(1, control.executed.size());
+        Assertions.assertEquals(1, model.getMoveHistory().length);
+        Assertions.assertEquals(0, rollBacks);
+
+        // The next move of the host is applied
+        prediction.affirmMove(affirm("e7", "e5", ChessTypeIdentifier.PAWN, 0));
+
+        Assertions.assertEquals(2, control.executed.size());
+        Assertions.assertEquals(2, model.getMoveHistory().length);
+    }
+
+    /**
+     * Test method for {@link com.chess.control.MovePrediction#affirmMove(AffirmMoveMessage)}.
+     */
+    @Test
+    public void testAffirmedOther() {
+        control.movePiece(move("e2", "e4", ChessTypeIdentifier.PAWN));
+
+        // The host made another move first
+        prediction.affirmMove(affirm("d2", "d4", ChessTypeIdentifier.PAWN, 0));
+
+        Assertions.assertEquals(1, rollBacks);
+        Assertions.assertEquals(1, model.getMoveHistory().length);
+        Assertions.assertEquals(1, model.getMoveList().size());
+        Assertions.assertNull(model.getBoard().getCell(Position.of("e4")).getPiece());
+        Assertions.assertNotNull(model.getBoard().getCell(Position.of("d4")).getPiece());
+        Assertions.assertNotNull(model.getBoard().getCell(Position.of("e2")).getPiece());
+    }
+
+    /**
+     * Test method for {@link com.chess.control.MovePrediction#rejectMove(RejectMoveMessage)}.
+     */
+    @Test
+    public void testRejected() {
+        final long start = model.getPositionKey();
+
+        model.setPaused(false);
+        control.movePiece(move("g1", "f3", ChessTypeIdentifier.KNIGHT));
+
+        // An answer to another move is not ours
+        prediction.rejectMove(new RejectMoveMessage(2));
+
+        Assertions.assertEquals(0, rollBacks);
+        Assertions.assertEquals(1, model.getMoveHistory().length);
+
+        prediction.rejectMove(new RejectMoveMessage(1));
+
+        Assertions.assertEquals(1, rollBacks);
+        Assertions.assertEquals(start, model.getPositionKey());
+        Assertions.assertEquals(0, model.getMoveHistory().length);
+        Assertions.assertEquals(0, model.getMoveList().size());
+
+        // The game goes on without being loaded again
+        Assertions.assertFalse(model.getPaused());
+    }
+}
@@ -0,0 +1,109 @@
+package com.chess;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+
+import com.chess.control.messages.AffirmMoveMessage;
+import com.chess.control.messages.ChangeNameMessage;
+import com.chess.control.messages.ChessProtocol;
+import com.chess.control.messages.LoadGameMessage;
+import com.chess.control.messages.MovePieceMessage;
+import com.chess.control.messages.PromotePawnMessage;
+import com.chess.control.messages.RejectMoveMessage;
+import com.chess.model.chess.ChessModel;
+import com.chess.model.chess.ChessPerft;
+import com.chess.model.chess.ChessTypeIdentifier;
+import com.chess.network.Message;
+import com.chess.network.MessageProtocol;
+
+import org.junit.jupiter.api.*;
+
+public class Test_Network_Protocol {
+    private final MessageProtocol protocol = ChessProtocol.create();
+
+    /**
+     * Send messages through one stream, as a connection does.
+     */
+    private Message[] roundTrip(Message... messages) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        for (Message message : messages) {
+            protocol.write(message, out);
+        }
+
+        final ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+        final Message[] received = new Message[messages.length];
+
+        for (int i = 0; i < messages.length; i++) {
+            received[i] = protocol.read(in);
+        }
+
+        Assertions.assertEquals(0, in.available());
+
+        return received;
+    }
+
+    /**
+     * Test method for {@link com.chess.network.MessageProtocol#encode(Message)}.
+     */
+    @Test
+    public void testMessages() throws IOException {
+        final Message[] received = roundTrip(
+            new MovePieceMessage(1, 4, 3, 4, false, ChessTypeIdentifier.PAWN),
+            new AffirmMoveMessage(7, 6, 5, 5, true, ChessTypeIdentifier.KNIGHT, 65535),
+            new PromotePawnMessage(7, 0, ChessTypeIdentifier.QUEEN, true),
+            new ChangeNameMessage("Vit spelare", true),
+            new RejectMoveMessage(300));
+
+        final MovePieceMessage move = (MovePieceMessage) received[0];
+
+        Assertions.assertEquals(MovePieceMessage.class, move.getClass());
+        Assertions.assertEquals(1, move.getFromRow());
+        Assertions.assertEquals(4, move.getToCol());
+        Assertions.assertEquals(ChessTypeIdentifier.PAWN, move.getPieceType());
+
+        final AffirmMoveMessage affirm = (AffirmMoveMessage) received[1];
+
+        Assertions.assertEquals(6, affirm.getFromCol());
+        Assertions.assertTrue(affirm.isElimination());
+        Assertions.assertEquals(65535, affirm.getSequence());
+
+        Assertions.assertEquals(ChessTypeIdentifier.QUEEN, ((PromotePawnMessage) received[2]).getPieceType());
+        Assertions.assertEquals("Vit spelare", ((ChangeNameMessage) received[3]).getName());
+        Assertions.assertEquals(300, ((RejectMoveMessage) received[4]).getSequence());
+    }
+
+    @Test
+    public void testFrameSize() throws IOException {
+        final MovePieceMessage move = new MovePieceMessage(1, 4, 3, 4, false, ChessTypeIdentifier.PAWN);
+        final ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+
+        try (ObjectOutputStream stream = new ObjectOutputStream(serialized)) {
+            stream.writeObject(move);
+        }
+
+        Assertions.assertEquals(8, protocol.encode(move).length);
+        Assertions.assertTrue(serialized.size() > 200);
+    }
+
+    @Test
+    public void testLoadGame() throws IOException {
+        final ChessModel model = new ChessModel();
+
+        model.loadFEN(ChessPerft.POSITION_4);
+
+        final LoadGameMessage received = (LoadGameMessage) roundTrip(new LoadGameMessage(model.getSerialModel()))[0];
+
+        Assertions.assertEquals(model.toFEN(), received.getModel().getFen());
+    }
+
+    @Test
+    public void testMalformedFrames() {
+        Assertions.assertThrows(IOException.class, () -> protocol.read(new ByteArrayInputStream(new byte[] { 1, (byte) 200 })));
+        Assertions.assertThrows(IOException.class, () -> protocol.read(new ByteArrayInputStream(new byte[] { 3, 1, 12, 28 })));
+        Assertions.assertThrows(IOException.class, () -> protocol.read(new ByteArrayInputStream(new byte[] { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x7F })));
+        Assertions.assertThrows(IOException.class, () -> protocol.read(new ByteArrayInputStream(new byte[] { 1, 0 })));
+    }
+}
@@ -0,0 +1,281 @@
+package com.chess;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.chess.control.messages.AffirmMoveMessage;
+import com.chess.control.messages.ChessProtocol;
+import com.chess.control.messages.ClientReadyMessage;
+import com.chess.control.messages.JoinSessionMessage;
+import com.chess.control.messages.LoadGameMessage;
+import com.chess.control.messages.MovePieceMessage;
+import com.chess.control.messages.PauseGameMessage;
+import com.chess.control.messages.PromotePawnMessage;
+import com.chess.control.messages.RejectMoveMessage;
+import com.chess.control.messages.SetTeamMessage;
+import com.chess.control.messages.SyncMovesMessage;
+import com.chess.control.messages.SyncRequestMessage;
+import com.chess.model.GameTime;
+import com.chess.model.Position;
+import com.chess.model.chess.ChessPerft;
+import com.chess.model.chess.ChessTypeIdentifier;
+import com.chess.network.Message;
+import com.chess.network.NetworkClient;
+import com.chess.network.NioNetworkServer;
+import com.chess.session.SessionManager;
+
+import org.junit.jupiter.api.*;
+
+public class Test_Network_Session {
+    private NioNetworkServer server;
+
+    private SessionManager manager;
+
+    private final Map<NetworkClient, BlockingQueue<Message>> received = new HashMap<>();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new NioNetworkServer("127.0.0.1", 0, ChessProtocol.create(), 2);
+        manager = new SessionManager(server, 2, 5);
+        manager.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        for (NetworkClient client : received.keySet()) {
+            client.stop();
+        }
+
+        manager.stop();
+    }
+
+    private NetworkClient connect() throws IOException {
+        final NetworkClient client = new NetworkClient("127.0.0.1", server.getPort(), ChessProtocol.create());
+        final BlockingQueue<Message> messages = new LinkedBlockingQueue<>();
+
+        client.setMessageDelegate(JoinSessionMessage.class, messages::add);
+        client.setMessageDelegate(SetTeamMessage.class, messages::add);
+        client.setMessageDelegate(LoadGameMessage.class, messages::add);
+        client.setMessageDelegate(AffirmMoveMessage.class, messages::add);
+        client.setMessageDelegate(RejectMoveMessage.class, messages::add);
+        client.start();
+
+        received.put(client, messages);
+
+        return client;
+    }
+
+    private <T extends Message> T next(NetworkClient client, Class<T> type) throws InterruptedException {
+        final Message message = received.get(client).poll(5, TimeUnit.SECONDS);
+
+        Assertions.assertNotNull(message, "Timed out waiting for " + type.getSimpleName());
+        Assertions.assertEquals(type, message.getClass());
+
+        return type.cast(message);
+    }
+
+    private int joined(NetworkClient client) throws InterruptedException {
+        return next(client, JoinSessionMessage.class).getSessionId();
+    }
+
+    private void move(NetworkClient client, String from, String to, int sequence) {
+        final Position fromCell = Position.of(from);
+        final Position toCell = Position.of(to);
+
+        client.sendMessage(new MovePieceMessage(fromCell.getRow(), fromCell.getCol(), toCell.getRow(), toCell.getCol(), false, ChessTypeIdentifier.PAWN, sequence));
+    }
+
+    /**
+     * Test method for the promotions of {@link com.chess.session.SessionManager}.
+     */
+    @Test
+    public void testInvalidPromotion() throws IOException, InterruptedException {
+        final List<NetworkClient> players = new ArrayList<>();
+
+        for (int i = 0; i < 2; i++) {
+            final NetworkClient client = connect();
+
+            client.sendMessage(new ClientReadyMessage());
+            client.sendMessage(new SyncRequestMessage(0, 0, 0));
+
+            joined(client);
+            next(client, SetTeamMessage.class);
+            next(client, LoadGameMessage.class);
+
+            players.add(client);
+        }
+
+        // No pawn waits to be promoted, so the client is sent the whole game to catch up with
+        players.get(0).sendMessage(new PromotePawnMessage(7, 0, ChessTypeIdentifier.QUEEN, false));
+
+        Assertions.assertEquals(ChessPerft.START_POSITION, next(players.get(0), LoadGameMessage.class).getModel().getFen());
+        Assertions.assertNull(received.get(players.get(1)).poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Test method for the pairing and routing of {@link com.chess.session.SessionManager}.
+     */
+    @Test
+    public void testPairing() throws IOException, InterruptedException {
+        final List<NetworkClient> players = new ArrayList<>();
+        final List<Integer> ids = new ArrayList<>();
+
+        for (int i = 0; i < 4; i++) {
+            final NetworkClient client = connect();
+
+            client.sendMessage(new ClientReadyMessage());
+            client.sendMessage(new SyncRequestMessage(0, 0, 0));
+
+            ids.add(joined(client));
+            Assertions.assertEquals(i % 2 == 0, next(client, SetTeamMessage.class).isWhite());
+            next(client, LoadGameMessage.class);
+
+            players.add(client);
+        }
+
+        Assertions.assertEquals(ids.get(0), ids.get(1));
+        Assertions.assertEquals(ids.get(2), ids.get(3));
+        Assertions.assertNotEquals(ids.get(0), ids.get(2));
+        Assertions.assertEquals(2, manager.getSessionCount());
+
+        move(players.get(0), "e2", "e4", 1);
+        move(players.get(2), "d2", "d4", 2);
+
+        for (int i = 0; i < 4; i++) {
+            final AffirmMoveMessage affirmed = next(players.get(i), AffirmMoveMessage.class);
+
+            Assertions.assertEquals(i < 2 ? 4 : 3, affirmed.getFromCol());
+            Assertions.assertEquals(ChessTypeIdentifier.PAWN, affirmed.getPieceType());
+            Assertions.assertEquals(i < 2 ? 1 : 2, affirmed.getSequence());
+        }
+
+        // Black may not move a white piece, so the next move affirmed is the one of black
+        move(players.get(1), "d2", "d4", 1);
+        move(players.get(1), "e7", "e5", 2);
+
+        Assertions.assertEquals(Position.of("e7").getRow(), next(players.get(0), AffirmMoveMessage.class).getFromRow());
+
+        // Only the client of the illegal move is told
+        Assertions.assertEquals(1, next(players.get(1), RejectMoveMessage.class).getSequence());
+        Assertions.assertEquals(2, next(players.get(1), AffirmMoveMessage.class).getSequence());
+
+        // The second game is not touched by the first
+        Assertions.assertNull(received.get(players.get(2)).poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Test method for {@link com.chess.session.SessionManager#createSession(GameTime)}.
+     */
+    @Test
+    public void testSpectators() throws IOException, InterruptedException {
+        final int id = manager.createSession(new GameTime(1, 0, 0));
+        final NetworkClient[] clients = new NetworkClient[3];
+
+        for (int i = 0; i < clients.length; i++) {
+            clients[i] = connect();
+            clients[i].sendMessage(new JoinSessionMessage(id));
+            clients[i].sendMessage(new SyncRequestMessage(0, 0, 0));
+
+            Assertions.assertEquals(id, joined(clients[i]));
+
+            if (i < 2) {
+                next(clients[i], SetTeamMessage.class);
+            }
+
+            next(clients[i], LoadGameMessage.class);
+        }
+
+        // The spectator may not move for white
+        move(clients[2], "e2", "e4", 1);
+        next(clients[2], RejectMoveMessage.class);
+
+        move(clients[0], "g1", "f3", 1);
+
+        for (NetworkClient client : clients) {
+            Assertions.assertEquals(ChessTypeIdentifier.KNIGHT, next(client, AffirmMoveMessage.class).getPieceType());
+        }
+
+        final NetworkClient stranger = connect();
+
+        stranger.sendMessage(new JoinSessionMessage(id + 1));
+
+        Assertions.assertEquals(SessionManager.NO_SESSION, joined(stranger));
+    }
+
+    /**
+     * Test method for the clocks of {@link com.chess.session.SessionManager}.
+     */
+    @Test
+    public void testTimeout() throws IOException, InterruptedException {
+        final int id = manager.createSession(new GameTime(0, 0, 3));
+        final NetworkClient[] clients = new NetworkClient[2];
+        final BlockingQueue<Message> clocks = new LinkedBlockingQueue<>();
+
+        for (int i = 0; i < clients.length; i++) {
+            clients[i] = connect();
+            clients[i].sendMessage(new JoinSessionMessage(id));
+            clients[i].sendMessage(new SyncRequestMessage(0, 0, 0));
+
+            joined(clients[i]);
+            next(clients[i], SetTeamMessage.class);
+            next(clients[i], LoadGameMessage.class);
+        }
+
+        clients[1].setMessageDelegate(PauseGameMessage.class, clocks::add);
+        clients[1].setMessageDelegate(SyncMovesMessage.class, clocks::add);
+
+        // The first move starts the clock of black, who never moves
+        move(clients[0], "e2", "e4", 1);
+
+        Assertions.assertFalse(((PauseGameMessage) clocks.poll(5, TimeUnit.SECONDS)).isPaused());
+        Assertions.assertTrue(((PauseGameMessage) clocks.poll(5, TimeUnit.SECONDS)).isPaused());
+
+        final SyncMovesMessage ended = (SyncMovesMessage) clocks.poll(5, TimeUnit.SECONDS);
+
+        Assertions.assertNotNull(ended);
+        Assertions.assertTrue(ended.isPaused());
+        Assertions.assertEquals(0, ended.getBlackTime().toMillis());
+    }
+
+    /**
+     * Test method for the removal of abandoned games by {@link com.chess.session.SessionManager}.
+     */
+    @Test
+    public void testAbandoned() throws IOException, InterruptedException {
+        manager.stop();
+
+        server = new NioNetworkServer("127.0.0.1", 0, ChessProtocol.create(), 2);
+        manager = new SessionManager(server, 2, 5, 200);
+        manager.start();
+
+        final NetworkClient[] players = new NetworkClient[2];
+
+        for (int i = 0; i < players.length; i++) {
+            players[i] = connect();
+            players[i].sendMessage(new ClientReadyMessage());
+
+            joined(players[i]);
+            next(players[i], SetTeamMessage.class);
+        }
+
+        move(players[0], "e2", "e4", 1);
+        next(players[1], AffirmMoveMessage.class);
+
+        // The game is kept for a while after both players left in the middle of it
+        for (NetworkClient player : players) {
+            player.stop();
+        }
+
+        for (int i = 0; i < 50 && manager.getSessionCount() > 0; i++) {
+            Thread.sleep(100);
+        }
+
+        Assertions.assertEquals(0, manager.getSessionCount());
+    }
+}
@@ -0,0 +1,106 @@
+package com.chess;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import com.chess.control.GameSync;
+import com.chess.control.messages.ChessProtocol;
+import com.chess.control.messages.LoadGameMessage;
+import com.chess.control.messages.SyncMovesMessage;
+import com.chess.control.messages.SyncRequestMessage;
+import com.chess.model.chess.ChessModel;
+import com.chess.model.chess.ChessPosition;
+import com.chess.model.chess.ChessSaveFormat;
+import com.chess.network.Message;
+import com.chess.network.MessageProtocol;
+
+import org.junit.jupiter.api.*;
+
+public class Test_Network_Sync {
+    private static final int GAME_ID = 42;
+
+    private final MessageProtocol protocol = ChessProtocol.create();
+
+    private ChessModel host;
+
+    @BeforeEach
+    public void setUp() {
+        host = ModelGames.startGame();
+    }
+
+    /**
+     * Send a message through the protocol, as the host does.
+     */
+    private Message send(Message message) throws IOException {
+        return protocol.read(new ByteArrayInputStream(protocol.encode(message)));
+    }
+
+    /**
+     * Test method for {@link com.chess.control.GameSync#reply(ChessModel, int, SyncRequestMessage)}.
+     */
+    @Test
+    public void testMissingMoves() throws IOException {
+        ModelGames.play(host, "e2", "e4");
+        ModelGames.play(host, "e7", "e5");
+
+        // The client dropped here
+        final ChessPosition client = host.getPosition();
+        final SyncRequestMessage request = new SyncRequestMessage(GAME_ID, 2, client.getKey());
+
+        ModelGames.play(host, "g1", "f3");
+        ModelGames.play(host, "b8", "c6");
+        ModelGames.play(host, "f1", "c4");
+
+        final SyncMovesMessage reply = (SyncMovesMessage) send(GameSync.reply(host, GAME_ID, request));
+
+        Assertions.assertEquals(GAME_ID, reply.getGameId());
+        Assertions.assertEquals(2, reply.getFirstMove());
+        Assertions.assertEquals(3, reply.getMoves().length);
+        Assertions.assertEquals(host.getTeamWhite().getTime().toString(), reply.getWhiteTime().toString());
+
+        // The moves bring the client to the position of the host
+        ChessPosition position = client;
+
+        for (int move : reply.getMoves()) {
+            position = position.makeMove(ChessSaveFormat.unpackMove(position, move));
+        }
+
+        Assertions.assertEquals(host.getPositionKey(), position.getKey());
+
+        // Three moves and the clocks are much less than the game
+        Assertions.assertTrue(protocol.encode(reply).length * 4 < protocol.encode(new LoadGameMessage(host.getSerialModel(), GAME_ID)).length);
+    }
+
+    /**
+     * Test method for {@link com.chess.control.GameSync#reply(ChessModel, int, SyncRequestMessage)}.
+     */
+    @Test
+    public void testWholeGame() throws IOException {
+        ModelGames.play(host, "e2", "e4");
+
+        final long key = host.getPositionKey();
+
+        // A client without the game, with another game, or somewhere else in this one
+        for (SyncRequestMessage request : new SyncRequestMessage[] {
+            new SyncRequestMessage(0, 0, 0),
+            new SyncRequestMessage(GAME_ID + 1, 1, key),
+            new SyncRequestMessage(GAME_ID, 1, ChessPosition.START.getKey()),
+            new SyncRequestMessage(GAME_ID, 2, key)
+        }) {
+            final LoadGameMessage reply = (LoadGameMessage) send(GameSync.reply(host, GAME_ID, request));
+
+            Assertions.assertEquals(GAME_ID, reply.getGameId());
+            Assertions.assertEquals(host.toFEN(), reply.getModel().getFen());
+        }
+
+        // A client too far behind
+        for (int i = 0; i <= GameSync.MAX_SYNC_MOVES / 4; i++) {
+            ModelGames.play(host, "g8", "f6");
+            ModelGames.play(host, "g1", "f3");
+            ModelGames.play(host, "f6", "g8");
+            ModelGames.play(host, "f3", "g1");
+        }
+
+        Assertions.assertEquals(LoadGameMessage.class, GameSync.reply(host, GAME_ID, new SyncRequestMessage(GAME_ID, 1, key)).getClass());
+    }
+}
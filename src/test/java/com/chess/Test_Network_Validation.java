@@ -0,0 +1,91 @@
+package com.chess;
+
+import com.chess.control.MoveValidator;
+import com.chess.model.Position;
+import com.chess.model.chess.ChessModel;
+import com.chess.model.chess.ChessMoveEncoding;
+import com.chess.model.chess.ChessPerft;
+import com.chess.model.chess.ChessPosition;
+import com.chess.model.chess.ChessTypeIdentifier;
+
+import org.junit.jupiter.api.*;
+
+public class Test_Network_Validation {
+    private final MoveValidator validator = new MoveValidator(16);
+
+    private ChessModel model;
+
+    @BeforeEach
+    public void setUp() {
+        model = new ChessModel();
+    }
+
+    private int find(String from, String to) {
+        final Position fromCell = Position.of(from);
+        final Position toCell = Position.of(to);
+
+        return validator.findMove(model, fromCell.getRow(), fromCell.getCol(), toCell.getRow(), toCell.getCol());
+    }
+
+    /**
+     * Test method for {@link com.chess.control.MoveValidator#findMove(ChessModel, int, int, int, int)}.
+     */
+    @Test
+    public void testFindMove() {
+        model.loadFEN(ChessPerft.START_POSITION);
+
+        final int move = find("e2", "e4");
+
+        Assertions.assertEquals(ChessTypeIdentifier.PAWN, ChessMoveEncoding.toMove(move).getPieceType());
+        Assertions.assertFalse(ChessMoveEncoding.isCapture(move));
+
+        // Too far, the other team, and off the board
+        Assertions.assertEquals(MoveValidator.NO_MOVE, find("e2", "e5"));
+        Assertions.assertEquals(MoveValidator.NO_MOVE, find("e7", "e5"));
+        Assertions.assertEquals(MoveValidator.NO_MOVE, validator.findMove(model, 6, 4, 8, 4));
+
+        // The moves of a position are generated once
+        Assertions.assertEquals(20, validator.getLegalMoves(model).length);
+        Assertions.assertSame(validator.getLegalMoves(model), validator.getLegalMoves(model));
+        Assertions.assertSame(validator.getLegalMoves(model), validator.getLegalMoves(model.getPosition()));
+
+        // A pinned knight may not leave its king
+        model.loadFEN("4k3/4r3/8/8/8/8/4N3/4K3 w - - 0 1");
+
+        Assertions.assertEquals(MoveValidator.NO_MOVE, find("e2", "c3"));
+        Assertions.assertNotEquals(MoveValidator.NO_MOVE, find("e1", "d1"));
+    }
+
+    /**
+     * Test method for {@link com.chess.control.MoveValidator#getLegalMoves(ChessModel)}.
+     */
+    @Test
+    public void testPendingPromotion() {
+        model.loadFEN("8/P7/8/8/8/8/8/k6K w - - 0 1");
+
+        Assertions.assertTrue(ChessMoveEncoding.isPromotion(find("a7", "a8")));
+
+        // The pawn has moved, but is not promoted and the turn has not passed
+        model.movePiece(Position.of("a7"), Position.of("a8"));
+
+        Assertions.assertEquals(0, validator.getLegalMoves(model).length);
+    }
+
+    /**
+     * Test method for {@link com.chess.control.MoveValidator#getLegalMoves(ChessPosition)}.
+     */
+    @Test
+    public void testSnapshotKey() {
+        model.loadFEN(ChessPerft.START_POSITION);
+
+        final ChessPosition before = model.getPosition();
+
+        // The game moves on after the snapshot is taken
+        model.movePiece(Position.of("e2"), Position.of("e4"));
+
+        // The moves are kept under the key of the snapshot, not that of the game
+        Assertions.assertEquals(20, validator.getLegalMoves(before).length);
+        Assertions.assertNotEquals(MoveValidator.NO_MOVE, validator.findMove(before, 1, 4, 3, 4));
+        Assertions.assertSame(validator.getLegalMoves(before), validator.getLegalMoves(ChessPosition.fromFEN(ChessPerft.START_POSITION)));
+    }
+}